@@ -141,7 +141,7 @@ public class ExampleNamespace extends ManagedNamespaceWithLifecycle {
     ExampleNamespace(OpcUaServer server) {
         super(server, NAMESPACE_URI);
 
-        subscriptionModel = new SubscriptionModel(server, this);
+        subscriptionModel = new SubscriptionModel(server, this, getNodeManager());
         dictionaryManager = new DataTypeDictionaryManager(getNodeContext(), NAMESPACE_URI);
 
         getLifecycleManager().addLifecycle(dictionaryManager);
@@ -22,7 +22,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.bind.JAXBException;
@@ -37,6 +36,7 @@ import io.netty.buffer.Unpooled;
 import org.eclipse.milo.opcua.binaryschema.parser.BsdParser;
 import org.eclipse.milo.opcua.binaryschema.parser.CodecDescription;
 import org.eclipse.milo.opcua.binaryschema.parser.DictionaryDescription;
+import org.eclipse.milo.opcua.sdk.client.BrowseHelper;
 import org.eclipse.milo.opcua.sdk.client.OpcUaSession;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
@@ -46,7 +46,6 @@ import org.eclipse.milo.opcua.stack.core.types.DataTypeDictionary;
 import org.eclipse.milo.opcua.stack.core.types.OpcUaBinaryDataTypeDictionary;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
-import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
@@ -56,17 +55,11 @@ import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
-import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextRequest;
-import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextResponse;
-import org.eclipse.milo.opcua.stack.core.types.structured.BrowseRequest;
-import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResponse;
-import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
-import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
 import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
 import org.eclipse.milo.opcua.stack.core.util.Namespaces;
 import org.slf4j.Logger;
@@ -85,6 +78,8 @@ public class DataTypeDictionaryReader {
     private static final int PARTITION_SIZE = 64;
     private static final QualifiedName QN_DEFAULT_BINARY =
         new QualifiedName(0, "Default Binary");
+    private static final QualifiedName QN_DATA_TYPE_VERSION =
+        new QualifiedName(0, "DataTypeVersion");
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -102,7 +97,25 @@ public class DataTypeDictionaryReader {
         this.bsdParser = bsdParser;
     }
 
+    /**
+     * Read, parse, and create codecs for every DataTypeDictionary on the server.
+     *
+     * @return the {@link DataTypeDictionary}s that could be read and created.
+     */
     public CompletableFuture<List<DataTypeDictionary<?>>> readDataTypeDictionaries() {
+        return readDictionaryEntries().thenApply(this::createDataTypeDictionaries);
+    }
+
+    /**
+     * Read the raw bytes of every DataTypeDictionary on the server, along with the encoding and DataType NodeIds of
+     * the structures it describes, without parsing them.
+     * <p>
+     * This is everything {@link #createDataTypeDictionaries(List)} needs from the server, so the result can be kept
+     * and used to create the dictionaries again later without browsing the server.
+     *
+     * @return a {@link DictionaryEntry} for each DataTypeDictionary that could be read.
+     */
+    public CompletableFuture<List<DictionaryEntry>> readDictionaryEntries() {
         CompletableFuture<List<ReferenceDescription>> browseFuture = browseNode(new BrowseDescription(
             Identifiers.OPCBinarySchema_TypeSystem,
             BrowseDirection.Forward,
@@ -122,7 +135,7 @@ public class DataTypeDictionaryReader {
         return dictionaryNodeIds
             .thenApply(nodeIds ->
                 nodeIds
-                    .map(this::readDataTypeDictionary)
+                    .map(this::readDictionaryEntry)
                     .collect(Collectors.toList()))
             .thenCompose(FutureUtils::sequence)
             .thenApply(list ->
@@ -131,28 +144,79 @@ public class DataTypeDictionaryReader {
                     .collect(Collectors.toList()));
     }
 
-    private CompletableFuture<DataTypeDictionary<?>> readDataTypeDictionary(NodeId nodeId) {
+    /**
+     * Parse and create codecs for each of {@code entries}.
+     * <p>
+     * Entries that fail to parse are logged and left out.
+     *
+     * @param entries the {@link DictionaryEntry}s to create {@link DataTypeDictionary}s from.
+     * @return the {@link DataTypeDictionary}s that could be created.
+     */
+    public List<DataTypeDictionary<?>> createDataTypeDictionaries(List<DictionaryEntry> entries) {
+        List<DataTypeDictionary<?>> dictionaries = new ArrayList<>(entries.size());
+
+        for (DictionaryEntry entry : entries) {
+            try {
+                dictionaries.add(createDataTypeDictionary(entry));
+            } catch (Throwable t) {
+                logger.warn("Failed to create DataTypeDictionary nodeId={}", entry.getDictionaryNodeId(), t);
+            }
+        }
+
+        return dictionaries;
+    }
+
+    /**
+     * Browse the DataTypeVersion Property of each of {@code dictionaryNodeIds}, if it has one.
+     *
+     * @param dictionaryNodeIds the NodeIds of DataTypeDictionary Nodes.
+     * @return the NodeIds of the DataTypeVersion Properties found.
+     */
+    public CompletableFuture<List<NodeId>> browseDataTypeVersionNodeIds(List<NodeId> dictionaryNodeIds) {
+        List<BrowseDescription> browseDescriptions = dictionaryNodeIds.stream()
+            .map(nodeId -> new BrowseDescription(
+                nodeId,
+                BrowseDirection.Forward,
+                Identifiers.HasProperty,
+                false,
+                uint(NodeClass.Variable.getValue()),
+                uint(BrowseResultMask.All.getValue())
+            ))
+            .collect(Collectors.toList());
+
+        return browseNodes(browseDescriptions).thenApply(results ->
+            results.stream()
+                .flatMap(List::stream)
+                .filter(r -> QN_DATA_TYPE_VERSION.equals(r.getBrowseName()))
+                .flatMap(r -> opt2stream(r.getNodeId().toNodeId(stackClient.getNamespaceTable())))
+                .collect(Collectors.toList())
+        );
+    }
+
+    private CompletableFuture<DictionaryEntry> readDictionaryEntry(NodeId nodeId) {
         logger.debug("Reading DataTypeDictionary nodeId={}", nodeId);
 
         return readDataTypeDictionaryBytes(nodeId, DEFAULT_FRAGMENT_SIZE)
-            .thenCompose(bs -> createDataTypeDictionary(nodeId, bs))
+            .thenCompose(bs -> {
+                if (Identifiers.OpcUa_BinarySchema.equals(nodeId)) {
+                    // codecs in the built-in dictionary are registered using BuiltinDataTypeInfo
+                    return completedFuture(
+                        new DictionaryEntry(nodeId, bs, Collections.emptyMap(), Collections.emptyMap())
+                    );
+                } else {
+                    return readDictionaryEntry(nodeId, bs);
+                }
+            })
             .exceptionally(ex -> {
-                logger.warn("Failed to create DataTypeDictionary nodeId={}", nodeId, ex);
+                logger.warn("Failed to read DataTypeDictionary nodeId={}", nodeId, ex);
                 return null;
             });
     }
 
     CompletableFuture<ByteString> readDataTypeDictionaryBytes(NodeId nodeId, int fragmentSize) {
         if (Identifiers.OpcUa_BinarySchema.equals(nodeId)) {
-            try (InputStream inputStream =
-                     DataTypeDictionaryReader.class.getResourceAsStream("/Opc.Ua.Types.bsd")) {
-
-                assert inputStream != null;
-
-                //noinspection UnstableApiUsage
-                ByteString bs = ByteString.of(ByteStreams.toByteArray(inputStream));
-
-                return completedFuture(bs);
+            try {
+                return completedFuture(readBuiltinDataTypeDictionaryBytes());
             } catch (IOException e) {
                 return failedFuture(e);
             }
@@ -197,6 +261,20 @@ public class DataTypeDictionaryReader {
         }
     }
 
+    /**
+     * Read the built-in OPC UA DataTypeDictionary from the Opc.Ua.Types.bsd resource rather than the server.
+     */
+    static ByteString readBuiltinDataTypeDictionaryBytes() throws IOException {
+        try (InputStream inputStream =
+                 DataTypeDictionaryReader.class.getResourceAsStream("/Opc.Ua.Types.bsd")) {
+
+            assert inputStream != null;
+
+            //noinspection UnstableApiUsage
+            return ByteString.of(ByteStreams.toByteArray(inputStream));
+        }
+    }
+
     private CompletableFuture<ByteBuf> readFragments(
         NodeId nodeId, CompositeByteBuf fragmentBuffer, int fragmentSize, int index) {
 
@@ -263,33 +341,31 @@ public class DataTypeDictionaryReader {
         }, stackClient.getConfig().getExecutor());
     }
 
-    private CompletableFuture<DataTypeDictionary<?>> createDataTypeDictionary(NodeId dictionaryNodeId, ByteString bs) {
-        ByteArrayInputStream is = new ByteArrayInputStream(bs.bytesOrEmpty());
+    private DataTypeDictionary<?> createDataTypeDictionary(DictionaryEntry entry) throws JAXBException {
+        ByteArrayInputStream is = new ByteArrayInputStream(entry.getDictionaryBytes().bytesOrEmpty());
 
-        try {
-            DictionaryDescription dictionaryDescription = bsdParser.parse(is);
+        DictionaryDescription dictionaryDescription = bsdParser.parse(is);
 
-            String namespaceUri = dictionaryDescription.getNamespaceUri();
-            OpcUaBinaryDataTypeDictionary dictionary = new OpcUaBinaryDataTypeDictionary(namespaceUri);
+        String namespaceUri = dictionaryDescription.getNamespaceUri();
+        OpcUaBinaryDataTypeDictionary dictionary = new OpcUaBinaryDataTypeDictionary(namespaceUri);
 
-            List<CodecDescription> enumCodecs = dictionaryDescription.getEnumCodecs();
-            enumCodecs.forEach(cd -> dictionary.registerEnumCodec(cd.getCodec(), cd.getDescription()));
-            logger.debug("enumCodecs.size()={}", enumCodecs.size());
+        List<CodecDescription> enumCodecs = dictionaryDescription.getEnumCodecs();
+        enumCodecs.forEach(cd -> dictionary.registerEnumCodec(cd.getCodec(), cd.getDescription()));
+        logger.debug("enumCodecs.size()={}", enumCodecs.size());
 
-            List<CodecDescription> structCodecs = dictionaryDescription.getStructCodecs();
-            logger.debug("structCodecs.size()={}", structCodecs.size());
+        List<CodecDescription> structCodecs = dictionaryDescription.getStructCodecs();
+        logger.debug("structCodecs.size()={}", structCodecs.size());
 
-            if (Namespaces.OPC_UA.equals(namespaceUri)) {
-                return registerBuiltinStructCodecs(dictionary, structCodecs);
-            } else {
-                return registerCustomStructCodecs(dictionaryNodeId, dictionary, structCodecs);
-            }
-        } catch (JAXBException e) {
-            return failedFuture(e);
+        if (Namespaces.OPC_UA.equals(namespaceUri)) {
+            registerBuiltinStructCodecs(dictionary, structCodecs);
+        } else {
+            registerCustomStructCodecs(entry, dictionary, structCodecs);
         }
+
+        return dictionary;
     }
 
-    private CompletableFuture<DataTypeDictionary<?>> registerBuiltinStructCodecs(
+    private void registerBuiltinStructCodecs(
         OpcUaBinaryDataTypeDictionary dictionary,
         List<CodecDescription> structCodecs
     ) {
@@ -311,16 +387,48 @@ public class DataTypeDictionaryReader {
                 logger.debug("no DataTypeInfo for builtin DataType \"{}\"", description);
             }
         });
-
-        return completedFuture(dictionary);
     }
 
-    private CompletableFuture<DataTypeDictionary<?>> registerCustomStructCodecs(
-        NodeId dictionaryNodeId,
+    private void registerCustomStructCodecs(
+        DictionaryEntry entry,
         OpcUaBinaryDataTypeDictionary dictionary,
         List<CodecDescription> structCodecs
     ) {
 
+        structCodecs.forEach(cd -> {
+            String description = cd.getDescription();
+            NodeId encodingId = entry.getEncodingIds().get(description);
+            NodeId dataTypeId = entry.getDataTypeIds().get(description);
+
+            if (encodingId == null || encodingId.isNull()) {
+                if (dataTypeId != null && dataTypeId.getNamespaceIndex().intValue() != 0) {
+                    logger.warn("encodingId is null for description={}", description);
+                } else {
+                    // Theres a number of missing structures in the built-in type dictionary;
+                    // namely the service request and response structures. It's expected that
+                    // we won't be able to create codecs for these.
+                    logger.debug(
+                        "dataTypeId and encodingId is null for description={}", description);
+                }
+            } else if (dataTypeId == null || dataTypeId.isNull()) {
+                logger.warn("dataTypeId is null for description={}", description);
+            } else {
+                dictionary.registerStructCodec(
+                    cd.getCodec(),
+                    description,
+                    dataTypeId,
+                    encodingId
+                );
+
+                logger.debug(
+                    "Registered codec description={} dataTypeId={} encodingId={}",
+                    description, dataTypeId, encodingId
+                );
+            }
+        });
+    }
+
+    private CompletableFuture<DictionaryEntry> readDictionaryEntry(NodeId dictionaryNodeId, ByteString bs) {
         CompletableFuture<List<NodeId>> descriptionNodeIds =
             browseDataTypeDescriptionNodeIds(dictionaryNodeId);
 
@@ -380,39 +488,7 @@ public class DataTypeDictionaryReader {
                             dataTypeIdMap.put(description, dataTypeIdIter.next());
                         }
 
-                        structCodecs.forEach(cd -> {
-                            String description = cd.getDescription();
-                            NodeId encodingId = encodingIdMap.get(description);
-                            NodeId dataTypeId = dataTypeIdMap.get(description);
-
-                            if (encodingId == null || encodingId.isNull()) {
-                                if (dataTypeId != null && dataTypeId.getNamespaceIndex().intValue() != 0) {
-                                    logger.warn("encodingId is null for description={}", description);
-                                } else {
-                                    // Theres a number of missing structures in the built-in type dictionary;
-                                    // namely the service request and response structures. It's expected that
-                                    // we won't be able to create codecs for these.
-                                    logger.debug(
-                                        "dataTypeId and encodingId is null for description={}", description);
-                                }
-                            } else if (dataTypeId == null || dataTypeId.isNull()) {
-                                logger.warn("dataTypeId is null for description={}", description);
-                            } else {
-                                dictionary.registerStructCodec(
-                                    cd.getCodec(),
-                                    description,
-                                    dataTypeId,
-                                    encodingId
-                                );
-
-                                logger.debug(
-                                    "Registered codec description={} dataTypeId={} encodingId={}",
-                                    description, dataTypeId, encodingId
-                                );
-                            }
-                        });
-
-                        return dictionary;
+                        return new DictionaryEntry(dictionaryNodeId, bs, encodingIdMap, dataTypeIdMap);
                     }
                 )
             )
@@ -481,17 +557,19 @@ public class DataTypeDictionaryReader {
     }
 
     private CompletableFuture<List<NodeId>> browseDataTypeEncodingNodeIds(List<NodeId> descriptionNodeIds) {
-        Stream<CompletableFuture<NodeId>> futures = descriptionNodeIds.stream().map(nodeId -> {
-            CompletableFuture<List<ReferenceDescription>> browse = browseNode(new BrowseDescription(
+        List<BrowseDescription> browseDescriptions = descriptionNodeIds.stream()
+            .map(nodeId -> new BrowseDescription(
                 nodeId,
                 BrowseDirection.Inverse,
                 Identifiers.HasDescription,
                 false,
                 uint(NodeClass.Object.getValue()),
                 uint(BrowseResultMask.All.getValue())
-            ));
+            ))
+            .collect(Collectors.toList());
 
-            return browse.thenApply(references -> {
+        return browseNodes(browseDescriptions).thenApply(results ->
+            results.stream().map(references -> {
                 Optional<ReferenceDescription> ref = references.stream()
                     .filter(r -> QN_DEFAULT_BINARY.equals(r.getBrowseName()) &&
                         Identifiers.DataTypeEncodingType.equalTo(r.getTypeDefinition()))
@@ -502,24 +580,24 @@ public class DataTypeDictionaryReader {
                         .toNodeId(stackClient.getNamespaceTable())
                         .orElse(NodeId.NULL_VALUE)
                 ).orElse(NodeId.NULL_VALUE);
-            });
-        });
-
-        return FutureUtils.sequence(futures);
+            }).collect(Collectors.toList())
+        );
     }
 
     private CompletableFuture<List<NodeId>> browseDataTypeIds(List<NodeId> dataTypeEncodingIds) {
-        Stream<CompletableFuture<NodeId>> futures = dataTypeEncodingIds.stream().map(nodeId -> {
-            CompletableFuture<List<ReferenceDescription>> browse = browseNode(new BrowseDescription(
+        List<BrowseDescription> browseDescriptions = dataTypeEncodingIds.stream()
+            .map(nodeId -> new BrowseDescription(
                 nodeId,
                 BrowseDirection.Inverse,
                 Identifiers.HasEncoding,
                 false,
                 uint(NodeClass.DataType.getValue()),
                 uint(BrowseResultMask.All.getValue())
-            ));
+            ))
+            .collect(Collectors.toList());
 
-            return browse.thenApply(references -> {
+        return browseNodes(browseDescriptions).thenApply(results ->
+            results.stream().map(references -> {
                 Optional<ReferenceDescription> ref = references.stream().findFirst();
 
                 return ref.map(r ->
@@ -527,82 +605,23 @@ public class DataTypeDictionaryReader {
                         .toNodeId(stackClient.getNamespaceTable())
                         .orElse(NodeId.NULL_VALUE)
                 ).orElse(NodeId.NULL_VALUE);
-            });
-        });
-
-        return FutureUtils.sequence(futures);
-    }
-
-    private CompletableFuture<List<ReferenceDescription>> browseNode(BrowseDescription browseDescription) {
-        RequestHeader requestHeader = stackClient.newRequestHeader(
-            session.getAuthenticationToken(),
-            stackClient.getConfig().getRequestTimeout()
-        );
-
-        BrowseRequest browseRequest = new BrowseRequest(
-            requestHeader,
-            new ViewDescription(NodeId.NULL_VALUE, DateTime.MIN_VALUE, uint(0)),
-            uint(0),
-            new BrowseDescription[]{browseDescription}
+            }).collect(Collectors.toList())
         );
-
-        return stackClient.sendRequest(browseRequest)
-            .thenApply(BrowseResponse.class::cast)
-            .thenApply(r -> Objects.requireNonNull(r.getResults())[0])
-            .thenCompose(result -> {
-                List<ReferenceDescription> references =
-                    Collections.synchronizedList(new ArrayList<>());
-
-                return maybeBrowseNext(result, references);
-            });
     }
 
-    private CompletionStage<List<ReferenceDescription>> maybeBrowseNext(
-        BrowseResult result,
-        List<ReferenceDescription> references) {
-
-        if (result.getStatusCode().isGood()) {
-            ReferenceDescription[] rds = result.getReferences();
-            if (rds != null) Collections.addAll(references, rds);
-
-            ByteString continuationPoint = result.getContinuationPoint();
-
-            if (continuationPoint.isNotNull()) {
-                logger.debug("Continuation point was non-null; calling BrowseNext");
-
-                return browseNextAsync(continuationPoint, references);
-            } else {
-                logger.debug("Browse finished with {} references", references.size());
-
-                return completedFuture(references);
-            }
-        } else {
-            return completedFuture(references);
-        }
+    private CompletableFuture<List<ReferenceDescription>> browseNode(BrowseDescription browseDescription) {
+        return BrowseHelper.browse(stackClient, session, browseDescription, uint(0));
     }
 
-    private CompletableFuture<List<ReferenceDescription>> browseNextAsync(
-        ByteString continuationPoint,
-        List<ReferenceDescription> references) {
-
-        RequestHeader requestHeader = stackClient.newRequestHeader(
-            session.getAuthenticationToken(),
-            stackClient.getConfig().getRequestTimeout()
-        );
-
-        BrowseNextRequest request = new BrowseNextRequest(
-            requestHeader,
-            false,
-            new ByteString[]{continuationPoint}
-        );
-
-        return stackClient.sendRequest(request)
-            .thenApply(BrowseNextResponse.class::cast)
-            .thenCompose(response -> {
-                BrowseResult result = l(response.getResults()).get(0);
+    /**
+     * Browse all of {@code browseDescriptions} together, in as few requests as the server's
+     * operation limits allow.
+     */
+    private CompletableFuture<List<List<ReferenceDescription>>> browseNodes(
+        List<BrowseDescription> browseDescriptions
+    ) {
 
-                return maybeBrowseNext(result, references);
-            });
+        return BrowseHelper.browse(stackClient, session, browseDescriptions, uint(0));
     }
 
     private CompletableFuture<DataValue> readNode(ReadValueId readValueId) {
@@ -627,4 +646,47 @@ public class DataTypeDictionaryReader {
             .thenApply(r -> l(r.getResults()));
     }
 
+
+    /**
+     * The raw bytes of a DataTypeDictionary and the encoding and DataType NodeIds of the structures it describes,
+     * keyed by the name of each structure's DataTypeDescription.
+     */
+    public static class DictionaryEntry {
+
+        private final NodeId dictionaryNodeId;
+        private final ByteString dictionaryBytes;
+        private final Map<String, NodeId> encodingIds;
+        private final Map<String, NodeId> dataTypeIds;
+
+        public DictionaryEntry(
+            NodeId dictionaryNodeId,
+            ByteString dictionaryBytes,
+            Map<String, NodeId> encodingIds,
+            Map<String, NodeId> dataTypeIds
+        ) {
+
+            this.dictionaryNodeId = dictionaryNodeId;
+            this.dictionaryBytes = dictionaryBytes;
+            this.encodingIds = Collections.unmodifiableMap(encodingIds);
+            this.dataTypeIds = Collections.unmodifiableMap(dataTypeIds);
+        }
+
+        public NodeId getDictionaryNodeId() {
+            return dictionaryNodeId;
+        }
+
+        public ByteString getDictionaryBytes() {
+            return dictionaryBytes;
+        }
+
+        public Map<String, NodeId> getEncodingIds() {
+            return encodingIds;
+        }
+
+        public Map<String, NodeId> getDataTypeIds() {
+            return dataTypeIds;
+        }
+
+    }
+
 }
@@ -10,24 +10,66 @@
 
 package org.eclipse.milo.opcua.sdk.client.dtd;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import org.eclipse.milo.opcua.binaryschema.parser.BsdParser;
+import org.eclipse.milo.opcua.sdk.client.DataTypeCache;
 import org.eclipse.milo.opcua.sdk.client.OpcUaSession;
+import org.eclipse.milo.opcua.sdk.client.dtd.DataTypeDictionaryReader.DictionaryEntry;
 import org.eclipse.milo.opcua.sdk.client.session.SessionFsm;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.DataTypeDictionary;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Reads the server's DataTypeDictionaries and registers them with the client's dynamic DataTypeManager.
+ * <p>
+ * If a {@link DataTypeCache} is configured the dictionary bytes and the NodeIds their structures are registered
+ * under are loaded from it when the cached copy is still valid, and are stored to it after being read otherwise.
+ * The dictionaries are parsed again from the cached bytes either way; only the reads and browses are skipped.
+ */
 public class DataTypeDictionarySessionInitializer implements SessionFsm.SessionInitializer {
 
+    /**
+     * The name the DataTypeDictionaries are stored under in a {@link DataTypeCache}.
+     */
+    public static final String CACHE_ENTRY_NAME = "dataTypeDictionaries";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final BsdParser bsdParser;
+    private final DataTypeCache cache;
 
     public DataTypeDictionarySessionInitializer(BsdParser bsdParser) {
+        this(bsdParser, null);
+    }
+
+    /**
+     * @param bsdParser the {@link BsdParser} to parse dictionaries with.
+     * @param cache     the {@link DataTypeCache} to load dictionaries from and store them to, or {@code null} to
+     *                  always read them from the server.
+     */
+    public DataTypeDictionarySessionInitializer(BsdParser bsdParser, @Nullable DataTypeCache cache) {
         this.bsdParser = bsdParser;
+        this.cache = cache;
     }
 
     @Override
@@ -40,9 +82,24 @@ public class DataTypeDictionarySessionInitializer implements SessionFsm.SessionI
             bsdParser
         );
 
-        return reader.readDataTypeDictionaries()
-            .thenAccept(dictionaries ->
-                dictionaries.forEach(
+        CompletableFuture<List<DataTypeDictionary<?>>> dictionaries;
+
+        if (cache != null) {
+            dictionaries = cache.loadAsync(client, session, CACHE_ENTRY_NAME).thenCompose(payload -> {
+                Optional<List<DictionaryEntry>> cached = payload.flatMap(bs -> decodeSafe(client, bs));
+
+                return cached
+                    .map(CompletableFuture::completedFuture)
+                    .orElseGet(() -> readAndStore(client, session, reader))
+                    .thenApply(reader::createDataTypeDictionaries);
+            });
+        } else {
+            dictionaries = reader.readDataTypeDictionaries();
+        }
+
+        return dictionaries
+            .thenAccept(list ->
+                list.forEach(
                     client.getDynamicDataTypeManager()::registerTypeDictionary)
             )
             .thenApply(v -> Unit.VALUE)
@@ -52,4 +109,124 @@ public class DataTypeDictionarySessionInitializer implements SessionFsm.SessionI
             });
     }
 
+    private CompletableFuture<List<DictionaryEntry>> readAndStore(
+        UaStackClient client,
+        OpcUaSession session,
+        DataTypeDictionaryReader reader
+    ) {
+
+        return reader.readDictionaryEntries().thenCompose(entries -> {
+            List<NodeId> dictionaryNodeIds = entries.stream()
+                .map(DictionaryEntry::getDictionaryNodeId)
+                .collect(Collectors.toList());
+
+            CompletableFuture<List<NodeId>> versionNodeIds = reader.browseDataTypeVersionNodeIds(dictionaryNodeIds)
+                .thenCombine(
+                    DataTypeCache.browseNamespaceVersionNodeIds(client, session),
+                    (dataTypeVersionIds, namespaceVersionIds) -> {
+                        List<NodeId> nodeIds = new ArrayList<>(dataTypeVersionIds);
+                        nodeIds.addAll(namespaceVersionIds);
+                        return nodeIds;
+                    }
+                );
+
+            return versionNodeIds
+                .thenCompose(nodeIds -> cache.storeAsync(
+                    client,
+                    session,
+                    CACHE_ENTRY_NAME,
+                    nodeIds,
+                    encode(client.getStaticSerializationContext(), entries)
+                ))
+                .exceptionally(ex -> {
+                    logger.warn("Failed to store DataTypeDictionaries in cache", ex);
+                    return Unit.VALUE;
+                })
+                .thenApply(u -> entries);
+        });
+    }
+
+    private Optional<List<DictionaryEntry>> decodeSafe(UaStackClient client, ByteString payload) {
+        try {
+            return Optional.of(decode(client.getStaticSerializationContext(), payload));
+        } catch (Throwable t) {
+            logger.warn("Failed to decode cached DataTypeDictionaries", t);
+            return Optional.empty();
+        }
+    }
+
+    static ByteString encode(SerializationContext context, List<DictionaryEntry> entries) {
+        ByteBuf buffer = Unpooled.buffer();
+
+        try {
+            OpcUaBinaryStreamEncoder encoder = new OpcUaBinaryStreamEncoder(context).setBuffer(buffer);
+
+            encoder.writeInt32(entries.size());
+
+            for (DictionaryEntry entry : entries) {
+                encoder.writeNodeId(entry.getDictionaryNodeId());
+
+                if (Identifiers.OpcUa_BinarySchema.equals(entry.getDictionaryNodeId())) {
+                    // the built-in dictionary is loaded from a resource, not read from the server
+                    encoder.writeInt32(-1);
+                } else {
+                    // written raw rather than as a ByteString so it isn't subject to EncodingLimits
+                    byte[] bs = entry.getDictionaryBytes().bytesOrEmpty();
+                    encoder.writeInt32(bs.length);
+                    buffer.writeBytes(bs);
+                }
+
+                encoder.writeInt32(entry.getEncodingIds().size());
+                entry.getEncodingIds().forEach((description, encodingId) -> {
+                    encoder.writeString(description);
+                    encoder.writeNodeId(encodingId);
+                    encoder.writeNodeId(entry.getDataTypeIds().getOrDefault(description, NodeId.NULL_VALUE));
+                });
+            }
+
+            return ByteString.of(ByteBufUtil.getBytes(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    static List<DictionaryEntry> decode(SerializationContext context, ByteString payload) throws Exception {
+        ByteBuf buffer = Unpooled.wrappedBuffer(payload.bytesOrEmpty());
+
+        OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(context).setBuffer(buffer);
+
+        int entryCount = decoder.readInt32();
+        List<DictionaryEntry> entries = new ArrayList<>(entryCount);
+
+        for (int i = 0; i < entryCount; i++) {
+            NodeId dictionaryNodeId = decoder.readNodeId();
+
+            ByteString dictionaryBytes;
+            int length = decoder.readInt32();
+            if (length < 0) {
+                dictionaryBytes = DataTypeDictionaryReader.readBuiltinDataTypeDictionaryBytes();
+            } else if (length > buffer.readableBytes()) {
+                throw new IllegalStateException("truncated dictionary: " + dictionaryNodeId);
+            } else {
+                byte[] bs = new byte[length];
+                buffer.readBytes(bs);
+                dictionaryBytes = ByteString.of(bs);
+            }
+
+            int idCount = decoder.readInt32();
+            Map<String, NodeId> encodingIds = new HashMap<>(idCount);
+            Map<String, NodeId> dataTypeIds = new HashMap<>(idCount);
+
+            for (int j = 0; j < idCount; j++) {
+                String description = decoder.readString();
+                encodingIds.put(description, decoder.readNodeId());
+                dataTypeIds.put(description, decoder.readNodeId());
+            }
+
+            entries.add(new DictionaryEntry(dictionaryNodeId, dictionaryBytes, encodingIds, dataTypeIds));
+        }
+
+        return entries;
+    }
+
 }
@@ -10,6 +10,7 @@
 
 package org.eclipse.milo.opcua.sdk.client;
 
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -26,8 +27,10 @@ import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseDirection;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
 import org.junit.jupiter.api.Test;
 
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -111,6 +114,35 @@ public class AddressSpaceTest extends AbstractClientServerTest {
         assertTrue(nodes.stream().anyMatch(n -> n.getNodeId().equals(Identifiers.Server_EstimatedReturnTime)));
     }
 
+    @Test
+    public void browseMany() throws UaException {
+        AddressSpace addressSpace = client.getAddressSpace();
+
+        List<NodeId> nodeIds = Arrays.asList(
+            Identifiers.Server,
+            Identifiers.ObjectsFolder,
+            Identifiers.TypesFolder,
+            Identifiers.Server_ServerCapabilities
+        );
+
+        // 1 reference per node forces a BrowseNext round for every continuation point
+        BrowseOptions browseOptions = addressSpace.getBrowseOptions().copy(
+            b ->
+                b.setMaxReferencesPerNode(uint(1))
+        );
+
+        List<List<ReferenceDescription>> references = addressSpace.browse(nodeIds, browseOptions);
+
+        assertEquals(nodeIds.size(), references.size());
+
+        for (int i = 0; i < nodeIds.size(); i++) {
+            List<ReferenceDescription> expected = addressSpace.browse(nodeIds.get(i));
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, references.get(i));
+        }
+    }
+
     @Test
     public void browseWithNodeClassMask() throws UaException {
         AddressSpace addressSpace = client.getAddressSpace();
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.milo.opcua.sdk.core.DataTypeTree;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.eclipse.milo.opcua.sdk.test.AbstractClientServerTest;
+import org.eclipse.milo.opcua.sdk.test.TestServer;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseDirection;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
+import org.junit.jupiter.api.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Browses a server whose MaxNodesPerBrowse is smaller than the number of nodes browsed at once, and that only hands
+ * out a couple of continuation points at a time.
+ */
+public class BrowseHelperTest extends AbstractClientServerTest {
+
+    private static final int MAX_NODES_PER_BROWSE = 2;
+
+    @Override
+    protected OpcUaServer createServer() throws Exception {
+        return TestServer.create(builder -> builder.setLimits(new OpcUaServerConfigLimits() {
+            @Override
+            public UInteger getMaxNodesPerBrowse() {
+                return uint(MAX_NODES_PER_BROWSE);
+            }
+
+            @Override
+            public UShort getMaxBrowseContinuationPoints() {
+                return ushort(1);
+            }
+        }));
+    }
+
+    @Test
+    public void limitIsReadWhenNotYetKnown() throws Exception {
+        OpcUaSession session = client.getSession().get();
+        Object limits = session.removeAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY);
+
+        try {
+            List<List<ReferenceDescription>> references = BrowseHelper.browse(
+                client.getStackClient(),
+                session,
+                childrenOfRoot(MAX_NODES_PER_BROWSE * 3 + 1),
+                uint(0)
+            ).get();
+
+            assertChildrenOfRoot(references, MAX_NODES_PER_BROWSE * 3 + 1);
+        } finally {
+            session.setAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY, limits);
+        }
+    }
+
+    @Test
+    public void tooManyOperationsIsSplitAndRetried() throws Exception {
+        OpcUaSession session = client.getSession().get();
+        Object limits = session.setAttribute(
+            OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY,
+            OperationLimits.UNLIMITED
+        );
+
+        try {
+            List<List<ReferenceDescription>> references = BrowseHelper.browse(
+                client.getStackClient(),
+                session,
+                childrenOfRoot(MAX_NODES_PER_BROWSE * 3 + 1),
+                uint(0)
+            ).get();
+
+            assertChildrenOfRoot(references, MAX_NODES_PER_BROWSE * 3 + 1);
+        } finally {
+            session.setAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY, limits);
+        }
+    }
+
+    @Test
+    public void dataTypeTreeIsCompleteBeforeLimitsAreKnown() throws Exception {
+        OpcUaSession session = client.getSession().get();
+        Object limits = session.removeAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY);
+
+        try {
+            DataTypeTree tree = DataTypeTreeBuilder.build(client.getStackClient(), session);
+
+            assertEquals(Identifiers.Structure, tree.getTreeNode(Identifiers.XVType).getParent().getValue().getNodeId());
+            assertEquals(Identifiers.Double, tree.getTreeNode(Identifiers.Duration).getParent().getValue().getNodeId());
+            assertNotNull(tree.getDataType(Identifiers.ServerStatusDataType));
+            assertEquals(
+                Identifiers.ServerStatusDataType_Encoding_DefaultBinary,
+                tree.getBinaryEncodingId(Identifiers.ServerStatusDataType)
+            );
+        } finally {
+            session.setAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY, limits);
+        }
+    }
+
+    @Test
+    public void noContinuationPointsIsRetried() throws Exception {
+        OpcUaSession session = client.getSession().get();
+
+        List<ReferenceDescription> expected = BrowseHelper.browse(
+            client.getStackClient(),
+            session,
+            childrenOfServer(),
+            uint(0)
+        ).get();
+
+        // every node needs a continuation point, but the server only
+        // hands out a couple at a time
+        List<BrowseDescription> browseDescriptions = new ArrayList<>();
+        for (int i = 0; i < MAX_NODES_PER_BROWSE * 4; i++) {
+            browseDescriptions.add(childrenOfServer());
+        }
+
+        List<List<ReferenceDescription>> references = BrowseHelper.browse(
+            client.getStackClient(),
+            session,
+            browseDescriptions,
+            uint(1)
+        ).get();
+
+        assertEquals(browseDescriptions.size(), references.size());
+        for (List<ReferenceDescription> nodeReferences : references) {
+            assertEquals(expected, nodeReferences);
+        }
+    }
+
+    @Test
+    public void persistentFailureIsSurfaced() throws Exception {
+        OpcUaSession session = client.getSession().get();
+
+        // hold on to every continuation point the server will hand out
+        BrowseResponse held = client.browse(
+            new ViewDescription(NodeId.NULL_VALUE, DateTime.MIN_VALUE, uint(0)),
+            uint(1),
+            Arrays.asList(childrenOfServer(), childrenOfServer(), childrenOfServer())
+        ).get();
+
+        try {
+            ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> BrowseHelper.browse(client.getStackClient(), session, childrenOfServer(), uint(1)).get()
+            );
+
+            assertEquals(
+                StatusCodes.Bad_NoContinuationPoints,
+                UaException.extractStatusCode(e).map(StatusCode::getValue).orElse(0L)
+            );
+        } finally {
+            for (BrowseResult result : held.getResults()) {
+                ByteString continuationPoint = result.getContinuationPoint();
+
+                if (continuationPoint != null && continuationPoint.isNotNull()) {
+                    client.browseNext(true, Collections.singletonList(continuationPoint)).get();
+                }
+            }
+        }
+    }
+
+    private static BrowseDescription childrenOfServer() {
+        return new BrowseDescription(
+            Identifiers.Server,
+            BrowseDirection.Forward,
+            Identifiers.HierarchicalReferences,
+            true,
+            uint(0),
+            uint(BrowseResultMask.All.getValue())
+        );
+    }
+
+    private static List<BrowseDescription> childrenOfRoot(int count) {
+        NodeId[] nodeIds = new NodeId[]{Identifiers.ObjectsFolder, Identifiers.TypesFolder, Identifiers.ViewsFolder};
+
+        List<BrowseDescription> browseDescriptions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            browseDescriptions.add(new BrowseDescription(
+                nodeIds[i % nodeIds.length],
+                BrowseDirection.Inverse,
+                Identifiers.Organizes,
+                false,
+                uint(NodeClass.Object.getValue()),
+                uint(BrowseResultMask.All.getValue())
+            ));
+        }
+        return browseDescriptions;
+    }
+
+    private void assertChildrenOfRoot(List<List<ReferenceDescription>> references, int count) {
+        assertEquals(count, references.size());
+
+        for (List<ReferenceDescription> nodeReferences : references) {
+            assertEquals(1, nodeReferences.size());
+            assertEquals(
+                Identifiers.RootFolder,
+                nodeReferences.get(0).getNodeId().toNodeId(client.getNamespaceTable()).orElse(null)
+            );
+        }
+    }
+
+}
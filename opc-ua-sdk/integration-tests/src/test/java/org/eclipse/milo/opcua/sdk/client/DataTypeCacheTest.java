@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.milo.opcua.binaryschema.GenericBsdParser;
+import org.eclipse.milo.opcua.sdk.client.dtd.DataTypeDictionarySessionInitializer;
+import org.eclipse.milo.opcua.sdk.core.DataTypeTree;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.sdk.test.AbstractClientServerTest;
+import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
+import org.eclipse.milo.opcua.stack.core.serialization.UaResponseMessage;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseRequest;
+import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
+import org.eclipse.milo.opcua.stack.core.util.Namespaces;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataTypeCacheTest extends AbstractClientServerTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    public void storeAndLoad() throws Exception {
+        DataTypeCache cache = new DataTypeCache(cacheDirectory);
+        OpcUaSession session = client.getSession().get();
+
+        assertFalse(cache.loadAsync(client.getStackClient(), session, "test").get().isPresent());
+
+        ByteString payload = ByteString.of(new byte[]{1, 2, 3, 4});
+        cache.storeAsync(
+            client.getStackClient(),
+            session,
+            "test",
+            Collections.singletonList(Identifiers.Server_ServerStatus_BuildInfo_SoftwareVersion),
+            payload
+        ).get();
+
+        Optional<ByteString> loaded = cache.loadAsync(client.getStackClient(), session, "test").get();
+        assertTrue(loaded.isPresent());
+        assertEquals(payload, loaded.get());
+    }
+
+    @Test
+    public void entryIsDiscardedWhenUnversionedNamespaceMayHaveChanged() throws Exception {
+        DataTypeCache cache = new DataTypeCache(cacheDirectory);
+        OpcUaSession session = client.getSession().get();
+
+        // stands in for the version of namespace 0; the test namespace has no version Node
+        cache.storeAsync(
+            client.getStackClient(),
+            session,
+            "vendor",
+            Collections.singletonList(Identifiers.Server_ServerStatus_BuildInfo_SoftwareVersion),
+            ByteString.of(new byte[]{1, 2, 3, 4})
+        ).get();
+
+        assertTrue(cache.loadAsync(client.getStackClient(), session, "vendor").get().isPresent());
+
+        // a server restarted with a changed vendor namespace only has a new StartTime to show for it
+        UaVariableNode startTimeNode = (UaVariableNode) server.getAddressSpaceManager()
+            .getManagedNode(Identifiers.Server_ServerStatus_StartTime)
+            .orElseThrow(() -> new AssertionError("StartTime not found"));
+
+        DataValue startTime = startTimeNode.getValue();
+
+        try {
+            startTimeNode.setValue(new DataValue(new Variant(DateTime.now())));
+
+            assertFalse(cache.loadAsync(client.getStackClient(), session, "vendor").get().isPresent());
+        } finally {
+            startTimeNode.setValue(startTime);
+        }
+    }
+
+    @Test
+    public void dataTypeTreeIsLoadedFromCache() throws Exception {
+        DataTypeCache cache = new DataTypeCache(cacheDirectory);
+        OpcUaSession session = client.getSession().get();
+
+        DataTypeTreeSessionInitializer initializer = new DataTypeTreeSessionInitializer(cache);
+
+        initializer.initialize(client.getStackClient(), session).get();
+        DataTypeTree built = (DataTypeTree) session.getAttribute(DataTypeTreeSessionInitializer.SESSION_ATTRIBUTE_KEY);
+
+        assertEquals(1L, Files.list(cacheDirectory).count());
+        assertTrue(cache.loadAsync(
+            client.getStackClient(), session, DataTypeTreeSessionInitializer.CACHE_ENTRY_NAME).get().isPresent());
+
+        initializer.initialize(client.getStackClient(), session).get();
+        DataTypeTree loaded = (DataTypeTree) session.getAttribute(DataTypeTreeSessionInitializer.SESSION_ATTRIBUTE_KEY);
+
+        AtomicInteger builtCount = new AtomicInteger();
+        built.getTree().traverse(dataType -> {
+            builtCount.incrementAndGet();
+            assertEquals(dataType, loaded.getDataType(dataType.getNodeId()));
+        });
+
+        AtomicInteger loadedCount = new AtomicInteger();
+        loaded.getTree().traverse(dataType -> loadedCount.incrementAndGet());
+
+        assertEquals(builtCount.get(), loadedCount.get());
+        assertEquals(Identifiers.Structure, loaded.getTreeNode(Identifiers.XVType).getParent().getValue().getNodeId());
+    }
+
+    @Test
+    public void dataTypeTreeIsNotStoredWhenBrowseFails() throws Exception {
+        DataTypeCache cache = new DataTypeCache(cacheDirectory);
+        OpcUaSession session = client.getSession().get();
+
+        UaStackClient stackClient = client.getStackClient();
+
+        // fails every browse for DataType encodings, as a server out of resources might
+        UaStackClient failingClient = new UaStackClient(stackClient.getConfig(), c -> stackClient.getTransport()) {
+            @Override
+            public NamespaceTable getNamespaceTable() {
+                return stackClient.getNamespaceTable();
+            }
+
+            @Override
+            public CompletableFuture<UaResponseMessage> sendRequest(UaRequestMessage request) {
+                if (request instanceof BrowseRequest) {
+                    for (BrowseDescription description : ((BrowseRequest) request).getNodesToBrowse()) {
+                        if (Identifiers.HasEncoding.equals(description.getReferenceTypeId())) {
+                            return FutureUtils.failedFuture(new UaException(StatusCodes.Bad_ResourceUnavailable));
+                        }
+                    }
+                }
+                return stackClient.sendRequest(request);
+            }
+        };
+
+        new DataTypeTreeSessionInitializer(cache).initialize(failingClient, session).get();
+
+        DataTypeTree built = (DataTypeTree) session.getAttribute(DataTypeTreeSessionInitializer.SESSION_ATTRIBUTE_KEY);
+        // the session still gets the incomplete tree, but it isn't cached
+        assertNotNull(built);
+        assertNull(built.getDataType(Identifiers.ServerStatusDataType));
+
+        assertEquals(0L, Files.list(cacheDirectory).count());
+    }
+
+    @Test
+    public void dataTypeDictionariesAreLoadedFromCache() throws Exception {
+        DataTypeCache cache = new DataTypeCache(cacheDirectory);
+        OpcUaSession session = client.getSession().get();
+
+        DataTypeDictionarySessionInitializer initializer =
+            new DataTypeDictionarySessionInitializer(new GenericBsdParser(), cache);
+
+        initializer.initialize(client.getStackClient(), session).get();
+
+        assertTrue(cache.loadAsync(
+            client.getStackClient(), session, DataTypeDictionarySessionInitializer.CACHE_ENTRY_NAME).get().isPresent());
+
+        initializer.initialize(client.getStackClient(), session).get();
+
+        assertNotNull(client.getDynamicDataTypeManager().getDataTypeDictionary(Namespaces.OPC_UA));
+        assertNotNull(client.getDynamicDataTypeManager().getCodec(Identifiers.XVType_Encoding_DefaultBinary));
+    }
+
+}
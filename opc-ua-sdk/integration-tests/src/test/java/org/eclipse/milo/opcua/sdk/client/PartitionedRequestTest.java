@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.milo.opcua.sdk.test.AbstractClientServerTest;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseDirection;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.junit.jupiter.api.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionedRequestTest extends AbstractClientServerTest {
+
+    @Test
+    public void operationLimitsAreRead() throws Exception {
+        OperationLimits limits = client.getOperationLimits(client.getSession().get());
+
+        assertEquals(server.getConfig().getLimits().getMaxNodesPerRead(), limits.getMaxNodesPerRead());
+        assertEquals(server.getConfig().getLimits().getMaxNodesPerBrowse(), limits.getMaxNodesPerBrowse());
+        assertEquals(
+            server.getConfig().getLimits().getMaxMonitoredItemsPerCall(),
+            limits.getMaxMonitoredItemsPerCall()
+        );
+    }
+
+    @Test
+    public void browseMoreThanMaxNodesPerBrowse() throws Exception {
+        NodeId[] nodeIds = new NodeId[]{Identifiers.ObjectsFolder, Identifiers.TypesFolder, Identifiers.ViewsFolder};
+
+        int count = server.getConfig().getLimits().getMaxNodesPerBrowse().intValue() * 4 + 1;
+
+        List<BrowseDescription> nodesToBrowse = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodesToBrowse.add(new BrowseDescription(
+                nodeIds[i % nodeIds.length],
+                BrowseDirection.Inverse,
+                Identifiers.Organizes,
+                false,
+                uint(NodeClass.Object.getValue()),
+                uint(BrowseResultMask.All.getValue())
+            ));
+        }
+
+        List<BrowseResult> results = client.browse(nodesToBrowse).get();
+        assertEquals(count, results.size());
+
+        for (BrowseResult result : results) {
+            assertTrue(result.getStatusCode().isGood());
+            assertEquals(1, result.getReferences().length);
+
+            // every child of the Root folder browses back to it
+            assertEquals(
+                Identifiers.RootFolder,
+                result.getReferences()[0].getNodeId().toNodeId(client.getNamespaceTable()).orElse(null)
+            );
+        }
+    }
+
+    @Test
+    public void readMoreThanMaxNodesPerRead() throws Exception {
+        int count = server.getConfig().getLimits().getMaxNodesPerRead().intValue() * 2 + 1;
+
+        List<ReadValueId> nodesToRead = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodesToRead.add(new ReadValueId(
+                i % 2 == 0 ? Identifiers.ObjectsFolder : Identifiers.TypesFolder,
+                AttributeId.BrowseName.uid(),
+                null,
+                QualifiedName.NULL_VALUE
+            ));
+        }
+
+        ReadResponse response = client.read(0.0, TimestampsToReturn.Neither, nodesToRead).get();
+
+        DataValue[] results = response.getResults();
+        assertEquals(count, results.length);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(new QualifiedName(0, i % 2 == 0 ? "Objects" : "Types"), results[i].getValue().getValue());
+        }
+    }
+
+}
@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.sdk.client.subscriptions;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
 import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscriptionManager.SubscriptionListener;
@@ -22,6 +23,9 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -62,4 +66,49 @@ public class SubscriptionWatchdogTimerTest extends AbstractSubscriptionTest {
         assertTrue(latch.await(15, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testWatchdogTimerIsRearmedWhileKeepAlivesArrive() throws Exception {
+        // keep-alives every 150ms, watchdog timer after 2 * 150ms * 3 = 900ms
+        UaSubscription subscription = client.getSubscriptionManager().createSubscription(
+            50.0,
+            uint(30),
+            uint(3),
+            uint(0),
+            true,
+            ubyte(0)
+        ).get();
+
+        UInteger subscriptionId = subscription.getSubscriptionId();
+
+        AtomicInteger elapsedCount = new AtomicInteger();
+        CountDownLatch elapsed = new CountDownLatch(1);
+
+        SubscriptionListener listener = new SubscriptionListener() {
+            @Override
+            public void onSubscriptionWatchdogTimerElapsed(UaSubscription s) {
+                if (s.getSubscriptionId().equals(subscriptionId)) {
+                    elapsedCount.incrementAndGet();
+                    elapsed.countDown();
+                }
+            }
+        };
+
+        client.getSubscriptionManager().addSubscriptionListener(listener);
+
+        try {
+            // the pending timeout fires several times, finds a recent
+            // keep-alive each time, and re-arms for the remaining time
+            Thread.sleep(3000);
+            assertEquals(0, elapsedCount.get());
+
+            // once nothing arrives any more it elapses
+            server.getSubscriptions().get(subscriptionId).deleteSubscription();
+
+            assertTrue(elapsed.await(5, TimeUnit.SECONDS));
+        } finally {
+            client.getSubscriptionManager().removeSubscriptionListener(listener);
+            client.getSubscriptionManager().deleteSubscription(subscriptionId).get();
+        }
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.milo.opcua.sdk.test.AbstractClientServerTest;
+import org.eclipse.milo.opcua.sdk.test.TestServer;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a server that limits concurrent requests, so requests go through the stack's scheduler.
+ */
+public class ServiceRequestSchedulingTest extends AbstractClientServerTest {
+
+    @Override
+    protected OpcUaServer createServer() throws Exception {
+        return TestServer.create(builder -> builder.setMaxConcurrentRequests(1));
+    }
+
+    @Test
+    public void concurrentRequestsAreAllServed() throws Exception {
+        List<CompletableFuture<DataValue>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            futures.add(client.readValue(0.0, TimestampsToReturn.Neither, Identifiers.Server_ServerStatus_State));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        for (CompletableFuture<DataValue> future : futures) {
+            assertTrue(future.get().getStatusCode().isGood());
+        }
+    }
+
+    @Test
+    public void sessionTokenIsOnlyRecognizedOnItsSecureChannel() throws Exception {
+        SessionManager sessionManager = server.getSessionManager();
+
+        NodeId authToken = client.getSession().get().getAuthenticationToken();
+
+        assertEquals(1, sessionManager.getAllSessions().size());
+        long secureChannelId = sessionManager.getAllSessions().get(0).getSecureChannelId();
+
+        assertTrue(sessionManager.isSessionToken(authToken, secureChannelId));
+        assertFalse(sessionManager.isSessionToken(authToken, secureChannelId + 1));
+        assertFalse(sessionManager.isSessionToken(new NodeId(0, UUID.randomUUID()), secureChannelId));
+    }
+
+}
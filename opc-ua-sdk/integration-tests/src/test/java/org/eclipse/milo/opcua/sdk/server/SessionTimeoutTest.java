@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.sdk.test.TestClient;
+import org.eclipse.milo.opcua.sdk.test.TestServer;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link Session} timeouts. Most tests create Sessions directly, so nothing but the test keeps them active.
+ */
+public class SessionTimeoutTest {
+
+    private OpcUaServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = TestServer.create();
+        server.startup().get();
+    }
+
+    @AfterEach
+    public void shutdownServer() throws Exception {
+        if (server != null) {
+            server.shutdown().get();
+        }
+    }
+
+    @Test
+    public void sessionExpiresWithoutActivity() throws Exception {
+        long timeoutCount = server.getDiagnosticsSummary().getSessionTimeoutCount().sum();
+
+        CountDownLatch closed = new CountDownLatch(1);
+        Session session = session(Duration.ofMillis(200));
+        session.addLifecycleListener((s, subscriptionsDeleted) -> closed.countDown());
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+
+        // the count is incremented after listeners are notified
+        Thread.sleep(100);
+        assertEquals(timeoutCount + 1, server.getDiagnosticsSummary().getSessionTimeoutCount().sum());
+    }
+
+    @Test
+    public void activityRearmsTimeout() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        Session session = session(Duration.ofMillis(300));
+        session.addLifecycleListener((s, subscriptionsDeleted) -> closed.countDown());
+
+        // the timeout fires several times while the Session is active,
+        // and each time is re-armed for the remaining time instead
+        for (int i = 0; i < 20; i++) {
+            session.updateLastActivity();
+            Thread.sleep(50);
+        }
+        assertFalse(closed.await(0, TimeUnit.MILLISECONDS));
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shutdownLeavesSessionsOpen() throws Exception {
+        OpcUaClient client = TestClient.create(server);
+        client.connect().get();
+
+        CountDownLatch closed = new CountDownLatch(1);
+        server.getSessionManager().addSessionListener(new SessionListener() {
+            @Override
+            public void onSessionClosed(Session session) {
+                closed.countDown();
+            }
+        });
+
+        try {
+            server.shutdown().get();
+
+            assertEquals(1, server.getSessionManager().getAllSessions().size());
+            assertFalse(closed.await(100, TimeUnit.MILLISECONDS));
+        } finally {
+            server = null;
+            client.disconnect();
+        }
+    }
+
+    @Test
+    public void sessionCreatedAfterLifecycleTimerStopsStillExpires() throws Exception {
+        // what a Session created concurrently with shutdown() sees
+        server.getLifecycleTimer().stop();
+
+        CountDownLatch closed = new CountDownLatch(1);
+        Session session = session(Duration.ofMillis(200));
+        session.addLifecycleListener((s, subscriptionsDeleted) -> closed.countDown());
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    private Session session(Duration timeout) {
+        return new Session(
+            server,
+            new NodeId(1, UUID.randomUUID()),
+            "test",
+            timeout,
+            null,
+            null,
+            UInteger.MAX,
+            null,
+            0L,
+            null
+        );
+    }
+
+}
@@ -29,7 +29,7 @@ public abstract class AbstractClientServerTest {
 
     @BeforeAll
     public void startClientAndServer() throws Exception {
-        server = TestServer.create();
+        server = createServer();
 
         testNamespace = new TestNamespace(server);
         testNamespace.startup();
@@ -42,6 +42,13 @@ public abstract class AbstractClientServerTest {
         client.connect().get();
     }
 
+    /**
+     * Create the server under test. Override to customize its configuration.
+     */
+    protected OpcUaServer createServer() throws Exception {
+        return TestServer.create();
+    }
+
     @AfterAll
     public void stopClientAndServer() throws ExecutionException, InterruptedException {
         client.disconnect().get();
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.subscriptions;
+
+import java.net.InetAddress;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.SubscriptionAcknowledgement;
+import org.eclipse.milo.opcua.stack.server.UaStackServer;
+import org.eclipse.milo.opcua.stack.server.UaStackServerConfig;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares {@link PublishQueue} with the previous {@link SynchronizedPublishQueue}.
+ * <p>
+ * Each operation hands a Publish request to the highest priority wait-listed Subscription, which then immediately
+ * wait-lists itself again, so the size of the wait list stays at {@code waitingSubscriptions}.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar PublishQueueBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PublishQueueBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int waitingSubscriptions;
+
+    @Param({"concurrent", "synchronized"})
+    public String queue;
+
+    private Handoff handoff;
+    private ServiceRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        UaStackServerConfig config = UaStackServerConfig.builder()
+            .setExecutor(MoreExecutors.newDirectExecutorService())
+            .build();
+
+        UaStackServer server = new UaStackServer(config);
+
+        RequestHeader header = new RequestHeader(
+            NodeId.NULL_VALUE,
+            DateTime.now(),
+            uint(0),
+            uint(0),
+            null,
+            uint(0),
+            null
+        );
+
+        request = new ServiceRequest(
+            server,
+            new PublishRequest(header, new SubscriptionAcknowledgement[0]),
+            new EndpointDescription(null, null, null, null, null, null, null, null),
+            0L,
+            InetAddress.getLoopbackAddress(),
+            null
+        );
+
+        if ("concurrent".equals(queue)) {
+            PublishQueue publishQueue = new PublishQueue();
+            handoff = new Handoff(publishQueue::addRequest, publishQueue::addSubscription);
+        } else {
+            SynchronizedPublishQueue publishQueue = new SynchronizedPublishQueue();
+            handoff = new Handoff(publishQueue::addRequest, publishQueue::addSubscription);
+        }
+
+        // Only needed to construct Subscriptions, not used while benchmarking.
+        OpcUaServerConfig opcUaServerConfig = mock(OpcUaServerConfig.class);
+        when(opcUaServerConfig.getLimits()).thenReturn(new OpcUaServerConfigLimits() {});
+        OpcUaServer opcUaServer = mock(OpcUaServer.class);
+        when(opcUaServer.getConfig()).thenReturn(opcUaServerConfig);
+        SubscriptionManager subscriptionManager = mock(SubscriptionManager.class);
+        when(subscriptionManager.getServer()).thenReturn(opcUaServer);
+
+        Random random = new Random(0L);
+
+        for (int i = 0; i < waitingSubscriptions; i++) {
+            Subscription subscription = new WaitingSubscription(
+                subscriptionManager,
+                uint(i),
+                random.nextInt(256),
+                handoff
+            );
+
+            handoff.addSubscription.accept(subscription);
+        }
+    }
+
+    @Benchmark
+    public void handoff() {
+        handoff.addRequest.accept(request);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void handoffContended() {
+        handoff.addRequest.accept(request);
+    }
+
+    /**
+     * A {@link Subscription} that wait-lists itself again as soon as it receives a Publish request.
+     */
+    private static class WaitingSubscription extends Subscription {
+
+        private final Handoff handoff;
+
+        WaitingSubscription(SubscriptionManager subscriptionManager, UInteger id, int priority, Handoff handoff) {
+            super(subscriptionManager, id, 1000.0, 10L, 30L, 0L, true, priority);
+
+            this.handoff = handoff;
+        }
+
+        @Override
+        void onPublish(ServiceRequest service) {
+            handoff.addSubscription.accept(this);
+        }
+
+    }
+
+    private static class Handoff {
+
+        final Consumer<ServiceRequest> addRequest;
+        final Consumer<Subscription> addSubscription;
+
+        Handoff(
+            Consumer<ServiceRequest> addRequest,
+            Consumer<Subscription> addSubscription
+        ) {
+
+            this.addRequest = addRequest;
+            this.addSubscription = addSubscription;
+        }
+
+    }
+
+}
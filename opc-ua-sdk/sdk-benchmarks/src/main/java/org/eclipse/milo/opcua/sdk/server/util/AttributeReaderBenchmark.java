@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.milo.opcua.sdk.core.AccessLevel;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares reading the Value attribute of {@code nodes} Variable nodes through {@link AttributeReader} with the
+ * previous read path in {@link LegacyAttributeReader}.
+ * <p>
+ * The values carry source and server timestamps so that, without an index range, the current path can return them
+ * without copying. Add {@code -prof gc} to compare allocation rates.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar AttributeReaderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AttributeReaderBenchmark {
+
+    @Param({"100"})
+    public int nodes;
+
+    @Param({"current", "legacy"})
+    public String reader;
+
+    @Param({"", "0:1"})
+    public String indexRange;
+
+    private AttributeContext context;
+    private UaVariableNode[] variableNodes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        OpcUaServer server = mock(OpcUaServer.class);
+        UaNodeContext nodeContext = mock(UaNodeContext.class);
+        when(nodeContext.getServer()).thenReturn(server);
+        when(nodeContext.getNodeManager()).thenReturn(mock(NodeManager.class));
+
+        context = new AttributeContext(server);
+
+        DateTime now = DateTime.now();
+
+        variableNodes = new UaVariableNode[nodes];
+
+        for (int i = 0; i < nodes; i++) {
+            variableNodes[i] = new UaVariableNode.UaVariableNodeBuilder(nodeContext)
+                .setNodeId(new NodeId(2, i))
+                .setBrowseName(new QualifiedName(2, "Variable" + i))
+                .setDisplayName(LocalizedText.english("Variable " + i))
+                .setDataType(Identifiers.Int32)
+                .setValue(new DataValue(new Variant(new int[]{i, i + 1, i + 2}), StatusCode.GOOD, now, now))
+                .setAccessLevel(AccessLevel.toValue(AccessLevel.READ_WRITE))
+                .setUserAccessLevel(AccessLevel.toValue(AccessLevel.READ_WRITE))
+                .build();
+        }
+    }
+
+    @Benchmark
+    public void readValues(Blackhole blackhole) {
+        String range = indexRange.isEmpty() ? null : indexRange;
+
+        if ("current".equals(reader)) {
+            for (UaVariableNode node : variableNodes) {
+                blackhole.consume(AttributeReader.readAttribute(
+                    context,
+                    node,
+                    AttributeId.Value,
+                    TimestampsToReturn.Both,
+                    range,
+                    null
+                ));
+            }
+        } else {
+            for (UaVariableNode node : variableNodes) {
+                blackhole.consume(LegacyAttributeReader.readAttribute(
+                    context,
+                    node,
+                    AttributeId.Value,
+                    TimestampsToReturn.Both,
+                    range
+                ));
+            }
+        }
+    }
+
+}
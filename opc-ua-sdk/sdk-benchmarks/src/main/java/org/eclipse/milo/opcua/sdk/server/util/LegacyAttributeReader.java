@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.Set;
+
+import org.eclipse.milo.opcua.sdk.core.AccessLevel;
+import org.eclipse.milo.opcua.sdk.core.NumericRange;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaServerNode;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.jetbrains.annotations.Nullable;
+
+import static org.eclipse.milo.opcua.sdk.server.util.AttributeUtil.getAccessLevels;
+import static org.eclipse.milo.opcua.sdk.server.util.AttributeUtil.getUserAccessLevels;
+
+/**
+ * The previous {@link AttributeReader} read path, trimmed to plain (non-structured) attribute values and kept as a
+ * baseline for {@link AttributeReaderBenchmark}.
+ * <p>
+ * Every read creates an internal {@link AttributeContext}, builds {@link AccessLevel} sets for the access checks,
+ * copies the value into a builder, and parses the index range.
+ */
+class LegacyAttributeReader {
+
+    private LegacyAttributeReader() {}
+
+    static DataValue readAttribute(
+        AttributeContext context,
+        UaServerNode node,
+        AttributeId attributeId,
+        @Nullable TimestampsToReturn timestamps,
+        @Nullable String indexRange) {
+
+        try {
+            AttributeContext internalContext = new AttributeContext(context.getServer());
+
+            NodeClass nodeClass = node.getNodeClass();
+
+            if (attributeId == AttributeId.Value && nodeClass == NodeClass.Variable) {
+                Set<AccessLevel> accessLevels = getAccessLevels(node, internalContext);
+                if (!accessLevels.contains(AccessLevel.CurrentRead)) {
+                    throw new UaException(StatusCodes.Bad_NotReadable);
+                }
+
+                Set<AccessLevel> userAccessLevels = getUserAccessLevels(node, context);
+                if (!userAccessLevels.contains(AccessLevel.CurrentRead)) {
+                    throw new UaException(StatusCodes.Bad_UserAccessDenied);
+                }
+            }
+
+            final DataValue.Builder dvb = node.getAttribute(context, attributeId).copy();
+
+            if (indexRange != null) {
+                NumericRange range = NumericRange.parse(indexRange);
+
+                Object valueAtRange = NumericRange.readFromValueAtRange(dvb.value, range);
+
+                dvb.setValue(new Variant(valueAtRange));
+            }
+
+            if (timestamps != null) {
+                dvb.applyTimestamps(attributeId, timestamps);
+            }
+
+            return dvb.build();
+        } catch (UaException e) {
+            return new DataValue(e.getStatusCode());
+        }
+    }
+
+}
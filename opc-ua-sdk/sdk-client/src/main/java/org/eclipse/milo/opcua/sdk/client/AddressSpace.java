@@ -453,7 +453,89 @@ public class AddressSpace {
      * completes exceptionally if a service-level error occurs.
      */
     public CompletableFuture<List<ReferenceDescription>> browseAsync(NodeId nodeId, BrowseOptions browseOptions) {
-        BrowseDescription browseDescription = new BrowseDescription(
+        BrowseDescription browseDescription = newBrowseDescription(nodeId, browseOptions);
+
+        return BrowseHelper.browse(client, browseDescription, browseOptions.getMaxReferencesPerNode());
+    }
+
+    /**
+     * Call the Browse service to get the references of several Nodes using the currently
+     * configured {@link BrowseOptions}.
+     *
+     * @param nodeIds the {@link NodeId}s of the Nodes to browse.
+     * @return a List of {@link ReferenceDescription}s for each Node, in the same order as {@code nodeIds}.
+     * @throws UaException if a service-level error occurs.
+     * @see #browseAsync(List, BrowseOptions)
+     */
+    public List<List<ReferenceDescription>> browse(List<NodeId> nodeIds) throws UaException {
+        return browse(nodeIds, getBrowseOptions());
+    }
+
+    /**
+     * Call the Browse service to get the references of several Nodes.
+     *
+     * @param nodeIds       the {@link NodeId}s of the Nodes to browse.
+     * @param browseOptions the {@link BrowseOptions} to browse with.
+     * @return a List of {@link ReferenceDescription}s for each Node, in the same order as {@code nodeIds}.
+     * @throws UaException if a service-level error occurs.
+     * @see #browseAsync(List, BrowseOptions)
+     */
+    public List<List<ReferenceDescription>> browse(
+        List<NodeId> nodeIds,
+        BrowseOptions browseOptions
+    ) throws UaException {
+
+        try {
+            return browseAsync(nodeIds, browseOptions).get();
+        } catch (ExecutionException | InterruptedException e) {
+            throw UaException.extract(e)
+                .orElse(new UaException(StatusCodes.Bad_UnexpectedError, e));
+        }
+    }
+
+    /**
+     * Call the Browse service to get the references of several Nodes using the currently
+     * configured {@link BrowseOptions}.
+     * <p>
+     * This call completes asynchronously.
+     *
+     * @param nodeIds the {@link NodeId}s of the Nodes to browse.
+     * @return a CompletableFuture that completes successfully with a List of references for each
+     * Node or completes exceptionally if a service-level error occurs.
+     * @see #browseAsync(List, BrowseOptions)
+     */
+    public CompletableFuture<List<List<ReferenceDescription>>> browseAsync(List<NodeId> nodeIds) {
+        return browseAsync(nodeIds, getBrowseOptions());
+    }
+
+    /**
+     * Call the Browse service to get the references of several Nodes.
+     * <p>
+     * All Nodes are browsed together, in as few Browse and BrowseNext requests as the server's
+     * operation limits allow, rather than one round trip per Node.
+     * <p>
+     * This call completes asynchronously.
+     *
+     * @param nodeIds       the {@link NodeId}s of the Nodes to browse.
+     * @param browseOptions the {@link BrowseOptions} to browse with.
+     * @return a CompletableFuture that completes successfully with a List of references for each
+     * Node, in the same order as {@code nodeIds}, or completes exceptionally if a service-level
+     * error occurs.
+     */
+    public CompletableFuture<List<List<ReferenceDescription>>> browseAsync(
+        List<NodeId> nodeIds,
+        BrowseOptions browseOptions
+    ) {
+
+        List<BrowseDescription> browseDescriptions = nodeIds.stream()
+            .map(nodeId -> newBrowseDescription(nodeId, browseOptions))
+            .collect(Collectors.toList());
+
+        return BrowseHelper.browse(client, browseDescriptions, browseOptions.getMaxReferencesPerNode());
+    }
+
+    private static BrowseDescription newBrowseDescription(NodeId nodeId, BrowseOptions browseOptions) {
+        return new BrowseDescription(
             nodeId,
             browseOptions.getBrowseDirection(),
             browseOptions.getReferenceTypeId(),
@@ -461,8 +543,6 @@ public class AddressSpace {
             browseOptions.getNodeClassMask(),
             uint(BrowseResultMask.All.getValue())
         );
-
-        return BrowseHelper.browse(client, browseDescription, browseOptions.getMaxReferencesPerNode());
     }
 
     /**
@@ -594,14 +674,7 @@ public class AddressSpace {
      * exceptionally if a service-level error occurs.
      */
     public CompletableFuture<List<? extends UaNode>> browseNodesAsync(NodeId nodeId, BrowseOptions browseOptions) {
-        BrowseDescription browseDescription = new BrowseDescription(
-            nodeId,
-            browseOptions.getBrowseDirection(),
-            browseOptions.getReferenceTypeId(),
-            browseOptions.isIncludeSubtypes(),
-            browseOptions.getNodeClassMask(),
-            uint(BrowseResultMask.All.getValue())
-        );
+        BrowseDescription browseDescription = newBrowseDescription(nodeId, browseOptions);
 
         CompletableFuture<List<ReferenceDescription>> browse = BrowseHelper.browse(
             client,
@@ -12,13 +12,20 @@ package org.eclipse.milo.opcua.sdk.client;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+import com.google.common.collect.Lists;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextRequest;
@@ -28,6 +35,8 @@ import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
+import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
+import org.eclipse.milo.opcua.stack.core.util.Unit;
 
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
@@ -35,9 +44,28 @@ import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
 /**
  * "Helper" functions for doing a Browse followed by as many BrowseNext calls as are necessary
  * to retrieve all the references.
+ * <p>
+ * Many nodes can be browsed at once; they are sent in as few BrowseRequests as the server's
+ * MaxNodesPerBrowse allows, and every continuation point returned in a round is followed up in
+ * a single BrowseNextRequest.
  */
 public class BrowseHelper {
 
+    /**
+     * The number of nodes to browse per request if the server's {@link OperationLimits} aren't known.
+     */
+    private static final UInteger DEFAULT_MAX_NODES_PER_BROWSE = uint(64);
+
+    /**
+     * The maximum number of Browse or BrowseNext requests outstanding at a time for a single call.
+     */
+    private static final int MAX_REQUESTS_IN_FLIGHT = 4;
+
+    /**
+     * The maximum number of times a node that failed with a retryable result is browsed.
+     */
+    private static final int MAX_ATTEMPTS = 4;
+
     private BrowseHelper() {}
 
     public static CompletableFuture<List<ReferenceDescription>> browse(
@@ -59,73 +87,405 @@ public class BrowseHelper {
         UInteger maxReferencesPerNode
     ) {
 
-        BrowseRequest browseRequest = new BrowseRequest(
-            client.newRequestHeader(
-                session.getAuthenticationToken(),
-                client.getConfig().getRequestTimeout()
-            ),
-            new ViewDescription(
-                NodeId.NULL_VALUE,
-                DateTime.MIN_VALUE,
-                uint(0)
-            ),
-            maxReferencesPerNode,
-            new BrowseDescription[]{browseDescription}
+        return browse(client, session, Collections.singletonList(browseDescription), maxReferencesPerNode)
+            .thenApply(references -> references.get(0));
+    }
+
+    public static CompletableFuture<List<List<ReferenceDescription>>> browse(
+        OpcUaClient client,
+        List<BrowseDescription> browseDescriptions,
+        UInteger maxReferencesPerNode
+    ) {
+
+        return client.getSession().thenCompose(
+            session ->
+                browse(client.getStackClient(), session, browseDescriptions, maxReferencesPerNode)
         );
+    }
 
-        return client.sendRequest(browseRequest).thenApply(BrowseResponse.class::cast).thenCompose(response -> {
-            BrowseResult result = response.getResults()[0];
+    /**
+     * Browse every node in {@code browseDescriptions}, following continuation points until all
+     * references have been retrieved.
+     * <p>
+     * A node whose Browse or BrowseNext result is not Good gets the references retrieved before
+     * the bad result, if any, unless the result is Bad_NoContinuationPoints or
+     * Bad_TooManyOperations, or the request it was part of failed outright. Those nodes are
+     * browsed again from the start once every other node is done, in smaller requests sent one at
+     * a time, and if they still fail after several attempts the returned future fails with the
+     * last failure's StatusCode. A request rejected with Bad_TooManyOperations is split in half
+     * and retried right away.
+     *
+     * @param client               a connected {@link UaStackClient}.
+     * @param session              an active {@link OpcUaSession}.
+     * @param browseDescriptions   the nodes to browse.
+     * @param maxReferencesPerNode the maximum number of references per node in each response.
+     * @return the references of each node, in the same order as {@code browseDescriptions}.
+     */
+    public static CompletableFuture<List<List<ReferenceDescription>>> browse(
+        UaStackClient client,
+        OpcUaSession session,
+        List<BrowseDescription> browseDescriptions,
+        UInteger maxReferencesPerNode
+    ) {
 
-            List<ReferenceDescription> references =
-                Collections.synchronizedList(new ArrayList<>());
+        List<List<ReferenceDescription>> references = new ArrayList<>(browseDescriptions.size());
+        for (int i = 0; i < browseDescriptions.size(); i++) {
+            references.add(new ArrayList<>());
+        }
 
-            return maybeBrowseNext(client, session, references, result);
+        if (browseDescriptions.isEmpty()) {
+            return CompletableFuture.completedFuture(references);
+        }
+
+        List<Integer> indices = new ArrayList<>(browseDescriptions.size());
+        for (int i = 0; i < browseDescriptions.size(); i++) {
+            indices.add(i);
+        }
+
+        return getMaxNodesPerBrowse(client, session)
+            .thenCompose(maxNodesPerBrowse -> browseAttempt(
+                client,
+                session,
+                browseDescriptions,
+                maxReferencesPerNode,
+                references,
+                indices,
+                maxNodesPerBrowse,
+                1
+            ))
+            .thenApply(v -> references);
+    }
+
+    /**
+     * Browse the nodes at {@code indices}, then browse any that failed again in a new attempt
+     * with half as many nodes per request.
+     * <p>
+     * The first attempt sends up to {@link #MAX_REQUESTS_IN_FLIGHT} requests at a time. Later
+     * attempts browse one partition at a time, following its continuation points before the next
+     * partition is sent, so at most {@code nodesPerCall} continuation points are held at once.
+     *
+     * @param indices      the index into {@code browseDescriptions} of each node to browse.
+     * @param nodesPerCall the maximum number of nodes per Browse or BrowseNext request, or 0 if
+     *                     there is no limit.
+     * @param attempt      the number of times these nodes have been browsed, including this one.
+     */
+    private static CompletableFuture<Unit> browseAttempt(
+        UaStackClient client,
+        OpcUaSession session,
+        List<BrowseDescription> browseDescriptions,
+        UInteger maxReferencesPerNode,
+        List<List<ReferenceDescription>> references,
+        List<Integer> indices,
+        UInteger nodesPerCall,
+        int attempt
+    ) {
+
+        Map<Integer, StatusCode> failed = new LinkedHashMap<>();
+
+        CompletableFuture<Unit> browsed;
+
+        if (attempt == 1) {
+            browsed = browseRound(
+                client,
+                session,
+                browseDescriptions,
+                maxReferencesPerNode,
+                references,
+                indices,
+                nodesPerCall,
+                MAX_REQUESTS_IN_FLIGHT,
+                failed
+            );
+        } else {
+            browsed = CompletableFuture.completedFuture(Unit.VALUE);
+
+            for (List<Integer> partition : Lists.partition(indices, nodesPerCall.intValue())) {
+                browsed = browsed.thenCompose(v -> browseRound(
+                    client,
+                    session,
+                    browseDescriptions,
+                    maxReferencesPerNode,
+                    references,
+                    partition,
+                    nodesPerCall,
+                    1,
+                    failed
+                ));
+            }
+        }
+
+        return browsed.thenCompose(v -> {
+            if (failed.isEmpty()) {
+                return CompletableFuture.completedFuture(Unit.VALUE);
+            }
+
+            StatusCode lastFailure = null;
+            for (StatusCode statusCode : failed.values()) {
+                lastFailure = statusCode;
+            }
+
+            if (attempt >= MAX_ATTEMPTS) {
+                return FutureUtils.failedFuture(new UaException(
+                    lastFailure,
+                    String.format("browse failed for %d node(s) after %d attempts", failed.size(), attempt)
+                ));
+            }
+
+            List<Integer> retry = new ArrayList<>(failed.keySet());
+            retry.forEach(index -> references.get(index).clear());
+
+            long lastCallSize = nodesPerCall.longValue() == 0 ?
+                indices.size() : Math.min(nodesPerCall.longValue(), indices.size());
+
+            return browseAttempt(
+                client,
+                session,
+                browseDescriptions,
+                maxReferencesPerNode,
+                references,
+                retry,
+                uint(Math.max(1L, Math.min(lastCallSize, retry.size()) / 2)),
+                attempt + 1
+            );
         });
     }
 
-    private static CompletableFuture<List<ReferenceDescription>> maybeBrowseNext(
+    /**
+     * Browse the nodes at {@code indices} and follow their continuation points until every node
+     * is done or has failed.
+     *
+     * @param indices      the index into {@code browseDescriptions} of each node to browse.
+     * @param nodesPerCall the maximum number of nodes per Browse or BrowseNext request, or 0 if
+     *                     there is no limit.
+     * @param maxInFlight  the maximum number of requests outstanding at a time.
+     * @param failed       the nodes to browse again, and the StatusCode they failed with.
+     */
+    private static CompletableFuture<Unit> browseRound(
         UaStackClient client,
         OpcUaSession session,
-        List<ReferenceDescription> references,
-        BrowseResult result
+        List<BrowseDescription> browseDescriptions,
+        UInteger maxReferencesPerNode,
+        List<List<ReferenceDescription>> references,
+        List<Integer> indices,
+        UInteger nodesPerCall,
+        int maxInFlight,
+        Map<Integer, StatusCode> failed
     ) {
 
-        if (result.getStatusCode().isGood()) {
-            references.addAll(l(result.getReferences()));
+        List<BrowseDescription> roundDescriptions = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            roundDescriptions.add(browseDescriptions.get(index));
+        }
 
-            ByteString nextContinuationPoint = result.getContinuationPoint();
+        CompletableFuture<List<BrowseResult>> results = PartitionedRequest.send(
+            roundDescriptions,
+            nodesPerCall,
+            maxInFlight,
+            partition -> sendSplitting(partition, p -> {
+                BrowseRequest browseRequest = new BrowseRequest(
+                    client.newRequestHeader(
+                        session.getAuthenticationToken(),
+                        client.getConfig().getRequestTimeout()
+                    ),
+                    new ViewDescription(
+                        NodeId.NULL_VALUE,
+                        DateTime.MIN_VALUE,
+                        uint(0)
+                    ),
+                    maxReferencesPerNode,
+                    p.toArray(new BrowseDescription[0])
+                );
 
-            if (nextContinuationPoint == null || nextContinuationPoint.isNull()) {
-                return CompletableFuture.completedFuture(references);
-            } else {
-                return browseNext(client, session, nextContinuationPoint, references);
+                return client.sendRequest(browseRequest)
+                    .thenApply(BrowseResponse.class::cast)
+                    .thenApply(response -> l(response.getResults()));
+            }),
+            BrowseHelper::flatten
+        );
+
+        return results.thenCompose(rs -> maybeBrowseNext(
+            client, session, nodesPerCall, maxInFlight, references, indices, rs, failed));
+    }
+
+    /**
+     * Add the references in {@code results} to the nodes they belong to and call BrowseNext for
+     * any continuation points returned.
+     *
+     * @param references the references of every node being browsed.
+     * @param indices    the index into {@code references} of the node each result belongs to.
+     * @param results    the results of the last Browse or BrowseNext round.
+     * @param failed     the nodes to browse again, and the StatusCode they failed with.
+     */
+    private static CompletableFuture<Unit> maybeBrowseNext(
+        UaStackClient client,
+        OpcUaSession session,
+        UInteger nodesPerCall,
+        int maxInFlight,
+        List<List<ReferenceDescription>> references,
+        List<Integer> indices,
+        List<BrowseResult> results,
+        Map<Integer, StatusCode> failed
+    ) {
+
+        List<Integer> nextIndices = new ArrayList<>();
+        List<ByteString> continuationPoints = new ArrayList<>();
+
+        for (int i = 0; i < results.size() && i < indices.size(); i++) {
+            BrowseResult result = results.get(i);
+            int index = indices.get(i);
+
+            if (result.getStatusCode().isGood()) {
+                references.get(index).addAll(l(result.getReferences()));
+
+                ByteString continuationPoint = result.getContinuationPoint();
+
+                if (continuationPoint != null && continuationPoint.isNotNull()) {
+                    nextIndices.add(index);
+                    continuationPoints.add(continuationPoint);
+                }
+            } else if (isRetryable(result)) {
+                failed.put(index, result.getStatusCode());
             }
+        }
+
+        if (continuationPoints.isEmpty()) {
+            return CompletableFuture.completedFuture(Unit.VALUE);
         } else {
-            return CompletableFuture.completedFuture(references);
+            return browseNext(client, session, nodesPerCall, maxInFlight, continuationPoints).thenCompose(
+                nextResults -> maybeBrowseNext(
+                    client, session, nodesPerCall, maxInFlight, references, nextIndices, nextResults, failed)
+            );
         }
     }
 
-    private static CompletableFuture<List<ReferenceDescription>> browseNext(
+    private static CompletableFuture<List<BrowseResult>> browseNext(
         UaStackClient client,
         OpcUaSession session,
-        ByteString continuationPoint,
-        List<ReferenceDescription> references
+        UInteger nodesPerCall,
+        int maxInFlight,
+        List<ByteString> continuationPoints
     ) {
 
-        BrowseNextRequest browseNextRequest = new BrowseNextRequest(
-            client.newRequestHeader(
-                session.getAuthenticationToken(),
-                client.getConfig().getRequestTimeout()
-            ),
-            false,
-            new ByteString[]{continuationPoint}
+        return PartitionedRequest.send(
+            continuationPoints,
+            nodesPerCall,
+            maxInFlight,
+            partition -> sendSplitting(partition, p -> {
+                BrowseNextRequest browseNextRequest = new BrowseNextRequest(
+                    client.newRequestHeader(
+                        session.getAuthenticationToken(),
+                        client.getConfig().getRequestTimeout()
+                    ),
+                    false,
+                    p.toArray(new ByteString[0])
+                );
+
+                return client.sendRequest(browseNextRequest)
+                    .thenApply(BrowseNextResponse.class::cast)
+                    .thenApply(response -> l(response.getResults()));
+            }),
+            BrowseHelper::flatten
         );
+    }
 
-        return client.sendRequest(browseNextRequest).thenApply(BrowseNextResponse.class::cast).thenCompose(response -> {
-            BrowseResult result = response.getResults()[0];
+    /**
+     * @return {@code true} if the node {@code result} belongs to should be browsed again, because
+     * the server was out of continuation points or operations, or the request failed outright.
+     */
+    private static boolean isRetryable(BrowseResult result) {
+        long statusCode = result.getStatusCode().getValue();
+
+        return result instanceof FailedRequestResult ||
+            statusCode == StatusCodes.Bad_NoContinuationPoints ||
+            statusCode == StatusCodes.Bad_TooManyOperations;
+    }
+
+    /**
+     * Send {@code operations}, splitting them in half and trying again if the server rejects the
+     * request with Bad_TooManyOperations.
+     * <p>
+     * Any other failure results in a {@link FailedRequestResult} with the failure's StatusCode
+     * for each operation.
+     */
+    private static <T> CompletableFuture<List<BrowseResult>> sendSplitting(
+        List<T> operations,
+        Function<List<T>, CompletableFuture<List<BrowseResult>>> send
+    ) {
+
+        CompletableFuture<List<BrowseResult>> response;
+        try {
+            response = send.apply(operations);
+        } catch (Throwable t) {
+            response = FutureUtils.failedFuture(t);
+        }
+
+        return response.handle((results, ex) -> {
+            if (ex == null) {
+                return CompletableFuture.completedFuture(results);
+            }
+
+            StatusCode statusCode = UaException.extractStatusCode(ex)
+                .orElse(new StatusCode(StatusCodes.Bad_UnexpectedError));
+
+            if (operations.size() > 1 && statusCode.getValue() == StatusCodes.Bad_TooManyOperations) {
+                int half = operations.size() / 2;
+
+                return sendSplitting(operations.subList(0, half), send).thenCombine(
+                    sendSplitting(operations.subList(half, operations.size()), send),
+                    (first, second) -> {
+                        List<BrowseResult> combined = new ArrayList<>(first);
+                        combined.addAll(second);
+                        return combined;
+                    }
+                );
+            }
+
+            List<BrowseResult> failed = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                failed.add(new FailedRequestResult(statusCode));
+            }
+
+            return CompletableFuture.completedFuture(failed);
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * Get the server's MaxNodesPerBrowse, reading it now if the {@link OperationLimits} haven't
+     * been stored on {@code session} yet, e.g. because this is called from another
+     * {@link org.eclipse.milo.opcua.sdk.client.session.SessionFsm.SessionInitializer}.
+     */
+    private static CompletableFuture<UInteger> getMaxNodesPerBrowse(UaStackClient client, OpcUaSession session) {
+        Object limits = session.getAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY);
+
+        if (limits instanceof OperationLimits) {
+            return CompletableFuture.completedFuture(((OperationLimits) limits).getMaxNodesPerBrowse());
+        } else {
+            return OperationLimits.readAsync(client, session)
+                .thenApply(operationLimits -> {
+                    session.setAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY, operationLimits);
+
+                    return operationLimits.getMaxNodesPerBrowse();
+                })
+                .exceptionally(ex -> DEFAULT_MAX_NODES_PER_BROWSE);
+        }
+    }
+
+    private static <T> List<T> flatten(List<List<T>> lists) {
+        List<T> flattened = new ArrayList<>();
+        lists.forEach(flattened::addAll);
+        return flattened;
+    }
+
+    /**
+     * The result given to each node of a Browse or BrowseNext request that failed outright, so
+     * it can be told apart from a bad result the server returned for the node itself.
+     */
+    private static class FailedRequestResult extends BrowseResult {
+
+        FailedRequestResult(StatusCode statusCode) {
+            super(statusCode, null, new ReferenceDescription[0]);
+        }
 
-            return maybeBrowseNext(client, session, references, result);
-        });
     }
 
 }
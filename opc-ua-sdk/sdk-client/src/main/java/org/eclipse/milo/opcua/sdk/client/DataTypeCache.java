@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseDirection;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.core.util.Unit;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
+
+/**
+ * An on-disk cache of type information read from a server, e.g. a {@link org.eclipse.milo.opcua.sdk.core.DataTypeTree}
+ * or the contents of its DataType dictionaries, so that a client reconnecting to a server it has seen before can
+ * revalidate what it already has with a single Read instead of walking the server's type system again.
+ * <p>
+ * Entries are keyed by the server's ApplicationUri and an entry name, and are stored one per file in the cache
+ * directory. Each entry records the server's NamespaceArray and the values of its "version" Nodes, e.g. the
+ * NamespaceVersion and NamespacePublicationDate of each NamespaceMetadata Object or the DataTypeVersion of a
+ * dictionary, as they were when it was stored. An entry is only returned if all of them still have the same value.
+ * <p>
+ * A version Node is taken to describe the namespace its NodeId is in. If any namespace in the NamespaceArray has no
+ * readable version Node the server's StartTime is recorded as well, so the entry is discarded whenever the server
+ * restarts.
+ */
+public class DataTypeCache {
+
+    private static final int MAGIC = 0x4d494c4f;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final QualifiedName NAMESPACE_VERSION = new QualifiedName(0, "NamespaceVersion");
+    private static final QualifiedName NAMESPACE_PUBLICATION_DATE = new QualifiedName(0, "NamespacePublicationDate");
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path directory;
+
+    /**
+     * Create a {@link DataTypeCache} that stores its entries in {@code directory}.
+     * <p>
+     * The directory is created when the first entry is stored if it doesn't exist.
+     *
+     * @param directory the directory to store cache entries in.
+     */
+    public DataTypeCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Load the entry named {@code name} for the server {@code session} is connected to and check, with a single
+     * Read, that it's still valid.
+     *
+     * @param client  a connected {@link UaStackClient}.
+     * @param session an active {@link OpcUaSession}.
+     * @param name    the name of the entry.
+     * @return the payload of the entry, or empty if there is no entry or it's no longer valid.
+     */
+    public CompletableFuture<Optional<ByteString>> loadAsync(
+        UaStackClient client,
+        OpcUaSession session,
+        String name
+    ) {
+
+        String applicationUri = getApplicationUri(client);
+        Path path = getPath(applicationUri, name);
+
+        CompletableFuture<Optional<Entry>> entryFuture = CompletableFuture.supplyAsync(
+            () -> readEntry(client, path, applicationUri),
+            client.getConfig().getExecutor()
+        );
+
+        return entryFuture.thenCompose(entry -> {
+            if (!entry.isPresent()) {
+                return CompletableFuture.completedFuture(Optional.<ByteString>empty());
+            }
+
+            Entry e = entry.get();
+
+            return readValidation(client, session, e.versionNodeIds).thenApply(validation -> {
+                if (Arrays.equals(e.namespaceArray, validation.namespaceArray) &&
+                    e.versionValues.equals(validation.versionValues)) {
+
+                    logger.debug("DataTypeCache hit: name={} applicationUri={}", name, applicationUri);
+
+                    return Optional.of(e.payload);
+                } else {
+                    logger.debug("DataTypeCache stale: name={} applicationUri={}", name, applicationUri);
+
+                    return Optional.<ByteString>empty();
+                }
+            });
+        }).exceptionally(ex -> {
+            logger.debug("DataTypeCache load failed: name={} applicationUri={}", name, applicationUri, ex);
+
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Store {@code payload} as the entry named {@code name} for the server {@code session} is connected to.
+     * <p>
+     * The current values of the server's NamespaceArray and {@code versionNodeIds} are read, in a single Read, and
+     * stored alongside it.
+     *
+     * @param client         a connected {@link UaStackClient}.
+     * @param session        an active {@link OpcUaSession}.
+     * @param name           the name of the entry.
+     * @param versionNodeIds the Nodes whose values must be unchanged for the entry to remain valid.
+     * @param payload        the payload to store.
+     * @return a {@link CompletableFuture} that completes when the entry has been written, or failed to be.
+     */
+    public CompletableFuture<Unit> storeAsync(
+        UaStackClient client,
+        OpcUaSession session,
+        String name,
+        List<NodeId> versionNodeIds,
+        ByteString payload
+    ) {
+
+        String applicationUri = getApplicationUri(client);
+        Path path = getPath(applicationUri, name);
+
+        return readValidation(client, session, versionNodeIds)
+            .thenApplyAsync(validation -> {
+                writeEntry(client, path, applicationUri, validation, payload);
+
+                logger.debug("DataTypeCache stored: name={} applicationUri={}", name, applicationUri);
+
+                return Unit.VALUE;
+            }, client.getConfig().getExecutor())
+            .exceptionally(ex -> {
+                logger.warn("DataTypeCache store failed: name={} applicationUri={}", name, applicationUri, ex);
+
+                return Unit.VALUE;
+            });
+    }
+
+    /**
+     * Browse the server's NamespaceMetadata Objects for the NamespaceVersion and NamespacePublicationDate Properties
+     * that identify the version of each namespace.
+     *
+     * @param client  a connected {@link UaStackClient}.
+     * @param session an active {@link OpcUaSession}.
+     * @return the NodeIds of the NamespaceVersion and NamespacePublicationDate Properties found, if any.
+     */
+    public static CompletableFuture<List<NodeId>> browseNamespaceVersionNodeIds(
+        UaStackClient client,
+        OpcUaSession session
+    ) {
+
+        BrowseDescription namespaces = new BrowseDescription(
+            Identifiers.Server_Namespaces,
+            BrowseDirection.Forward,
+            Identifiers.HasComponent,
+            false,
+            uint(NodeClass.Object.getValue()),
+            uint(BrowseResultMask.All.getValue())
+        );
+
+        return BrowseHelper.browse(client, session, namespaces, uint(0)).thenCompose(references -> {
+            List<BrowseDescription> properties = references.stream()
+                .map(r -> r.getNodeId().toNodeId(client.getNamespaceTable()))
+                .filter(Optional::isPresent)
+                .map(nodeId -> new BrowseDescription(
+                    nodeId.get(),
+                    BrowseDirection.Forward,
+                    Identifiers.HasProperty,
+                    false,
+                    uint(NodeClass.Variable.getValue()),
+                    uint(BrowseResultMask.All.getValue())
+                ))
+                .collect(Collectors.toList());
+
+            return BrowseHelper.browse(client, session, properties, uint(0));
+        }).thenApply(references ->
+            references.stream()
+                .flatMap(List::stream)
+                .filter(r -> NAMESPACE_VERSION.equals(r.getBrowseName()) ||
+                    NAMESPACE_PUBLICATION_DATE.equals(r.getBrowseName()))
+                .map(ReferenceDescription::getNodeId)
+                .map(xni -> xni.toNodeId(client.getNamespaceTable()))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Read the NamespaceArray, the StartTime, and {@code versionNodeIds} in a single Read.
+     * <p>
+     * Version Nodes that can't be read are left out. The StartTime is included if any namespace in the NamespaceArray
+     * is left without a readable version Node.
+     */
+    private CompletableFuture<Validation> readValidation(
+        UaStackClient client,
+        OpcUaSession session,
+        List<NodeId> versionNodeIds
+    ) {
+
+        List<ReadValueId> nodesToRead = new ArrayList<>();
+        nodesToRead.add(readValueId(Identifiers.Server_NamespaceArray));
+        nodesToRead.add(readValueId(Identifiers.Server_ServerStatus_StartTime));
+        versionNodeIds.forEach(nodeId -> nodesToRead.add(readValueId(nodeId)));
+
+        RequestHeader requestHeader = client.newRequestHeader(
+            session.getAuthenticationToken(),
+            client.getConfig().getRequestTimeout()
+        );
+
+        ReadRequest request = new ReadRequest(
+            requestHeader,
+            0.0,
+            TimestampsToReturn.Neither,
+            nodesToRead.toArray(new ReadValueId[0])
+        );
+
+        return client.sendRequest(request).thenApply(ReadResponse.class::cast).thenApply(response -> {
+            List<DataValue> results = l(response.getResults());
+
+            if (results.size() != nodesToRead.size()) {
+                throw new IllegalStateException(String.format(
+                    "results.size() != nodesToRead.size() (%s != %s)",
+                    results.size(), nodesToRead.size()
+                ));
+            }
+
+            String[] namespaceArray = (String[]) results.get(0).getValue().getValue();
+
+            List<NodeId> validNodeIds = new ArrayList<>();
+            List<Variant> validValues = new ArrayList<>();
+            Set<Integer> versionedNamespaces = new HashSet<>();
+
+            for (int i = 0; i < versionNodeIds.size(); i++) {
+                DataValue value = results.get(i + 2);
+
+                if (value.getStatusCode() == null || value.getStatusCode().isGood()) {
+                    NodeId nodeId = versionNodeIds.get(i);
+
+                    validNodeIds.add(nodeId);
+                    validValues.add(value.getValue());
+
+                    if (!nodeId.equals(Identifiers.Server_ServerStatus_StartTime)) {
+                        versionedNamespaces.add(nodeId.getNamespaceIndex().intValue());
+                    }
+                }
+            }
+
+            boolean anyUnversioned = namespaceArray == null;
+            for (int i = 0; !anyUnversioned && i < namespaceArray.length; i++) {
+                anyUnversioned = !versionedNamespaces.contains(i);
+            }
+
+            // an entry read back from disk already has the StartTime among its version Nodes
+            if (anyUnversioned && !validNodeIds.contains(Identifiers.Server_ServerStatus_StartTime)) {
+                validNodeIds.add(Identifiers.Server_ServerStatus_StartTime);
+                validValues.add(results.get(1).getValue());
+            }
+
+            return new Validation(namespaceArray, validNodeIds, validValues);
+        });
+    }
+
+    private Optional<Entry> readEntry(UaStackClient client, Path path, String applicationUri) {
+        if (!Files.exists(path)) {
+            logger.debug("DataTypeCache miss: {}", path);
+
+            return Optional.empty();
+        }
+
+        try {
+            ByteBuf buffer = Unpooled.wrappedBuffer(Files.readAllBytes(path));
+
+            OpcUaBinaryStreamDecoder decoder =
+                new OpcUaBinaryStreamDecoder(client.getStaticSerializationContext()).setBuffer(buffer);
+
+            if (decoder.readInt32() != MAGIC || decoder.readInt32() != FORMAT_VERSION) {
+                logger.debug("DataTypeCache entry has unknown format: {}", path);
+
+                return Optional.empty();
+            }
+
+            if (!applicationUri.equals(decoder.readString())) {
+                return Optional.empty();
+            }
+
+            String[] namespaceArray = decoder.readStringArray(null);
+
+            int versionCount = decoder.readInt32();
+            List<NodeId> versionNodeIds = new ArrayList<>(versionCount);
+            List<Variant> versionValues = new ArrayList<>(versionCount);
+            for (int i = 0; i < versionCount; i++) {
+                versionNodeIds.add(decoder.readNodeId());
+                versionValues.add(decoder.readVariant());
+            }
+
+            // the payload is written raw rather than as a ByteString so it isn't subject to EncodingLimits
+            int payloadLength = decoder.readInt32();
+            if (payloadLength < 0 || payloadLength > buffer.readableBytes()) {
+                logger.debug("DataTypeCache entry is truncated: {}", path);
+
+                return Optional.empty();
+            }
+            byte[] payloadBytes = new byte[payloadLength];
+            buffer.readBytes(payloadBytes);
+
+            ByteString payload = ByteString.of(payloadBytes);
+
+            return Optional.of(new Entry(namespaceArray, versionNodeIds, versionValues, payload));
+        } catch (Throwable t) {
+            logger.debug("DataTypeCache entry could not be read: {}", path, t);
+
+            return Optional.empty();
+        }
+    }
+
+    private void writeEntry(
+        UaStackClient client,
+        Path path,
+        String applicationUri,
+        Validation validation,
+        ByteString payload
+    ) {
+
+        ByteBuf buffer = Unpooled.buffer();
+
+        try {
+            OpcUaBinaryStreamEncoder encoder =
+                new OpcUaBinaryStreamEncoder(client.getStaticSerializationContext()).setBuffer(buffer);
+
+            encoder.writeInt32(MAGIC);
+            encoder.writeInt32(FORMAT_VERSION);
+            encoder.writeString(applicationUri);
+            encoder.writeStringArray(null, validation.namespaceArray);
+
+            encoder.writeInt32(validation.versionNodeIds.size());
+            for (int i = 0; i < validation.versionNodeIds.size(); i++) {
+                encoder.writeNodeId(validation.versionNodeIds.get(i));
+                encoder.writeVariant(validation.versionValues.get(i));
+            }
+
+            byte[] payloadBytes = payload.bytesOrEmpty();
+            encoder.writeInt32(payloadBytes.length);
+            buffer.writeBytes(payloadBytes);
+
+            byte[] bs = ByteBufUtil.getBytes(buffer);
+
+            Files.createDirectories(directory);
+
+            // write to a temporary file first so a concurrent load never sees a partially written entry
+            Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, bs);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private Path getPath(String applicationUri, String name) {
+        String key = Hashing.sha256().hashString(applicationUri, StandardCharsets.UTF_8).toString();
+
+        return directory.resolve(String.format("%s-%s.bin", key.substring(0, 32), name));
+    }
+
+    private static String getApplicationUri(UaStackClient client) {
+        String applicationUri = client.getConfig().getEndpoint().getServer().getApplicationUri();
+
+        return applicationUri != null ? applicationUri : client.getConfig().getEndpoint().getEndpointUrl();
+    }
+
+    private static ReadValueId readValueId(NodeId nodeId) {
+        return new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE);
+    }
+
+    private static class Validation {
+
+        final String[] namespaceArray;
+        final List<NodeId> versionNodeIds;
+        final List<Variant> versionValues;
+
+        Validation(String[] namespaceArray, List<NodeId> versionNodeIds, List<Variant> versionValues) {
+            this.namespaceArray = namespaceArray;
+            this.versionNodeIds = versionNodeIds;
+            this.versionValues = versionValues;
+        }
+
+    }
+
+    private static class Entry {
+
+        final String[] namespaceArray;
+        final List<NodeId> versionNodeIds;
+        final List<Variant> versionValues;
+        final ByteString payload;
+
+        Entry(
+            @Nullable String[] namespaceArray,
+            List<NodeId> versionNodeIds,
+            List<Variant> versionValues,
+            ByteString payload
+        ) {
+
+            this.namespaceArray = namespaceArray;
+            this.versionNodeIds = Collections.unmodifiableList(versionNodeIds);
+            this.versionValues = Collections.unmodifiableList(versionValues);
+            this.payload = Objects.requireNonNull(payload);
+        }
+
+    }
+
+}
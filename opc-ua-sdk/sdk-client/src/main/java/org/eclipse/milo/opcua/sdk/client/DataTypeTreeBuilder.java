@@ -10,11 +10,11 @@
 
 package org.eclipse.milo.opcua.sdk.client;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Stream;
 
 import org.eclipse.milo.opcua.sdk.core.DataTypeTree;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
@@ -39,22 +39,21 @@ import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
-import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
 import org.eclipse.milo.opcua.stack.core.util.Tree;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
 
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 
 /**
- * Builds a {@link DataTypeTree} by recursively browsing the DataType hierarchy starting at
- * {@link Identifiers#BaseDataType}.
+ * Builds a {@link DataTypeTree} by browsing the DataType hierarchy, one level at a time, starting
+ * at {@link Identifiers#BaseDataType}.
  */
 public final class DataTypeTreeBuilder {
 
     private DataTypeTreeBuilder() {}
 
     /**
-     * Build a {@link DataTypeTree} by recursively browsing the DataType hierarchy starting at
+     * Build a {@link DataTypeTree} by browsing the DataType hierarchy starting at
      * {@link Identifiers#BaseDataType}.
      *
      * @param client a connected {@link OpcUaClient}.
@@ -73,7 +72,7 @@ public final class DataTypeTreeBuilder {
     }
 
     /**
-     * Build a {@link DataTypeTree} by recursively browsing the DataType hierarchy starting at
+     * Build a {@link DataTypeTree} by browsing the DataType hierarchy starting at
      * {@link Identifiers#BaseDataType}.
      *
      * @param client  a connected {@link UaStackClient}.
@@ -93,7 +92,7 @@ public final class DataTypeTreeBuilder {
     }
 
     /**
-     * Build a {@link DataTypeTree} by recursively browsing the DataType hierarchy starting at
+     * Build a {@link DataTypeTree} by browsing the DataType hierarchy starting at
      * {@link Identifiers#BaseDataType}.
      *
      * @param client a connected {@link OpcUaClient}.
@@ -107,7 +106,7 @@ public final class DataTypeTreeBuilder {
     }
 
     /**
-     * Build a {@link DataTypeTree} by recursively browsing the DataType hierarchy starting at
+     * Build a {@link DataTypeTree} by browsing the DataType hierarchy starting at
      * {@link Identifiers#BaseDataType}.
      *
      * @param client  a connected {@link UaStackClient}.
@@ -115,6 +114,27 @@ public final class DataTypeTreeBuilder {
      * @return a {@link DataTypeTree}.
      */
     public static CompletableFuture<DataTypeTree> buildAsync(UaStackClient client, OpcUaSession session) {
+        return buildAsync(client, session, new ArrayList<>());
+    }
+
+    /**
+     * Build a {@link DataTypeTree} by browsing the DataType hierarchy starting at
+     * {@link Identifiers#BaseDataType}, adding the cause of every browse that failed, and whose
+     * nodes were treated as having no subtypes or encodings, to {@code browseFailures}.
+     * <p>
+     * The tree is only complete if {@code browseFailures} is still empty once it's built.
+     *
+     * @param client         a connected {@link UaStackClient}.
+     * @param session        an active {@link OpcUaSession}.
+     * @param browseFailures the List to add browse failures to.
+     * @return a {@link DataTypeTree}.
+     */
+    static CompletableFuture<DataTypeTree> buildAsync(
+        UaStackClient client,
+        OpcUaSession session,
+        List<Throwable> browseFailures
+    ) {
+
         Tree<DataTypeTree.DataType> root = new Tree<>(
             null,
             new DataTypeTree.DataType(
@@ -126,7 +146,7 @@ public final class DataTypeTreeBuilder {
         );
 
         return readNamespaceTable(client, session)
-            .thenCompose(namespaceTable -> addChildren(root, client, session, namespaceTable))
+            .thenCompose(namespaceTable -> addChildren(root, client, session, namespaceTable, browseFailures))
             .thenApply(u -> new DataTypeTree(root));
     }
 
@@ -161,98 +181,171 @@ public final class DataTypeTreeBuilder {
         });
     }
 
+    /**
+     * Add the subtypes of {@code root} to the tree one level at a time.
+     * <p>
+     * The first round browses the subtypes of {@code root}; every following round browses the
+     * subtypes and encodings of all DataTypes found in the previous round with a single
+     * multi-node browse, so building the tree takes one round per level of the hierarchy rather
+     * than two round trips per DataType.
+     */
     private static CompletableFuture<Unit> addChildren(
-        Tree<DataTypeTree.DataType> tree,
+        Tree<DataTypeTree.DataType> root,
         UaStackClient client,
         OpcUaSession session,
-        NamespaceTable namespaceTable
+        NamespaceTable namespaceTable,
+        List<Throwable> browseFailures
     ) {
 
-        CompletableFuture<List<ReferenceDescription>> subtypes = browseSafe(
+        CompletableFuture<List<List<ReferenceDescription>>> subtypes = browseSafe(
             client,
             session,
-            new BrowseDescription(
-                tree.getValue().getNodeId(),
-                BrowseDirection.Forward,
-                Identifiers.HasSubtype,
-                false,
-                uint(NodeClass.DataType.getValue()),
-                uint(BrowseResultMask.All.getValue())
-            )
+            Collections.singletonList(subtypesOf(root.getValue().getNodeId())),
+            browseFailures
         );
 
-        CompletableFuture<List<DataTypeTree.DataType>> dataTypesFuture = subtypes.thenCompose(references -> {
-            Stream<CompletableFuture<DataTypeTree.DataType>> dataTypeFutures =
-                references.stream().map(dataTypeReference -> {
-                    NodeId dataTypeId = dataTypeReference.getNodeId()
-                        .toNodeId(namespaceTable)
-                        .orElse(NodeId.NULL_VALUE);
-
-                    CompletableFuture<List<ReferenceDescription>> encodings = browseSafe(
-                        client,
-                        session,
-                        new BrowseDescription(
-                            dataTypeId,
-                            BrowseDirection.Forward,
-                            Identifiers.HasEncoding,
-                            false,
-                            uint(NodeClass.Object.getValue()),
-                            uint(BrowseResultMask.All.getValue())
-                        )
-                    );
-
-                    return encodings.thenApply(encodingReferences -> {
-                        NodeId binaryEncodingId = null;
-                        NodeId xmlEncodingId = null;
-
-                        for (ReferenceDescription r : encodingReferences) {
-                            if (r.getBrowseName().equals(OpcUaDefaultBinaryEncoding.ENCODING_NAME)) {
-                                binaryEncodingId = r.getNodeId().toNodeId(namespaceTable).orElse(null);
-                            } else if (r.getBrowseName().equals(OpcUaDefaultXmlEncoding.ENCODING_NAME)) {
-                                xmlEncodingId = r.getNodeId().toNodeId(namespaceTable).orElse(null);
-                            }
-                        }
-
-                        return new DataTypeTree.DataType(
-                            dataTypeReference.getBrowseName(),
-                            dataTypeId,
-                            binaryEncodingId,
-                            xmlEncodingId
-                        );
-                    });
-                });
-
-            return FutureUtils.sequence(dataTypeFutures);
+        return subtypes.thenCompose(references -> {
+            List<PendingDataType> pending = new ArrayList<>();
+
+            for (ReferenceDescription reference : references.get(0)) {
+                pending.add(new PendingDataType(root, reference, namespaceTable));
+            }
+
+            return addLevel(pending, client, session, namespaceTable, browseFailures);
         });
+    }
+
+    private static CompletableFuture<Unit> addLevel(
+        List<PendingDataType> level,
+        UaStackClient client,
+        OpcUaSession session,
+        NamespaceTable namespaceTable,
+        List<Throwable> browseFailures
+    ) {
+
+        if (level.isEmpty()) {
+            return CompletableFuture.completedFuture(Unit.VALUE);
+        }
+
+        List<BrowseDescription> browseDescriptions = new ArrayList<>(level.size() * 2);
+        for (PendingDataType dataType : level) {
+            browseDescriptions.add(subtypesOf(dataType.dataTypeId));
+        }
+        for (PendingDataType dataType : level) {
+            browseDescriptions.add(encodingsOf(dataType.dataTypeId));
+        }
 
-        return dataTypesFuture
-            .thenCompose(dataTypes -> {
-                Stream<CompletableFuture<Unit>> futures = dataTypes.stream()
-                    .map(tree::addChild)
-                    .map(childNode -> addChildren(childNode, client, session, namespaceTable));
+        return browseSafe(client, session, browseDescriptions, browseFailures).thenCompose(references -> {
+            List<PendingDataType> nextLevel = new ArrayList<>();
 
-                return FutureUtils.sequence(futures);
-            })
-            .thenApply(v -> Unit.VALUE);
+            for (int i = 0; i < level.size(); i++) {
+                PendingDataType dataType = level.get(i);
+
+                List<ReferenceDescription> subtypeReferences = references.get(i);
+                List<ReferenceDescription> encodingReferences = references.get(level.size() + i);
+
+                NodeId binaryEncodingId = null;
+                NodeId xmlEncodingId = null;
+
+                for (ReferenceDescription r : encodingReferences) {
+                    if (r.getBrowseName().equals(OpcUaDefaultBinaryEncoding.ENCODING_NAME)) {
+                        binaryEncodingId = r.getNodeId().toNodeId(namespaceTable).orElse(null);
+                    } else if (r.getBrowseName().equals(OpcUaDefaultXmlEncoding.ENCODING_NAME)) {
+                        xmlEncodingId = r.getNodeId().toNodeId(namespaceTable).orElse(null);
+                    }
+                }
+
+                Tree<DataTypeTree.DataType> childNode = dataType.parent.addChild(
+                    new DataTypeTree.DataType(
+                        dataType.reference.getBrowseName(),
+                        dataType.dataTypeId,
+                        binaryEncodingId,
+                        xmlEncodingId
+                    )
+                );
+
+                for (ReferenceDescription reference : subtypeReferences) {
+                    nextLevel.add(new PendingDataType(childNode, reference, namespaceTable));
+                }
+            }
+
+            return addLevel(nextLevel, client, session, namespaceTable, browseFailures);
+        });
+    }
+
+    private static BrowseDescription subtypesOf(NodeId dataTypeId) {
+        return new BrowseDescription(
+            dataTypeId,
+            BrowseDirection.Forward,
+            Identifiers.HasSubtype,
+            false,
+            uint(NodeClass.DataType.getValue()),
+            uint(BrowseResultMask.All.getValue())
+        );
+    }
+
+    private static BrowseDescription encodingsOf(NodeId dataTypeId) {
+        return new BrowseDescription(
+            dataTypeId,
+            BrowseDirection.Forward,
+            Identifiers.HasEncoding,
+            false,
+            uint(NodeClass.Object.getValue()),
+            uint(BrowseResultMask.All.getValue())
+        );
     }
 
     /**
-     * Browse a {@link BrowseDescription} "safely", completing successfully
-     * with an empty List if any exceptions occur.
+     * Browse a List of {@link BrowseDescription}s "safely", completing successfully
+     * with an empty List for every node if the browse fails.
      *
-     * @param client            a {@link UaStackClient}.
-     * @param session           an {@link OpcUaSession}.
-     * @param browseDescription the {@link BrowseDescription}.
-     * @return a List of {@link ReferenceDescription}s obtained by browsing {@code browseDescription}.
+     * @param client             a {@link UaStackClient}.
+     * @param session            an {@link OpcUaSession}.
+     * @param browseDescriptions the {@link BrowseDescription}s.
+     * @param browseFailures     the List to add the cause to if the browse fails.
+     * @return a List of {@link ReferenceDescription}s for each of {@code browseDescriptions}.
      */
-    private static CompletableFuture<List<ReferenceDescription>> browseSafe(
+    private static CompletableFuture<List<List<ReferenceDescription>>> browseSafe(
         UaStackClient client,
         OpcUaSession session,
-        BrowseDescription browseDescription
+        List<BrowseDescription> browseDescriptions,
+        List<Throwable> browseFailures
     ) {
 
-        return BrowseHelper.browse(client, session, browseDescription, uint(0))
-            .exceptionally(ex -> Collections.emptyList());
+        return BrowseHelper.browse(client, session, browseDescriptions, uint(0))
+            .exceptionally(ex -> {
+                browseFailures.add(ex);
+
+                List<List<ReferenceDescription>> empty = new ArrayList<>(browseDescriptions.size());
+                for (int i = 0; i < browseDescriptions.size(); i++) {
+                    empty.add(Collections.emptyList());
+                }
+                return empty;
+            });
+    }
+
+    /**
+     * A DataType found by browsing the subtypes of {@code parent} that hasn't been added to the
+     * tree yet because its encodings are still unknown.
+     */
+    private static class PendingDataType {
+
+        final Tree<DataTypeTree.DataType> parent;
+        final ReferenceDescription reference;
+        final NodeId dataTypeId;
+
+        PendingDataType(
+            Tree<DataTypeTree.DataType> parent,
+            ReferenceDescription reference,
+            NamespaceTable namespaceTable
+        ) {
+
+            this.parent = parent;
+            this.reference = reference;
+
+            dataTypeId = reference.getNodeId().toNodeId(namespaceTable).orElse(NodeId.NULL_VALUE);
+        }
+
     }
 
 }
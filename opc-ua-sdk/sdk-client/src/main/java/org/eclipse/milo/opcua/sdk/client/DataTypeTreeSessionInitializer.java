@@ -10,16 +10,35 @@
 
 package org.eclipse.milo.opcua.sdk.client;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import org.eclipse.milo.opcua.sdk.client.session.SessionFsm;
 import org.eclipse.milo.opcua.sdk.core.DataTypeTree;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.util.Tree;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Builds a {@link DataTypeTree} and stores it on an {@link OpcUaSession} as an attribute under
  * the key {@link DataTypeTreeSessionInitializer#SESSION_ATTRIBUTE_KEY}.
+ * <p>
+ * If a {@link DataTypeCache} is configured the tree is loaded from it when the cached copy is still valid, and is
+ * stored to it after being built otherwise, unless a browse failed while building it.
  */
 public class DataTypeTreeSessionInitializer implements SessionFsm.SessionInitializer {
 
@@ -31,11 +50,152 @@ public class DataTypeTreeSessionInitializer implements SessionFsm.SessionInitial
      */
     public static final String SESSION_ATTRIBUTE_KEY = "dataTypeTree";
 
+    /**
+     * The name the {@link DataTypeTree} is stored under in a {@link DataTypeCache}.
+     */
+    public static final String CACHE_ENTRY_NAME = "dataTypeTree";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final DataTypeCache cache;
+
+    public DataTypeTreeSessionInitializer() {
+        this(null);
+    }
+
+    /**
+     * @param cache the {@link DataTypeCache} to load the {@link DataTypeTree} from and store it to, or {@code null}
+     *              to always build it by browsing the server.
+     */
+    public DataTypeTreeSessionInitializer(@Nullable DataTypeCache cache) {
+        this.cache = cache;
+    }
+
     @Override
     public CompletableFuture<Unit> initialize(UaStackClient stackClient, OpcUaSession session) {
-        return DataTypeTreeBuilder.buildAsync(stackClient, session)
-            .thenAccept(tree -> session.setAttribute(SESSION_ATTRIBUTE_KEY, tree))
+        CompletableFuture<DataTypeTree> tree;
+
+        if (cache != null) {
+            tree = cache.loadAsync(stackClient, session, CACHE_ENTRY_NAME).thenCompose(payload -> {
+                Optional<DataTypeTree> cached = payload.flatMap(bs -> decodeSafe(stackClient, bs));
+
+                return cached
+                    .map(CompletableFuture::completedFuture)
+                    .orElseGet(() -> buildAndStore(stackClient, session));
+            });
+        } else {
+            tree = DataTypeTreeBuilder.buildAsync(stackClient, session);
+        }
+
+        return tree
+            .thenAccept(t -> session.setAttribute(SESSION_ATTRIBUTE_KEY, t))
             .thenApply(v -> Unit.VALUE);
     }
 
+    private CompletableFuture<DataTypeTree> buildAndStore(UaStackClient stackClient, OpcUaSession session) {
+        List<Throwable> browseFailures = new ArrayList<>();
+
+        return DataTypeTreeBuilder.buildAsync(stackClient, session, browseFailures).thenCompose(tree -> {
+            if (!browseFailures.isEmpty()) {
+                // an incomplete tree would be loaded on every connect until a namespace version changes
+                logger.warn(
+                    "Not storing DataTypeTree in cache; {} browse(s) failed while building it",
+                    browseFailures.size(),
+                    browseFailures.get(0)
+                );
+
+                return CompletableFuture.completedFuture(tree);
+            }
+
+            return DataTypeCache.browseNamespaceVersionNodeIds(stackClient, session)
+                .thenCompose(versionNodeIds -> cache.storeAsync(
+                    stackClient,
+                    session,
+                    CACHE_ENTRY_NAME,
+                    versionNodeIds,
+                    encode(stackClient.getStaticSerializationContext(), tree)
+                ))
+                .exceptionally(ex -> {
+                    logger.warn("Failed to store DataTypeTree in cache", ex);
+                    return Unit.VALUE;
+                })
+                .thenApply(u -> tree);
+        });
+    }
+
+    private Optional<DataTypeTree> decodeSafe(UaStackClient stackClient, ByteString payload) {
+        try {
+            return Optional.of(decode(stackClient.getStaticSerializationContext(), payload));
+        } catch (Throwable t) {
+            logger.warn("Failed to decode cached DataTypeTree", t);
+            return Optional.empty();
+        }
+    }
+
+    static ByteString encode(SerializationContext context, DataTypeTree dataTypeTree) {
+        ByteBuf buffer = Unpooled.buffer();
+
+        try {
+            OpcUaBinaryStreamEncoder encoder = new OpcUaBinaryStreamEncoder(context).setBuffer(buffer);
+
+            encode(encoder, dataTypeTree.getTree());
+
+            return ByteString.of(ByteBufUtil.getBytes(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void encode(OpcUaBinaryStreamEncoder encoder, Tree<DataTypeTree.DataType> node) {
+        DataTypeTree.DataType dataType = node.getValue();
+
+        encoder.writeQualifiedName(dataType.getBrowseName());
+        encoder.writeNodeId(dataType.getNodeId());
+        encoder.writeNodeId(nullToNullValue(dataType.getBinaryEncodingId()));
+        encoder.writeNodeId(nullToNullValue(dataType.getXmlEncodingId()));
+
+        encoder.writeInt32(node.getChildren().size());
+        for (Tree<DataTypeTree.DataType> child : node.getChildren()) {
+            encode(encoder, child);
+        }
+    }
+
+    static DataTypeTree decode(SerializationContext context, ByteString payload) {
+        ByteBuf buffer = Unpooled.wrappedBuffer(payload.bytesOrEmpty());
+
+        OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(context).setBuffer(buffer);
+
+        Tree<DataTypeTree.DataType> root = new Tree<>(null, decodeDataType(decoder));
+        decodeChildren(decoder, root);
+
+        return new DataTypeTree(root);
+    }
+
+    private static void decodeChildren(OpcUaBinaryStreamDecoder decoder, Tree<DataTypeTree.DataType> node) {
+        int childCount = decoder.readInt32();
+
+        for (int i = 0; i < childCount; i++) {
+            Tree<DataTypeTree.DataType> child = node.addChild(decodeDataType(decoder));
+            decodeChildren(decoder, child);
+        }
+    }
+
+    private static DataTypeTree.DataType decodeDataType(OpcUaBinaryStreamDecoder decoder) {
+        QualifiedName browseName = decoder.readQualifiedName();
+        NodeId nodeId = decoder.readNodeId();
+        NodeId binaryEncodingId = decoder.readNodeId();
+        NodeId xmlEncodingId = decoder.readNodeId();
+
+        return new DataTypeTree.DataType(
+            browseName,
+            nodeId,
+            binaryEncodingId.isNull() ? null : binaryEncodingId,
+            xmlEncodingId.isNull() ? null : xmlEncodingId
+        );
+    }
+
+    private static NodeId nullToNullValue(@Nullable NodeId nodeId) {
+        return nodeId != null ? nodeId : NodeId.NULL_VALUE;
+    }
+
 }
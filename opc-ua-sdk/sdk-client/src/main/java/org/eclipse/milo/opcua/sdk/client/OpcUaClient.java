@@ -43,9 +43,11 @@ import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
 import org.eclipse.milo.opcua.stack.core.serialization.UaResponseMessage;
 import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
@@ -62,9 +64,12 @@ import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePathResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.CallRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.CallResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.CreateMonitoredItemsRequest;
@@ -94,6 +99,7 @@ import org.eclipse.milo.opcua.stack.core.types.structured.ModifyMonitoredItemsRe
 import org.eclipse.milo.opcua.stack.core.types.structured.ModifySubscriptionRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.ModifySubscriptionResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemCreateRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemCreateResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemModifyRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.PublishResponse;
@@ -131,6 +137,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
+import static org.eclipse.milo.opcua.sdk.client.PartitionedRequest.concat;
+import static org.eclipse.milo.opcua.sdk.client.PartitionedRequest.concatDiagnosticInfos;
 import static org.eclipse.milo.opcua.sdk.client.session.SessionFsm.SessionInitializer;
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.a;
@@ -292,6 +300,7 @@ public class OpcUaClient implements UaClient {
                 });
         });
 
+        sessionFsm.addInitializer(new OperationLimitsSessionInitializer());
 
         faultNotificationQueue = new ExecutionQueue(config.getExecutor());
 
@@ -510,28 +519,46 @@ public class OpcUaClient implements UaClient {
                                                 TimestampsToReturn timestampsToReturn,
                                                 List<ReadValueId> readValueIds) {
 
-        return getSession().thenCompose(session -> {
-            ReadRequest request = new ReadRequest(
-                newRequestHeader(session.getAuthenticationToken()),
-                maxAge,
-                timestampsToReturn,
-                a(readValueIds, ReadValueId.class)
-            );
-
-            return sendRequest(request);
-        });
+        return getSession().thenCompose(session -> sendPartitioned(
+            readValueIds,
+            getOperationLimits(session).getMaxNodesPerRead(),
+            partition -> {
+                ReadRequest request = new ReadRequest(
+                    newRequestHeader(session.getAuthenticationToken()),
+                    maxAge,
+                    timestampsToReturn,
+                    a(partition, ReadValueId.class)
+                );
+
+                return sendRequest(request);
+            },
+            responses -> new ReadResponse(
+                responses.get(0).getResponseHeader(),
+                concat(responses, ReadResponse::getResults, DataValue[]::new),
+                concatDiagnosticInfos(responses, ReadResponse::getResults, ReadResponse::getDiagnosticInfos)
+            )
+        ));
     }
 
     @Override
     public CompletableFuture<WriteResponse> write(List<WriteValue> writeValues) {
-        return getSession().thenCompose(session -> {
-            WriteRequest request = new WriteRequest(
-                newRequestHeader(session.getAuthenticationToken()),
-                a(writeValues, WriteValue.class)
-            );
-
-            return sendRequest(request);
-        });
+        return getSession().thenCompose(session -> sendPartitioned(
+            writeValues,
+            getOperationLimits(session).getMaxNodesPerWrite(),
+            partition -> {
+                WriteRequest request = new WriteRequest(
+                    newRequestHeader(session.getAuthenticationToken()),
+                    a(partition, WriteValue.class)
+                );
+
+                return sendRequest(request);
+            },
+            responses -> new WriteResponse(
+                responses.get(0).getResponseHeader(),
+                concat(responses, WriteResponse::getResults, StatusCode[]::new),
+                concatDiagnosticInfos(responses, WriteResponse::getResults, WriteResponse::getDiagnosticInfos)
+            )
+        ));
     }
 
     @Override
@@ -574,16 +601,25 @@ public class OpcUaClient implements UaClient {
                                                     UInteger maxReferencesPerNode,
                                                     List<BrowseDescription> nodesToBrowse) {
 
-        return getSession().thenCompose(session -> {
-            BrowseRequest request = new BrowseRequest(
-                newRequestHeader(session.getAuthenticationToken()),
-                viewDescription,
-                maxReferencesPerNode,
-                a(nodesToBrowse, BrowseDescription.class)
-            );
-
-            return sendRequest(request);
-        });
+        return getSession().thenCompose(session -> sendPartitioned(
+            nodesToBrowse,
+            getOperationLimits(session).getMaxNodesPerBrowse(),
+            partition -> {
+                BrowseRequest request = new BrowseRequest(
+                    newRequestHeader(session.getAuthenticationToken()),
+                    viewDescription,
+                    maxReferencesPerNode,
+                    a(partition, BrowseDescription.class)
+                );
+
+                return sendRequest(request);
+            },
+            responses -> new BrowseResponse(
+                responses.get(0).getResponseHeader(),
+                concat(responses, BrowseResponse::getResults, BrowseResult[]::new),
+                concatDiagnosticInfos(responses, BrowseResponse::getResults, BrowseResponse::getDiagnosticInfos)
+            )
+        ));
     }
 
     @Override
@@ -603,14 +639,27 @@ public class OpcUaClient implements UaClient {
 
     @Override
     public CompletableFuture<TranslateBrowsePathsToNodeIdsResponse> translateBrowsePaths(List<BrowsePath> browsePaths) {
-        return getSession().thenCompose(session -> {
-            TranslateBrowsePathsToNodeIdsRequest request = new TranslateBrowsePathsToNodeIdsRequest(
-                newRequestHeader(session.getAuthenticationToken()),
-                a(browsePaths, BrowsePath.class)
-            );
-
-            return sendRequest(request);
-        });
+        return getSession().thenCompose(session -> sendPartitioned(
+            browsePaths,
+            getOperationLimits(session).getMaxNodesPerTranslateBrowsePathsToNodeIds(),
+            partition -> {
+                TranslateBrowsePathsToNodeIdsRequest request = new TranslateBrowsePathsToNodeIdsRequest(
+                    newRequestHeader(session.getAuthenticationToken()),
+                    a(partition, BrowsePath.class)
+                );
+
+                return sendRequest(request);
+            },
+            responses -> new TranslateBrowsePathsToNodeIdsResponse(
+                responses.get(0).getResponseHeader(),
+                concat(responses, TranslateBrowsePathsToNodeIdsResponse::getResults, BrowsePathResult[]::new),
+                concatDiagnosticInfos(
+                    responses,
+                    TranslateBrowsePathsToNodeIdsResponse::getResults,
+                    TranslateBrowsePathsToNodeIdsResponse::getDiagnosticInfos
+                )
+            )
+        ));
     }
 
     @Override
@@ -639,14 +688,23 @@ public class OpcUaClient implements UaClient {
 
     @Override
     public CompletableFuture<CallResponse> call(List<CallMethodRequest> methodsToCall) {
-        return getSession().thenCompose(session -> {
-            CallRequest request = new CallRequest(
-                newRequestHeader(session.getAuthenticationToken()),
-                a(methodsToCall, CallMethodRequest.class)
-            );
-
-            return sendRequest(request);
-        });
+        return getSession().thenCompose(session -> sendPartitioned(
+            methodsToCall,
+            getOperationLimits(session).getMaxNodesPerMethodCall(),
+            partition -> {
+                CallRequest request = new CallRequest(
+                    newRequestHeader(session.getAuthenticationToken()),
+                    a(partition, CallMethodRequest.class)
+                );
+
+                return sendRequest(request);
+            },
+            responses -> new CallResponse(
+                responses.get(0).getResponseHeader(),
+                concat(responses, CallResponse::getResults, CallMethodResult[]::new),
+                concatDiagnosticInfos(responses, CallResponse::getResults, CallResponse::getDiagnosticInfos)
+            )
+        ));
     }
 
     @Override
@@ -770,16 +828,29 @@ public class OpcUaClient implements UaClient {
         TimestampsToReturn timestampsToReturn,
         List<MonitoredItemCreateRequest> itemsToCreate) {
 
-        return getSession().thenCompose(session -> {
-            CreateMonitoredItemsRequest request = new CreateMonitoredItemsRequest(
-                newRequestHeader(session.getAuthenticationToken()),
-                subscriptionId,
-                timestampsToReturn,
-                a(itemsToCreate, MonitoredItemCreateRequest.class)
-            );
-
-            return sendRequest(request);
-        });
+        return getSession().thenCompose(session -> sendPartitioned(
+            itemsToCreate,
+            getOperationLimits(session).getMaxMonitoredItemsPerCall(),
+            partition -> {
+                CreateMonitoredItemsRequest request = new CreateMonitoredItemsRequest(
+                    newRequestHeader(session.getAuthenticationToken()),
+                    subscriptionId,
+                    timestampsToReturn,
+                    a(partition, MonitoredItemCreateRequest.class)
+                );
+
+                return sendRequest(request);
+            },
+            responses -> new CreateMonitoredItemsResponse(
+                responses.get(0).getResponseHeader(),
+                concat(responses, CreateMonitoredItemsResponse::getResults, MonitoredItemCreateResult[]::new),
+                concatDiagnosticInfos(
+                    responses,
+                    CreateMonitoredItemsResponse::getResults,
+                    CreateMonitoredItemsResponse::getDiagnosticInfos
+                )
+            )
+        ));
     }
 
     @Override
@@ -904,7 +975,37 @@ public class OpcUaClient implements UaClient {
         return sessionFsm.getSession();
     }
 
+    /**
+     * Get the {@link OperationLimits} read from the server when {@code session} was activated.
+     *
+     * @param session the {@link OpcUaSession} to get the {@link OperationLimits} of.
+     * @return the {@link OperationLimits} of the server {@code session} is connected to, or
+     * {@link OperationLimits#UNLIMITED} if they aren't known.
+     */
+    public OperationLimits getOperationLimits(OpcUaSession session) {
+        Object limits = session.getAttribute(OperationLimitsSessionInitializer.SESSION_ATTRIBUTE_KEY);
+
+        return limits instanceof OperationLimits ? (OperationLimits) limits : OperationLimits.UNLIMITED;
+    }
+
+    private <T, R extends UaResponseMessage> CompletableFuture<R> sendPartitioned(
+        List<T> operations,
+        UInteger operationLimit,
+        Function<List<T>, CompletableFuture<R>> send,
+        Function<List<R>, R> merge
+    ) {
+
+        return PartitionedRequest.send(
+            operations,
+            operationLimit,
+            config.getMaxPartitionedRequestsInFlight().intValue(),
+            send,
+            merge
+        );
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public <T extends UaResponseMessage> CompletableFuture<T> sendRequest(UaRequestMessage request) {
         CompletableFuture<UaResponseMessage> f = getStackClient().sendRequest(request);
 
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.base.MoreObjects;
+import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+
+/**
+ * The subset of a server's OperationLimits that {@link OpcUaClient} uses to split service calls into requests the
+ * server will accept.
+ * <p>
+ * A limit of 0 means the server did not report a limit for that service.
+ */
+public class OperationLimits {
+
+    /**
+     * {@link OperationLimits} with no limit on any service.
+     */
+    public static final OperationLimits UNLIMITED =
+        new OperationLimits(uint(0), uint(0), uint(0), uint(0), uint(0), uint(0));
+
+    private static final NodeId[] LIMIT_NODE_IDS = new NodeId[]{
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerRead,
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerWrite,
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerBrowse,
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerMethodCall,
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerTranslateBrowsePathsToNodeIds,
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxMonitoredItemsPerCall
+    };
+
+    private final UInteger maxNodesPerRead;
+    private final UInteger maxNodesPerWrite;
+    private final UInteger maxNodesPerBrowse;
+    private final UInteger maxNodesPerMethodCall;
+    private final UInteger maxNodesPerTranslateBrowsePathsToNodeIds;
+    private final UInteger maxMonitoredItemsPerCall;
+
+    public OperationLimits(
+        UInteger maxNodesPerRead,
+        UInteger maxNodesPerWrite,
+        UInteger maxNodesPerBrowse,
+        UInteger maxNodesPerMethodCall,
+        UInteger maxNodesPerTranslateBrowsePathsToNodeIds,
+        UInteger maxMonitoredItemsPerCall
+    ) {
+
+        this.maxNodesPerRead = maxNodesPerRead;
+        this.maxNodesPerWrite = maxNodesPerWrite;
+        this.maxNodesPerBrowse = maxNodesPerBrowse;
+        this.maxNodesPerMethodCall = maxNodesPerMethodCall;
+        this.maxNodesPerTranslateBrowsePathsToNodeIds = maxNodesPerTranslateBrowsePathsToNodeIds;
+        this.maxMonitoredItemsPerCall = maxMonitoredItemsPerCall;
+    }
+
+    public UInteger getMaxNodesPerRead() {
+        return maxNodesPerRead;
+    }
+
+    public UInteger getMaxNodesPerWrite() {
+        return maxNodesPerWrite;
+    }
+
+    public UInteger getMaxNodesPerBrowse() {
+        return maxNodesPerBrowse;
+    }
+
+    public UInteger getMaxNodesPerMethodCall() {
+        return maxNodesPerMethodCall;
+    }
+
+    public UInteger getMaxNodesPerTranslateBrowsePathsToNodeIds() {
+        return maxNodesPerTranslateBrowsePathsToNodeIds;
+    }
+
+    public UInteger getMaxMonitoredItemsPerCall() {
+        return maxMonitoredItemsPerCall;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("maxNodesPerRead", maxNodesPerRead)
+            .add("maxNodesPerWrite", maxNodesPerWrite)
+            .add("maxNodesPerBrowse", maxNodesPerBrowse)
+            .add("maxNodesPerMethodCall", maxNodesPerMethodCall)
+            .add("maxNodesPerTranslateBrowsePathsToNodeIds", maxNodesPerTranslateBrowsePathsToNodeIds)
+            .add("maxMonitoredItemsPerCall", maxMonitoredItemsPerCall)
+            .toString();
+    }
+
+    /**
+     * Read the {@link OperationLimits} of the server {@code session} is connected to, in a single ReadRequest.
+     * <p>
+     * Limits the server doesn't have, or fails to read, are treated as 0.
+     *
+     * @param client  the {@link UaStackClient} to send the request with.
+     * @param session the {@link OpcUaSession} to send the request on.
+     * @return the server's {@link OperationLimits}.
+     */
+    public static CompletableFuture<OperationLimits> readAsync(UaStackClient client, OpcUaSession session) {
+        RequestHeader requestHeader = client.newRequestHeader(
+            session.getAuthenticationToken(),
+            client.getConfig().getRequestTimeout()
+        );
+
+        ReadValueId[] nodesToRead = new ReadValueId[LIMIT_NODE_IDS.length];
+        for (int i = 0; i < LIMIT_NODE_IDS.length; i++) {
+            nodesToRead[i] = new ReadValueId(
+                LIMIT_NODE_IDS[i],
+                AttributeId.Value.uid(),
+                null,
+                QualifiedName.NULL_VALUE
+            );
+        }
+
+        ReadRequest request = new ReadRequest(requestHeader, 0.0, TimestampsToReturn.Neither, nodesToRead);
+
+        return client.sendRequest(request)
+            .thenApply(ReadResponse.class::cast)
+            .thenApply(response -> {
+                DataValue[] results = response.getResults();
+
+                UInteger[] limits = new UInteger[LIMIT_NODE_IDS.length];
+                for (int i = 0; i < limits.length; i++) {
+                    limits[i] = results != null && i < results.length ? limitValue(results[i]) : uint(0);
+                }
+
+                return new OperationLimits(limits[0], limits[1], limits[2], limits[3], limits[4], limits[5]);
+            });
+    }
+
+    private static UInteger limitValue(DataValue value) {
+        Object o = value.getStatusCode() == null || value.getStatusCode().isGood() ?
+            value.getValue().getValue() : null;
+
+        return o instanceof UInteger ? (UInteger) o : uint(0);
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.milo.opcua.sdk.client.session.SessionFsm;
+import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.core.util.Unit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the server's {@link OperationLimits} and stores them on an {@link OpcUaSession} as an attribute under the
+ * key {@link OperationLimitsSessionInitializer#SESSION_ATTRIBUTE_KEY}.
+ * <p>
+ * If the limits can't be read {@link OperationLimits#UNLIMITED} is stored instead.
+ */
+public class OperationLimitsSessionInitializer implements SessionFsm.SessionInitializer {
+
+    /**
+     * The attribute key that the {@link OperationLimits} will be stored under in the {@link OpcUaSession}.
+     *
+     * @see OpcUaSession#getAttribute(String)
+     * @see OpcUaSession#setAttribute(String, Object)
+     */
+    public static final String SESSION_ATTRIBUTE_KEY = "operationLimits";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Override
+    public CompletableFuture<Unit> initialize(UaStackClient stackClient, OpcUaSession session) {
+        logger.debug("SessionInitializer: OperationLimits");
+
+        return OperationLimits.readAsync(stackClient, session)
+            .exceptionally(ex -> {
+                logger.warn("SessionInitializer: OperationLimits", ex);
+                return OperationLimits.UNLIMITED;
+            })
+            .thenAccept(limits -> session.setAttribute(SESSION_ATTRIBUTE_KEY, limits))
+            .thenApply(v -> Unit.VALUE);
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+
+/**
+ * Splits the operations of a service call into partitions no larger than a server's operation limit and sends one
+ * request per partition, keeping at most {@code maxInFlight} of them outstanding at a time.
+ * <p>
+ * The next partition is sent as soon as any outstanding request completes, so the connection stays busy without
+ * sending every partition at once. The first failure fails the whole call and no further partitions are sent.
+ *
+ * @param <T> the type of operation being partitioned.
+ * @param <R> the type of response to each partition.
+ */
+final class PartitionedRequest<T, R> {
+
+    private final CompletableFuture<List<R>> future = new CompletableFuture<>();
+
+    private final AtomicInteger nextPartition = new AtomicInteger(0);
+    private final AtomicInteger remaining;
+
+    private final List<List<T>> partitions;
+    private final AtomicReferenceArray<R> responses;
+    private final Function<List<T>, CompletableFuture<R>> send;
+
+    private PartitionedRequest(List<List<T>> partitions, Function<List<T>, CompletableFuture<R>> send) {
+        this.partitions = partitions;
+        this.send = send;
+
+        remaining = new AtomicInteger(partitions.size());
+        responses = new AtomicReferenceArray<>(partitions.size());
+    }
+
+    private CompletableFuture<List<R>> start(int maxInFlight) {
+        int initial = Math.min(Math.max(maxInFlight, 1), partitions.size());
+
+        for (int i = 0; i < initial; i++) {
+            sendNext();
+        }
+
+        return future;
+    }
+
+    private void sendNext() {
+        int index = nextPartition.getAndIncrement();
+
+        if (index >= partitions.size() || future.isDone()) return;
+
+        CompletableFuture<R> responseFuture;
+        try {
+            responseFuture = send.apply(partitions.get(index));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return;
+        }
+
+        responseFuture.whenComplete((response, ex) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                responses.set(index, response);
+
+                if (remaining.decrementAndGet() == 0) {
+                    List<R> ordered = new ArrayList<>(partitions.size());
+                    for (int i = 0; i < partitions.size(); i++) {
+                        ordered.add(responses.get(i));
+                    }
+                    future.complete(ordered);
+                } else {
+                    sendNext();
+                }
+            }
+        });
+    }
+
+    /**
+     * Send {@code operations} in partitions of at most {@code operationLimit} operations each and merge the responses.
+     * <p>
+     * If there is no limit, or {@code operations} is within it, a single request is sent and its response returned
+     * as-is.
+     *
+     * @param operations     the operations to send.
+     * @param operationLimit the maximum number of operations per request, or 0 if there is no limit.
+     * @param maxInFlight    the maximum number of requests outstanding at a time.
+     * @param send           sends one partition and returns its response.
+     * @param merge          merges the responses to each partition, in the order of the operations they contain.
+     * @return the response, merged if more than one request was sent.
+     */
+    static <T, R> CompletableFuture<R> send(
+        List<T> operations,
+        UInteger operationLimit,
+        int maxInFlight,
+        Function<List<T>, CompletableFuture<R>> send,
+        Function<List<R>, R> merge
+    ) {
+
+        long limit = operationLimit.longValue();
+
+        if (limit == 0 || operations.size() <= limit) {
+            return send.apply(operations);
+        }
+
+        List<List<T>> partitions = Lists.partition(operations, (int) Math.min(limit, Integer.MAX_VALUE));
+
+        return new PartitionedRequest<>(partitions, send).start(maxInFlight).thenApply(merge);
+    }
+
+    /**
+     * Concatenate the per-operation results of each partition's response.
+     */
+    static <R, E> E[] concat(List<R> responses, Function<R, E[]> getResults, Function<Integer, E[]> newArray) {
+        int length = 0;
+        for (R response : responses) {
+            E[] results = getResults.apply(response);
+            length += results != null ? results.length : 0;
+        }
+
+        E[] merged = newArray.apply(length);
+
+        int offset = 0;
+        for (R response : responses) {
+            E[] results = getResults.apply(response);
+            if (results != null) {
+                System.arraycopy(results, 0, merged, offset, results.length);
+                offset += results.length;
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Concatenate the DiagnosticInfos of each partition's response so they stay aligned with the merged results.
+     * <p>
+     * DiagnosticInfos are optional; partitions without them are padded with {@link DiagnosticInfo#NULL_VALUE} if any
+     * other partition returned some.
+     */
+    static <R, E> DiagnosticInfo[] concatDiagnosticInfos(
+        List<R> responses,
+        Function<R, E[]> getResults,
+        Function<R, DiagnosticInfo[]> getDiagnosticInfos
+    ) {
+
+        boolean anyDiagnostics = false;
+        for (R response : responses) {
+            DiagnosticInfo[] diagnosticInfos = getDiagnosticInfos.apply(response);
+            if (diagnosticInfos != null && diagnosticInfos.length > 0) {
+                anyDiagnostics = true;
+                break;
+            }
+        }
+
+        if (!anyDiagnostics) {
+            return new DiagnosticInfo[0];
+        }
+
+        List<DiagnosticInfo> merged = new ArrayList<>();
+
+        for (R response : responses) {
+            E[] results = getResults.apply(response);
+            DiagnosticInfo[] diagnosticInfos = getDiagnosticInfos.apply(response);
+
+            int resultCount = results != null ? results.length : 0;
+
+            for (int i = 0; i < resultCount; i++) {
+                boolean present = diagnosticInfos != null && diagnosticInfos.length == resultCount;
+
+                merged.add(present ? diagnosticInfos[i] : DiagnosticInfo.NULL_VALUE);
+            }
+        }
+
+        return merged.toArray(new DiagnosticInfo[0]);
+    }
+
+}
@@ -91,6 +91,14 @@ public interface OpcUaClientConfig extends UaStackClientConfig {
      */
     double getSubscriptionWatchdogMultiplier();
 
+    /**
+     * The maximum number of requests a single service call may have outstanding when it's split into several
+     * requests to stay within the server's OperationLimits.
+     *
+     * @return the maximum number of outstanding requests per split service call.
+     */
+    UInteger getMaxPartitionedRequestsInFlight();
+
     /**
      * @return a new {@link OpcUaClientConfigBuilder}.
      */
@@ -139,6 +147,7 @@ public interface OpcUaClientConfig extends UaStackClientConfig {
         builder.setKeepAliveTimeout(config.getKeepAliveTimeout());
         builder.setSessionLocaleIds(config.getSessionLocaleIds());
         builder.setSubscriptionWatchdogMultiplier(config.getSubscriptionWatchdogMultiplier());
+        builder.setMaxPartitionedRequestsInFlight(config.getMaxPartitionedRequestsInFlight());
 
         return builder;
     }
@@ -24,6 +24,7 @@ import org.eclipse.milo.opcua.sdk.client.api.identity.IdentityProvider;
 import org.eclipse.milo.opcua.stack.client.UaStackClientConfig;
 import org.eclipse.milo.opcua.stack.client.UaStackClientConfigBuilder;
 import org.eclipse.milo.opcua.stack.client.security.ClientCertificateValidator;
+import org.eclipse.milo.opcua.stack.core.Stack;
 import org.eclipse.milo.opcua.stack.core.channel.EncodingLimits;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
@@ -50,6 +51,7 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
     private UInteger keepAliveInterval = uint(5000);
     private UInteger keepAliveTimeout = uint(5000);
     private double subscriptionWatchdogMultiplier = 2.0;
+    private UInteger maxPartitionedRequestsInFlight = uint(4);
 
     public OpcUaClientConfigBuilder setApplicationName(LocalizedText applicationName) {
         this.applicationName = applicationName;
@@ -116,6 +118,11 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
         return this;
     }
 
+    public OpcUaClientConfigBuilder setMaxPartitionedRequestsInFlight(UInteger maxPartitionedRequestsInFlight) {
+        this.maxPartitionedRequestsInFlight = maxPartitionedRequestsInFlight;
+        return this;
+    }
+
     @Override
     public OpcUaClientConfigBuilder setEndpoint(EndpointDescription endpoint) {
         super.setEndpoint(endpoint);
@@ -152,12 +159,28 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
         return this;
     }
 
+    /**
+     * Set the {@link ExecutorService} used to complete response and session futures, deliver publish responses and
+     * their notifications to subscriptions, and invoke subscription, monitored item, and session listener callbacks.
+     * <p>
+     * Defaults to {@link Stack#sharedExecutor()}. Use {@link #setUseVirtualThreads(boolean)} to run that work on
+     * virtual threads instead.
+     *
+     * @param executor the {@link ExecutorService} to use.
+     * @return this builder.
+     */
     @Override
     public OpcUaClientConfigBuilder setExecutor(ExecutorService executor) {
         super.setExecutor(executor);
         return this;
     }
 
+    @Override
+    public OpcUaClientConfigBuilder setUseVirtualThreads(boolean useVirtualThreads) {
+        super.setUseVirtualThreads(useVirtualThreads);
+        return this;
+    }
+
     @Override
     public OpcUaClientConfigBuilder setEventLoop(NioEventLoopGroup eventLoop) {
         super.setEventLoop(eventLoop);
@@ -225,7 +248,8 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             keepAliveFailuresAllowed,
             keepAliveInterval,
             keepAliveTimeout,
-            subscriptionWatchdogMultiplier
+            subscriptionWatchdogMultiplier,
+            maxPartitionedRequestsInFlight
         );
     }
 
@@ -245,6 +269,7 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
         private final UInteger keepAliveInterval;
         private final UInteger keepAliveTimeout;
         private final double subscriptionWatchdogMultiplier;
+        private final UInteger maxPartitionedRequestsInFlight;
 
         OpcUaClientConfigImpl(
             UaStackClientConfig stackClientConfig,
@@ -260,7 +285,8 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             UInteger keepAliveFailuresAllowed,
             UInteger keepAliveInterval,
             UInteger keepAliveTimeout,
-            double subscriptionWatchdogMultiplier
+            double subscriptionWatchdogMultiplier,
+            UInteger maxPartitionedRequestsInFlight
         ) {
 
             this.stackClientConfig = stackClientConfig;
@@ -277,6 +303,7 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             this.keepAliveInterval = keepAliveInterval;
             this.keepAliveTimeout = keepAliveTimeout;
             this.subscriptionWatchdogMultiplier = subscriptionWatchdogMultiplier;
+            this.maxPartitionedRequestsInFlight = maxPartitionedRequestsInFlight;
         }
 
         @Override
@@ -344,6 +371,11 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             return subscriptionWatchdogMultiplier;
         }
 
+        @Override
+        public UInteger getMaxPartitionedRequestsInFlight() {
+            return maxPartitionedRequestsInFlight;
+        }
+
         @Override
         public EndpointDescription getEndpoint() {
             return stackClientConfig.getEndpoint();
@@ -19,16 +19,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.SessionActivityListener;
 import org.eclipse.milo.opcua.sdk.client.api.UaSession;
@@ -857,9 +857,17 @@ public class OpcUaSubscriptionManager implements UaSubscriptionManager {
         watchdogTimers.clear();
     }
 
-    private class WatchdogTimer {
+    /**
+     * Tracks the time since a subscription was last kicked on the client's wheel timer.
+     * <p>
+     * Kicking only records a timestamp; when the pending timeout fires early because the subscription was kicked in
+     * the meantime it is re-armed for the remaining time instead of being cancelled and rescheduled on every kick.
+     */
+    private class WatchdogTimer implements TimerTask {
+
+        private volatile long lastKickNanos = System.nanoTime();
 
-        private final AtomicReference<ScheduledFuture<?>> scheduledFuture = new AtomicReference<>();
+        private Timeout timeout;
 
         private final OpcUaSubscription subscription;
         private final double multiplier;
@@ -870,28 +878,44 @@ public class OpcUaSubscriptionManager implements UaSubscriptionManager {
         }
 
         void kick() {
-            ScheduledFuture<?> sf = scheduledFuture.get();
-            if (sf != null) sf.cancel(false);
+            lastKickNanos = System.nanoTime();
+
+            synchronized (this) {
+                if (timeout == null) {
+                    timeout = client.getConfig().getWheelTimer()
+                        .newTimeout(this, getDelayNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+        }
 
-            scheduleNext();
+        synchronized void cancel() {
+            if (timeout != null) {
+                timeout.cancel();
+                timeout = null;
+            }
         }
 
-        void cancel() {
-            ScheduledFuture<?> sf = scheduledFuture.getAndSet(null);
-            if (sf != null) sf.cancel(false);
+        @Override
+        public synchronized void run(Timeout timeout) {
+            if (timeout != this.timeout) return;
+
+            long remainingNanos = getDelayNanos() - (System.nanoTime() - lastKickNanos);
+
+            if (remainingNanos > 0) {
+                this.timeout = client.getConfig().getWheelTimer()
+                    .newTimeout(this, remainingNanos, TimeUnit.NANOSECONDS);
+            } else {
+                this.timeout = null;
+
+                client.getConfig().getExecutor().execute(this::notifyListeners);
+            }
         }
 
-        private void scheduleNext() {
+        private long getDelayNanos() {
             long delay = Math.round(subscription.getRevisedPublishingInterval() *
                 subscription.getRevisedMaxKeepAliveCount().longValue() * multiplier);
 
-            ScheduledFuture<?> nextSf = client.getConfig().getScheduledExecutor().schedule(
-                () -> client.getConfig().getExecutor().execute(this::notifyListeners),
-                delay,
-                TimeUnit.MILLISECONDS
-            );
-
-            scheduledFuture.set(nextSf);
+            return TimeUnit.MILLISECONDS.toNanos(delay);
         }
 
         private void notifyListeners() {
@@ -0,0 +1,540 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.collect.MapMaker;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeObserver;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+
+/**
+ * A {@link UaNodeManager} that can keep the attributes of static Variable and Object Nodes in a memory-mapped file
+ * instead of on the heap.
+ * <p>
+ * Nodes added with {@link #storeNode(UaNode)} are encoded into the file and only a small index entry is kept on the
+ * heap. When a stored Node is requested a plain {@link UaVariableNode} or {@link UaObjectNode} is materialized from
+ * the file and cached with weak references, so Nodes that aren't in use are collected again.
+ * <p>
+ * Setting an attribute of a materialized Node moves it to the heap for good, so changes are never lost. Nodes that
+ * need attribute filters, delegates, or a subclass of {@link UaVariableNode} or {@link UaObjectNode} should be added
+ * to the heap with {@link #addNode(UaNode)} instead.
+ * <p>
+ * The file only lives as long as this {@link MappedNodeManager}: it's truncated when opened and space used by Nodes
+ * that are replaced or removed is not reclaimed.
+ */
+public class MappedNodeManager extends UaNodeManager implements AutoCloseable {
+
+    /**
+     * The size of each mapped segment of the file. A single Node must fit in one segment.
+     */
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 28;
+
+    private final ConcurrentMap<NodeId, UaNode> materialized = new MapMaker().weakValues().makeMap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private final OffsetIndex index = new OffsetIndex();
+
+    /**
+     * Moves materialized Nodes to the heap when one of their attributes is set.
+     */
+    private final AttributeObserver promoter = (node, attributeId, value) -> promote(node);
+
+    private final UaNodeContext nodeContext;
+    private final SerializationContext serializationContext;
+    private final FileChannel channel;
+    private final int segmentSize;
+
+    /**
+     * Position of the next record in the file; guarded by {@link #lock}.
+     */
+    private long position = 0L;
+
+    public MappedNodeManager(OpcUaServer server, Path file) throws IOException {
+        this(server, file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedNodeManager(OpcUaServer server, Path file, int segmentSize) throws IOException {
+        this.segmentSize = segmentSize;
+
+        serializationContext = server.getSerializationContext();
+
+        nodeContext = new UaNodeContext() {
+            @Override
+            public OpcUaServer getServer() {
+                return server;
+            }
+
+            @Override
+            public NodeManager<UaNode> getNodeManager() {
+                return MappedNodeManager.this;
+            }
+        };
+
+        channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+    }
+
+    /**
+     * Store the attributes of {@code node} in the mapped file, replacing any Node with the same {@link NodeId}.
+     * <p>
+     * Only the attributes are stored; {@code node} itself is not retained.
+     *
+     * @param node a {@link UaVariableNode} or {@link UaObjectNode}, and not a subclass of either.
+     * @throws IllegalArgumentException if {@code node} can't be stored.
+     * @throws UncheckedIOException     if the file couldn't be mapped.
+     */
+    public void storeNode(UaNode node) {
+        if (node.getClass() != UaVariableNode.class && node.getClass() != UaObjectNode.class) {
+            throw new IllegalArgumentException(
+                "only UaVariableNode and UaObjectNode can be stored: " + node.getClass()
+            );
+        }
+
+        ByteBuf buffer = Unpooled.buffer();
+
+        try {
+            encode(node, new OpcUaBinaryStreamEncoder(serializationContext).setBuffer(buffer));
+
+            int length = buffer.readableBytes();
+            if (length > segmentSize) {
+                throw new IllegalArgumentException(
+                    String.format("node %s is too large to store (%s bytes)", node.getNodeId(), length)
+                );
+            }
+
+            NodeId nodeId = node.getNodeId();
+
+            lock.writeLock().lock();
+            try {
+                long offset = position;
+                if (offset / segmentSize != (offset + length - 1) / segmentSize) {
+                    // records don't cross segments; start at the next one
+                    offset = (offset / segmentSize + 1) * segmentSize;
+                }
+
+                // cast so these compile against the Java 8 signatures of Buffer and ByteBuffer
+                ByteBuffer segment = ((ByteBuffer) segment((int) (offset / segmentSize))).duplicate();
+                ((Buffer) segment).position((int) (offset % segmentSize));
+                buffer.getBytes(buffer.readerIndex(), segment);
+
+                index.put(nodeId, offset);
+                position = offset + length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            materialized.remove(nodeId);
+            getNodeMap().remove(nodeId);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * @return the number of Nodes stored in the mapped file.
+     */
+    public int getStoredNodeCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the Node identified by {@code nodeId} is currently materialized from the file, rather
+     * than being on the heap or not in use.
+     */
+    boolean isMaterialized(NodeId nodeId) {
+        return materialized.containsKey(nodeId);
+    }
+
+    @Override
+    public boolean containsNode(NodeId nodeId) {
+        if (super.containsNode(nodeId)) return true;
+
+        lock.readLock().lock();
+        try {
+            return index.get(nodeId) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<UaNode> getNode(NodeId nodeId) {
+        UaNode node = getNodeMap().get(nodeId);
+        if (node == null) node = materialized.get(nodeId);
+
+        if (node == null) {
+            ByteBuffer record = null;
+
+            lock.readLock().lock();
+            try {
+                long offset = index.get(nodeId);
+
+                if (offset >= 0) {
+                    record = record(offset);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (record != null) {
+                node = decode(record);
+                node.addAttributeObserver(promoter);
+
+                UaNode previous = materialized.putIfAbsent(nodeId, node);
+                if (previous != null) node = previous;
+            }
+        }
+
+        return Optional.ofNullable(node);
+    }
+
+    @Override
+    public Optional<UaNode> removeNode(NodeId nodeId) {
+        Optional<UaNode> node = getNode(nodeId);
+
+        lock.writeLock().lock();
+        try {
+            index.remove(nodeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        materialized.remove(nodeId);
+        super.removeNode(nodeId);
+
+        return node;
+    }
+
+    /**
+     * Get a copied List of the Nodes being managed, materializing every stored Node.
+     *
+     * @return a copied List of the Nodes being managed.
+     */
+    @Override
+    public List<UaNode> getNodes() {
+        List<UaNode> nodes = new ArrayList<>();
+
+        for (NodeId nodeId : getNodeIds()) {
+            getNode(nodeId).ifPresent(nodes::add);
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public List<NodeId> getNodeIds() {
+        List<NodeId> nodeIds = super.getNodeIds();
+
+        lock.readLock().lock();
+        try {
+            for (long offset : index.offsets()) {
+                NodeId nodeId = readNodeId(record(offset));
+
+                if (!getNodeMap().containsKey(nodeId)) {
+                    nodeIds.add(nodeId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return nodeIds;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            segments.clear();
+            index.clear();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        materialized.clear();
+    }
+
+    private void promote(UaNode node) {
+        NodeId nodeId = node.getNodeId();
+
+        if (materialized.get(nodeId) != node) return;
+
+        // Into the node map before out of materialized, so a concurrent getNode
+        // finds it in one or the other instead of decoding a stale copy.
+        getNodeMap().putIfAbsent(nodeId, node);
+
+        if (materialized.remove(nodeId, node)) {
+            node.removeAttributeObserver(promoter);
+        }
+    }
+
+    private MappedByteBuffer segment(int i) {
+        try {
+            while (segments.size() <= i) {
+                long start = (long) segments.size() * segmentSize;
+
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, segmentSize));
+            }
+            return segments.get(i);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get a buffer positioned at the record at {@code offset}. Must be called with {@link #lock} held; the record
+     * can be decoded after it's released.
+     */
+    private ByteBuffer record(long offset) {
+        ByteBuffer segment = ((ByteBuffer) segments.get((int) (offset / segmentSize))).duplicate();
+        ((Buffer) segment).position((int) (offset % segmentSize));
+        return segment;
+    }
+
+    private NodeId readNodeId(ByteBuffer record) {
+        return new OpcUaBinaryStreamDecoder(serializationContext)
+            .setBuffer(Unpooled.wrappedBuffer(record))
+            .readNodeId();
+    }
+
+    private static void encode(UaNode node, OpcUaBinaryStreamEncoder encoder) {
+        encoder.writeNodeId(node.getNodeId());
+        encoder.writeInt32(node.getNodeClass().getValue());
+        encoder.writeQualifiedName(node.getBrowseName());
+        encoder.writeLocalizedText(node.getDisplayName());
+        encoder.writeLocalizedText(node.getDescription());
+        encoder.writeUInt32(node.getWriteMask());
+        encoder.writeUInt32(node.getUserWriteMask());
+
+        if (node instanceof UaVariableNode) {
+            UaVariableNode variableNode = (UaVariableNode) node;
+
+            encoder.writeDataValue(variableNode.getValue());
+            encoder.writeNodeId(variableNode.getDataType());
+            encoder.writeInt32(variableNode.getValueRank());
+            encoder.writeArray(variableNode.getArrayDimensions(), encoder::writeUInt32);
+            encoder.writeByte(variableNode.getAccessLevel());
+            encoder.writeByte(variableNode.getUserAccessLevel());
+            encoder.writeDouble(variableNode.getMinimumSamplingInterval());
+            encoder.writeBoolean(variableNode.getHistorizing());
+        } else {
+            encoder.writeByte(((UaObjectNode) node).getEventNotifier());
+        }
+    }
+
+    private UaNode decode(ByteBuffer record) {
+        OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(serializationContext)
+            .setBuffer(Unpooled.wrappedBuffer(record));
+
+        NodeId nodeId = decoder.readNodeId();
+        NodeClass nodeClass = NodeClass.from(decoder.readInt32());
+
+        if (nodeClass == NodeClass.Variable) {
+            return new UaVariableNode(
+                nodeContext,
+                nodeId,
+                decoder.readQualifiedName(),
+                decoder.readLocalizedText(),
+                decoder.readLocalizedText(),
+                decoder.readUInt32(),
+                decoder.readUInt32(),
+                decoder.readDataValue(),
+                decoder.readNodeId(),
+                decoder.readInt32(),
+                decoder.readArray(decoder::readUInt32, UInteger.class),
+                decoder.readByte(),
+                decoder.readByte(),
+                decoder.readDouble(),
+                decoder.readBoolean()
+            );
+        } else {
+            return new UaObjectNode(
+                nodeContext,
+                nodeId,
+                decoder.readQualifiedName(),
+                decoder.readLocalizedText(),
+                decoder.readLocalizedText(),
+                decoder.readUInt32(),
+                decoder.readUInt32(),
+                decoder.readByte()
+            );
+        }
+    }
+
+    /**
+     * An open-addressing hash index from {@link NodeId} to record offset, kept in primitive arrays so each stored Node
+     * costs only a few bytes of heap. Keys aren't kept; they're compared by decoding the NodeId at the start of each
+     * candidate record. Guarded by {@link #lock}.
+     */
+    private final class OffsetIndex {
+
+        private static final long EMPTY = 0L;
+        private static final long DELETED = -1L;
+
+        private int[] hashes = new int[1024];
+
+        /**
+         * Offset + 1 of each record, {@link #EMPTY}, or {@link #DELETED}.
+         */
+        private long[] slots = new long[1024];
+
+        private int size;
+        private int used;
+
+        int size() {
+            return size;
+        }
+
+        long get(NodeId nodeId) {
+            int slot = find(nodeId, nodeId.hashCode());
+
+            return slot >= 0 ? slots[slot] - 1 : -1L;
+        }
+
+        void put(NodeId nodeId, long offset) {
+            int hash = nodeId.hashCode();
+            int slot = find(nodeId, hash);
+
+            if (slot >= 0) {
+                slots[slot] = offset + 1;
+                return;
+            }
+
+            if ((used + 1) * 2 > slots.length) {
+                resize(size * 4 >= slots.length ? slots.length * 2 : slots.length);
+            }
+
+            int mask = slots.length - 1;
+            slot = mix(hash) & mask;
+            while (slots[slot] != EMPTY && slots[slot] != DELETED) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (slots[slot] == EMPTY) used++;
+
+            hashes[slot] = hash;
+            slots[slot] = offset + 1;
+            size++;
+        }
+
+        void remove(NodeId nodeId) {
+            int slot = find(nodeId, nodeId.hashCode());
+
+            if (slot >= 0) {
+                slots[slot] = DELETED;
+                size--;
+            }
+        }
+
+        long[] offsets() {
+            long[] offsets = new long[size];
+            int n = 0;
+
+            for (long s : slots) {
+                if (s != EMPTY && s != DELETED) {
+                    offsets[n++] = s - 1;
+                }
+            }
+
+            return offsets;
+        }
+
+        void clear() {
+            Arrays.fill(slots, EMPTY);
+            size = 0;
+            used = 0;
+        }
+
+        private int find(NodeId nodeId, int hash) {
+            int mask = slots.length - 1;
+            int slot = mix(hash) & mask;
+
+            while (slots[slot] != EMPTY) {
+                if (slots[slot] != DELETED && hashes[slot] == hash &&
+                    nodeId.equals(readNodeId(record(slots[slot] - 1)))) {
+
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            return -1;
+        }
+
+        private void resize(int length) {
+            int[] oldHashes = hashes;
+            long[] oldSlots = slots;
+
+            hashes = new int[length];
+            slots = new long[length];
+            used = size;
+
+            int mask = length - 1;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != EMPTY && oldSlots[i] != DELETED) {
+                    int slot = mix(oldHashes[i]) & mask;
+                    while (slots[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    hashes[slot] = oldHashes[i];
+                    slots[slot] = oldSlots[i];
+                }
+            }
+        }
+
+        private int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+    }
+
+}
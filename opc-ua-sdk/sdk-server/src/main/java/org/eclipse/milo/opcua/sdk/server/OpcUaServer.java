@@ -18,6 +18,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
@@ -25,6 +26,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.eventbus.EventBus;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import org.eclipse.milo.opcua.sdk.core.ServerTable;
 import org.eclipse.milo.opcua.sdk.server.api.AddressSpaceManager;
 import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
@@ -35,6 +39,7 @@ import org.eclipse.milo.opcua.sdk.server.namespaces.OpcUaNamespace;
 import org.eclipse.milo.opcua.sdk.server.namespaces.ServerNamespace;
 import org.eclipse.milo.opcua.sdk.server.nodes.factories.EventFactory;
 import org.eclipse.milo.opcua.sdk.server.subscriptions.Subscription;
+import org.eclipse.milo.opcua.sdk.server.util.SamplingScheduler;
 import org.eclipse.milo.opcua.stack.core.BuiltinReferenceType;
 import org.eclipse.milo.opcua.stack.core.NamespaceTable;
 import org.eclipse.milo.opcua.stack.core.ReferenceType;
@@ -71,6 +76,11 @@ public class OpcUaServer {
         logger.info("Eclipse Milo OPC UA Server SDK version: {}", SDK_VERSION);
     }
 
+    /**
+     * The tick duration, in milliseconds, of the wheel returned by {@link #getLifecycleTimer()}.
+     */
+    private static final long LIFECYCLE_TIMER_TICK_MILLIS = 10L;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final Map<NodeId, ReferenceType> referenceTypes = Maps.newConcurrentMap();
@@ -95,6 +105,10 @@ public class OpcUaServer {
 
     private final UaStackServer stackServer;
 
+    private final SamplingScheduler samplingScheduler;
+
+    private HashedWheelTimer lifecycleTimer;
+
     private final OpcUaNamespace opcUaNamespace;
     private final ServerNamespace serverNamespace;
 
@@ -105,6 +119,11 @@ public class OpcUaServer {
 
         stackServer = new UaStackServer(config);
 
+        samplingScheduler = new SamplingScheduler(
+            config.getExecutor(),
+            config.getLimits().getSamplingIntervalQuantum()
+        );
+
         Stream<String> paths = stackServer.getConfig().getEndpoints()
             .stream()
             .map(e -> EndpointUtil.getPath(e.getEndpointUrl()))
@@ -145,10 +164,20 @@ public class OpcUaServer {
     public CompletableFuture<OpcUaServer> startup() {
         eventFactory.startup();
 
+        samplingScheduler.startup();
+
         return stackServer.startup()
             .thenApply(s -> OpcUaServer.this);
     }
 
+    /**
+     * Shut down this server.
+     * <p>
+     * Subscriptions are deleted but Sessions are not closed. The {@link #getLifecycleTimer()} is stopped, so the
+     * Sessions' timeouts no longer run and they stay open until the server is discarded.
+     *
+     * @return a {@link CompletableFuture} that completes when the server has shut down.
+     */
     public CompletableFuture<OpcUaServer> shutdown() {
         serverNamespace.shutdown();
         opcUaNamespace.shutdown();
@@ -158,6 +187,15 @@ public class OpcUaServer {
         subscriptions.values()
             .forEach(Subscription::deleteSubscription);
 
+        samplingScheduler.shutdown();
+
+        synchronized (this) {
+            if (lifecycleTimer != null) {
+                lifecycleTimer.stop();
+                lifecycleTimer = null;
+            }
+        }
+
         return stackServer.shutdown()
             .thenApply(s -> OpcUaServer.this);
     }
@@ -258,6 +296,67 @@ public class OpcUaServer {
         return stackServer.getConfig().getExecutor();
     }
 
+    /**
+     * @return the {@link SamplingScheduler} used to sample monitored items.
+     */
+    public SamplingScheduler getSamplingScheduler() {
+        return samplingScheduler;
+    }
+
+    /**
+     * Get the {@link HashedWheelTimer} that tracks Session timeouts and Subscription publishing timers.
+     * <p>
+     * Tasks run on the wheel's thread and must hand any real work off to {@link #getExecutorService()}. The wheel is
+     * stopped on {@link #shutdown()}, after every Subscription is deleted, and a new one is created the next time it's
+     * requested. Use {@link #newLifecycleTimeout(TimerTask, long, TimeUnit)} to schedule on it without racing
+     * {@link #shutdown()}.
+     *
+     * @return the {@link HashedWheelTimer} that tracks Session and Subscription lifecycle timers.
+     */
+    public synchronized HashedWheelTimer getLifecycleTimer() {
+        if (lifecycleTimer == null) {
+            lifecycleTimer = new HashedWheelTimer(
+                r -> {
+                    Thread thread = new Thread(r, "milo-server-lifecycle-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                LIFECYCLE_TIMER_TICK_MILLIS,
+                TimeUnit.MILLISECONDS
+            );
+        }
+
+        return lifecycleTimer;
+    }
+
+    /**
+     * Schedule {@code task} to run on the {@link #getLifecycleTimer()} after {@code delay}.
+     * <p>
+     * Unlike calling {@link HashedWheelTimer#newTimeout(TimerTask, long, TimeUnit)} on the wheel directly, this doesn't
+     * fail when {@link #shutdown()} stops the wheel concurrently; {@code task} is scheduled on a new wheel instead.
+     *
+     * @param task  the {@link TimerTask} to run.
+     * @param delay the delay before {@code task} runs.
+     * @param unit  the {@link TimeUnit} of {@code delay}.
+     * @return the {@link Timeout} for {@code task}, which can be used to cancel it.
+     */
+    public Timeout newLifecycleTimeout(TimerTask task, long delay, TimeUnit unit) {
+        HashedWheelTimer timer = getLifecycleTimer();
+
+        try {
+            return timer.newTimeout(task, delay, unit);
+        } catch (IllegalStateException e) {
+            // stopped after it was obtained, e.g. by a concurrent shutdown(); replace it if that hasn't happened yet
+            synchronized (this) {
+                if (lifecycleTimer == timer) {
+                    lifecycleTimer = null;
+                }
+            }
+
+            return getLifecycleTimer().newTimeout(task, delay, unit);
+        }
+    }
+
     public ScheduledExecutorService getScheduledExecutorService() {
         return config.getScheduledExecutorService();
     }
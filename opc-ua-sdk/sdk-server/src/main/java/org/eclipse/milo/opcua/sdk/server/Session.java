@@ -17,12 +17,12 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.util.Timeout;
 import org.eclipse.milo.opcua.sdk.server.diagnostics.SessionDiagnostics;
 import org.eclipse.milo.opcua.sdk.server.diagnostics.SessionSecurityDiagnostics;
 import org.eclipse.milo.opcua.sdk.server.services.DefaultAttributeHistoryServiceSet;
@@ -84,7 +84,7 @@ public class Session implements SessionServiceSet {
     private volatile ByteString lastNonce = ByteString.NULL_VALUE;
 
     private volatile long lastActivityNanos = System.nanoTime();
-    private volatile ScheduledFuture<?> checkTimeoutFuture;
+    private volatile Timeout timeoutTimer;
 
     private final DefaultAttributeServiceSet attributeServiceSet;
     private final DefaultAttributeHistoryServiceSet attributeHistoryServiceSet;
@@ -152,8 +152,8 @@ public class Session implements SessionServiceSet {
         subscriptionServiceSet = new DefaultSubscriptionServiceSet(subscriptionManager);
         viewServiceSet = new DefaultViewServiceSet(server.getConfig().getExecutor());
 
-        checkTimeoutFuture = server.getScheduledExecutorService().schedule(
-            this::checkTimeout, sessionTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        timeoutTimer = server.newLifecycleTimeout(
+            t -> checkTimeout(), sessionTimeout.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     public OpcUaServer getServer() {
@@ -314,22 +314,27 @@ public class Session implements SessionServiceSet {
         return lastNonce;
     }
 
+    /**
+     * Runs on the server's lifecycle timer; activity only updates {@code lastActivityNanos}, so the timeout is re-armed
+     * for the remaining time here instead of being rescheduled on every request.
+     */
     private void checkTimeout() {
         long elapsed = Math.abs(System.nanoTime() - lastActivityNanos);
 
         if (elapsed > sessionTimeout.toNanos()) {
             logger.debug("Session id={} lifetime expired ({}ms).", sessionId, sessionTimeout.toMillis());
 
-            close(true);
+            server.getExecutorService().execute(() -> {
+                close(true);
 
-            server.getDiagnosticsSummary().getSessionTimeoutCount().increment();
+                server.getDiagnosticsSummary().getSessionTimeoutCount().increment();
+            });
         } else {
             long remaining = sessionTimeout.toNanos() - elapsed;
             logger.trace("Session id={} timeout scheduled for +{}s.",
                 sessionId, Duration.ofNanos(remaining).getSeconds());
 
-            checkTimeoutFuture = server.getScheduledExecutorService()
-                .schedule(this::checkTimeout, remaining, TimeUnit.NANOSECONDS);
+            timeoutTimer = server.newLifecycleTimeout(t -> checkTimeout(), remaining, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -407,8 +412,8 @@ public class Session implements SessionServiceSet {
     }
 
     void close(boolean deleteSubscriptions) {
-        if (checkTimeoutFuture != null) {
-            checkTimeoutFuture.cancel(false);
+        if (timeoutTimer != null) {
+            timeoutTimer.cancel();
         }
 
         subscriptionManager.sessionClosed(deleteSubscriptions);
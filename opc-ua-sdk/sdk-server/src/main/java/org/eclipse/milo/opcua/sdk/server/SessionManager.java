@@ -832,6 +832,19 @@ public class SessionManager implements
         session(service).onCancel(service);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only activated Sessions count; requests made with the token of a Session that hasn't been activated yet are
+     * rejected anyway.
+     */
+    @Override
+    public boolean isSessionToken(NodeId authenticationToken, long secureChannelId) {
+        Session session = activeSessions.get(authenticationToken);
+
+        return session != null && session.getSecureChannelId() == secureChannelId;
+    }
+
     private SignatureData getServerSignature(
         SecurityPolicy securityPolicy,
         KeyPair keyPair,
@@ -11,31 +11,35 @@
 package org.eclipse.milo.opcua.sdk.server.api;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
+import com.google.common.collect.ForwardingConcurrentMap;
 import com.google.common.collect.LinkedHashMultiset;
 import com.google.common.collect.MapMaker;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.core.nodes.Node;
 import org.eclipse.milo.opcua.stack.core.NamespaceTable;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.jetbrains.annotations.Nullable;
 
 public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
 
     private final ConcurrentMap<NodeId, T> nodeMap;
-    private final ConcurrentMap<NodeId, LinkedHashMultiset<Reference>> referenceMap;
+    private final CompactReferenceStore referenceStore = new CompactReferenceStore();
 
     public AbstractNodeManager() {
         nodeMap = makeNodeMap(new MapMaker());
-
-        referenceMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -58,12 +62,28 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
     }
 
     /**
-     * Get the backing {@link ConcurrentMap} holding this {@link NodeManager}'s References.
+     * Get a read-only snapshot of this {@link NodeManager}'s References, grouped by source {@link NodeId}.
+     * <p>
+     * References are no longer kept in a map, so changes can't be written through to this {@link NodeManager}; the
+     * returned map, its views, and the {@link Multiset}s it contains all throw {@link UnsupportedOperationException}
+     * if modified.
      *
-     * @return the backing {@link ConcurrentMap} holding this {@link NodeManager}'s References.
+     * @return a read-only snapshot of this {@link NodeManager}'s References, grouped by source {@link NodeId}.
+     * @deprecated use {@link #getReferences(NodeId)} and the add/remove methods of {@link NodeManager}.
      */
-    public ConcurrentMap<NodeId, LinkedHashMultiset<Reference>> getReferenceMap() {
-        return referenceMap;
+    @Deprecated
+    public ConcurrentMap<NodeId, Multiset<Reference>> getReferenceMap() {
+        ConcurrentMap<NodeId, Multiset<Reference>> referenceMap = new ConcurrentHashMap<>();
+
+        for (NodeId nodeId : referenceStore.getSourceNodeIds()) {
+            List<Reference> references = referenceStore.get(nodeId);
+
+            if (!references.isEmpty()) {
+                referenceMap.put(nodeId, Multisets.unmodifiableMultiset(LinkedHashMultiset.create(references)));
+            }
+        }
+
+        return new UnmodifiableConcurrentMap<>(referenceMap);
     }
 
     /**
@@ -122,61 +142,123 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
     }
 
     @Override
-    public synchronized void addReference(Reference reference) {
-        LinkedHashMultiset<Reference> references = referenceMap.computeIfAbsent(
-            reference.getSourceNodeId(),
-            nodeId -> LinkedHashMultiset.create()
-        );
-
-        references.add(reference);
+    public void addReference(Reference reference) {
+        referenceStore.add(reference);
     }
 
     @Override
-    public synchronized void addReferences(Reference reference, NamespaceTable namespaceTable) {
+    public void addReferences(Reference reference, NamespaceTable namespaceTable) {
         addReference(reference);
 
         reference.invert(namespaceTable).ifPresent(this::addReference);
     }
 
     @Override
-    public synchronized void removeReference(Reference reference) {
-        LinkedHashMultiset<Reference> references = referenceMap.get(
-            reference.getSourceNodeId()
-        );
-
-        if (references != null) {
-            references.remove(reference);
-
-            if (references.isEmpty()) {
-                referenceMap.remove(reference.getSourceNodeId());
-            }
-        }
+    public void removeReference(Reference reference) {
+        referenceStore.remove(reference);
     }
 
     @Override
-    public synchronized void removeReferences(Reference reference, NamespaceTable namespaceTable) {
+    public void removeReferences(Reference reference, NamespaceTable namespaceTable) {
         removeReference(reference);
 
         reference.invert(namespaceTable).ifPresent(this::removeReference);
     }
 
     @Override
-    public synchronized List<Reference> getReferences(NodeId nodeId) {
-        LinkedHashMultiset<Reference> references = referenceMap.get(nodeId);
+    public boolean containsReferences(NodeId nodeId) {
+        return referenceStore.contains(nodeId);
+    }
 
-        if (references != null) {
-            return new ArrayList<>(references);
-        } else {
-            return Collections.emptyList();
-        }
+    @Override
+    public List<Reference> getReferences(NodeId nodeId) {
+        return referenceStore.get(nodeId);
     }
 
     @Override
     public List<Reference> getReferences(NodeId nodeId, Predicate<Reference> filter) {
-        return getReferences(nodeId)
-            .stream()
-            .filter(filter)
-            .collect(Collectors.toList());
+        return referenceStore.get(nodeId, null, null, filter);
+    }
+
+    @Override
+    public List<Reference> getReferences(
+        NodeId nodeId,
+        @Nullable NodeId referenceTypeId,
+        @Nullable Reference.Direction direction
+    ) {
+
+        return referenceStore.get(nodeId, referenceTypeId, direction, null);
+    }
+
+    private static class UnmodifiableConcurrentMap<K, V> extends ForwardingConcurrentMap<K, V> {
+
+        private final ConcurrentMap<K, V> delegate;
+
+        UnmodifiableConcurrentMap(ConcurrentMap<K, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected ConcurrentMap<K, V> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> map) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public V remove(Object key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public V replace(K key, V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return Collections.unmodifiableSet(delegate.keySet());
+        }
+
+        @Override
+        public Collection<V> values() {
+            return Collections.unmodifiableCollection(delegate.values());
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            // unmodifiableMap also wraps the entries, so setValue() fails too
+            return Collections.unmodifiableMap(delegate).entrySet();
+        }
+
     }
 
 }
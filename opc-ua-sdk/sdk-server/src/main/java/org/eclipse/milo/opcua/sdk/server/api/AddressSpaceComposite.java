@@ -12,10 +12,10 @@ package org.eclipse.milo.opcua.sdk.server.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -29,6 +29,7 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.AddNodesItem;
 import org.eclipse.milo.opcua.stack.core.types.structured.AddNodesResult;
@@ -47,6 +48,7 @@ import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
 import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,14 +63,21 @@ import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.
  * <p>
  * Service call operations are executed by the first fragment that matches on the NodeId in the
  * operation.
+ * <p>
+ * Registered fragments are kept in an immutable snapshot that is replaced on register and unregister. Fragments that
+ * declare a namespace index via {@link AddressSpaceFragment#getFilteredNamespaceIndex()} are only considered for
+ * operations on NodeIds in that namespace, and browse only asks the fragments that
+ * {@link AddressSpaceFragment#contributesReferences(NodeId)} for additional references.
  */
 public class AddressSpaceComposite implements AddressSpaceFragment {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final CopyOnWriteArrayList<AddressSpaceFragment> addressSpaces = new CopyOnWriteArrayList<>();
+    private final CompositeAddressSpaceFilter filter = new CompositeAddressSpaceFilter();
+
+    private volatile FragmentIndex fragmentIndex = FragmentIndex.EMPTY;
 
-    private final CompositeAddressSpaceFilter filter = new CompositeAddressSpaceFilter(addressSpaces);
+    private volatile EmptyAddressSpaceFragment emptyAddressSpace;
 
     private final OpcUaServer server;
 
@@ -81,6 +90,21 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         return filter;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A composite contributes references if any of its registered fragments does.
+     */
+    @Override
+    public boolean contributesReferences(NodeId nodeId) {
+        for (AddressSpaceFragment asx : fragmentIndex.fragments) {
+            if (asx.contributesReferences(nodeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Register an {@link AddressSpace} with this composite.
      * <p>
@@ -89,8 +113,11 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
      * @param addressSpace the {@link AddressSpace} to register.
      */
     public synchronized void register(AddressSpaceFragment addressSpace) {
+        List<AddressSpaceFragment> addressSpaces = new ArrayList<>(fragmentIndex.fragments);
+
         if (!addressSpaces.contains(addressSpace)) {
             addressSpaces.add(addressSpace);
+            fragmentIndex = new FragmentIndex(addressSpaces);
 
             logger.debug("registered {}", addressSpace);
         } else {
@@ -106,8 +133,11 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
      * @param addressSpace the {@link AddressSpace} to register.
      */
     public synchronized void registerFirst(AddressSpaceFragment addressSpace) {
+        List<AddressSpaceFragment> addressSpaces = new ArrayList<>(fragmentIndex.fragments);
+
         if (!addressSpaces.contains(addressSpace)) {
             addressSpaces.add(0, addressSpace);
+            fragmentIndex = new FragmentIndex(addressSpaces);
 
             logger.debug("registered {} at index 0", addressSpace);
         } else {
@@ -121,8 +151,10 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
      * @param addressSpace the {@link AddressSpace} to unregister.
      */
     public synchronized void unregister(AddressSpaceFragment addressSpace) {
-        if (addressSpaces.contains(addressSpace)) {
-            addressSpaces.remove(addressSpace);
+        List<AddressSpaceFragment> addressSpaces = new ArrayList<>(fragmentIndex.fragments);
+
+        if (addressSpaces.remove(addressSpace)) {
+            fragmentIndex = new FragmentIndex(addressSpaces);
 
             logger.debug("unregistered {}", addressSpace);
         } else {
@@ -140,37 +172,56 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     }
 
     /**
-     * Get a copy of the current {@link AddressSpace} list.
+     * Get the current {@link AddressSpace} list.
+     * <p>
+     * The list is an unmodifiable snapshot; it is replaced, not modified, when an AddressSpace is registered or
+     * unregistered.
      *
-     * @return a copy of the current {@link AddressSpace} list.
+     * @return the current {@link AddressSpace} list.
      */
     protected List<AddressSpaceFragment> getAddressSpaces() {
-        return new ArrayList<>(addressSpaces);
+        return fragmentIndex.fragments;
     }
 
-    private AddressSpaceFragment getAddressSpace(Predicate<AddressSpaceFragment> filter) {
-        return addressSpaces.stream()
-            .filter(filter)
-            .findFirst()
-            .orElse(new EmptyAddressSpaceFragment(server));
+    /**
+     * Get the first {@link AddressSpaceFragment} that matches {@code filter}, considering only the fragments that
+     * can handle {@code nodeId} according to {@link AddressSpaceFragment#getFilteredNamespaceIndex()}.
+     *
+     * @param nodeId the {@link NodeId} the operation targets, or {@code null} to consider all fragments.
+     * @param filter the {@link AddressSpaceFilter} test for the operation.
+     * @return the first matching {@link AddressSpaceFragment}, or an empty fragment if none match.
+     */
+    private AddressSpaceFragment getAddressSpace(@Nullable NodeId nodeId, Predicate<AddressSpaceFragment> filter) {
+        for (AddressSpaceFragment asx : fragmentIndex.getFragments(nodeId)) {
+            if (filter.test(asx)) {
+                return asx;
+            }
+        }
+
+        EmptyAddressSpaceFragment empty = emptyAddressSpace;
+        if (empty == null) {
+            emptyAddressSpace = empty = new EmptyAddressSpaceFragment(server);
+        }
+        return empty;
     }
 
     //region ViewServices
 
     @Override
     public void browse(BrowseContext context, ViewDescription view, NodeId nodeId) {
-        List<AddressSpaceFragment> addressSpaces = getAddressSpaces();
-
-        AddressSpace firstMatch;
-        try {
-            firstMatch = addressSpaces.stream()
-                .filter(asx -> asx.getFilter().filterBrowse(server, nodeId))
-                .findFirst()
-                .orElseThrow(() -> new UaException(StatusCodes.Bad_NodeIdUnknown));
-
-            addressSpaces.remove(firstMatch);
-        } catch (UaException e) {
-            context.failure(e);
+        FragmentIndex fragmentIndex = this.fragmentIndex;
+
+        AddressSpaceFragment firstMatch = null;
+
+        for (AddressSpaceFragment asx : fragmentIndex.getFragments(nodeId)) {
+            if (asx.getFilter().filterBrowse(server, nodeId)) {
+                firstMatch = asx;
+                break;
+            }
+        }
+
+        if (firstMatch == null) {
+            context.failure(StatusCodes.Bad_NodeIdUnknown);
             return;
         }
 
@@ -185,7 +236,12 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
 
         futures.add(browseContext.getFuture());
 
-        for (AddressSpace asx : addressSpaces) {
+        // Only fragments that may have references for nodeId are asked for them.
+        for (AddressSpaceFragment asx : fragmentIndex.fragments) {
+            if (asx == firstMatch || !asx.contributesReferences(nodeId)) {
+                continue;
+            }
+
             browseContext = new BrowseContext(
                 getServer(),
                 context.getSession().orElse(null)
@@ -223,7 +279,11 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void getReferences(BrowseContext context, ViewDescription view, NodeId nodeId) {
         List<CompletableFuture<List<Reference>>> futures = new ArrayList<>();
 
-        for (AddressSpace asx : addressSpaces) {
+        for (AddressSpaceFragment asx : fragmentIndex.fragments) {
+            if (!asx.contributesReferences(nodeId)) {
+                continue;
+            }
+
             BrowseContext browseContext = new BrowseContext(
                 server,
                 context.getSession().orElse(null)
@@ -252,6 +312,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<NodeId>> registeredNodeIds = groupMapCollate(
             nodeIds,
             nodeId -> getAddressSpace(
+                nodeId,
                 asx ->
                     asx.getFilter().filterRegisterNode(server, nodeId)
             ),
@@ -276,6 +337,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<Unit>> units = groupMapCollate(
             nodeIds,
             nodeId -> getAddressSpace(
+                nodeId,
                 asx ->
                     asx.getFilter().filterUnregisterNode(server, nodeId)
             ),
@@ -297,7 +359,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
 
     @Override
     public UInteger getViewCount() {
-        return addressSpaces.stream()
+        return fragmentIndex.fragments.stream()
             .map(AddressSpace::getViewCount)
             .reduce(uint(0), UInteger::add);
     }
@@ -317,6 +379,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<DataValue>> values = groupMapCollate(
             readValueIds,
             readValueId -> getAddressSpace(
+                readValueId.getNodeId(),
                 asx ->
                     asx.getFilter().filterRead(server, readValueId)
             ),
@@ -345,6 +408,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<StatusCode>> results = groupMapCollate(
             writeValues,
             writeValue -> getAddressSpace(
+                writeValue.getNodeId(),
                 asx ->
                     asx.getFilter().filterWrite(server, writeValue)
             ),
@@ -380,6 +444,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<HistoryReadResult>> results = groupMapCollate(
             readValueIds,
             readValueId -> getAddressSpace(
+                readValueId.getNodeId(),
                 asx ->
                     asx.getFilter().filterHistoryRead(server, readValueId)
             ),
@@ -414,6 +479,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<HistoryUpdateResult>> results = groupMapCollate(
             updateDetailsList,
             updateDetails -> getAddressSpace(
+                updateDetails.getNodeId(),
                 asx ->
                     asx.getFilter().filterHistoryUpdate(server, updateDetails)
             ),
@@ -447,6 +513,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<CallMethodResult>> results = groupMapCollate(
             requests,
             request -> getAddressSpace(
+                request.getObjectId(),
                 asx ->
                     asx.getFilter().filterCall(server, request)
             ),
@@ -480,6 +547,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToMonitor.getNodeId(),
             asx ->
                 asx.getFilter().filterOnCreateDataItem(server, itemToMonitor)
         );
@@ -501,6 +569,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToModify.getNodeId(),
             asx ->
                 asx.getFilter().filterOnModifyDataItem(server, itemToModify)
         );
@@ -521,6 +590,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToMonitor.getNodeId(),
             asx ->
                 asx.getFilter().filterOnCreateEventItem(server, itemToMonitor)
         );
@@ -540,6 +610,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToModify.getNodeId(),
             asx ->
                 asx.getFilter().filterOnModifyEventItem(server, itemToModify)
         );
@@ -555,6 +626,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onDataItemsCreated(List<DataItem> dataItems) {
         Map<AddressSpace, List<DataItem>> byAddressSpace = dataItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnDataItemsCreated(server, item.getReadValueId())
             )
@@ -567,6 +639,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onDataItemsModified(List<DataItem> dataItems) {
         Map<AddressSpace, List<DataItem>> byAddressSpace = dataItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnDataItemsModified(server, item.getReadValueId())
             )
@@ -579,6 +652,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onDataItemsDeleted(List<DataItem> dataItems) {
         Map<AddressSpace, List<DataItem>> byAddressSpace = dataItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnDataItemsDeleted(server, item.getReadValueId())
             )
@@ -591,6 +665,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onEventItemsCreated(List<EventItem> eventItems) {
         Map<AddressSpace, List<EventItem>> byAddressSpace = eventItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnEventItemsCreated(server, item.getReadValueId())
             )
@@ -603,6 +678,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onEventItemsModified(List<EventItem> eventItems) {
         Map<AddressSpace, List<EventItem>> byAddressSpace = eventItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnEventItemsModified(server, item.getReadValueId())
             )
@@ -615,6 +691,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onEventItemsDeleted(List<EventItem> eventItems) {
         Map<AddressSpace, List<EventItem>> byAddressSpace = eventItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnEventItemsDeleted(server, item.getReadValueId())
             )
@@ -627,6 +704,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
     public void onMonitoringModeChanged(List<MonitoredItem> monitoredItems) {
         Map<AddressSpace, List<MonitoredItem>> byAddressSpace = monitoredItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnMonitoringModeChanged(server, item.getReadValueId())
             )
@@ -644,6 +722,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<AddNodesResult>> results = groupMapCollate(
             nodesToAdd,
             addNodesItem -> getAddressSpace(
+                null,
                 asx ->
                     asx.getFilter().filterAddNodes(server, addNodesItem)
             ),
@@ -669,6 +748,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<StatusCode>> results = groupMapCollate(
             nodesToDelete,
             deleteNodesItem -> getAddressSpace(
+                deleteNodesItem.getNodeId(),
                 asx ->
                     asx.getFilter().filterDeleteNodes(server, deleteNodesItem)
             ),
@@ -694,6 +774,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<StatusCode>> results = groupMapCollate(
             referencesToAdd,
             addReferencesItem -> getAddressSpace(
+                addReferencesItem.getSourceNodeId(),
                 asx ->
                     asx.getFilter().filterAddReferences(server, addReferencesItem)
             ),
@@ -719,6 +800,7 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
         CompletableFuture<List<StatusCode>> results = groupMapCollate(
             referencesToDelete,
             deleteReferencesItem -> getAddressSpace(
+                deleteReferencesItem.getSourceNodeId(),
                 asx ->
                     asx.getFilter().filterDeleteReferences(server, deleteReferencesItem)
             ),
@@ -741,150 +823,281 @@ public class AddressSpaceComposite implements AddressSpaceFragment {
 
     //endregion
 
-    private static class CompositeAddressSpaceFilter implements AddressSpaceFilter {
-
-        private final List<AddressSpaceFragment> addressSpaces;
+    private class CompositeAddressSpaceFilter implements AddressSpaceFilter {
 
-        CompositeAddressSpaceFilter(List<AddressSpaceFragment> addressSpaces) {
-            this.addressSpaces = addressSpaces;
+        private boolean anyMatch(@Nullable NodeId nodeId, Predicate<AddressSpaceFragment> filter) {
+            for (AddressSpaceFragment asx : fragmentIndex.getFragments(nodeId)) {
+                if (filter.test(asx)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         @Override
         public boolean filterBrowse(OpcUaServer server, NodeId nodeId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterBrowse(server, nodeId));
+            return anyMatch(
+                nodeId,
+                asx -> asx.getFilter().filterBrowse(server, nodeId)
+            );
         }
 
         @Override
         public boolean filterRegisterNode(OpcUaServer server, NodeId nodeId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterRegisterNode(server, nodeId));
+            return anyMatch(
+                nodeId,
+                asx -> asx.getFilter().filterRegisterNode(server, nodeId)
+            );
         }
 
         @Override
         public boolean filterUnregisterNode(OpcUaServer server, NodeId nodeId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterUnregisterNode(server, nodeId));
+            return anyMatch(
+                nodeId,
+                asx -> asx.getFilter().filterUnregisterNode(server, nodeId)
+            );
         }
 
         @Override
         public boolean filterRead(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterRead(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterRead(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterWrite(OpcUaServer server, WriteValue writeValue) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterWrite(server, writeValue));
+            return anyMatch(
+                writeValue.getNodeId(),
+                asx -> asx.getFilter().filterWrite(server, writeValue)
+            );
         }
 
         @Override
         public boolean filterHistoryRead(OpcUaServer server, HistoryReadValueId historyReadValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterHistoryRead(server, historyReadValueId));
+            return anyMatch(
+                historyReadValueId.getNodeId(),
+                asx -> asx.getFilter().filterHistoryRead(server, historyReadValueId)
+            );
         }
 
         @Override
         public boolean filterHistoryUpdate(OpcUaServer server, HistoryUpdateDetails historyUpdateDetails) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterHistoryUpdate(server, historyUpdateDetails));
+            return anyMatch(
+                historyUpdateDetails.getNodeId(),
+                asx -> asx.getFilter().filterHistoryUpdate(server, historyUpdateDetails)
+            );
         }
 
         @Override
         public boolean filterCall(OpcUaServer server, CallMethodRequest callMethodRequest) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterCall(server, callMethodRequest));
+            return anyMatch(
+                callMethodRequest.getObjectId(),
+                asx -> asx.getFilter().filterCall(server, callMethodRequest)
+            );
         }
 
         @Override
         public boolean filterOnCreateDataItem(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnCreateDataItem(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnCreateDataItem(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnModifyDataItem(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnModifyDataItem(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnModifyDataItem(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnCreateEventItem(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnCreateEventItem(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnCreateEventItem(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnModifyEventItem(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnModifyEventItem(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnModifyEventItem(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnDataItemsCreated(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnDataItemsCreated(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnDataItemsCreated(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnDataItemsModified(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnDataItemsModified(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnDataItemsModified(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnDataItemsDeleted(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnDataItemsDeleted(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnDataItemsDeleted(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnEventItemsCreated(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnEventItemsCreated(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnEventItemsCreated(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnEventItemsModified(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnEventItemsModified(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnEventItemsModified(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnEventItemsDeleted(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnEventItemsDeleted(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnEventItemsDeleted(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterOnMonitoringModeChanged(OpcUaServer server, ReadValueId readValueId) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterOnMonitoringModeChanged(server, readValueId));
+            return anyMatch(
+                readValueId.getNodeId(),
+                asx -> asx.getFilter().filterOnMonitoringModeChanged(server, readValueId)
+            );
         }
 
         @Override
         public boolean filterAddNodes(OpcUaServer server, AddNodesItem addNodesItem) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterAddNodes(server, addNodesItem));
+            return anyMatch(
+                null,
+                asx -> asx.getFilter().filterAddNodes(server, addNodesItem)
+            );
         }
 
         @Override
         public boolean filterDeleteNodes(OpcUaServer server, DeleteNodesItem deleteNodesItem) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterDeleteNodes(server, deleteNodesItem));
+            return anyMatch(
+                deleteNodesItem.getNodeId(),
+                asx -> asx.getFilter().filterDeleteNodes(server, deleteNodesItem)
+            );
         }
 
         @Override
         public boolean filterAddReferences(OpcUaServer server, AddReferencesItem addReferencesItem) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterAddReferences(server, addReferencesItem));
+            return anyMatch(
+                addReferencesItem.getSourceNodeId(),
+                asx -> asx.getFilter().filterAddReferences(server, addReferencesItem)
+            );
         }
 
         @Override
         public boolean filterDeleteReferences(OpcUaServer server, DeleteReferencesItem deleteReferencesItem) {
-            return addressSpaces.stream()
-                .anyMatch(asx -> asx.getFilter().filterDeleteReferences(server, deleteReferencesItem));
+            return anyMatch(
+                deleteReferencesItem.getSourceNodeId(),
+                asx -> asx.getFilter().filterDeleteReferences(server, deleteReferencesItem)
+            );
+        }
+
+    }
+
+    /**
+     * An immutable snapshot of the registered fragments, indexed by the namespace index each fragment declared via
+     * {@link AddressSpaceFragment#getFilteredNamespaceIndex()}.
+     * <p>
+     * The candidates for a NodeId are the fragments that declared its namespace plus the fragments that declared
+     * none, in registration order, so the first match is the same as it would be scanning every fragment.
+     */
+    private static final class FragmentIndex {
+
+        static final FragmentIndex EMPTY = new FragmentIndex(emptyList());
+
+        final List<AddressSpaceFragment> fragments;
+
+        private final List<AddressSpaceFragment> undeclared;
+        private final List<List<AddressSpaceFragment>> byNamespaceIndex;
+
+        FragmentIndex(List<AddressSpaceFragment> fragments) {
+            this.fragments = Collections.unmodifiableList(new ArrayList<>(fragments));
+
+            List<UShort> namespaceIndices = new ArrayList<>(fragments.size());
+            List<AddressSpaceFragment> undeclared = new ArrayList<>();
+            int maxNamespaceIndex = -1;
+
+            for (AddressSpaceFragment fragment : fragments) {
+                UShort namespaceIndex = fragment.getFilteredNamespaceIndex().orElse(null);
+                namespaceIndices.add(namespaceIndex);
+
+                if (namespaceIndex == null) {
+                    undeclared.add(fragment);
+                } else {
+                    maxNamespaceIndex = Math.max(maxNamespaceIndex, namespaceIndex.intValue());
+                }
+            }
+
+            this.undeclared = Collections.unmodifiableList(undeclared);
+
+            byNamespaceIndex = new ArrayList<>(Collections.nCopies(maxNamespaceIndex + 1, null));
+
+            for (int ns = 0; ns <= maxNamespaceIndex; ns++) {
+                List<AddressSpaceFragment> candidates = null;
+
+                for (int i = 0; i < fragments.size(); i++) {
+                    UShort namespaceIndex = namespaceIndices.get(i);
+
+                    if (namespaceIndex == null || namespaceIndex.intValue() == ns) {
+                        if (candidates == null) {
+                            candidates = new ArrayList<>();
+                        }
+                        candidates.add(fragments.get(i));
+                    }
+                }
+
+                if (candidates != null && candidates.size() > undeclared.size()) {
+                    byNamespaceIndex.set(ns, Collections.unmodifiableList(candidates));
+                }
+            }
+        }
+
+        /**
+         * @param nodeId the {@link NodeId} targeted by an operation, or {@code null} if unknown.
+         * @return the fragments that may handle an operation on {@code nodeId}, in registration order.
+         */
+        List<AddressSpaceFragment> getFragments(@Nullable NodeId nodeId) {
+            if (nodeId == null) {
+                return fragments;
+            }
+
+            int namespaceIndex = nodeId.getNamespaceIndex().intValue();
+
+            if (namespaceIndex < byNamespaceIndex.size()) {
+                List<AddressSpaceFragment> candidates = byNamespaceIndex.get(namespaceIndex);
+
+                if (candidates != null) {
+                    return candidates;
+                }
+            }
+
+            return undeclared;
         }
 
     }
@@ -10,6 +10,11 @@
 
 package org.eclipse.milo.opcua.sdk.server.api;
 
+import java.util.Optional;
+
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+
 /**
  * An {@link AddressSpace} fragment that is part of an {@link AddressSpaceComposite}.
  * <p>
@@ -25,4 +30,31 @@ public interface AddressSpaceFragment extends AddressSpace {
      */
     AddressSpaceFilter getFilter();
 
+    /**
+     * Get the namespace index of every {@link NodeId} this fragment's {@link AddressSpaceFilter} can match, if they
+     * all belong to a single namespace.
+     * <p>
+     * An {@link AddressSpaceComposite} uses this to skip the filter of this fragment for operations on NodeIds in
+     * any other namespace. The NodeId considered for each operation is the one {@link SimpleAddressSpaceFilter} uses.
+     *
+     * @return the namespace index of every NodeId this fragment's filter can match, or empty if it may match NodeIds
+     * in any namespace.
+     */
+    default Optional<UShort> getFilteredNamespaceIndex() {
+        return Optional.empty();
+    }
+
+    /**
+     * Return {@code true} if this fragment may have references for {@code nodeId} when the Node is browsed but
+     * belongs to another fragment.
+     * <p>
+     * An {@link AddressSpaceComposite} only calls {@link #getReferences} on fragments that return {@code true}.
+     *
+     * @param nodeId the {@link NodeId} being browsed.
+     * @return {@code true} if this fragment may have references for {@code nodeId}.
+     */
+    default boolean contributesReferences(NodeId nodeId) {
+        return true;
+    }
+
 }
@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stores {@link Reference}s without keeping the {@link Reference} objects themselves.
+ * <p>
+ * Reference type NodeIds are interned to small ints and target NodeIds to indexes into a reference-counted node
+ * table, so each Reference is stored as a single {@code long} in the adjacency array of its source Node. Reference
+ * objects are created again when they are read.
+ * <p>
+ * Writes lock only the adjacency of the source Node and one stripe of the node table, so References with different
+ * source Nodes can be added and removed concurrently.
+ * <p>
+ * Like the {@code LinkedHashMultiset} it replaces, each source Node's References are a multiset: adding an equal
+ * Reference again increments its count, and References are read in the order they were first added.
+ */
+final class CompactReferenceStore {
+
+    private static final long TYPE_MASK = 0xFFFFFFFFL;
+
+    private final ConcurrentHashMap<NodeId, Adjacency> adjacencies = new ConcurrentHashMap<>();
+
+    private final ReferenceTypeTable referenceTypes = new ReferenceTypeTable();
+
+    private final NodeTable targets = new NodeTable();
+
+    void add(Reference reference) {
+        int type = referenceTypes.intern(reference.getReferenceTypeId());
+        int target = targets.acquire(reference.getTargetNodeId());
+
+        long entry = entry(target, type, reference.isInverse());
+
+        while (true) {
+            Adjacency adjacency = adjacencies.computeIfAbsent(reference.getSourceNodeId(), k -> new Adjacency());
+
+            synchronized (adjacency) {
+                if (!adjacency.removed) {
+                    adjacency.add(entry);
+                    return;
+                }
+            }
+        }
+    }
+
+    boolean remove(Reference reference) {
+        Adjacency adjacency = adjacencies.get(reference.getSourceNodeId());
+        if (adjacency == null) return false;
+
+        int type = referenceTypes.get(reference.getReferenceTypeId());
+        if (type < 0) return false;
+
+        // pin the target so its index can't be released and reused while it's being removed.
+        int target = targets.acquireIfPresent(reference.getTargetNodeId());
+        if (target < 0) return false;
+
+        boolean removed = false;
+
+        try {
+            synchronized (adjacency) {
+                if (!adjacency.removed) {
+                    removed = adjacency.remove(entry(target, type, reference.isInverse()));
+
+                    if (adjacency.size == 0) {
+                        adjacency.removed = true;
+                        adjacencies.remove(reference.getSourceNodeId(), adjacency);
+                    }
+                }
+            }
+        } finally {
+            targets.release(target);
+
+            if (removed) {
+                targets.release(target);
+            }
+        }
+
+        return removed;
+    }
+
+    boolean contains(NodeId sourceNodeId) {
+        return adjacencies.containsKey(sourceNodeId);
+    }
+
+    Set<NodeId> getSourceNodeIds() {
+        return adjacencies.keySet();
+    }
+
+    List<Reference> get(NodeId sourceNodeId) {
+        return get(sourceNodeId, null, null, null);
+    }
+
+    /**
+     * Get the References of {@code sourceNodeId}, optionally filtered.
+     * <p>
+     * The reference type and direction filters are applied to the stored entries, so References they exclude are
+     * never created.
+     *
+     * @param sourceNodeId    the source {@link NodeId}.
+     * @param referenceTypeId the exact reference type to return, or {@code null} for any reference type.
+     * @param direction       the direction to return, or {@code null} for both directions.
+     * @param filter          an additional filter, or {@code null}.
+     * @return the matching References.
+     */
+    List<Reference> get(
+        NodeId sourceNodeId,
+        @Nullable NodeId referenceTypeId,
+        @Nullable Reference.Direction direction,
+        @Nullable Predicate<Reference> filter
+    ) {
+
+        Adjacency adjacency = adjacencies.get(sourceNodeId);
+        if (adjacency == null) return Collections.emptyList();
+
+        int type = -1;
+        if (referenceTypeId != null) {
+            type = referenceTypes.get(referenceTypeId);
+            if (type < 0) return Collections.emptyList();
+        }
+
+        synchronized (adjacency) {
+            // read under the lock so it includes the types of all entries added before
+            NodeId[] types = referenceTypes.types;
+
+            List<Reference> references = new ArrayList<>(adjacency.count);
+
+            for (int i = 0; i < adjacency.size; i++) {
+                long entry = adjacency.entries[i];
+                int typeAndDirection = (int) (entry & TYPE_MASK);
+
+                if (type >= 0 && (typeAndDirection >>> 1) != type) continue;
+
+                boolean inverse = (typeAndDirection & 1) == 1;
+
+                if (direction != null && inverse != (direction == Reference.Direction.INVERSE)) continue;
+
+                Reference reference = new Reference(
+                    sourceNodeId,
+                    types[typeAndDirection >>> 1],
+                    targets.get((int) (entry >>> 32)),
+                    inverse ? Reference.Direction.INVERSE : Reference.Direction.FORWARD
+                );
+
+                if (filter == null || filter.test(reference)) {
+                    for (int j = 0; j < adjacency.counts[i]; j++) {
+                        references.add(reference);
+                    }
+                }
+            }
+
+            return references;
+        }
+    }
+
+    private static long entry(int target, int type, boolean inverse) {
+        return ((long) target << 32) | ((long) type << 1) | (inverse ? 1L : 0L);
+    }
+
+    /**
+     * The References of one source Node: distinct entries in insertion order, each with the number of times it was
+     * added. Guarded by its own monitor.
+     * <p>
+     * Nodes with many References also get an open-addressing index from entry to position so adding and finding an
+     * entry doesn't scan the entries.
+     */
+    private static final class Adjacency {
+
+        private static final int INDEX_THRESHOLD = 8;
+
+        long[] entries = new long[2];
+        int[] counts = new int[2];
+
+        /**
+         * The number of distinct entries.
+         */
+        int size;
+
+        /**
+         * The number of entries, counting each as many times as it was added.
+         */
+        int count;
+
+        /**
+         * Position + 1 of each entry, or 0 for an empty slot. {@code null} until {@link #size} exceeds
+         * {@link #INDEX_THRESHOLD}.
+         */
+        int[] index;
+
+        /**
+         * Set when this Adjacency became empty and was removed from the map; writers that still hold it retry.
+         */
+        boolean removed;
+
+        void add(long entry) {
+            int position = find(entry);
+
+            if (position >= 0) {
+                counts[position]++;
+            } else {
+                if (size == entries.length) {
+                    entries = Arrays.copyOf(entries, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+
+                entries[size] = entry;
+                counts[size] = 1;
+                size++;
+
+                if (index != null && size * 2 <= index.length) {
+                    indexPut(index, entry, size);
+                } else if (size > INDEX_THRESHOLD) {
+                    reindex();
+                }
+            }
+
+            count++;
+        }
+
+        boolean remove(long entry) {
+            int position = find(entry);
+
+            if (position < 0) return false;
+
+            count--;
+
+            if (--counts[position] == 0) {
+                System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+                System.arraycopy(counts, position + 1, counts, position, size - position - 1);
+                size--;
+
+                if (index != null) {
+                    if (size > INDEX_THRESHOLD) {
+                        reindex();
+                    } else {
+                        index = null;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        private int find(long entry) {
+            if (index == null) {
+                for (int i = 0; i < size; i++) {
+                    if (entries[i] == entry) return i;
+                }
+                return -1;
+            }
+
+            int mask = index.length - 1;
+            int slot = hash(entry) & mask;
+
+            while (index[slot] != 0) {
+                int position = index[slot] - 1;
+                if (entries[position] == entry) return position;
+                slot = (slot + 1) & mask;
+            }
+
+            return -1;
+        }
+
+        private void reindex() {
+            int length = Integer.highestOneBit(size * 4 - 1);
+            int[] newIndex = new int[length];
+
+            for (int i = 0; i < size; i++) {
+                indexPut(newIndex, entries[i], i + 1);
+            }
+
+            index = newIndex;
+        }
+
+        private static void indexPut(int[] index, long entry, int positionPlusOne) {
+            int mask = index.length - 1;
+            int slot = hash(entry) & mask;
+
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            index[slot] = positionPlusOne;
+        }
+
+        private static int hash(long entry) {
+            long h = entry * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+    }
+
+    /**
+     * Interns reference type NodeIds to ints. There are few reference types, so they are never released.
+     */
+    private static final class ReferenceTypeTable {
+
+        private final Map<NodeId, Integer> indexes = new ConcurrentHashMap<>();
+
+        volatile NodeId[] types = new NodeId[64];
+
+        private int size;
+
+        int get(NodeId referenceTypeId) {
+            Integer index = indexes.get(referenceTypeId);
+
+            return index != null ? index : -1;
+        }
+
+        int intern(NodeId referenceTypeId) {
+            Integer index = indexes.get(referenceTypeId);
+
+            if (index != null) return index;
+
+            synchronized (this) {
+                index = indexes.get(referenceTypeId);
+
+                if (index == null) {
+                    NodeId[] ts = types;
+                    if (size == ts.length) {
+                        ts = Arrays.copyOf(ts, size * 2);
+                    }
+                    ts[size] = referenceTypeId;
+                    types = ts;
+
+                    index = size++;
+                    indexes.put(referenceTypeId, index);
+                }
+
+                return index;
+            }
+        }
+
+    }
+
+    /**
+     * Interns target NodeIds to ints, counting how many References refer to each so its index is released and reused
+     * once the last one is removed.
+     * <p>
+     * The table is split into stripes by hash, each guarded by its own monitor. The low bits of an index are its
+     * stripe.
+     */
+    private static final class NodeTable {
+
+        private static final int STRIPE_BITS = 4;
+        private static final int STRIPE_MASK = (1 << STRIPE_BITS) - 1;
+
+        private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+        NodeTable() {
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        int acquire(ExpandedNodeId nodeId) {
+            int stripe = stripe(nodeId);
+
+            return (stripes[stripe].acquire(nodeId, true) << STRIPE_BITS) | stripe;
+        }
+
+        int acquireIfPresent(ExpandedNodeId nodeId) {
+            int stripe = stripe(nodeId);
+            int local = stripes[stripe].acquire(nodeId, false);
+
+            return local >= 0 ? (local << STRIPE_BITS) | stripe : -1;
+        }
+
+        void release(int index) {
+            stripes[index & STRIPE_MASK].release(index >>> STRIPE_BITS);
+        }
+
+        /**
+         * Get the NodeId at {@code index}. The caller must hold a Reference to it, so it can't be released
+         * concurrently.
+         */
+        ExpandedNodeId get(int index) {
+            return stripes[index & STRIPE_MASK].nodeIds[index >>> STRIPE_BITS];
+        }
+
+        private static int stripe(ExpandedNodeId nodeId) {
+            int h = nodeId.hashCode();
+            return (h ^ (h >>> 16)) & STRIPE_MASK;
+        }
+
+        private static final class Stripe {
+
+            private final Map<ExpandedNodeId, Integer> indexes = new HashMap<>();
+
+            volatile ExpandedNodeId[] nodeIds = new ExpandedNodeId[16];
+
+            private int[] referenceCounts = new int[16];
+
+            private int size;
+
+            private int[] free = new int[0];
+            private int freeSize;
+
+            synchronized int acquire(ExpandedNodeId nodeId, boolean create) {
+                Integer index = indexes.get(nodeId);
+
+                if (index != null) {
+                    referenceCounts[index]++;
+                    return index;
+                } else if (!create) {
+                    return -1;
+                }
+
+                int i;
+                if (freeSize > 0) {
+                    i = free[--freeSize];
+                } else {
+                    if (size == referenceCounts.length) {
+                        nodeIds = Arrays.copyOf(nodeIds, size * 2);
+                        referenceCounts = Arrays.copyOf(referenceCounts, size * 2);
+                    }
+                    i = size++;
+                }
+
+                nodeIds[i] = nodeId;
+                referenceCounts[i] = 1;
+                indexes.put(nodeId, i);
+
+                return i;
+            }
+
+            synchronized void release(int index) {
+                if (--referenceCounts[index] == 0) {
+                    indexes.remove(nodeIds[index]);
+                    nodeIds[index] = null;
+
+                    if (freeSize == free.length) {
+                        free = Arrays.copyOf(free, Math.max(16, freeSize * 2));
+                    }
+                    free[freeSize++] = index;
+                }
+            }
+
+        }
+
+    }
+
+}
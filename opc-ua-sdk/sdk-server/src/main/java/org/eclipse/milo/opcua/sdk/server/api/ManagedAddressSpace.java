@@ -10,15 +10,22 @@
 
 package org.eclipse.milo.opcua.sdk.server.api;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
 import com.google.common.collect.Lists;
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
 import org.eclipse.milo.opcua.sdk.server.api.methods.MethodInvocationHandler;
 import org.eclipse.milo.opcua.sdk.server.api.services.MethodServices;
 import org.eclipse.milo.opcua.sdk.server.nodes.AttributeContext;
@@ -43,7 +50,9 @@ import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
+import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -141,6 +150,17 @@ public abstract class ManagedAddressSpace implements AddressSpace {
         List<ReadValueId> readValueIds
     ) {
 
+        AttributeContext attributeContext = new AttributeContext(context);
+
+        runOperations(context, readValueIds, null, chunk -> read(attributeContext, timestamps, chunk));
+    }
+
+    private List<DataValue> read(
+        AttributeContext context,
+        TimestampsToReturn timestamps,
+        List<ReadValueId> readValueIds
+    ) {
+
         List<DataValue> results = Lists.newArrayListWithCapacity(readValueIds.size());
 
         for (ReadValueId readValueId : readValueIds) {
@@ -148,19 +168,21 @@ public abstract class ManagedAddressSpace implements AddressSpace {
 
             if (node != null) {
                 DataValue value = node.readAttribute(
-                    new AttributeContext(context),
+                    context,
                     readValueId.getAttributeId(),
                     timestamps,
                     readValueId.getIndexRange(),
                     readValueId.getDataEncoding()
                 );
 
-                logger.debug("Read value {} from attribute {} of {}",
-                    value.getValue().getValue(),
-                    AttributeId.from(readValueId.getAttributeId())
-                        .map(Object::toString).orElse("unknown"),
-                    node.getNodeId()
-                );
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Read value {} from attribute {} of {}",
+                        value.getValue().getValue(),
+                        AttributeId.from(readValueId.getAttributeId())
+                            .map(Object::toString).orElse("unknown"),
+                        node.getNodeId()
+                    );
+                }
 
                 results.add(value);
             } else {
@@ -168,7 +190,7 @@ public abstract class ManagedAddressSpace implements AddressSpace {
             }
         }
 
-        context.success(results);
+        return results;
     }
 
     @Override
@@ -177,6 +199,13 @@ public abstract class ManagedAddressSpace implements AddressSpace {
         List<WriteValue> writeValues
     ) {
 
+        AttributeContext attributeContext = new AttributeContext(context);
+
+        // Writes to the same Node stay in the same chunk so they're applied in request order.
+        runOperations(context, writeValues, WriteValue::getNodeId, chunk -> write(attributeContext, chunk));
+    }
+
+    private List<StatusCode> write(AttributeContext context, List<WriteValue> writeValues) {
         List<StatusCode> results = Lists.newArrayListWithCapacity(writeValues.size());
 
         for (WriteValue writeValue : writeValues) {
@@ -185,7 +214,7 @@ public abstract class ManagedAddressSpace implements AddressSpace {
             if (node != null) {
                 try {
                     node.writeAttribute(
-                        new AttributeContext(context),
+                        context,
                         writeValue.getAttributeId(),
                         writeValue.getValue(),
                         writeValue.getIndexRange()
@@ -193,13 +222,15 @@ public abstract class ManagedAddressSpace implements AddressSpace {
 
                     results.add(StatusCode.GOOD);
 
-                    logger.debug(
-                        "Wrote value {} to {} attribute of {}",
-                        writeValue.getValue().getValue(),
-                        AttributeId.from(writeValue.getAttributeId())
-                            .map(Object::toString).orElse("unknown"),
-                        node.getNodeId()
-                    );
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(
+                            "Wrote value {} to {} attribute of {}",
+                            writeValue.getValue().getValue(),
+                            AttributeId.from(writeValue.getAttributeId())
+                                .map(Object::toString).orElse("unknown"),
+                            node.getNodeId()
+                        );
+                    }
                 } catch (UaException e) {
                     logger.error("Unable to write value={}", writeValue.getValue(), e);
                     results.add(e.getStatusCode());
@@ -209,7 +240,119 @@ public abstract class ManagedAddressSpace implements AddressSpace {
             }
         }
 
-        context.success(results);
+        return results;
+    }
+
+    /**
+     * Run {@code operations} and complete {@code context} with the results, in the same order as the operations.
+     * <p>
+     * If {@link OpcUaServerConfigLimits#getMinParallelBatchSize()} is configured and there are at least twice that
+     * many operations they are split into chunks, one per available processor but no smaller than the minimum batch
+     * size, and all but the first are run on the server's {@link ExecutorService}. The operations within a chunk run
+     * in order, but chunks may run in any order relative to each other.
+     * <p>
+     * If {@code chunkKey} is non-null, operations with equal keys are put in the same chunk, so they still run in the
+     * order they appear in {@code operations}. A chunk the {@link ExecutorService} rejects is run on the calling
+     * thread instead.
+     *
+     * @param context    the {@link ServiceOperationContext} to complete.
+     * @param operations the operations to run.
+     * @param chunkKey   the key of operations that must run in order relative to each other, or {@code null}.
+     * @param run        the function that runs a chunk of operations and returns the result of each.
+     */
+    private <T, R> void runOperations(
+        ServiceOperationContext<T, R> context,
+        List<T> operations,
+        @Nullable Function<T, ?> chunkKey,
+        Function<List<T>, List<R>> run
+    ) {
+
+        int minBatchSize = server.getConfig().getLimits().getMinParallelBatchSize().intValue();
+
+        if (minBatchSize <= 0 || operations.size() < 2 * minBatchSize) {
+            context.success(run.apply(operations));
+            return;
+        }
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(minBatchSize, (operations.size() + processors - 1) / processors);
+        int chunkCount = (operations.size() + chunkSize - 1) / chunkSize;
+
+        // the index into operations of each operation in each chunk
+        List<List<Integer>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(new ArrayList<>(chunkSize));
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            int chunk = chunkKey != null ?
+                Math.floorMod(Objects.hashCode(chunkKey.apply(operations.get(i))), chunkCount) :
+                i / chunkSize;
+
+            chunks.get(chunk).add(i);
+        }
+        chunks.removeIf(List::isEmpty);
+
+        ExecutorService executor = server.getExecutorService();
+
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(chunks.size());
+        futures.add(null);
+
+        for (List<Integer> chunk : chunks.subList(1, chunks.size())) {
+            CompletableFuture<List<R>> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> runChunk(operations, chunk, run), executor);
+            } catch (RejectedExecutionException e) {
+                future = runChunkNow(operations, chunk, run);
+            }
+            futures.add(future);
+        }
+
+        // The calling thread takes the first chunk instead of waiting on the others.
+        futures.set(0, runChunkNow(operations, chunks.get(0), run));
+
+        FutureUtils.sequence(futures).whenComplete((results, ex) -> {
+            if (results != null) {
+                List<R> ordered = new ArrayList<>(Collections.nCopies(operations.size(), null));
+
+                for (int i = 0; i < chunks.size(); i++) {
+                    List<Integer> chunk = chunks.get(i);
+                    List<R> chunkResults = results.get(i);
+
+                    for (int j = 0; j < chunk.size(); j++) {
+                        ordered.set(chunk.get(j), chunkResults.get(j));
+                    }
+                }
+
+                context.success(ordered);
+            } else {
+                logger.error("Operation failed", ex);
+
+                context.failure(
+                    UaException.extractStatusCode(ex)
+                        .orElse(new StatusCode(StatusCodes.Bad_InternalError))
+                );
+            }
+        });
+    }
+
+    private static <T, R> List<R> runChunk(List<T> operations, List<Integer> chunk, Function<List<T>, List<R>> run) {
+        List<T> chunkOperations = new ArrayList<>(chunk.size());
+        chunk.forEach(i -> chunkOperations.add(operations.get(i)));
+
+        return run.apply(chunkOperations);
+    }
+
+    private static <T, R> CompletableFuture<List<R>> runChunkNow(
+        List<T> operations,
+        List<Integer> chunk,
+        Function<List<T>, List<R>> run
+    ) {
+
+        try {
+            return CompletableFuture.completedFuture(runChunk(operations, chunk, run));
+        } catch (Throwable t) {
+            return FutureUtils.failedFuture(t);
+        }
     }
 
     /**
@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.sdk.server.api;
 
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 
 public abstract class ManagedAddressSpaceFragment extends ManagedAddressSpace implements AddressSpaceFragment {
 
@@ -23,4 +24,26 @@ public abstract class ManagedAddressSpaceFragment extends ManagedAddressSpace im
         super(server, nodeManager);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@link #isNodeManagerReferencesOnly()} returns {@code true} this answers from the {@link UaNodeManager}'s
+     * reference index; otherwise it always returns {@code true}.
+     */
+    @Override
+    public boolean contributesReferences(NodeId nodeId) {
+        return !isNodeManagerReferencesOnly() || getNodeManager().containsReferences(nodeId);
+    }
+
+    /**
+     * Subclasses whose references all come from their {@link UaNodeManager}, i.e. that don't override
+     * {@link #getReferences} to add references from elsewhere, may override this to return {@code true} so that
+     * {@link #contributesReferences(NodeId)} can skip this fragment for nodes it has no references for.
+     *
+     * @return {@code true} if every reference this fragment returns is in its {@link UaNodeManager}.
+     */
+    protected boolean isNodeManagerReferencesOnly() {
+        return false;
+    }
+
 }
@@ -10,6 +10,7 @@
 
 package org.eclipse.milo.opcua.sdk.server.api;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
@@ -57,6 +58,16 @@ public abstract class ManagedNamespace extends ManagedAddressSpaceFragment imple
         return filter;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default filter only matches NodeIds in this namespace; if a subclass replaces it this returns empty.
+     */
+    @Override
+    public Optional<UShort> getFilteredNamespaceIndex() {
+        return getFilter() == filter ? Optional.of(namespaceIndex) : Optional.empty();
+    }
+
     @Override
     public final String getNamespaceUri() {
         return namespaceUri;
@@ -139,6 +139,43 @@ public interface NodeManager<T extends Node> {
      */
     List<Reference> getReferences(NodeId nodeId, Predicate<Reference> filter);
 
+    /**
+     * Get all {@link Reference}s that have {@code nodeId} as their source {@link NodeId}, filtered by reference type
+     * and direction.
+     * <p>
+     * Subtypes of {@code referenceTypeId} are not included.
+     *
+     * @param nodeId          the source {@link NodeId}.
+     * @param referenceTypeId the reference type {@link NodeId} to return, or {@code null} for all reference types.
+     * @param direction       the {@link Reference.Direction} to return, or {@code null} for both directions.
+     * @return all {@link Reference}s that have {@code nodeId} as their source {@link NodeId} and match
+     * {@code referenceTypeId} and {@code direction}.
+     */
+    default List<Reference> getReferences(
+        NodeId nodeId,
+        @Nullable NodeId referenceTypeId,
+        @Nullable Reference.Direction direction
+    ) {
+
+        return getReferences(
+            nodeId,
+            reference ->
+                (referenceTypeId == null || referenceTypeId.equals(reference.getReferenceTypeId())) &&
+                    (direction == null || direction == reference.getDirection())
+        );
+    }
+
+    /**
+     * Return {@code true} if this {@link NodeManager} has any {@link Reference}s that have {@code nodeId} as their
+     * source {@link NodeId}.
+     *
+     * @param nodeId the source {@link NodeId}.
+     * @return {@code true} if this {@link NodeManager} has any {@link Reference}s with {@code nodeId} as their source.
+     */
+    default boolean containsReferences(NodeId nodeId) {
+        return !getReferences(nodeId).isEmpty();
+    }
+
     /**
      * Return {@code true} if this {@link NodeManager} contains {@code node}.
      *
@@ -115,6 +115,9 @@ public interface OpcUaServerConfig extends UaStackServerConfig {
         builder.setHttpsKeyPair(config.getHttpsKeyPair().orElse(null));
         builder.setHttpsCertificateChain(config.getHttpsCertificateChain().orElse(null));
         builder.setExecutor(config.getExecutor());
+        builder.setMaxConcurrentRequests(config.getMaxConcurrentRequests());
+        builder.setMaxQueuedRequestsPerSession(config.getMaxQueuedRequestsPerSession());
+        builder.setMaxConcurrentRequestsByServiceSet(config.getMaxConcurrentRequestsByServiceSet());
 
         // OpcUaServerConfig values
         builder.setIdentityValidator(config.getIdentityValidator());
@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.sdk.server.api.config;
 
 import java.security.KeyPair;
 import java.security.cert.X509Certificate;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -28,6 +29,7 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.BuildInfo;
 import org.eclipse.milo.opcua.stack.server.EndpointConfiguration;
+import org.eclipse.milo.opcua.stack.server.ServiceSet;
 import org.eclipse.milo.opcua.stack.server.UaStackServerConfig;
 import org.eclipse.milo.opcua.stack.server.UaStackServerConfigBuilder;
 import org.eclipse.milo.opcua.stack.server.security.ServerCertificateValidator;
@@ -133,12 +135,27 @@ public class OpcUaServerConfigBuilder extends UaStackServerConfigBuilder {
         return this;
     }
 
+    /**
+     * Set the {@link ExecutorService} used to handle requests, invoke methods, sample, and deliver notifications.
+     * <p>
+     * Defaults to {@link Stack#sharedExecutor()}. Use {@link #setUseVirtualThreads(boolean)} to run that work on
+     * virtual threads instead.
+     *
+     * @param executor the {@link ExecutorService} to use.
+     * @return this builder.
+     */
     @Override
     public OpcUaServerConfigBuilder setExecutor(ExecutorService executor) {
         super.setExecutor(executor);
         return this;
     }
 
+    @Override
+    public OpcUaServerConfigBuilder setUseVirtualThreads(boolean useVirtualThreads) {
+        super.setUseVirtualThreads(useVirtualThreads);
+        return this;
+    }
+
     @Override
     public OpcUaServerConfigBuilder setEncodingLimits(EncodingLimits encodingLimits) {
         super.setEncodingLimits(encodingLimits);
@@ -157,6 +174,26 @@ public class OpcUaServerConfigBuilder extends UaStackServerConfigBuilder {
         return this;
     }
 
+    @Override
+    public OpcUaServerConfigBuilder setMaxConcurrentRequests(int maxConcurrentRequests) {
+        super.setMaxConcurrentRequests(maxConcurrentRequests);
+        return this;
+    }
+
+    @Override
+    public OpcUaServerConfigBuilder setMaxQueuedRequestsPerSession(int maxQueuedRequestsPerSession) {
+        super.setMaxQueuedRequestsPerSession(maxQueuedRequestsPerSession);
+        return this;
+    }
+
+    @Override
+    public OpcUaServerConfigBuilder setMaxConcurrentRequestsByServiceSet(
+        Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet) {
+
+        super.setMaxConcurrentRequestsByServiceSet(maxConcurrentRequestsByServiceSet);
+        return this;
+    }
+
     @Override
     public OpcUaServerConfig build() {
         UaStackServerConfig stackServerConfig = super.build();
@@ -285,6 +322,21 @@ public class OpcUaServerConfigBuilder extends UaStackServerConfigBuilder {
             return stackServerConfig.getMaximumSecureChannelLifetime();
         }
 
+        @Override
+        public int getMaxConcurrentRequests() {
+            return stackServerConfig.getMaxConcurrentRequests();
+        }
+
+        @Override
+        public int getMaxQueuedRequestsPerSession() {
+            return stackServerConfig.getMaxQueuedRequestsPerSession();
+        }
+
+        @Override
+        public Map<ServiceSet, Integer> getMaxConcurrentRequestsByServiceSet() {
+            return stackServerConfig.getMaxConcurrentRequestsByServiceSet();
+        }
+
     }
 
 }
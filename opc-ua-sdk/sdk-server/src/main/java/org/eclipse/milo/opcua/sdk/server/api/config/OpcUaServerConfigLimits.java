@@ -139,6 +139,34 @@ public interface OpcUaServerConfigLimits {
         return uint(Integer.MAX_VALUE);
     }
 
+    /**
+     * Get the granularity, in milliseconds, that sampling intervals are rounded up to when scheduling sampling.
+     * <p>
+     * Items whose sampling intervals round up to the same value are sampled together.
+     * <p>
+     * The revised SamplingInterval reported to clients is not rounded, so with a quantum larger than the default an
+     * item may be sampled less often than its revised SamplingInterval says, e.g. every 20ms with a quantum of 10ms
+     * and a revised SamplingInterval of 15ms.
+     *
+     * @return the granularity, in milliseconds, that sampling intervals are rounded up to.
+     */
+    default Double getSamplingIntervalQuantum() {
+        return 1.0;
+    }
+
+    /**
+     * Get the minimum number of operations a Read or Write request must have, per {@link
+     * org.eclipse.milo.opcua.sdk.server.api.ManagedAddressSpace}, to be split into chunks that run in parallel on the
+     * server's executor. Requests with fewer than twice this many operations run on a single thread.
+     * <p>
+     * 0 disables parallel reads and writes.
+     *
+     * @return the minimum number of operations per chunk when running reads and writes in parallel, or 0 to disable.
+     */
+    default UInteger getMinParallelBatchSize() {
+        return uint(0);
+    }
+
     //region ServerCapabilities
 
     default Double getMinSupportedSampleRate() {
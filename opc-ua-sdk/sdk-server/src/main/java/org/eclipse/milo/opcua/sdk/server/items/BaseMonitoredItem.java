@@ -18,7 +18,6 @@ import com.google.common.primitives.Ints;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.MonitoredItem;
-import org.eclipse.milo.opcua.sdk.server.util.RingBuffer;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -35,7 +34,7 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
     protected volatile Map<UInteger, BaseMonitoredItem<?>> triggeredItems;
     protected volatile boolean triggered = false;
 
-    protected volatile RingBuffer<T> queue;
+    protected volatile MonitoredItemQueue<T> queue;
 
     protected volatile long clientHandle;
     protected volatile int queueSize;
@@ -76,7 +75,7 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
 
         setQueueSize(queueSize);
 
-        queue = new RingBuffer<>(this.queueSize);
+        queue = MonitoredItemQueue.create(this.queueSize);
     }
 
     protected void setQueueSize(UInteger queueSize) {
@@ -86,13 +85,10 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         this.queueSize = qs;
     }
 
-    public synchronized boolean getNotifications(List<UaStructure> notifications, int max) {
-        int queueSize = queue.size();
-        int count = Math.min(queueSize, max);
+    public boolean getNotifications(List<UaStructure> notifications, int max) {
+        MonitoredItemQueue<T> queue = this.queue;
 
-        for (int i = 0; i < count; i++) {
-            notifications.add(wrapQueueValue(queue.remove()));
-        }
+        queue.drain(max, value -> notifications.add(wrapQueueValue(value)));
 
         boolean queueIsEmpty = queue.isEmpty();
 
@@ -103,7 +99,7 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         return queueIsEmpty;
     }
 
-    public synchronized boolean hasNotifications() {
+    public boolean hasNotifications() {
         return (queue.size() > 0 && monitoringMode == MonitoringMode.Reporting);
     }
 
@@ -126,12 +122,10 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         if (queueSize.intValue() != this.queueSize) {
             setQueueSize(queueSize);
 
-            RingBuffer<T> oldQueue = queue;
-            queue = new RingBuffer<>(this.queueSize);
+            MonitoredItemQueue<T> oldQueue = queue;
+            queue = MonitoredItemQueue.create(this.queueSize);
 
-            while (oldQueue.size() > 0) {
-                enqueue(oldQueue.remove());
-            }
+            oldQueue.drain(Integer.MAX_VALUE, this::enqueue);
         }
     }
 
@@ -10,6 +10,8 @@
 
 package org.eclipse.milo.opcua.sdk.server.items;
 
+import java.util.function.UnaryOperator;
+
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.DataItem;
@@ -44,6 +46,8 @@ public class MonitoredDataItem extends BaseMonitoredItem<DataValue> implements D
         0.0
     );
 
+    private final UnaryOperator<DataValue> overflowValue = this::overflowValue;
+
     private volatile DataValue lastValue = null;
     private volatile DataChangeFilter filter = null;
     private volatile ExtensionObject filterResult = null;
@@ -83,35 +87,35 @@ public class MonitoredDataItem extends BaseMonitoredItem<DataValue> implements D
 
     @Override
     protected synchronized void enqueue(@NotNull DataValue value) {
-        if (queue.size() < queue.maxSize()) {
-            queue.add(value);
-        } else {
-            StatusCode statusCode = value.getStatusCode();
-
-            if (getQueueSize() > 1) {
-                /* Set overflow if queueSize > 1... */
-                if (statusCode != null) {
-                    value = value.withStatus(statusCode.withOverflow());
-                }
-
-                Subscription subscription = session.getSubscriptionManager().getSubscription(subscriptionId);
-
-                if (subscription != null) {
-                    subscription.getSubscriptionDiagnostics().getMonitoringQueueOverflowCount().increment();
-                }
-            } else if (statusCode != null && statusCode.isOverflowSet()) {
-                /* But make sure it's clear otherwise. */
-                value = value.withStatus(statusCode.withoutOverflow());
-            }
+        boolean overflow = queue.offer(value, discardOldest, overflowValue);
+
+        if (overflow && getQueueSize() > 1) {
+            Subscription subscription = session.getSubscriptionManager().getSubscription(subscriptionId);
 
-            if (discardOldest) {
-                queue.add(value);
-            } else {
-                queue.set(queue.maxSize() - 1, value);
+            if (subscription != null) {
+                subscription.getSubscriptionDiagnostics().getMonitoringQueueOverflowCount().increment();
             }
         }
     }
 
+    private DataValue overflowValue(DataValue value) {
+        StatusCode statusCode = value.getStatusCode();
+
+        if (statusCode == null) {
+            return value;
+        }
+
+        if (getQueueSize() > 1) {
+            /* Set overflow if queueSize > 1... */
+            return value.withStatus(statusCode.withOverflow());
+        } else if (statusCode.isOverflowSet()) {
+            /* But make sure it's clear otherwise. */
+            return value.withStatus(statusCode.withoutOverflow());
+        } else {
+            return value;
+        }
+    }
+
     @Override
     public synchronized void setQuality(StatusCode quality) {
         if (lastValue == null) {
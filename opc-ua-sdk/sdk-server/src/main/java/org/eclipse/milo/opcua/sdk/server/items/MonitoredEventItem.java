@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.Session;
@@ -135,29 +136,21 @@ public class MonitoredEventItem extends BaseMonitoredItem<Variant[]> implements
 
     @Override
     protected synchronized void enqueue(Variant[] value) {
-        if (queue.size() < queue.maxSize()) {
-            queue.add(value);
-        } else {
-            if (getQueueSize() > 1) {
-                eventOverflow.set(true);
+        boolean overflow = queue.offer(value, discardOldest, UnaryOperator.identity());
 
-                Subscription subscription = session.getSubscriptionManager().getSubscription(subscriptionId);
+        if (overflow && getQueueSize() > 1) {
+            eventOverflow.set(true);
 
-                if (subscription != null) {
-                    subscription.getSubscriptionDiagnostics().getEventQueueOverflowCount().increment();
-                }
-            }
+            Subscription subscription = session.getSubscriptionManager().getSubscription(subscriptionId);
 
-            if (discardOldest) {
-                queue.add(value);
-            } else {
-                queue.set(queue.maxSize() - 1, value);
+            if (subscription != null) {
+                subscription.getSubscriptionDiagnostics().getEventQueueOverflowCount().increment();
             }
         }
     }
 
     @Override
-    public synchronized boolean getNotifications(List<UaStructure> notifications, int max) {
+    public boolean getNotifications(List<UaStructure> notifications, int max) {
         if (eventOverflow.compareAndSet(true, false)) {
             Variant[] eventFields = generateOverflowEventFields();
 
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.items;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.milo.opcua.sdk.server.util.RingBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The queue of values waiting to be reported by a {@link BaseMonitoredItem}.
+ * <p>
+ * Values are offered by whatever samples or produces them and drained by the Subscription when it publishes. Neither
+ * side holds the monitor of the {@link BaseMonitoredItem}, so sampling never waits on publishing and vice versa.
+ * <p>
+ * A queue of size 1, by far the most common, is a single atomic slot and never blocks. Larger queues are guarded by
+ * their own lock, held only for the duration of a single offer or drain.
+ *
+ * @param <T> the type of value queued.
+ */
+public abstract class MonitoredItemQueue<T> {
+
+    /**
+     * Create a {@link MonitoredItemQueue} that holds up to {@code maxSize} values.
+     *
+     * @param maxSize the maximum number of values in the queue.
+     * @return a {@link MonitoredItemQueue}.
+     */
+    public static <T> MonitoredItemQueue<T> create(int maxSize) {
+        if (maxSize == 1) {
+            return new SingleValueQueue<>();
+        } else {
+            return new BoundedQueue<>(maxSize);
+        }
+    }
+
+    /**
+     * Add {@code value} to the queue.
+     * <p>
+     * If the queue is full then either the oldest value is discarded, or, if {@code discardOldest} is {@code false},
+     * the newest value is replaced. In either case the value that is added is first passed through
+     * {@code onOverflow}.
+     *
+     * @param value         the value to add.
+     * @param discardOldest {@code true} to discard the oldest value if the queue is full, {@code false} to replace the
+     *                      newest.
+     * @param onOverflow    applied to {@code value} if the queue is full.
+     * @return {@code true} if the queue overflowed.
+     */
+    public abstract boolean offer(@NotNull T value, boolean discardOldest, UnaryOperator<T> onOverflow);
+
+    /**
+     * Remove up to {@code max} values, oldest first, and pass them to {@code consumer}.
+     *
+     * @param max      the maximum number of values to remove.
+     * @param consumer the {@link Consumer} values are passed to.
+     * @return the number of values removed.
+     */
+    public abstract int drain(int max, Consumer<T> consumer);
+
+    /**
+     * @return the number of values in the queue.
+     */
+    public abstract int size();
+
+    /**
+     * @return the maximum number of values in the queue.
+     */
+    public abstract int maxSize();
+
+    /**
+     * Remove all values from the queue.
+     */
+    public abstract void clear();
+
+    /**
+     * @return {@code true} if the queue is empty.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private static final class SingleValueQueue<T> extends MonitoredItemQueue<T> {
+
+        private final AtomicReference<T> value = new AtomicReference<>();
+
+        @Override
+        public boolean offer(@NotNull T value, boolean discardOldest, UnaryOperator<T> onOverflow) {
+            T previous = this.value.getAndSet(value);
+
+            if (previous != null) {
+                T overflowValue = onOverflow.apply(value);
+
+                if (overflowValue != value) {
+                    // If the value was drained in the meantime it is reported as it was offered.
+                    this.value.compareAndSet(value, overflowValue);
+                }
+
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int drain(int max, Consumer<T> consumer) {
+            if (max <= 0) return 0;
+
+            T v = value.getAndSet(null);
+
+            if (v != null) {
+                consumer.accept(v);
+                return 1;
+            } else {
+                return 0;
+            }
+        }
+
+        @Override
+        public int size() {
+            return value.get() != null ? 1 : 0;
+        }
+
+        @Override
+        public int maxSize() {
+            return 1;
+        }
+
+        @Override
+        public void clear() {
+            value.set(null);
+        }
+
+    }
+
+    private static final class BoundedQueue<T> extends MonitoredItemQueue<T> {
+
+        private final RingBuffer<T> buffer;
+
+        BoundedQueue(int maxSize) {
+            buffer = new RingBuffer<>(maxSize);
+        }
+
+        @Override
+        public synchronized boolean offer(@NotNull T value, boolean discardOldest, UnaryOperator<T> onOverflow) {
+            if (buffer.size() < buffer.maxSize()) {
+                buffer.add(value);
+
+                return false;
+            } else {
+                value = onOverflow.apply(value);
+
+                if (discardOldest) {
+                    buffer.add(value);
+                } else {
+                    buffer.set(buffer.maxSize() - 1, value);
+                }
+
+                return true;
+            }
+        }
+
+        @Override
+        public synchronized int drain(int max, Consumer<T> consumer) {
+            int count = Math.min(buffer.size(), max);
+
+            for (int i = 0; i < count; i++) {
+                consumer.accept(buffer.remove());
+            }
+
+            return count;
+        }
+
+        @Override
+        public synchronized int size() {
+            return buffer.size();
+        }
+
+        @Override
+        public int maxSize() {
+            return buffer.maxSize();
+        }
+
+        @Override
+        public synchronized void clear() {
+            buffer.clear();
+        }
+
+    }
+
+}
@@ -82,7 +82,7 @@ public class OpcUaNamespace extends ManagedNamespaceWithLifecycle {
 
         this.server = server;
 
-        subscriptionModel = new SubscriptionModel(server, this);
+        subscriptionModel = new SubscriptionModel(server, this, getNodeManager());
 
         getLifecycleManager().addStartupTask(() -> {
             loadNodes();
@@ -101,6 +101,11 @@ public class OpcUaNamespace extends ManagedNamespaceWithLifecycle {
         getLifecycleManager().addLifecycle(subscriptionModel);
     }
 
+    @Override
+    protected boolean isNodeManagerReferencesOnly() {
+        return true;
+    }
+
     @Override
     public void onDataItemsCreated(List<DataItem> dataItems) {
         subscriptionModel.onDataItemsCreated(dataItems);
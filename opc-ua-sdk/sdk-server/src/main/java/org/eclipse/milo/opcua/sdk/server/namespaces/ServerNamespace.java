@@ -92,7 +92,7 @@ public class ServerNamespace extends AddressSpaceComposite implements Lifecycle,
         public DiagnosticsFragment(OpcUaServer server) {
             super(server, ServerNamespace.this);
 
-            subscriptionModel = new SubscriptionModel(server, this);
+            subscriptionModel = new SubscriptionModel(server, this, getNodeManager());
 
             ServerDiagnosticsTypeNode serverDiagnosticsNode = (ServerDiagnosticsTypeNode) getServer()
                 .getAddressSpaceManager()
@@ -117,6 +117,11 @@ public class ServerNamespace extends AddressSpaceComposite implements Lifecycle,
             return filter;
         }
 
+        @Override
+        protected boolean isNodeManagerReferencesOnly() {
+            return true;
+        }
+
         @Override
         public void onDataItemsCreated(List<DataItem> dataItems) {
             subscriptionModel.onDataItemsCreated(dataItems);
@@ -149,7 +154,7 @@ public class ServerNamespace extends AddressSpaceComposite implements Lifecycle,
         public VendorServerInfoFragment(OpcUaServer server) {
             super(server, ServerNamespace.this);
 
-            subscriptionModel = new SubscriptionModel(server, this);
+            subscriptionModel = new SubscriptionModel(server, this, getNodeManager());
 
             getLifecycleManager().addLifecycle(subscriptionModel);
 
@@ -161,6 +166,11 @@ public class ServerNamespace extends AddressSpaceComposite implements Lifecycle,
             return filter;
         }
 
+        @Override
+        protected boolean isNodeManagerReferencesOnly() {
+            return true;
+        }
+
         @Override
         public void onDataItemsCreated(List<DataItem> dataItems) {
             subscriptionModel.onDataItemsCreated(dataItems);
@@ -22,6 +22,8 @@ public class AttributeContext {
     private final OpcUaServer server;
     private final Session session;
 
+    private AttributeContext internalContext;
+
     public AttributeContext(OpcUaServer server) {
         this(server, null);
     }
@@ -43,4 +45,24 @@ public class AttributeContext {
         return Optional.ofNullable(session);
     }
 
+    /**
+     * Get an {@link AttributeContext} for the same server but without a {@link Session}, for reading attributes on
+     * the server's own behalf.
+     *
+     * @return this {@link AttributeContext} if it has no {@link Session}, otherwise a copy without one.
+     */
+    public AttributeContext withoutSession() {
+        if (session == null) {
+            return this;
+        }
+
+        // racy but idempotent; at worst a few equivalent copies are created
+        AttributeContext context = internalContext;
+        if (context == null) {
+            context = new AttributeContext(server);
+            internalContext = context;
+        }
+        return context;
+    }
+
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.subscriptions;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.OpcUaBinaryDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.EventFieldList;
+import org.eclipse.milo.opcua.stack.core.types.structured.EventNotificationList;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.NotificationMessage;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+
+/**
+ * Assembles the {@link NotificationMessage} for one publish cycle.
+ * <p>
+ * {@link MonitoredItemNotification}s and {@link EventFieldList}s are encoded into pooled buffers as they are added, so
+ * no intermediate {@link DataChangeNotification} or {@link EventNotificationList} is built. When the message is built
+ * each body is copied exactly once, into the {@link ByteString} the {@link NotificationMessage} keeps for
+ * republishing.
+ * <p>
+ * Not thread-safe; a builder is used for a single message and must be {@link #release() released} afterwards.
+ */
+class NotificationMessageBuilder {
+
+    private ByteBuf dataBuffer;
+    private ByteBuf eventBuffer;
+    private OpcUaBinaryStreamEncoder dataEncoder;
+    private OpcUaBinaryStreamEncoder eventEncoder;
+    private OpcUaBinaryDataTypeCodec<Object> dataCodec;
+    private OpcUaBinaryDataTypeCodec<Object> eventCodec;
+
+    private int dataChangeCount = 0;
+    private int eventCount = 0;
+
+    private final SerializationContext context;
+
+    NotificationMessageBuilder(SerializationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Encode {@code notification} into this message. Notifications of any type other than
+     * {@link MonitoredItemNotification} or {@link EventFieldList} are ignored.
+     *
+     * @param notification the notification to add.
+     * @throws UaSerializationException if {@code notification} could not be encoded.
+     */
+    void add(UaStructure notification) throws UaSerializationException {
+        if (notification instanceof MonitoredItemNotification) {
+            if (dataEncoder == null) {
+                dataBuffer = BufferUtil.pooledBuffer();
+                dataEncoder = new OpcUaBinaryStreamEncoder(context).setBuffer(dataBuffer);
+                dataCodec = lookupCodec(MonitoredItemNotification.TYPE_ID);
+            }
+
+            dataCodec.encode(context, dataEncoder, notification);
+            dataChangeCount++;
+        } else if (notification instanceof EventFieldList) {
+            if (eventEncoder == null) {
+                eventBuffer = BufferUtil.pooledBuffer();
+                eventEncoder = new OpcUaBinaryStreamEncoder(context).setBuffer(eventBuffer);
+                eventCodec = lookupCodec(EventFieldList.TYPE_ID);
+            }
+
+            eventCodec.encode(context, eventEncoder, notification);
+            eventCount++;
+        }
+    }
+
+    /**
+     * @return the number of {@link MonitoredItemNotification}s added so far.
+     */
+    int getDataChangeCount() {
+        return dataChangeCount;
+    }
+
+    /**
+     * @return the number of {@link EventFieldList}s added so far.
+     */
+    int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Build the {@link NotificationMessage}, containing at most one {@link DataChangeNotification} followed by at most
+     * one {@link EventNotificationList}.
+     *
+     * @param sequenceNumber the sequence number of the message.
+     * @return the {@link NotificationMessage}.
+     */
+    NotificationMessage build(UInteger sequenceNumber) throws UaSerializationException {
+        int notificationDataCount = (dataChangeCount > 0 ? 1 : 0) + (eventCount > 0 ? 1 : 0);
+
+        ExtensionObject[] notificationData = new ExtensionObject[notificationDataCount];
+
+        int index = 0;
+
+        if (dataChangeCount > 0) {
+            // DataChangeNotification: MonitoredItems[], followed by an empty DiagnosticInfos[]
+            byte[] body = new byte[4 + dataBuffer.readableBytes() + 4];
+
+            Unpooled.wrappedBuffer(body)
+                .writerIndex(0)
+                .writeIntLE(dataChangeCount)
+                .writeBytes(dataBuffer, dataBuffer.readerIndex(), dataBuffer.readableBytes())
+                .writeIntLE(0);
+
+            notificationData[index++] = new ExtensionObject(
+                ByteString.of(body),
+                toLocalNodeId(DataChangeNotification.BINARY_ENCODING_ID)
+            );
+        }
+
+        if (eventCount > 0) {
+            // EventNotificationList: Events[]
+            byte[] body = new byte[4 + eventBuffer.readableBytes()];
+
+            Unpooled.wrappedBuffer(body)
+                .writerIndex(0)
+                .writeIntLE(eventCount)
+                .writeBytes(eventBuffer, eventBuffer.readerIndex(), eventBuffer.readableBytes());
+
+            notificationData[index] = new ExtensionObject(
+                ByteString.of(body),
+                toLocalNodeId(EventNotificationList.BINARY_ENCODING_ID)
+            );
+        }
+
+        return new NotificationMessage(sequenceNumber, DateTime.now(), notificationData);
+    }
+
+    /**
+     * Release the buffers used by this builder.
+     */
+    void release() {
+        if (dataBuffer != null) {
+            dataBuffer.release();
+            dataBuffer = null;
+            dataEncoder = null;
+        }
+        if (eventBuffer != null) {
+            eventBuffer.release();
+            eventBuffer = null;
+            eventEncoder = null;
+        }
+    }
+
+    private NodeId toLocalNodeId(ExpandedNodeId nodeId) throws UaSerializationException {
+        return nodeId.toNodeId(context.getNamespaceTable()).orElseThrow(
+            () -> new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "namespace not registered: " + nodeId.getNamespaceUri()
+            )
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private OpcUaBinaryDataTypeCodec<Object> lookupCodec(ExpandedNodeId dataTypeId) throws UaSerializationException {
+        NodeId localDataTypeId = toLocalNodeId(dataTypeId);
+
+        DataTypeCodec codec = context.getDataTypeManager()
+            .getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, localDataTypeId);
+
+        if (codec instanceof OpcUaBinaryDataTypeCodec) {
+            return (OpcUaBinaryDataTypeCodec<Object>) codec;
+        } else {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + dataTypeId
+            );
+        }
+    }
+
+}
@@ -10,13 +10,17 @@
 
 package org.eclipse.milo.opcua.sdk.server.subscriptions;
 
+import java.util.Comparator;
 import java.util.Date;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import com.google.common.collect.Lists;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
@@ -25,13 +29,33 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Matches queued Publish {@link ServiceRequest}s with wait-listed {@link Subscription}s.
+ * <p>
+ * Wait-listed Subscriptions are kept in a concurrent skip list ordered by priority (highest first) and then by the
+ * time they started waiting (oldest first), so handing a Publish request to the next Subscription in line is
+ * O(log n) and does not require a lock.
+ * <p>
+ * A Subscription's priority is captured when it is wait-listed; a priority change takes effect the next time it is
+ * wait-listed.
+ */
 public class PublishQueue {
 
+    private static final Comparator<WaitingSubscription> WAITING_ORDER =
+        Comparator.comparingInt((WaitingSubscription ws) -> ws.priority).reversed()
+            .thenComparingLong(ws -> ws.sequence);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(0L);
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final LinkedList<ServiceRequest> serviceQueue = new LinkedList<>();
+    private final ConcurrentLinkedDeque<ServiceRequest> serviceQueue = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger serviceQueueSize = new AtomicInteger(0);
 
-    private final LinkedHashMap<UInteger, WaitingSubscription> waitList = new LinkedHashMap<>();
+    private final ConcurrentSkipListSet<WaitingSubscription> waitList = new ConcurrentSkipListSet<>(WAITING_ORDER);
+
+    private final ConcurrentMap<UInteger, WaitingSubscription> waiting = new ConcurrentHashMap<>();
 
     /**
      * Add a Publish {@link ServiceRequest} to the queue.
@@ -41,69 +65,23 @@ public class PublishQueue {
      *
      * @param service the Publish {@link ServiceRequest}.
      */
-    public synchronized void addRequest(ServiceRequest service) {
-        List<WaitingSubscription> waitingSubscriptions = Lists.newArrayList(waitList.values());
+    public void addRequest(ServiceRequest service) {
+        WaitingSubscription subscription = pollWaitList();
 
-        if (waitingSubscriptions.isEmpty()) {
-            serviceQueue.add(service);
+        if (subscription != null) {
+            deliver(service, subscription);
+        } else {
+            serviceQueue.addLast(service);
+            serviceQueueSize.incrementAndGet();
 
             logger.debug(
                 "Queued PublishRequest requestHandle={}, size={}",
                 service.getRequest().getRequestHeader().getRequestHandle(),
-                serviceQueue.size()
+                serviceQueueSize.get()
             );
-        } else {
-            logger.debug("{} subscriptions waiting", waitingSubscriptions.size());
-
-            WaitingSubscription subscription = null;
 
-            int maxPriority = 0;
-            long minWaitingSince = Long.MAX_VALUE;
-
-            for (WaitingSubscription waiting : waitingSubscriptions) {
-                final int priority = waiting.getSubscription().getPriority();
-                final long waitingSince = waiting.getWaitingSince().getTime();
-
-                logger.debug(
-                    "subscription id={} priority={} waitingSince={}",
-                    waiting.getSubscription().getId(),
-                    priority,
-                    waitingSince
-                );
-
-                if (priority > maxPriority) {
-                    maxPriority = priority;
-                    minWaitingSince = Long.MAX_VALUE;
-                }
-                if (priority >= maxPriority && waitingSince < minWaitingSince) {
-                    minWaitingSince = waitingSince;
-                    subscription = waiting;
-
-                    logger.debug(
-                        "subscription id={} priority={} now next in line",
-                        waiting.getSubscription().getId(),
-                        priority
-                    );
-                }
-            }
-
-            if (subscription != null) {
-                waitList.remove(subscription.subscription.getId());
-
-                logger.debug(
-                    "delivering PublishRequest to subscription id={} priority={}",
-                    subscription.getSubscription().getId(),
-                    subscription.getSubscription().getPriority()
-                );
-
-                final WaitingSubscription ws = subscription;
-
-                service.getServer().getConfig().getExecutor().execute(
-                    () -> ws.subscription.onPublish(service)
-                );
-            } else {
-                serviceQueue.add(service);
-            }
+            // A Subscription may have been wait-listed after the wait list was checked.
+            match();
         }
     }
 
@@ -120,45 +98,54 @@ public class PublishQueue {
      *
      * @param subscription the subscription to wait-list.
      */
-    public synchronized void addSubscription(Subscription subscription) {
-        if (waitList.isEmpty() && !serviceQueue.isEmpty()) {
-            ServiceRequest request = poll();
-
-            if (request != null) {
-                request.getServer().getConfig().getExecutor().execute(
-                    () ->
-                        subscription.onPublish(request)
-                );
-            } else {
-                waitList.putIfAbsent(subscription.getId(), new WaitingSubscription(subscription));
+    public void addSubscription(Subscription subscription) {
+        WaitingSubscription ws = new WaitingSubscription(subscription);
+
+        while (true) {
+            WaitingSubscription existing = waiting.putIfAbsent(subscription.getId(), ws);
+
+            if (existing == null) {
+                waitList.add(ws);
+                break;
+            } else if (!existing.claimed.get()) {
+                // Already wait-listed and not yet handed a request.
+                break;
+            } else if (waiting.replace(subscription.getId(), existing, ws)) {
+                // The existing entry was claimed by a concurrent poll and is about to be removed; this call came
+                // after that poll, so the Subscription has to be wait-listed again rather than dropped.
+                waitList.add(ws);
+                break;
             }
-        } else {
-            waitList.putIfAbsent(subscription.getId(), new WaitingSubscription(subscription));
         }
+
+        // A Publish request may be queued; if so it goes to whichever Subscription is next in line.
+        match();
     }
 
-    public synchronized boolean isEmpty() {
+    public boolean isEmpty() {
         return serviceQueue.isEmpty();
     }
 
-    public synchronized boolean isNotEmpty() {
+    public boolean isNotEmpty() {
         return !isEmpty();
     }
 
-    public synchronized boolean isWaitListEmpty() {
-        return waitList.isEmpty();
+    public boolean isWaitListEmpty() {
+        return waiting.isEmpty();
     }
 
     @Nullable
-    public synchronized ServiceRequest poll() {
+    public ServiceRequest poll() {
         long nowNanos = System.nanoTime();
 
         while (true) {
-            ServiceRequest serviceRequest = serviceQueue.poll();
+            ServiceRequest serviceRequest = serviceQueue.pollFirst();
 
             if (serviceRequest == null) {
                 return null;
             } else {
+                serviceQueueSize.decrementAndGet();
+
                 RequestHeader requestHeader = serviceRequest
                     .getRequest()
                     .getRequestHeader();
@@ -191,18 +178,84 @@ public class PublishQueue {
      *
      * @return the number of queued Publish ServiceRequests.
      */
-    public synchronized int size() {
-        return serviceQueue.size();
+    public int size() {
+        return Math.max(0, serviceQueueSize.get());
+    }
+
+    /**
+     * Hand queued requests to wait-listed Subscriptions until one side is empty.
+     * <p>
+     * Both {@link #addRequest(ServiceRequest)} and {@link #addSubscription(Subscription)} call this after publishing
+     * their element, so whichever of two racing calls runs last sees both and makes the match.
+     */
+    private void match() {
+        while (!waitList.isEmpty() && !serviceQueue.isEmpty()) {
+            WaitingSubscription subscription = pollWaitList();
+            if (subscription == null) continue;
+
+            ServiceRequest service = poll();
+
+            if (service != null) {
+                deliver(service, subscription);
+            } else {
+                // Lost the request to another thread; put the Subscription back in its place in line unless it
+                // has been wait-listed again in the meantime.
+                subscription.claimed.set(false);
+
+                if (waiting.putIfAbsent(subscription.getSubscription().getId(), subscription) == null) {
+                    waitList.add(subscription);
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the next Subscription in line off the wait list.
+     * <p>
+     * The entry is claimed before it is removed from {@code waiting}, so an {@link #addSubscription(Subscription)}
+     * that finds it in between knows the Subscription is no longer waiting and wait-lists it again.
+     */
+    @Nullable
+    private WaitingSubscription pollWaitList() {
+        WaitingSubscription subscription = waitList.pollFirst();
+
+        if (subscription != null) {
+            subscription.claimed.set(true);
+
+            waiting.remove(subscription.getSubscription().getId(), subscription);
+        }
+
+        return subscription;
+    }
+
+    private void deliver(ServiceRequest service, WaitingSubscription subscription) {
+        logger.debug(
+            "delivering PublishRequest to subscription id={} priority={}",
+            subscription.getSubscription().getId(),
+            subscription.priority
+        );
+
+        service.getServer().getConfig().getExecutor().execute(
+            () -> subscription.subscription.onPublish(service)
+        );
     }
 
     public static class WaitingSubscription {
 
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
         private final Date waitingSince = new Date();
 
+        private final long sequence = SEQUENCE.getAndIncrement();
+
+        private final int priority;
+
         private final Subscription subscription;
 
         public WaitingSubscription(Subscription subscription) {
             this.subscription = subscription;
+
+            priority = subscription.getPriority();
         }
 
         public Subscription getSubscription() {
@@ -19,7 +19,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -30,6 +29,8 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.PeekingIterator;
 import com.google.common.math.DoubleMath;
 import com.google.common.primitives.Ints;
+import io.netty.util.Timeout;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
 import org.eclipse.milo.opcua.sdk.server.diagnostics.SubscriptionDiagnostics;
@@ -37,16 +38,12 @@ import org.eclipse.milo.opcua.sdk.server.items.BaseMonitoredItem;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
 import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
-import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.MonitoringMode;
-import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
-import org.eclipse.milo.opcua.stack.core.types.structured.EventFieldList;
-import org.eclipse.milo.opcua.stack.core.types.structured.EventNotificationList;
 import org.eclipse.milo.opcua.stack.core.types.structured.ModifySubscriptionRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
 import org.eclipse.milo.opcua.stack.core.types.structured.NotificationMessage;
@@ -92,7 +89,8 @@ public class Subscription {
     private final PublishHandler publishHandler = new PublishHandler();
     private final TimerHandler timerHandler = new TimerHandler();
 
-    private volatile ScheduledFuture<?> publishingTimer;
+    private volatile Timeout publishingTimer;
+    private volatile long nextPublishingNanos;
 
     private volatile boolean messageSent = false;
     private volatile boolean moreNotifications = false;
@@ -165,8 +163,8 @@ public class Subscription {
     public synchronized List<BaseMonitoredItem<?>> deleteSubscription() {
         setState(State.Closed);
 
-        ScheduledFuture<?> sf = publishingTimer;
-        if (sf != null) sf.cancel(false);
+        Timeout timeout = publishingTimer;
+        if (timeout != null) timeout.cancel();
         publishingTimer = null;
 
         logger.debug("[id={}] subscription deleted.", subscriptionId);
@@ -491,59 +489,31 @@ public class Subscription {
     }
 
     private void sendNotifications(ServiceRequest service, List<UaStructure> notifications) {
-        List<MonitoredItemNotification> dataNotifications = Lists.newArrayList();
-        List<EventFieldList> eventNotifications = Lists.newArrayList();
-
-        notifications.forEach(notification -> {
-            if (notification instanceof MonitoredItemNotification) {
-                dataNotifications.add((MonitoredItemNotification) notification);
-            } else if (notification instanceof EventFieldList) {
-                eventNotifications.add((EventFieldList) notification);
-            }
-        });
-
-        List<ExtensionObject> notificationData = Lists.newArrayList();
+        NotificationMessageBuilder builder = new NotificationMessageBuilder(serializationContext);
 
-        if (dataNotifications.size() > 0) {
-            DataChangeNotification dataChange = new DataChangeNotification(
-                dataNotifications.toArray(new MonitoredItemNotification[0]),
-                new DiagnosticInfo[0]
-            );
+        NotificationMessage notificationMessage;
 
-            notificationData.add(ExtensionObject.encode(
-                serializationContext,
-                dataChange,
-                dataChange.getBinaryEncodingId(),
-                OpcUaDefaultBinaryEncoding.getInstance()
-            ));
+        try {
+            notifications.forEach(builder::add);
 
-            subscriptionDiagnostics.getDataChangeNotificationsCount().add(dataNotifications.size());
+            notificationMessage = builder.build(uint(nextSequenceNumber()));
+        } finally {
+            builder.release();
         }
 
-        if (eventNotifications.size() > 0) {
-            EventNotificationList eventChange = new EventNotificationList(
-                eventNotifications.toArray(new EventFieldList[0])
-            );
+        int dataChangeCount = builder.getDataChangeCount();
+        int eventCount = builder.getEventCount();
 
-            notificationData.add(ExtensionObject.encode(
-                serializationContext,
-                eventChange,
-                eventChange.getBinaryEncodingId(),
-                OpcUaDefaultBinaryEncoding.getInstance()
-            ));
-
-            subscriptionDiagnostics.getEventNotificationsCount().add(eventNotifications.size());
+        if (dataChangeCount > 0) {
+            subscriptionDiagnostics.getDataChangeNotificationsCount().add(dataChangeCount);
+        }
+        if (eventCount > 0) {
+            subscriptionDiagnostics.getEventNotificationsCount().add(eventCount);
         }
 
-        subscriptionDiagnostics.getNotificationsCount().add(notificationData.size());
-
-        UInteger sequenceNumber = uint(nextSequenceNumber());
+        subscriptionDiagnostics.getNotificationsCount().add(notificationMessage.getNotificationData().length);
 
-        NotificationMessage notificationMessage = new NotificationMessage(
-            sequenceNumber,
-            DateTime.now(),
-            notificationData.toArray(new ExtensionObject[0])
-        );
+        UInteger sequenceNumber = notificationMessage.getSequenceNumber();
 
         availableMessages.put(notificationMessage.getSequenceNumber(), notificationMessage);
 
@@ -575,8 +545,8 @@ public class Subscription {
         logger.debug(
             "[id={}] returning {} DataChangeNotification(s) and " +
                 "{} EventNotificationList(s) sequenceNumber={} moreNotifications={}.",
-            subscriptionId, dataNotifications.size(),
-            eventNotifications.size(), sequenceNumber, moreNotifications);
+            subscriptionId, dataChangeCount,
+            eventCount, sequenceNumber, moreNotifications);
     }
 
     private boolean notificationsAvailable() {
@@ -741,8 +711,6 @@ public class Subscription {
         // lifetimeCounter is always accessed while synchronized on 'this'.
         lifetimeCounter = lifetimeCounter - 1;
 
-        long startNanos = System.nanoTime();
-
         if (state == State.Normal) {
             timerHandler.whenNormal();
         } else if (state == State.KeepAlive) {
@@ -757,23 +725,24 @@ public class Subscription {
             throw new RuntimeException("unhandled subscription state: " + state);
         }
 
-        long elapsedNanos = System.nanoTime() - startNanos;
+        // The next cycle is due one interval after this one was, not one interval after it ran, so neither
+        // the time spent above nor the lifecycle timer's tick granularity accumulates as drift. Cycles missed
+        // entirely, e.g. while the executor was saturated, are not caught up on.
+        long nowNanos = System.nanoTime();
 
-        long intervalNanos = TimeUnit.NANOSECONDS.convert(
-            DoubleMath.roundToLong(publishingInterval, RoundingMode.UP),
-            TimeUnit.MILLISECONDS
-        );
+        nextPublishingNanos += getPublishingIntervalNanos();
 
-        long adjustedIntervalNanos = Math.max(0, intervalNanos - elapsedNanos);
+        if (nextPublishingNanos - nowNanos < 0) {
+            nextPublishingNanos = nowNanos;
+        }
 
-        startPublishingTimer(adjustedIntervalNanos);
+        startPublishingTimer(nextPublishingNanos - nowNanos);
     }
 
     synchronized void startPublishingTimer() {
-        long intervalNanos = TimeUnit.NANOSECONDS.convert(
-            DoubleMath.roundToLong(publishingInterval, RoundingMode.UP),
-            TimeUnit.MILLISECONDS
-        );
+        long intervalNanos = getPublishingIntervalNanos();
+
+        nextPublishingNanos = System.nanoTime() + intervalNanos;
 
         startPublishingTimer(intervalNanos);
     }
@@ -788,14 +757,23 @@ public class Subscription {
             setState(State.Closing);
             publishQueue().addSubscription(this);
         } else {
-            publishingTimer = subscriptionManager.getServer().getScheduledExecutorService().schedule(
-                this::onPublishingTimer,
+            OpcUaServer server = subscriptionManager.getServer();
+
+            publishingTimer = server.newLifecycleTimeout(
+                t -> server.getExecutorService().execute(this::onPublishingTimer),
                 delayNanos,
                 TimeUnit.NANOSECONDS
             );
         }
     }
 
+    private long getPublishingIntervalNanos() {
+        return TimeUnit.NANOSECONDS.convert(
+            DoubleMath.roundToLong(publishingInterval, RoundingMode.UP),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
     public synchronized StatusCode acknowledge(UInteger sequenceNumber) {
         if (availableMessages.remove(sequenceNumber) != null) {
             logger.debug("[id={}] sequence number acknowledged: {}", subscriptionId, sequenceNumber);
@@ -11,7 +11,8 @@
 package org.eclipse.milo.opcua.sdk.server.util;
 
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.milo.opcua.sdk.core.AccessLevel;
 import org.eclipse.milo.opcua.sdk.core.NumericRange;
@@ -35,18 +36,30 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.util.ArrayUtil;
 import org.jetbrains.annotations.Nullable;
 
 import static org.eclipse.milo.opcua.sdk.core.util.StreamUtil.opt2stream;
-import static org.eclipse.milo.opcua.sdk.server.util.AttributeUtil.getAccessLevels;
-import static org.eclipse.milo.opcua.sdk.server.util.AttributeUtil.getUserAccessLevels;
 import static org.eclipse.milo.opcua.stack.core.util.ArrayUtil.transformArray;
 
 public class AttributeReader {
 
+    /**
+     * The maximum number of parsed index ranges kept in {@link #NUMERIC_RANGES}.
+     */
+    private static final int MAX_CACHED_NUMERIC_RANGES = 256;
+
+    /**
+     * Parsed index ranges, so the ranges a client reads over and over aren't parsed again for every read. Cleared when
+     * full rather than evicting individual entries.
+     */
+    private static final ConcurrentMap<String, NumericRange> NUMERIC_RANGES = new ConcurrentHashMap<>();
+
+    private static final int CURRENT_READ = AccessLevel.CurrentRead.getValue();
+
     public static DataValue readAttribute(
         AttributeContext context,
         UaServerNode node,
@@ -56,18 +69,16 @@ public class AttributeReader {
         @Nullable QualifiedName encodingName) {
 
         try {
-            AttributeContext internalContext = new AttributeContext(context.getServer());
-
             NodeClass nodeClass = node.getNodeClass();
 
             if (attributeId == AttributeId.Value && nodeClass == NodeClass.Variable) {
-                Set<AccessLevel> accessLevels = getAccessLevels(node, internalContext);
-                if (!accessLevels.contains(AccessLevel.CurrentRead)) {
+                int accessLevel = getAccessLevel(node, context.withoutSession(), AttributeId.AccessLevel);
+                if ((accessLevel & CURRENT_READ) == 0) {
                     throw new UaException(StatusCodes.Bad_NotReadable);
                 }
 
-                Set<AccessLevel> userAccessLevels = getUserAccessLevels(node, context);
-                if (!userAccessLevels.contains(AccessLevel.CurrentRead)) {
+                int userAccessLevel = getAccessLevel(node, context, AttributeId.UserAccessLevel);
+                if ((userAccessLevel & CURRENT_READ) == 0) {
                     throw new UaException(StatusCodes.Bad_UserAccessDenied);
                 }
             }
@@ -93,7 +104,18 @@ public class AttributeReader {
                 }
             }
 
-            final DataValue.Builder dvb = node.getAttribute(context, attributeId).copy();
+            DataValue value = node.getAttribute(context, attributeId);
+
+            // Nothing to transcode, no index range, and the timestamps are already
+            // what was asked for: return the value as-is instead of copying it.
+            if (indexRange == null &&
+                !containsExtensionObject(value.getValue()) &&
+                (timestamps == null || hasTimestamps(value, attributeId, timestamps))) {
+
+                return value;
+            }
+
+            final DataValue.Builder dvb = value.copy();
 
             // Maybe transcode the structure...
             if (dvb.value.isNotNull()) {
@@ -121,7 +143,7 @@ public class AttributeReader {
 
             // Apply index range if provided...
             if (indexRange != null) {
-                NumericRange range = NumericRange.parse(indexRange);
+                NumericRange range = parseNumericRange(indexRange);
 
                 Object valueAtRange = NumericRange.readFromValueAtRange(dvb.value, range);
 
@@ -139,6 +161,94 @@ public class AttributeReader {
         }
     }
 
+    /**
+     * Get the AccessLevel or UserAccessLevel of {@code node} as a bitmask, 0 if it's missing or can't be read.
+     * <p>
+     * {@link UaNode}s without an {@link org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate} are read
+     * through their filter chain directly, without wrapping the value in a {@link DataValue}.
+     */
+    private static int getAccessLevel(
+        UaServerNode node,
+        AttributeContext context,
+        AttributeId attributeId
+    ) throws UaException {
+
+        Object accessLevel;
+
+        if (node instanceof UaNode && ((UaNode) node).getAttributeDelegate() == null) {
+            try {
+                accessLevel = ((UaNode) node).getFilterChain().getAttribute(
+                    context.getSession().orElse(null),
+                    (UaNode) node,
+                    attributeId
+                );
+            } catch (Throwable t) {
+                return 0;
+            }
+        } else {
+            accessLevel = AttributeUtil.extract(node.getAttribute(context, attributeId));
+        }
+
+        if (accessLevel instanceof UByte) {
+            return ((UByte) accessLevel).intValue();
+        } else if (accessLevel == null) {
+            return 0;
+        } else {
+            throw new UaException(
+                StatusCodes.Bad_TypeMismatch,
+                "attribute value was not of the expected type: " + accessLevel
+            );
+        }
+    }
+
+    private static boolean containsExtensionObject(@Nullable Variant variant) {
+        Object value = variant != null ? variant.getValue() : null;
+
+        if (value == null) {
+            return false;
+        } else if (value instanceof ExtensionObject) {
+            return true;
+        } else {
+            return value.getClass().isArray() && ArrayUtil.getType(value) == ExtensionObject.class;
+        }
+    }
+
+    /**
+     * @return {@code true} if {@link DataValue.Builder#applyTimestamps(AttributeId, TimestampsToReturn)} would leave
+     * the timestamps of {@code value} unchanged.
+     */
+    private static boolean hasTimestamps(DataValue value, AttributeId attributeId, TimestampsToReturn timestamps) {
+        boolean includeSource = attributeId == AttributeId.Value &&
+            (timestamps == TimestampsToReturn.Source || timestamps == TimestampsToReturn.Both);
+
+        boolean includeServer = timestamps == TimestampsToReturn.Server || timestamps == TimestampsToReturn.Both;
+
+        if (!includeSource && (value.getSourceTime() != null || value.getSourcePicoseconds() != null)) {
+            return false;
+        }
+
+        if (includeServer) {
+            return value.getServerTime() != null;
+        } else {
+            return value.getServerTime() == null && value.getServerPicoseconds() == null;
+        }
+    }
+
+    private static NumericRange parseNumericRange(String indexRange) throws UaException {
+        NumericRange range = NUMERIC_RANGES.get(indexRange);
+
+        if (range == null) {
+            range = NumericRange.parse(indexRange);
+
+            if (NUMERIC_RANGES.size() >= MAX_CACHED_NUMERIC_RANGES) {
+                NUMERIC_RANGES.clear();
+            }
+            NUMERIC_RANGES.put(indexRange, range);
+        }
+
+        return range;
+    }
+
     private static boolean isStructureSubtype(OpcUaServer server, NodeId dataTypeId) {
         UaNode dataTypeNode = server.getAddressSpaceManager()
             .getManagedNode(dataTypeId)
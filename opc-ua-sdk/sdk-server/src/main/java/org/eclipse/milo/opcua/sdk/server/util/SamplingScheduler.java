@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.collect.Sets;
+import com.google.common.math.DoubleMath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hashed timer wheel that drives periodic sampling.
+ * <p>
+ * Sampling intervals are rounded up to a multiple of the configured quantum, which is also the duration of one tick.
+ * Ticks are scheduled at a fixed rate from the time the wheel was started, so a slow sample does not delay the
+ * following ones. After its first sample a task is due on every tick that is a multiple of its interval, so tasks with
+ * the same interval are always due together. All tasks due in the same tick that share a {@link Sampler} are handed
+ * to it in a single call.
+ * <p>
+ * A task that is due while its previous sample is still in progress is skipped for that tick.
+ * <p>
+ * The worker thread parks while no tasks are scheduled. Tasks survive {@link #shutdown()} and resume sampling after
+ * {@link #startup()}.
+ */
+public class SamplingScheduler {
+
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * All tasks that have been scheduled and not yet cancelled, whether or not the wheel is running.
+     */
+    private final Set<SamplingTask<?>> activeTasks = Sets.newConcurrentHashSet();
+
+    private final AtomicLong tickCount = new AtomicLong(0L);
+    private final AtomicLong maxTickLagNanos = new AtomicLong(0L);
+    private final AtomicLong skippedSampleCount = new AtomicLong(0L);
+
+    private volatile long lastTickLagNanos = 0L;
+
+    private volatile Worker worker;
+
+    private final int wheelSize;
+    private final long quantumMillis;
+    private final long tickNanos;
+    private final Executor executor;
+
+    /**
+     * @param executor              the {@link Executor} {@link Sampler}s are invoked on.
+     * @param samplingQuantumMillis the duration of one tick, in milliseconds, and the granularity sampling intervals
+     *                              are rounded up to.
+     */
+    public SamplingScheduler(Executor executor, double samplingQuantumMillis) {
+        this(executor, samplingQuantumMillis, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param executor              the {@link Executor} {@link Sampler}s are invoked on.
+     * @param samplingQuantumMillis the duration of one tick, in milliseconds, and the granularity sampling intervals
+     *                              are rounded up to.
+     * @param wheelSize             the number of buckets in the wheel; rounded up to a power of 2.
+     */
+    public SamplingScheduler(Executor executor, double samplingQuantumMillis, int wheelSize) {
+        this.executor = executor;
+
+        quantumMillis = Math.max(1L, DoubleMath.roundToLong(samplingQuantumMillis, RoundingMode.UP));
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(quantumMillis);
+
+        this.wheelSize = wheelSize > 1 ? Integer.highestOneBit(wheelSize - 1) << 1 : 1;
+    }
+
+    /**
+     * Round {@code samplingInterval} up to the interval, in milliseconds, it would be sampled at by this scheduler.
+     *
+     * @param samplingInterval the requested sampling interval, in milliseconds.
+     * @return the interval, in milliseconds, {@code samplingInterval} would be sampled at.
+     */
+    public long quantize(double samplingInterval) {
+        long interval = DoubleMath.roundToLong(Math.max(samplingInterval, 0d), RoundingMode.UP);
+        long ticks = Math.max(1L, (interval + quantumMillis - 1) / quantumMillis);
+
+        return ticks * quantumMillis;
+    }
+
+    /**
+     * Schedule {@code target} to be passed to {@code sampler} every {@code samplingInterval} milliseconds, starting
+     * with the next tick.
+     *
+     * @param sampler          the {@link Sampler} to invoke.
+     * @param samplingInterval the sampling interval, in milliseconds. Rounded up by {@link #quantize(double)}.
+     * @param target           the object passed to {@code sampler} when this task is due.
+     * @return a {@link SamplingTask} that can be used to cancel sampling.
+     */
+    public synchronized <T> SamplingTask<T> schedule(Sampler<T> sampler, double samplingInterval, T target) {
+        long intervalTicks = quantize(samplingInterval) / quantumMillis;
+
+        SamplingTask<T> task = new SamplingTask<>(this, sampler, target, intervalTicks);
+
+        activeTasks.add(task);
+
+        Worker w = worker;
+
+        if (w == null) {
+            startWorker();
+        } else {
+            w.newTasks.add(task);
+
+            LockSupport.unpark(w.thread);
+        }
+
+        return task;
+    }
+
+    /**
+     * Start the wheel if it isn't running and any tasks are scheduled, e.g. tasks that were scheduled before a
+     * {@link #shutdown()}. Scheduling a task also starts the wheel.
+     */
+    public synchronized void startup() {
+        if (worker == null && !activeTasks.isEmpty()) {
+            startWorker();
+        }
+    }
+
+    /**
+     * Stop the wheel. Scheduled tasks that have not been cancelled are kept and resume sampling when the wheel is
+     * started again by {@link #startup()} or by scheduling a new task.
+     */
+    public synchronized void shutdown() {
+        Worker w = worker;
+        worker = null;
+
+        if (w != null) {
+            LockSupport.unpark(w.thread);
+        }
+    }
+
+    /**
+     * @return the number of ticks processed since the wheel was created.
+     */
+    public long getTickCount() {
+        return tickCount.get();
+    }
+
+    /**
+     * @return how late, in nanoseconds, the most recent tick was processed relative to its scheduled time.
+     */
+    public long getLastTickLagNanos() {
+        return lastTickLagNanos;
+    }
+
+    /**
+     * @return the largest tick lag, in nanoseconds, observed since the wheel was created.
+     */
+    public long getMaxTickLagNanos() {
+        return maxTickLagNanos.get();
+    }
+
+    /**
+     * @return the number of samples skipped because the previous sample of the same task was still in progress.
+     */
+    public long getSkippedSampleCount() {
+        return skippedSampleCount.get();
+    }
+
+    /**
+     * @return the number of tasks that have been scheduled and not cancelled.
+     */
+    public int getActiveTaskCount() {
+        return activeTasks.size();
+    }
+
+    private void startWorker() {
+        // A new worker starts with an empty wheel, so every task still active goes in on its first tick.
+        Worker w = new Worker(activeTasks);
+        worker = w;
+        w.thread.start();
+    }
+
+    private class Worker implements Runnable {
+
+        private final ConcurrentLinkedQueue<SamplingTask<?>> newTasks = new ConcurrentLinkedQueue<>();
+
+        private final Thread thread;
+
+        private final List<SamplingTask<?>>[] wheel;
+        private final int mask;
+
+        @SuppressWarnings("unchecked")
+        Worker(Set<SamplingTask<?>> initialTasks) {
+            newTasks.addAll(initialTasks);
+
+            thread = new Thread(this, "milo-sampling-scheduler");
+            thread.setDaemon(true);
+
+            wheel = new List[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = new ArrayList<>();
+            }
+            mask = wheelSize - 1;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+
+            long tick = 0L;
+
+            while (worker == this) {
+                if (activeTasks.isEmpty() && newTasks.isEmpty()) {
+                    // Nothing to sample; schedule() unparks this thread when a task is added.
+                    LockSupport.park(this);
+
+                    // Rebase so the ticks that passed while parked aren't processed in a burst.
+                    startNanos = System.nanoTime() - tick * tickNanos;
+                    continue;
+                }
+
+                long deadline = startNanos + tick * tickNanos;
+
+                long sleepNanos;
+                while ((sleepNanos = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, sleepNanos);
+
+                    if (worker != this) {
+                        return;
+                    }
+                }
+
+                long lag = System.nanoTime() - deadline;
+                lastTickLagNanos = lag;
+                maxTickLagNanos.accumulateAndGet(lag, Math::max);
+
+                try {
+                    processTick(tick);
+                } catch (Throwable t) {
+                    logger.error("Error processing sampling tick {}", tick, t);
+                }
+
+                tickCount.incrementAndGet();
+                tick++;
+            }
+        }
+
+        private void processTick(long tick) {
+            List<SamplingTask<?>> due = new ArrayList<>();
+
+            SamplingTask<?> newTask;
+            while ((newTask = newTasks.poll()) != null) {
+                newTask.deadline = tick;
+                due.add(newTask);
+            }
+
+            List<SamplingTask<?>> bucket = wheel[(int) (tick & mask)];
+
+            if (!bucket.isEmpty()) {
+                List<SamplingTask<?>> remaining = new ArrayList<>(bucket.size());
+
+                for (SamplingTask<?> task : bucket) {
+                    if (task.cancelled) continue;
+
+                    if (task.deadline <= tick) {
+                        due.add(task);
+                    } else {
+                        remaining.add(task);
+                    }
+                }
+
+                wheel[(int) (tick & mask)] = remaining;
+            }
+
+            if (due.isEmpty()) return;
+
+            Map<Sampler<?>, List<SamplingTask<?>>> bySampler = new IdentityHashMap<>();
+
+            for (SamplingTask<?> task : due) {
+                if (task.cancelled) continue;
+
+                if (task.busy) {
+                    skippedSampleCount.incrementAndGet();
+                } else {
+                    task.busy = true;
+                    bySampler.computeIfAbsent(task.sampler, s -> new ArrayList<>()).add(task);
+                }
+
+                // Align to a multiple of the interval so that tasks with the same interval are
+                // due on the same ticks, no matter when they were scheduled.
+                task.deadline = (tick / task.intervalTicks + 1) * task.intervalTicks;
+                wheel[(int) (task.deadline & mask)].add(task);
+            }
+
+            bySampler.forEach((sampler, tasks) -> executor.execute(() -> sample(sampler, tasks)));
+        }
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void sample(Sampler<T> sampler, List<SamplingTask<?>> tasks) {
+        List<T> targets = new ArrayList<>(tasks.size());
+        for (SamplingTask<?> task : tasks) {
+            targets.add((T) task.target);
+        }
+
+        CompletableFuture<?> future;
+        try {
+            future = sampler.sample(targets);
+        } catch (Throwable t) {
+            future = CompletableFuture.completedFuture(null);
+
+            LoggerFactory.getLogger(SamplingScheduler.class)
+                .error("Uncaught Throwable sampling {} targets", targets.size(), t);
+        }
+
+        future.whenComplete((r, ex) -> tasks.forEach(task -> task.busy = false));
+    }
+
+    public interface Sampler<T> {
+
+        /**
+         * Sample {@code targets}, all of which are due in the same tick.
+         *
+         * @param targets the targets that are due.
+         * @return a {@link CompletableFuture} that completes when sampling is done. The targets will not be passed to
+         * this sampler again until it completes.
+         */
+        CompletableFuture<?> sample(List<T> targets);
+
+    }
+
+    public static final class SamplingTask<T> {
+
+        private volatile boolean cancelled = false;
+        private volatile boolean busy = false;
+
+        // only accessed by the worker thread
+        private long deadline;
+
+        private final Sampler<T> sampler;
+        private final T target;
+        private final long intervalTicks;
+
+        private final SamplingScheduler scheduler;
+
+        private SamplingTask(SamplingScheduler scheduler, Sampler<T> sampler, T target, long intervalTicks) {
+            this.scheduler = scheduler;
+            this.sampler = sampler;
+            this.target = target;
+            this.intervalTicks = intervalTicks;
+        }
+
+        /**
+         * Cancel this task. A sample already in progress is not interrupted.
+         */
+        public void cancel() {
+            cancelled = true;
+
+            scheduler.activeTasks.remove(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+    }
+
+}
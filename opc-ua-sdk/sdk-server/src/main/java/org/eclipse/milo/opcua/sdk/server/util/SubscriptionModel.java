@@ -10,55 +10,98 @@
 
 package org.eclipse.milo.opcua.sdk.server.util;
 
-import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.math.DoubleMath;
 import org.eclipse.milo.opcua.sdk.core.util.GroupMapCollate;
 import org.eclipse.milo.opcua.sdk.server.AbstractLifecycle;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.api.DataItem;
 import org.eclipse.milo.opcua.sdk.server.api.MonitoredItem;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeObserver;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.util.SamplingScheduler.Sampler;
+import org.eclipse.milo.opcua.sdk.server.util.SamplingScheduler.SamplingTask;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.eclipse.milo.opcua.stack.core.util.ExecutionQueue;
-
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Samples {@link DataItem}s on behalf of a {@link AttributeServices} implementation.
+ * <p>
+ * Items are grouped by sampling interval, as quantized by the server's {@link SamplingScheduler}. Groups are maintained
+ * incrementally as items are created, modified, and deleted rather than being rebuilt on every change. All groups due
+ * in the same tick are sampled with one read per session.
+ * <p>
+ * When a {@link NodeManager} is provided, items monitoring a {@link UaNode} that reports its own changes (no
+ * {@link org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate} and no
+ * {@link org.eclipse.milo.opcua.sdk.server.nodes.filters.AttributeFilter}s installed) are sampled only on the ticks
+ * following a change reported to an {@link AttributeObserver}. All other items are polled on every tick.
+ */
 public class SubscriptionModel extends AbstractLifecycle {
 
-    private final Set<DataItem> itemSet = Collections.newSetFromMap(Maps.newConcurrentMap());
+    private final Map<DataItem, ItemState> items = Maps.newConcurrentMap();
+
+    private final Map<Long, ScheduledUpdate> schedule = Maps.newConcurrentMap();
 
-    private final List<ScheduledUpdate> schedule = Lists.newCopyOnWriteArrayList();
+    private final Map<NodeId, ObservedNode> observedNodes = Maps.newConcurrentMap();
+
+    /**
+     * A single {@link Sampler} instance so that all of this model's groups due in the same tick are sampled together.
+     */
+    private final Sampler<ScheduledUpdate> sampler = this::sample;
 
     private final ExecutorService executor;
-    private final ScheduledExecutorService scheduler;
+    private final SamplingScheduler samplingScheduler;
     private final ExecutionQueue executionQueue;
 
     private final OpcUaServer server;
     private final AttributeServices attributeServices;
+    private final NodeManager<UaNode> nodeManager;
 
     public SubscriptionModel(OpcUaServer server, AttributeServices attributeServices) {
+        this(server, attributeServices, null);
+    }
+
+    /**
+     * Create a {@link SubscriptionModel} that observes nodes found in {@code nodeManager} for changes instead of
+     * polling them.
+     *
+     * @param server            the {@link OpcUaServer}.
+     * @param attributeServices the {@link AttributeServices} used to read sampled values.
+     * @param nodeManager       the {@link NodeManager} used to find observable nodes, or {@code null} to poll
+     *                          all items.
+     */
+    public SubscriptionModel(
+        OpcUaServer server,
+        AttributeServices attributeServices,
+        @Nullable NodeManager<UaNode> nodeManager
+    ) {
+
         this.server = server;
 
         this.attributeServices = attributeServices;
+        this.nodeManager = nodeManager;
 
         executor = server.getExecutorService();
-        scheduler = server.getScheduledExecutorService();
+        samplingScheduler = server.getSamplingScheduler();
 
         executionQueue = new ExecutionQueue(executor);
     }
@@ -70,9 +113,11 @@ public class SubscriptionModel extends AbstractLifecycle {
     @Override
     protected void onShutdown() {
         executionQueue.submit(() -> {
-            schedule.forEach(ScheduledUpdate::cancel);
+            schedule.values().forEach(ScheduledUpdate::cancel);
             schedule.clear();
-            itemSet.clear();
+            observedNodes.values().forEach(ObservedNode::unobserve);
+            observedNodes.clear();
+            items.clear();
         });
     }
 
@@ -81,10 +126,7 @@ public class SubscriptionModel extends AbstractLifecycle {
             throw new IllegalArgumentException("not running");
         }
 
-        executionQueue.submit(() -> {
-            itemSet.addAll(items);
-            reschedule();
-        });
+        executionQueue.submit(() -> items.forEach(this::addItem));
     }
 
     public void onDataItemsModified(List<DataItem> items) {
@@ -92,7 +134,7 @@ public class SubscriptionModel extends AbstractLifecycle {
             throw new IllegalArgumentException("not running");
         }
 
-        executionQueue.submit(this::reschedule);
+        executionQueue.submit(() -> items.forEach(this::updateItem));
     }
 
     public void onDataItemsDeleted(List<DataItem> items) {
@@ -100,10 +142,7 @@ public class SubscriptionModel extends AbstractLifecycle {
             throw new IllegalArgumentException("not running");
         }
 
-        executionQueue.submit(() -> {
-            itemSet.removeAll(items);
-            reschedule();
-        });
+        executionQueue.submit(() -> items.forEach(this::removeItem));
     }
 
     public void onMonitoringModeChanged(List<MonitoredItem> items) {
@@ -111,93 +150,268 @@ public class SubscriptionModel extends AbstractLifecycle {
             throw new IllegalArgumentException("not running");
         }
 
-        executionQueue.submit(this::reschedule);
+        executionQueue.submit(() -> {
+            for (MonitoredItem item : items) {
+                if (item instanceof DataItem) {
+                    updateItem((DataItem) item);
+                }
+            }
+        });
     }
 
-    private void reschedule() {
-        Map<Double, List<DataItem>> bySamplingInterval = itemSet.stream()
-            .filter(DataItem::isSamplingEnabled)
-            .collect(Collectors.groupingBy(DataItem::getSamplingInterval));
+    private void addItem(DataItem item) {
+        if (items.containsKey(item)) {
+            updateItem(item);
+        } else {
+            ItemState state = new ItemState(item);
+            items.put(item, state);
+
+            state.observedNode = observe(state);
+
+            updateItem(item);
+        }
+    }
+
+    private void updateItem(DataItem item) {
+        ItemState state = items.get(item);
+        if (state == null) return;
+
+        // The item's revised SamplingInterval was already reported to the client and is not
+        // changed to match; see OpcUaServerConfigLimits#getSamplingIntervalQuantum.
+        Long interval = item.isSamplingEnabled() ?
+            samplingScheduler.quantize(item.getSamplingInterval()) : null;
+
+        ScheduledUpdate current = state.update;
+
+        if (current != null && interval != null && current.samplingInterval == interval) {
+            return;
+        }
+
+        if (current != null) {
+            current.remove(state);
+            state.update = null;
+        }
 
-        List<ScheduledUpdate> updates = bySamplingInterval.keySet().stream()
-            .map(samplingInterval -> {
-                List<DataItem> items = bySamplingInterval.get(samplingInterval);
+        if (interval != null) {
+            // Sample at least once after (re)scheduling, even if the node never reports a change.
+            state.changed = true;
 
-                return new ScheduledUpdate(samplingInterval, items);
-            })
-            .collect(Collectors.toList());
+            ScheduledUpdate update = schedule.get(interval);
 
-        schedule.forEach(ScheduledUpdate::cancel);
-        schedule.clear();
-        schedule.addAll(updates);
-        schedule.forEach(scheduler::execute);
+            if (update == null) {
+                update = new ScheduledUpdate(interval);
+                update.add(state);
+                update.start();
+                schedule.put(interval, update);
+            } else {
+                update.add(state);
+            }
+
+            state.update = update;
+        }
     }
 
-    private class ScheduledUpdate implements Runnable {
+    private void removeItem(DataItem item) {
+        ItemState state = items.remove(item);
+        if (state == null) return;
 
-        private volatile boolean cancelled = false;
+        if (state.update != null) {
+            state.update.remove(state);
+            state.update = null;
+        }
 
-        private final long samplingInterval;
-        private final List<DataItem> items;
+        ObservedNode observedNode = state.observedNode;
+
+        if (observedNode != null) {
+            observedNode.states.remove(state);
 
-        private ScheduledUpdate(double samplingInterval, List<DataItem> items) {
-            this.samplingInterval = DoubleMath.roundToLong(samplingInterval, RoundingMode.UP);
-            this.items = items;
+            if (observedNode.states.isEmpty()) {
+                observedNode.unobserve();
+                observedNodes.remove(observedNode.node.getNodeId());
+            }
         }
+    }
 
-        private void cancel() {
-            cancelled = true;
+    @Nullable
+    private ObservedNode observe(ItemState state) {
+        if (nodeManager == null) return null;
+
+        ReadValueId readValueId = state.item.getReadValueId();
+
+        Optional<AttributeId> attributeId = AttributeId.from(readValueId.getAttributeId());
+        if (!attributeId.isPresent()) return null;
+
+        ObservedNode observedNode = observedNodes.get(readValueId.getNodeId());
+
+        if (observedNode == null) {
+            UaNode node = nodeManager.get(readValueId.getNodeId());
+
+            if (node == null || !isObservable(node)) {
+                return null;
+            }
+
+            observedNode = new ObservedNode(node);
+            observedNodes.put(node.getNodeId(), observedNode);
         }
 
-        @Override
-        public void run() {
-            if (cancelled) return;
+        state.attributeId = attributeId.get();
+        observedNode.states.add(state);
 
-            CompletableFuture<List<DataValue>> future = GroupMapCollate.groupMapCollate(
-                items,
-                MonitoredItem::getSession,
-                session -> sessionItems -> {
-                    List<PendingRead> pending = sessionItems.stream()
-                        .map(item -> new PendingRead(item.getReadValueId()))
-                        .collect(Collectors.toList());
+        return observedNode;
+    }
 
-                    List<ReadValueId> ids = pending.stream()
-                        .map(PendingRead::getInput)
-                        .collect(Collectors.toList());
+    /**
+     * A {@link UaNode} reports every change to its attributes via {@link UaNode#fireAttributeChanged} only when its
+     * attribute values come from its own fields, i.e. it has no delegate and no filters.
+     */
+    private static boolean isObservable(UaNode node) {
+        return node.getAttributeDelegate() == null && node.getFilterChain().getFilters().isEmpty();
+    }
 
-                    ReadContext context = new ReadContext(server, session);
+    private static class ItemState {
 
-                    attributeServices.read(context, 0d, TimestampsToReturn.Both, ids);
+        /**
+         * {@code true} if this item must be read on the next tick. Always {@code true} for items that are polled.
+         */
+        volatile boolean changed = true;
 
-                    return context.getFuture();
-                }
-            );
+        volatile ScheduledUpdate update;
+        volatile ObservedNode observedNode;
+        volatile AttributeId attributeId;
+
+        final DataItem item;
+
+        ItemState(DataItem item) {
+            this.item = item;
+        }
+
+        boolean isPolled() {
+            return observedNode == null;
+        }
+
+    }
+
+    private static class ObservedNode implements AttributeObserver {
 
-            future.thenAcceptAsync(values -> {
-                Iterator<DataItem> ii = items.iterator();
-                Iterator<DataValue> vi = values.iterator();
+        final Set<ItemState> states = Collections.newSetFromMap(Maps.newConcurrentMap());
 
-                while (ii.hasNext() && vi.hasNext()) {
-                    DataItem item = ii.next();
-                    DataValue value = vi.next();
+        final UaNode node;
 
-                    TimestampsToReturn timestamps = item.getTimestampsToReturn();
+        ObservedNode(UaNode node) {
+            this.node = node;
 
-                    if (timestamps != null) {
-                        UInteger attributeId = item.getReadValueId().getAttributeId();
+            node.addAttributeObserver(this);
+        }
+
+        void unobserve() {
+            node.removeAttributeObserver(this);
+        }
+
+        @Override
+        public void attributeChanged(UaNode node, AttributeId attributeId, Object value) {
+            for (ItemState state : states) {
+                if (state.attributeId == attributeId) {
+                    state.changed = true;
+                }
+            }
+        }
 
-                        value = (AttributeId.Value.isEqual(attributeId)) ?
-                            DataValue.derivedValue(value, timestamps) :
-                            DataValue.derivedNonValue(value, timestamps);
-                    }
+    }
 
-                    item.setValue(value);
+    private CompletableFuture<Void> sample(List<ScheduledUpdate> updates) {
+        List<DataItem> items = new ArrayList<>();
+
+        for (ScheduledUpdate update : updates) {
+            for (ItemState state : update.states) {
+                if (state.isPolled()) {
+                    items.add(state.item);
+                } else if (state.changed) {
+                    // Clear before reading so a change racing with the read is picked up next tick.
+                    state.changed = false;
+                    items.add(state.item);
                 }
+            }
+        }
+
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<List<DataValue>> future = GroupMapCollate.groupMapCollate(
+            items,
+            MonitoredItem::getSession,
+            session -> sessionItems -> {
+                List<PendingRead> pending = sessionItems.stream()
+                    .map(item -> new PendingRead(item.getReadValueId()))
+                    .collect(Collectors.toList());
+
+                List<ReadValueId> ids = pending.stream()
+                    .map(PendingRead::getInput)
+                    .collect(Collectors.toList());
+
+                ReadContext context = new ReadContext(server, session);
+
+                attributeServices.read(context, 0d, TimestampsToReturn.Both, ids);
+
+                return context.getFuture();
+            }
+        );
 
-                if (!cancelled) {
-                    scheduler.schedule(this, samplingInterval, TimeUnit.MILLISECONDS);
+        return future.thenAcceptAsync(values -> {
+            Iterator<DataItem> ii = items.iterator();
+            Iterator<DataValue> vi = values.iterator();
+
+            while (ii.hasNext() && vi.hasNext()) {
+                DataItem item = ii.next();
+                DataValue value = vi.next();
+
+                TimestampsToReturn timestamps = item.getTimestampsToReturn();
+
+                if (timestamps != null) {
+                    UInteger attributeId = item.getReadValueId().getAttributeId();
+
+                    value = (AttributeId.Value.isEqual(attributeId)) ?
+                        DataValue.derivedValue(value, timestamps) :
+                        DataValue.derivedNonValue(value, timestamps);
                 }
-            }, executor);
+
+                item.setValue(value);
+            }
+        }, executor);
+    }
+
+    private class ScheduledUpdate {
+
+        private final Set<ItemState> states = Collections.newSetFromMap(Maps.newConcurrentMap());
+
+        private volatile SamplingTask<ScheduledUpdate> task;
+
+        private final long samplingInterval;
+
+        private ScheduledUpdate(long samplingInterval) {
+            this.samplingInterval = samplingInterval;
+        }
+
+        private void start() {
+            task = samplingScheduler.schedule(sampler, samplingInterval, this);
+        }
+
+        private void add(ItemState state) {
+            states.add(state);
+        }
+
+        private void remove(ItemState state) {
+            states.remove(state);
+
+            if (states.isEmpty()) {
+                cancel();
+                schedule.remove(samplingInterval, this);
+            }
+        }
+
+        private void cancel() {
+            SamplingTask<ScheduledUpdate> t = task;
+            if (t != null) t.cancel();
         }
 
     }
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.channel.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class MappedNodeManagerTest {
+
+    private final OpcUaServer server = Mockito.mock(OpcUaServer.class);
+
+    private Path file;
+    private MappedNodeManager nodeManager;
+    private UaNodeContext nodeContext;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        NamespaceTable namespaceTable = new NamespaceTable();
+
+        SerializationContext serializationContext = new SerializationContext() {
+            @Override
+            public EncodingLimits getEncodingLimits() {
+                return EncodingLimits.DEFAULT;
+            }
+
+            @Override
+            public NamespaceTable getNamespaceTable() {
+                return namespaceTable;
+            }
+
+            @Override
+            public DataTypeManager getDataTypeManager() {
+                return OpcUaDataTypeManager.getInstance();
+            }
+        };
+
+        Mockito.when(server.getNamespaceTable()).thenReturn(namespaceTable);
+        Mockito.when(server.getSerializationContext()).thenReturn(serializationContext);
+
+        file = Files.createTempFile("milo-nodes", ".bin");
+
+        // a small segment size so records have to move to the next segment
+        nodeManager = new MappedNodeManager(server, file, 256);
+
+        nodeContext = new UaNodeContext() {
+            @Override
+            public OpcUaServer getServer() {
+                return server;
+            }
+
+            @Override
+            public NodeManager<UaNode> getNodeManager() {
+                return nodeManager;
+            }
+        };
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        nodeManager.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testStoreAndMaterialize() {
+        for (int i = 0; i < 100; i++) {
+            nodeManager.storeNode(variableNode(i));
+            nodeManager.storeNode(objectNode(i));
+        }
+
+        assertEquals(nodeManager.getStoredNodeCount(), 200);
+        assertEquals(nodeManager.getNodeIds().size(), 200);
+
+        for (int i = 0; i < 100; i++) {
+            UaVariableNode expected = variableNode(i);
+            UaVariableNode node = (UaVariableNode) nodeManager.get(expected.getNodeId());
+
+            assertTrue(nodeManager.containsNode(expected.getNodeId()));
+            assertEquals(node.getBrowseName(), expected.getBrowseName());
+            assertEquals(node.getDisplayName(), expected.getDisplayName());
+            assertEquals(node.getValue().getValue(), expected.getValue().getValue());
+            assertEquals(node.getDataType(), expected.getDataType());
+            assertEquals(node.getAccessLevel(), expected.getAccessLevel());
+            assertEquals(node.getMinimumSamplingInterval(), expected.getMinimumSamplingInterval());
+
+            UaObjectNode object = (UaObjectNode) nodeManager.get(new NodeId(2, "Object" + i));
+            assertEquals(object.getEventNotifier(), ubyte(1));
+        }
+    }
+
+    @Test
+    public void testSetAttributeMovesNodeToHeap() {
+        UaVariableNode stored = variableNode(0);
+        nodeManager.storeNode(stored);
+
+        UaVariableNode node = (UaVariableNode) nodeManager.get(stored.getNodeId());
+        assertNotSame(node, stored);
+        assertTrue(nodeManager.isMaterialized(stored.getNodeId()));
+
+        node.setValue(new DataValue(new Variant("changed")));
+
+        assertFalse(nodeManager.isMaterialized(stored.getNodeId()));
+        assertSame(nodeManager.get(stored.getNodeId()), node);
+        assertEquals(((UaVariableNode) nodeManager.get(stored.getNodeId())).getValue().getValue().getValue(), "changed");
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        nodeManager.storeNode(variableNode(0));
+
+        UaVariableNode replacement = variableNode(0);
+        replacement.setDisplayName(LocalizedText.english("Replacement"));
+        nodeManager.storeNode(replacement);
+
+        assertEquals(nodeManager.getStoredNodeCount(), 1);
+        assertEquals(nodeManager.get(replacement.getNodeId()).getDisplayName(), LocalizedText.english("Replacement"));
+
+        assertTrue(nodeManager.removeNode(replacement.getNodeId()).isPresent());
+        assertFalse(nodeManager.containsNode(replacement.getNodeId()));
+        assertEquals(nodeManager.getStoredNodeCount(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSubclassIsRejected() {
+        nodeManager.storeNode(new UaVariableNode(
+            nodeContext,
+            new NodeId(2, "Subclass"),
+            new QualifiedName(2, "Subclass"),
+            LocalizedText.english("Subclass")
+        ) {});
+    }
+
+    private UaVariableNode variableNode(int i) {
+        return new UaVariableNode.UaVariableNodeBuilder(nodeContext)
+            .setNodeId(new NodeId(2, "Variable" + i))
+            .setBrowseName(new QualifiedName(2, "Variable" + i))
+            .setDisplayName(LocalizedText.english("Variable " + i))
+            .setDescription(LocalizedText.english("A variable"))
+            .setDataType(Identifiers.Int32)
+            .setValue(new DataValue(new Variant(i)))
+            .setAccessLevel(ubyte(3))
+            .setUserAccessLevel(ubyte(3))
+            .setMinimumSamplingInterval(100.0)
+            .build();
+    }
+
+    private UaObjectNode objectNode(int i) {
+        return new UaObjectNode(
+            nodeContext,
+            new NodeId(2, "Object" + i),
+            new QualifiedName(2, "Object" + i),
+            LocalizedText.english("Object " + i),
+            LocalizedText.NULL_VALUE,
+            uint(0),
+            uint(0),
+            ubyte(1)
+        );
+    }
+
+}
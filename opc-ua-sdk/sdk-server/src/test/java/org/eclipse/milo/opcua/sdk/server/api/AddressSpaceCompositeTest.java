@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.BrowseContext;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class AddressSpaceCompositeTest {
+
+    private final OpcUaServer server = mock(OpcUaServer.class);
+
+    @Test
+    public void testUndeclaredFragmentKeepsRegistrationOrder() {
+        AddressSpaceComposite composite = new AddressSpaceComposite(server);
+
+        AddressSpaceFragment undeclared = fragment(null, nodeId -> nodeId.getIdentifier().equals("a"));
+        AddressSpaceFragment ns2 = fragment(2, nodeId -> true);
+        AddressSpaceFragment ns3 = fragment(3, nodeId -> true);
+
+        composite.register(undeclared);
+        composite.register(ns2);
+        composite.register(ns3);
+
+        composite.onCreateDataItem(readValueId(new NodeId(2, "a")), 0.0, uint(1), (d, u) -> {});
+        composite.onCreateDataItem(readValueId(new NodeId(2, "b")), 0.0, uint(1), (d, u) -> {});
+        composite.onCreateDataItem(readValueId(new NodeId(3, "c")), 0.0, uint(1), (d, u) -> {});
+
+        verify(undeclared).onCreateDataItem(eq(readValueId(new NodeId(2, "a"))), any(), any(), any());
+        verify(ns2).onCreateDataItem(eq(readValueId(new NodeId(2, "b"))), any(), any(), any());
+        verify(ns3).onCreateDataItem(eq(readValueId(new NodeId(3, "c"))), any(), any(), any());
+
+        // ns3 is never asked to filter an operation on a NodeId in ns2
+        verify(ns3.getFilter(), never()).filterOnCreateDataItem(server, readValueId(new NodeId(2, "b")));
+    }
+
+    @Test
+    public void testFilterUsesNamespaceIndex() {
+        AddressSpaceComposite composite = new AddressSpaceComposite(server);
+
+        composite.register(fragment(2, nodeId -> true));
+
+        assertTrue(composite.getFilter().filterRead(server, readValueId(new NodeId(2, "a"))));
+        assertFalse(composite.getFilter().filterRead(server, readValueId(new NodeId(3, "a"))));
+
+        composite.register(fragment(null, nodeId -> nodeId.getNamespaceIndex().intValue() == 3));
+
+        assertTrue(composite.getFilter().filterRead(server, readValueId(new NodeId(3, "a"))));
+        assertFalse(composite.getFilter().filterRead(server, readValueId(new NodeId(4, "a"))));
+    }
+
+    @Test
+    public void testBrowseOnlyAsksContributingFragments() {
+        AddressSpaceComposite composite = new AddressSpaceComposite(server);
+
+        NodeId nodeId = new NodeId(2, "a");
+
+        AddressSpaceFragment owner = fragment(2, n -> true);
+        AddressSpaceFragment contributing = fragment(3, n -> true);
+        AddressSpaceFragment silent = fragment(4, n -> true);
+
+        when(contributing.contributesReferences(nodeId)).thenReturn(true);
+        when(silent.contributesReferences(nodeId)).thenReturn(false);
+
+        composite.register(owner);
+        composite.register(contributing);
+        composite.register(silent);
+
+        composite.browse(new BrowseContext(server, null), null, nodeId);
+
+        verify(owner).browse(any(), any(), eq(nodeId));
+        verify(owner, never()).getReferences(any(), any(), any());
+        verify(contributing).getReferences(any(), any(), eq(nodeId));
+        verify(silent, never()).getReferences(any(), any(), any());
+    }
+
+    @Test
+    public void testUnregisterRemovesFromIndex() {
+        AddressSpaceComposite composite = new AddressSpaceComposite(server);
+
+        AddressSpaceFragment fragment = fragment(2, nodeId -> true);
+
+        composite.register(fragment);
+        composite.unregister(fragment);
+
+        assertFalse(composite.getFilter().filterRead(server, readValueId(new NodeId(2, "a"))));
+        assertTrue(composite.getAddressSpaces().isEmpty());
+    }
+
+    private AddressSpaceFragment fragment(Integer namespaceIndex, Predicate<NodeId> nodeIdFilter) {
+        AddressSpaceFilter filter = mock(AddressSpaceFilter.class);
+        when(filter.filterRead(any(), any())).then(
+            invocation -> nodeIdFilter.test(invocation.<ReadValueId>getArgument(1).getNodeId())
+        );
+        when(filter.filterOnCreateDataItem(any(), any())).then(
+            invocation -> nodeIdFilter.test(invocation.<ReadValueId>getArgument(1).getNodeId())
+        );
+        when(filter.filterBrowse(any(), any())).then(
+            invocation -> nodeIdFilter.test(invocation.getArgument(1))
+        );
+
+        AddressSpaceFragment fragment = mock(AddressSpaceFragment.class);
+        when(fragment.getFilter()).thenReturn(filter);
+        when(fragment.getFilteredNamespaceIndex()).thenReturn(
+            namespaceIndex != null ? Optional.of(ushort(namespaceIndex)) : Optional.empty()
+        );
+        return fragment;
+    }
+
+    private static ReadValueId readValueId(NodeId nodeId) {
+        return new ReadValueId(nodeId, AttributeId.Value.uid(), null, null);
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class CompactReferenceStoreTest {
+
+    private final NodeId source = new NodeId(2, "source");
+
+    @Test
+    public void testMatchesLinkedHashMultiset() {
+        CompactReferenceStore store = new CompactReferenceStore();
+        LinkedHashMultiset<Reference> expected = LinkedHashMultiset.create();
+
+        List<Reference> references = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            references.add(reference(i % 2 == 0 ? Identifiers.HasComponent : Identifiers.Organizes, i, i % 3 != 0));
+        }
+
+        // add some References more than once
+        for (int i = 0; i < references.size(); i++) {
+            for (int j = 0; j <= i % 3; j++) {
+                store.add(references.get(i));
+                expected.add(references.get(i));
+            }
+        }
+
+        assertEquals(store.get(source), new ArrayList<>(expected));
+
+        for (int i = 0; i < references.size(); i += 4) {
+            assertEquals(store.remove(references.get(i)), expected.remove(references.get(i)));
+        }
+
+        assertEquals(store.get(source), new ArrayList<>(expected));
+
+        for (Reference reference : references) {
+            while (expected.remove(reference)) {
+                assertTrue(store.remove(reference));
+            }
+            assertFalse(store.remove(reference));
+        }
+
+        assertTrue(store.get(source).isEmpty());
+        assertFalse(store.contains(source));
+    }
+
+    @Test
+    public void testFilterByTypeAndDirection() {
+        CompactReferenceStore store = new CompactReferenceStore();
+
+        Reference r1 = reference(Identifiers.HasComponent, 1, true);
+        Reference r2 = reference(Identifiers.HasComponent, 2, false);
+        Reference r3 = reference(Identifiers.HasProperty, 3, true);
+
+        store.add(r1);
+        store.add(r2);
+        store.add(r3);
+
+        assertEquals(store.get(source, Identifiers.HasComponent, null, null), Arrays.asList(r1, r2));
+        assertEquals(store.get(source, null, Reference.Direction.FORWARD, null), Arrays.asList(r1, r3));
+        assertEquals(
+            store.get(source, Identifiers.HasComponent, Reference.Direction.INVERSE, null),
+            Arrays.asList(r2)
+        );
+        assertEquals(store.get(source, null, null, r -> r.equals(r3)), Arrays.asList(r3));
+        assertTrue(store.get(source, Identifiers.Organizes, null, null).isEmpty());
+    }
+
+    @Test
+    public void testTargetIndexIsReused() {
+        CompactReferenceStore store = new CompactReferenceStore();
+
+        Reference r1 = reference(Identifiers.HasComponent, 1, true);
+        store.add(r1);
+        store.remove(r1);
+
+        Reference r2 = reference(Identifiers.HasComponent, 2, true);
+        store.add(r2);
+
+        assertFalse(store.remove(r1));
+        assertEquals(store.get(source), Arrays.asList(r2));
+    }
+
+    @Test
+    public void testConcurrentWrites() throws Exception {
+        CompactReferenceStore store = new CompactReferenceStore();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        NodeId nodeId = new NodeId(2, i);
+                        ExpandedNodeId organized = new NodeId(3, thread).expanded();
+                        ExpandedNodeId component = new NodeId(3, i).expanded();
+
+                        store.add(new Reference(nodeId, Identifiers.Organizes, organized, true));
+                        store.add(new Reference(nodeId, Identifiers.HasComponent, component, true));
+                        store.remove(new Reference(nodeId, Identifiers.HasComponent, component, true));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            List<Reference> references = store.get(new NodeId(2, i));
+
+            assertEquals(references.size(), 4);
+            assertTrue(references.stream().allMatch(r -> r.getReferenceTypeId().equals(Identifiers.Organizes)));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testReferenceMapIsReadOnly() {
+        AbstractNodeManager<?> nodeManager = new AbstractNodeManager<>();
+
+        Reference reference = reference(Identifiers.Organizes, 1, true);
+        nodeManager.addReference(reference);
+
+        ConcurrentMap<NodeId, Multiset<Reference>> referenceMap = nodeManager.getReferenceMap();
+
+        assertEquals(new ArrayList<>(referenceMap.get(source)), Arrays.asList(reference));
+
+        expectThrows(UnsupportedOperationException.class, () -> referenceMap.remove(source));
+        expectThrows(UnsupportedOperationException.class, () -> referenceMap.put(source, LinkedHashMultiset.create()));
+        expectThrows(UnsupportedOperationException.class, () -> referenceMap.keySet().clear());
+        expectThrows(UnsupportedOperationException.class, () -> referenceMap.computeIfPresent(source, (k, v) -> null));
+        expectThrows(UnsupportedOperationException.class, () -> referenceMap.replaceAll((k, v) -> v));
+        expectThrows(
+            UnsupportedOperationException.class,
+            () -> referenceMap.entrySet().iterator().next().setValue(LinkedHashMultiset.create())
+        );
+
+        Multiset<Reference> references = referenceMap.get(source);
+        expectThrows(UnsupportedOperationException.class, () -> references.add(reference));
+        expectThrows(UnsupportedOperationException.class, () -> references.remove(reference));
+        expectThrows(UnsupportedOperationException.class, () -> references.setCount(reference, 0));
+        expectThrows(UnsupportedOperationException.class, references::clear);
+        expectThrows(UnsupportedOperationException.class, () -> references.iterator().remove());
+        expectThrows(
+            UnsupportedOperationException.class,
+            () -> referenceMap.values().iterator().next().elementSet().clear()
+        );
+
+        assertEquals(nodeManager.getReferences(source), Arrays.asList(reference));
+    }
+
+    private Reference reference(NodeId referenceTypeId, int target, boolean forward) {
+        ExpandedNodeId targetNodeId = target % 5 == 0 ?
+            new ExpandedNodeId(ushort(0), "urn:remote", uint(target), uint(1)) :
+            new NodeId(2, target).expanded();
+
+        return new Reference(source, referenceTypeId, targetNodeId, forward);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.BrowseContext;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ManagedAddressSpaceFragmentTest {
+
+    private final OpcUaServer server = mock(OpcUaServer.class);
+
+    @Test
+    public void testContributesIndexedReferences() {
+        TestFragment fragment = new TestFragment(server, true);
+
+        NodeId source = new NodeId(2, "source");
+        NodeId target = new NodeId(2, "target");
+
+        assertFalse(fragment.contributesReferences(source));
+
+        fragment.getNodeManager().addReference(
+            new Reference(source, Identifiers.Organizes, target.expanded(), true)
+        );
+
+        assertTrue(fragment.contributesReferences(source));
+        assertFalse(fragment.contributesReferences(new NodeId(2, "other")));
+    }
+
+    @Test
+    public void testAlwaysContributesByDefault() {
+        TestFragment fragment = new TestFragment(server, false);
+
+        assertTrue(fragment.contributesReferences(new NodeId(2, "external")));
+    }
+
+    @Test
+    public void testGetReferencesOverrideAlwaysContributes() {
+        TestFragment fragment = new TestFragment(server, false) {
+            @Override
+            public void getReferences(BrowseContext context, ViewDescription viewDescription, NodeId nodeId) {
+                context.success(Collections.emptyList());
+            }
+        };
+
+        assertTrue(fragment.contributesReferences(new NodeId(2, "external")));
+    }
+
+    private static class TestFragment extends ManagedAddressSpaceFragment {
+
+        private final boolean nodeManagerReferencesOnly;
+
+        TestFragment(OpcUaServer server, boolean nodeManagerReferencesOnly) {
+            super(server);
+
+            this.nodeManagerReferencesOnly = nodeManagerReferencesOnly;
+        }
+
+        @Override
+        protected boolean isNodeManagerReferencesOnly() {
+            return nodeManagerReferencesOnly;
+        }
+
+        @Override
+        public AddressSpaceFilter getFilter() {
+            return SimpleAddressSpaceFilter.create(nodeId -> true);
+        }
+
+        @Override
+        public void onDataItemsCreated(List<DataItem> dataItems) {}
+
+        @Override
+        public void onDataItemsModified(List<DataItem> dataItems) {}
+
+        @Override
+        public void onDataItemsDeleted(List<DataItem> dataItems) {}
+
+        @Override
+        public void onMonitoringModeChanged(List<MonitoredItem> monitoredItems) {}
+
+    }
+
+}
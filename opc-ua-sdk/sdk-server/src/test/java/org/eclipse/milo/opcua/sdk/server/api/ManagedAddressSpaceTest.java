@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.milo.opcua.sdk.core.AccessLevel;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.WriteContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class ManagedAddressSpaceTest {
+
+    private static final int NODE_COUNT = 1000;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @DataProvider
+    public Object[][] getMinParallelBatchSizes() {
+        return new Object[][]{{0}, {10}, {333}, {NODE_COUNT}};
+    }
+
+    @Test(dataProvider = "getMinParallelBatchSizes")
+    public void testReadResultsInOrder(int minParallelBatchSize) throws Exception {
+        TestAddressSpace addressSpace = new TestAddressSpace(server(minParallelBatchSize));
+
+        List<ReadValueId> readValueIds = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            readValueIds.add(readValueId(new NodeId(2, i)));
+        }
+        readValueIds.add(readValueId(new NodeId(2, "unknown")));
+
+        ReadContext context = new ReadContext(addressSpace.getServer(), null);
+        addressSpace.read(context, 0.0, TimestampsToReturn.Neither, readValueIds);
+
+        List<DataValue> values = context.getFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals(values.size(), NODE_COUNT + 1);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            assertEquals(values.get(i).getValue().getValue(), i);
+        }
+        assertEquals(values.get(NODE_COUNT).getStatusCode().getValue(), StatusCodes.Bad_NodeIdUnknown);
+    }
+
+    @Test(dataProvider = "getMinParallelBatchSizes")
+    public void testWriteResultsInOrder(int minParallelBatchSize) throws Exception {
+        TestAddressSpace addressSpace = new TestAddressSpace(server(minParallelBatchSize));
+
+        List<WriteValue> writeValues = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            NodeId nodeId = i % 2 == 0 ? new NodeId(2, i) : new NodeId(2, "unknown" + i);
+
+            writeValues.add(new WriteValue(
+                nodeId,
+                AttributeId.Value.uid(),
+                null,
+                new DataValue(new Variant(-i))
+            ));
+        }
+
+        WriteContext context = new WriteContext(addressSpace.getServer(), null);
+        addressSpace.write(context, writeValues);
+
+        List<StatusCode> results = context.getFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals(results.size(), NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            if (i % 2 == 0) {
+                assertEquals(results.get(i), StatusCode.GOOD);
+
+                UaVariableNode node = (UaVariableNode) addressSpace.getNodeManager().get(new NodeId(2, i));
+                assertEquals(node.getValue().getValue().getValue(), -i);
+            } else {
+                assertEquals(results.get(i).getValue(), StatusCodes.Bad_NodeIdUnknown);
+            }
+        }
+    }
+
+    @Test(dataProvider = "getMinParallelBatchSizes")
+    public void testLastWriteToNodeWins(int minParallelBatchSize) throws Exception {
+        TestAddressSpace addressSpace = new TestAddressSpace(server(minParallelBatchSize));
+
+        int nodes = 10;
+
+        List<WriteValue> writeValues = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            writeValues.add(new WriteValue(
+                new NodeId(2, i % nodes),
+                AttributeId.Value.uid(),
+                null,
+                new DataValue(new Variant(-i))
+            ));
+        }
+
+        WriteContext context = new WriteContext(addressSpace.getServer(), null);
+        addressSpace.write(context, writeValues);
+
+        context.getFuture().get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < nodes; i++) {
+            UaVariableNode node = (UaVariableNode) addressSpace.getNodeManager().get(new NodeId(2, i));
+            assertEquals(node.getValue().getValue().getValue(), -(NODE_COUNT - nodes + i));
+        }
+    }
+
+    @Test
+    public void testRejectedChunksRunOnCallingThread() throws Exception {
+        ExecutorService shutdown = Executors.newSingleThreadExecutor();
+        shutdown.shutdown();
+
+        OpcUaServer server = server(10);
+        when(server.getExecutorService()).thenReturn(shutdown);
+
+        TestAddressSpace addressSpace = new TestAddressSpace(server);
+
+        List<ReadValueId> readValueIds = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            readValueIds.add(readValueId(new NodeId(2, i)));
+        }
+
+        ReadContext context = new ReadContext(addressSpace.getServer(), null);
+        addressSpace.read(context, 0.0, TimestampsToReturn.Neither, readValueIds);
+
+        List<DataValue> values = context.getFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals(values.size(), NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            assertEquals(values.get(i).getValue().getValue(), i);
+        }
+    }
+
+    private OpcUaServer server(int minParallelBatchSize) {
+        OpcUaServerConfigLimits limits = new OpcUaServerConfigLimits() {
+            @Override
+            public UInteger getMinParallelBatchSize() {
+                return uint(minParallelBatchSize);
+            }
+        };
+
+        OpcUaServerConfig config = mock(OpcUaServerConfig.class);
+        when(config.getLimits()).thenReturn(limits);
+
+        OpcUaServer server = mock(OpcUaServer.class);
+        when(server.getConfig()).thenReturn(config);
+        when(server.getExecutorService()).thenReturn(executor);
+        when(server.getNamespaceTable()).thenReturn(new NamespaceTable());
+
+        return server;
+    }
+
+    private static ReadValueId readValueId(NodeId nodeId) {
+        return new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE);
+    }
+
+    private static class TestAddressSpace extends ManagedAddressSpace {
+
+        TestAddressSpace(OpcUaServer server) {
+            super(server);
+
+            for (int i = 0; i < NODE_COUNT; i++) {
+                UaVariableNode node = new UaVariableNode.UaVariableNodeBuilder(getNodeContext())
+                    .setNodeId(new NodeId(2, i))
+                    .setBrowseName(new QualifiedName(2, "Variable" + i))
+                    .setDisplayName(LocalizedText.english("Variable " + i))
+                    .setDataType(Identifiers.Int32)
+                    .setValue(new DataValue(new Variant(i)))
+                    .setAccessLevel(AccessLevel.toValue(AccessLevel.READ_WRITE))
+                    .setUserAccessLevel(AccessLevel.toValue(AccessLevel.READ_WRITE))
+                    .build();
+
+                getNodeManager().addNode(node);
+            }
+        }
+
+        @Override
+        public void onDataItemsCreated(List<DataItem> dataItems) {}
+
+        @Override
+        public void onDataItemsModified(List<DataItem> dataItems) {}
+
+        @Override
+        public void onDataItemsDeleted(List<DataItem> dataItems) {}
+
+        @Override
+        public void onMonitoringModeChanged(List<MonitoredItem> monitoredItems) {}
+
+    }
+
+}
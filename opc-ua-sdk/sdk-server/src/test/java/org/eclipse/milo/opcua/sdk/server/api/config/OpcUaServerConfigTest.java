@@ -14,16 +14,20 @@ import java.io.IOException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Files;
 import org.eclipse.milo.opcua.sdk.server.identity.AnonymousIdentityValidator;
+import org.eclipse.milo.opcua.stack.core.Stack;
 import org.eclipse.milo.opcua.stack.core.security.DefaultCertificateManager;
 import org.eclipse.milo.opcua.stack.core.security.DefaultTrustListManager;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.structured.BuildInfo;
+import org.eclipse.milo.opcua.stack.server.ServiceSet;
 import org.eclipse.milo.opcua.stack.server.security.DefaultServerCertificateValidator;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
 
 public class OpcUaServerConfigTest {
 
@@ -41,6 +45,7 @@ public class OpcUaServerConfigTest {
             .setBuildInfo(new BuildInfo("a", "b", "c", "d", "e", DateTime.MIN_VALUE))
             .setLimits(new OpcUaServerConfigLimits() {})
             .setScheduledExecutorService(scheduledExecutorService)
+            .setMaxConcurrentRequestsByServiceSet(ImmutableMap.of(ServiceSet.AttributeHistory, 2))
             .build();
 
         OpcUaServerConfig copy = OpcUaServerConfig.copy(original).build();
@@ -49,6 +54,22 @@ public class OpcUaServerConfigTest {
         assertEquals(copy.getBuildInfo(), original.getBuildInfo());
         assertEquals(copy.getLimits(), original.getLimits());
         assertEquals(copy.getScheduledExecutorService(), original.getScheduledExecutorService());
+        assertEquals(copy.getMaxConcurrentRequestsByServiceSet(), ImmutableMap.of(ServiceSet.AttributeHistory, 2));
+    }
+
+    @Test
+    public void testUseVirtualThreads() {
+        OpcUaServerConfig config = OpcUaServerConfig.builder()
+            .setUseVirtualThreads(true)
+            .build();
+
+        if (Stack.isVirtualThreadSupported()) {
+            assertEquals(config.getExecutor(), Stack.sharedVirtualThreadExecutor());
+        } else {
+            // falls back to the shared thread pool instead of failing
+            assertNotNull(config.getExecutor());
+            config.getExecutor().execute(() -> {});
+        }
     }
 
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.items;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.UnaryOperator;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class MonitoredItemQueueTest {
+
+    @Test
+    public void testSingleValueOverflow() {
+        MonitoredItemQueue<String> queue = MonitoredItemQueue.create(1);
+
+        assertFalse(queue.offer("a", true, v -> v + "!"));
+        assertTrue(queue.offer("b", true, v -> v + "!"));
+
+        assertEquals(queue.size(), 1);
+        assertEquals(drain(queue, 10), Arrays.asList("b!"));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testBoundedDiscardOldest() {
+        MonitoredItemQueue<String> queue = MonitoredItemQueue.create(3);
+
+        assertFalse(queue.offer("a", true, UnaryOperator.identity()));
+        assertFalse(queue.offer("b", true, UnaryOperator.identity()));
+        assertFalse(queue.offer("c", true, UnaryOperator.identity()));
+        assertTrue(queue.offer("d", true, v -> v + "!"));
+
+        assertEquals(drain(queue, 2), Arrays.asList("b", "c"));
+        assertEquals(drain(queue, 2), Arrays.asList("d!"));
+    }
+
+    @Test
+    public void testBoundedDiscardNewest() {
+        MonitoredItemQueue<String> queue = MonitoredItemQueue.create(3);
+
+        queue.offer("a", false, UnaryOperator.identity());
+        queue.offer("b", false, UnaryOperator.identity());
+        queue.offer("c", false, UnaryOperator.identity());
+        assertTrue(queue.offer("d", false, v -> v + "!"));
+
+        assertEquals(drain(queue, 10), Arrays.asList("a", "b", "d!"));
+    }
+
+    @Test
+    public void testConcurrentOfferAndDrain() throws Exception {
+        for (int maxSize : new int[]{1, 16}) {
+            MonitoredItemQueue<Integer> queue = MonitoredItemQueue.create(maxSize);
+
+            int count = 100_000;
+            CountDownLatch done = new CountDownLatch(1);
+
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    queue.offer(i, true, UnaryOperator.identity());
+                }
+                done.countDown();
+            });
+            producer.start();
+
+            List<Integer> drained = new ArrayList<>();
+            while (done.getCount() > 0 || !queue.isEmpty()) {
+                queue.drain(maxSize, drained::add);
+            }
+
+            producer.join();
+
+            // values are never duplicated or reordered, and the last value is always delivered
+            for (int i = 1; i < drained.size(); i++) {
+                assertTrue(drained.get(i) > drained.get(i - 1));
+            }
+            assertEquals(drained.get(drained.size() - 1).intValue(), count - 1);
+        }
+    }
+
+    private static <T> List<T> drain(MonitoredItemQueue<T> queue, int max) {
+        List<T> values = new ArrayList<>();
+        queue.drain(max, values::add);
+        return values;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.subscriptions;
+
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.channel.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.EventFieldList;
+import org.eclipse.milo.opcua.stack.core.types.structured.EventNotificationList;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.NotificationMessage;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.testng.Assert.assertEquals;
+
+public class NotificationMessageBuilderTest {
+
+    private final SerializationContext context = new SerializationContext() {
+        private final NamespaceTable namespaceTable = new NamespaceTable();
+
+        @Override
+        public EncodingLimits getEncodingLimits() {
+            return EncodingLimits.DEFAULT;
+        }
+
+        @Override
+        public NamespaceTable getNamespaceTable() {
+            return namespaceTable;
+        }
+
+        @Override
+        public DataTypeManager getDataTypeManager() {
+            return OpcUaDataTypeManager.getInstance();
+        }
+    };
+
+    @Test
+    public void testEncodingMatchesStructures() {
+        MonitoredItemNotification[] dataChanges = new MonitoredItemNotification[]{
+            new MonitoredItemNotification(uint(1), new DataValue(new Variant(42))),
+            new MonitoredItemNotification(uint(2), new DataValue(new Variant("foo"))),
+            new MonitoredItemNotification(uint(1), new DataValue(new Variant(43)))
+        };
+
+        EventFieldList[] events = new EventFieldList[]{
+            new EventFieldList(uint(3), new Variant[]{new Variant(1.0), Variant.NULL_VALUE})
+        };
+
+        NotificationMessageBuilder builder = new NotificationMessageBuilder(context);
+
+        NotificationMessage message;
+        try {
+            builder.add(dataChanges[0]);
+            builder.add(events[0]);
+            builder.add(dataChanges[1]);
+            builder.add(dataChanges[2]);
+
+            message = builder.build(uint(7));
+        } finally {
+            builder.release();
+        }
+
+        assertEquals(builder.getDataChangeCount(), 3);
+        assertEquals(builder.getEventCount(), 1);
+        assertEquals(message.getSequenceNumber(), uint(7));
+
+        ExtensionObject[] notificationData = message.getNotificationData();
+        assertEquals(notificationData.length, 2);
+
+        assertEquals(
+            notificationData[0],
+            ExtensionObject.encode(context, new DataChangeNotification(dataChanges, new DiagnosticInfo[0]))
+        );
+
+        assertEquals(
+            notificationData[1],
+            ExtensionObject.encode(context, new EventNotificationList(events))
+        );
+    }
+
+    @Test
+    public void testEmptyMessage() {
+        NotificationMessageBuilder builder = new NotificationMessageBuilder(context);
+
+        NotificationMessage message;
+        try {
+            message = builder.build(uint(1));
+        } finally {
+            builder.release();
+        }
+
+        assertEquals(message.getNotificationData().length, 0);
+    }
+
+}
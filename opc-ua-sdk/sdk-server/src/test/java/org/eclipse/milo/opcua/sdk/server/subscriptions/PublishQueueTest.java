@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.subscriptions;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.server.UaStackServer;
+import org.eclipse.milo.opcua.stack.server.UaStackServerConfig;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class PublishQueueTest {
+
+    private final UaStackServer server = new UaStackServer(
+        UaStackServerConfig.builder()
+            .setExecutor(MoreExecutors.newDirectExecutorService())
+            .build()
+    );
+
+    @Test
+    public void testRequestIsQueuedUntilSubscriptionIsWaitListed() {
+        PublishQueue queue = new PublishQueue();
+        List<ServiceRequest> delivered = new ArrayList<>();
+
+        ServiceRequest request = request(0);
+        queue.addRequest(request);
+
+        assertEquals(queue.size(), 1);
+        assertTrue(queue.isWaitListEmpty());
+
+        queue.addSubscription(subscription(1, 0, delivered::add));
+
+        assertEquals(delivered, Arrays.asList(request));
+        assertEquals(queue.size(), 0);
+        assertTrue(queue.isWaitListEmpty());
+    }
+
+    @Test
+    public void testWaitListedSubscriptionIsServedImmediately() {
+        PublishQueue queue = new PublishQueue();
+        List<ServiceRequest> delivered = new ArrayList<>();
+
+        queue.addSubscription(subscription(1, 0, delivered::add));
+        assertFalse(queue.isWaitListEmpty());
+
+        ServiceRequest request = request(0);
+        queue.addRequest(request);
+
+        assertEquals(delivered, Arrays.asList(request));
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.isWaitListEmpty());
+    }
+
+    @Test
+    public void testHigherPriorityIsServedFirst() {
+        PublishQueue queue = new PublishQueue();
+        List<Integer> order = new ArrayList<>();
+
+        queue.addSubscription(subscription(1, 0, r -> order.add(1)));
+        queue.addSubscription(subscription(2, 5, r -> order.add(2)));
+        queue.addSubscription(subscription(3, 5, r -> order.add(3)));
+        queue.addSubscription(subscription(4, 1, r -> order.add(4)));
+
+        for (int i = 0; i < 4; i++) {
+            queue.addRequest(request(0));
+        }
+
+        // highest priority first, then in the order they were wait-listed
+        assertEquals(order, Arrays.asList(2, 3, 4, 1));
+    }
+
+    @Test
+    public void testSubscriptionIsWaitListedOnce() {
+        PublishQueue queue = new PublishQueue();
+        List<ServiceRequest> delivered = new ArrayList<>();
+
+        Subscription subscription = subscription(1, 0, delivered::add);
+        queue.addSubscription(subscription);
+        queue.addSubscription(subscription);
+
+        queue.addRequest(request(0));
+        queue.addRequest(request(0));
+
+        assertEquals(delivered.size(), 1);
+        assertEquals(queue.size(), 1);
+        assertTrue(queue.isWaitListEmpty());
+    }
+
+    @Test
+    public void testExpiredRequestIsDiscarded() throws Exception {
+        PublishQueue queue = new PublishQueue();
+
+        ServiceRequest expired = request(1);
+        ServiceRequest current = request(0);
+
+        queue.addRequest(expired);
+        queue.addRequest(current);
+
+        Thread.sleep(10);
+
+        assertEquals(queue.poll(), current);
+        assertNull(queue.poll());
+
+        ExecutionException e = expectThrows(ExecutionException.class, () -> expired.getFuture().get());
+        assertEquals(((UaException) e.getCause()).getStatusCode().getValue(), StatusCodes.Bad_Timeout);
+    }
+
+    @Test
+    public void testConcurrentRequestsAndSubscriptions() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < 1000; round++) {
+                PublishQueue queue = new PublishQueue();
+                List<ServiceRequest> delivered = new CopyOnWriteArrayList<>();
+
+                Subscription subscription = subscription(round, 0, delivered::add);
+                ServiceRequest request = request(0);
+
+                CyclicBarrier barrier = new CyclicBarrier(2);
+
+                Future<?> f1 = executor.submit(() -> {
+                    barrier.await();
+                    queue.addRequest(request);
+                    return null;
+                });
+
+                Future<?> f2 = executor.submit(() -> {
+                    barrier.await();
+                    queue.addSubscription(subscription);
+                    return null;
+                });
+
+                f1.get();
+                f2.get();
+
+                // whichever call ran last must have made the match
+                assertEquals(delivered, Arrays.asList(request));
+                assertTrue(queue.isEmpty());
+                assertTrue(queue.isWaitListEmpty());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSubscriptionWaitListedWhileBeingServedIsNotDropped() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < 1000; round++) {
+                PublishQueue queue = new PublishQueue();
+                List<ServiceRequest> delivered = new CopyOnWriteArrayList<>();
+
+                Subscription subscription = subscription(round, 0, delivered::add);
+                queue.addSubscription(subscription);
+
+                CyclicBarrier barrier = new CyclicBarrier(2);
+
+                Future<?> f1 = executor.submit(() -> {
+                    barrier.await();
+                    queue.addRequest(request(0));
+                    return null;
+                });
+
+                Future<?> f2 = executor.submit(() -> {
+                    barrier.await();
+                    queue.addSubscription(subscription);
+                    return null;
+                });
+
+                f1.get();
+                f2.get();
+
+                assertEquals(delivered.size(), 1);
+
+                // Either the second addSubscription found the Subscription still waiting, or it came after the
+                // Subscription was served and wait-listed it again; in both cases the queue must be consistent.
+                if (!queue.isWaitListEmpty()) {
+                    queue.addRequest(request(0));
+
+                    assertEquals(delivered.size(), 2);
+                    assertTrue(queue.isWaitListEmpty());
+                }
+
+                assertTrue(queue.isEmpty());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ServiceRequest request(long timeoutHint) {
+        RequestHeader header = new RequestHeader(
+            NodeId.NULL_VALUE,
+            DateTime.now(),
+            uint(0),
+            uint(0),
+            null,
+            uint(timeoutHint),
+            null
+        );
+
+        return new ServiceRequest(
+            server,
+            new PublishRequest(header, null),
+            new EndpointDescription(null, null, null, null, null, null, null, null),
+            0L,
+            InetAddress.getLoopbackAddress(),
+            null
+        );
+    }
+
+    private static Subscription subscription(int id, int priority, Consumer<ServiceRequest> onPublish) {
+        Subscription subscription = mock(Subscription.class);
+
+        when(subscription.getId()).thenReturn(uint(id));
+        when(subscription.getPriority()).thenReturn(priority);
+
+        doAnswer(invocation -> {
+            onPublish.accept(invocation.getArgument(0));
+            return null;
+        }).when(subscription).onPublish(any());
+
+        return subscription;
+    }
+
+}
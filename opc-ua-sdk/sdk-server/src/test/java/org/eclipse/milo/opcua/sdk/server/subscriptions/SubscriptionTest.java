@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.subscriptions;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.TimerTask;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertTrue;
+
+public class SubscriptionTest {
+
+    private ExecutorService executor;
+    private HashedWheelTimer lifecycleTimer;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        lifecycleTimer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        lifecycleTimer.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPublishingCyclesDoNotDrift() throws Exception {
+        final int cycles = 60;
+        final long intervalMillis = 25;
+
+        List<Long> cycleNanos = new CopyOnWriteArrayList<>();
+
+        // With no Publish requests the Subscription is Late after its first
+        // cycle and wait-lists itself in the PublishQueue on every cycle.
+        PublishQueue publishQueue = mock(PublishQueue.class);
+        doAnswer(invocation -> {
+            cycleNanos.add(System.nanoTime());
+            return null;
+        }).when(publishQueue).addSubscription(any());
+
+        Subscription subscription = new Subscription(
+            subscriptionManager(publishQueue),
+            uint(1),
+            intervalMillis,
+            10,
+            cycles * 10,
+            0,
+            true,
+            0
+        );
+
+        long startNanos = System.nanoTime();
+        subscription.startPublishingTimer();
+
+        long timeoutNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cycleNanos.size() < cycles && System.nanoTime() < timeoutNanos) {
+            Thread.sleep(10);
+        }
+
+        subscription.deleteSubscription();
+
+        assertTrue(cycleNanos.size() >= cycles);
+
+        // Cycle n is due n intervals after the timer was started. Scheduling each cycle relative
+        // to when the previous one ran would add up to a tick of lateness per cycle instead.
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(cycleNanos.get(cycles - 1) - startNanos);
+
+        assertTrue(elapsedMillis >= cycles * intervalMillis, "elapsed=" + elapsedMillis);
+        assertTrue(elapsedMillis < cycles * intervalMillis + 100, "elapsed=" + elapsedMillis);
+    }
+
+    private SubscriptionManager subscriptionManager(PublishQueue publishQueue) {
+        OpcUaServerConfig config = mock(OpcUaServerConfig.class);
+        when(config.getLimits()).thenReturn(new OpcUaServerConfigLimits() {});
+
+        OpcUaServer server = mock(OpcUaServer.class);
+        when(server.getConfig()).thenReturn(config);
+        when(server.getExecutorService()).thenReturn(executor);
+        doAnswer(invocation -> lifecycleTimer.newTimeout(
+            invocation.getArgument(0),
+            invocation.getArgument(1),
+            invocation.getArgument(2)
+        )).when(server).newLifecycleTimeout(any(TimerTask.class), anyLong(), any(TimeUnit.class));
+
+        SubscriptionManager subscriptionManager = mock(SubscriptionManager.class);
+        when(subscriptionManager.getServer()).thenReturn(server);
+        when(subscriptionManager.getPublishQueue()).thenReturn(publishQueue);
+
+        return subscriptionManager;
+    }
+
+}
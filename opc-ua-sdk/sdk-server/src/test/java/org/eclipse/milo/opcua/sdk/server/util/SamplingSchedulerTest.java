@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.milo.opcua.sdk.server.util.SamplingScheduler.Sampler;
+import org.eclipse.milo.opcua.sdk.server.util.SamplingScheduler.SamplingTask;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class SamplingSchedulerTest {
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testQuantize() {
+        SamplingScheduler scheduler = new SamplingScheduler(executor, 10.0);
+
+        assertEquals(scheduler.quantize(0.0), 10L);
+        assertEquals(scheduler.quantize(10.0), 10L);
+        assertEquals(scheduler.quantize(100.0), 100L);
+        assertEquals(scheduler.quantize(100.5), 110L);
+        assertEquals(scheduler.quantize(101.0), 110L);
+        assertEquals(scheduler.quantize(250.0), 250L);
+    }
+
+    @Test
+    public void testTasksDueTogetherAreBatched() throws Exception {
+        SamplingScheduler scheduler = new SamplingScheduler(executor, 10.0);
+
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(10);
+
+        Sampler<String> sampler = targets -> {
+            batches.add(new ArrayList<>(targets));
+            latch.countDown();
+            return CompletableFuture.completedFuture(null);
+        };
+
+        try {
+            scheduler.schedule(sampler, 100.0, "a");
+            scheduler.schedule(sampler, 101.0, "b");
+            scheduler.schedule(sampler, 101.0, "c");
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown();
+        }
+
+        // once both have been sampled for the first time, "b" and "c" (quantized to 110ms) are always due together
+        boolean seenB = false;
+        boolean seenC = false;
+
+        for (List<String> batch : batches) {
+            if (seenB && seenC) {
+                assertEquals(batch.contains("b"), batch.contains("c"));
+            }
+
+            seenB |= batch.contains("b");
+            seenC |= batch.contains("c");
+        }
+    }
+
+    @Test
+    public void testCancelledTaskIsNotSampled() throws Exception {
+        SamplingScheduler scheduler = new SamplingScheduler(executor, 10.0);
+
+        List<String> sampled = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(5);
+
+        Sampler<String> sampler = targets -> {
+            sampled.addAll(targets);
+            latch.countDown();
+            return CompletableFuture.completedFuture(null);
+        };
+
+        try {
+            SamplingTask<String> cancelled = scheduler.schedule(sampler, 10.0, "cancelled");
+            cancelled.cancel();
+
+            scheduler.schedule(sampler, 10.0, "active");
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown();
+        }
+
+        assertTrue(sampled.contains("active"));
+
+        // the first schedule() starts the wheel, whose first tick can take the
+        // task before cancel() is called, but it's never sampled after that
+        assertTrue(Collections.frequency(sampled, "cancelled") <= 1);
+    }
+
+    @Test
+    public void testBusyTaskIsSkipped() throws Exception {
+        SamplingScheduler scheduler = new SamplingScheduler(executor, 10.0);
+
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Sampler<String> sampler = targets -> {
+            latch.countDown();
+            return pending;
+        };
+
+        try {
+            scheduler.schedule(sampler, 10.0, "slow");
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+            Thread.sleep(100);
+
+            assertTrue(scheduler.getSkippedSampleCount() > 0);
+            assertTrue(scheduler.getTickCount() > 0);
+        } finally {
+            pending.complete(null);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testTasksResumeAfterRestart() throws Exception {
+        SamplingScheduler scheduler = new SamplingScheduler(executor, 10.0);
+
+        List<String> sampled = new CopyOnWriteArrayList<>();
+
+        Sampler<String> sampler = targets -> {
+            sampled.addAll(targets);
+            return CompletableFuture.completedFuture(null);
+        };
+
+        try {
+            scheduler.schedule(sampler, 10.0, "a");
+            scheduler.schedule(sampler, 10.0, "cancelled").cancel();
+
+            Thread.sleep(100);
+            assertTrue(sampled.contains("a"));
+
+            scheduler.shutdown();
+            Thread.sleep(50);
+            sampled.clear();
+            Thread.sleep(100);
+            assertTrue(sampled.isEmpty());
+
+            scheduler.startup();
+            Thread.sleep(100);
+            assertTrue(sampled.contains("a"));
+            assertFalse(sampled.contains("cancelled"));
+            assertEquals(scheduler.getActiveTaskCount(), 1);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testIdleWheelDoesNotTick() throws Exception {
+        SamplingScheduler scheduler = new SamplingScheduler(executor, 10.0);
+
+        Sampler<String> sampler = targets -> CompletableFuture.completedFuture(null);
+
+        try {
+            SamplingTask<String> task = scheduler.schedule(sampler, 10.0, "a");
+
+            Thread.sleep(100);
+            task.cancel();
+            assertEquals(scheduler.getActiveTaskCount(), 0);
+
+            Thread.sleep(50);
+            long tickCount = scheduler.getTickCount();
+            Thread.sleep(100);
+            assertEquals(scheduler.getTickCount(), tickCount);
+
+            // scheduling wakes the wheel up again
+            CountDownLatch latch = new CountDownLatch(1);
+            scheduler.schedule(targets -> {
+                latch.countDown();
+                return CompletableFuture.completedFuture(null);
+            }, 10.0, "b");
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(scheduler.getTickCount() > tickCount);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+}
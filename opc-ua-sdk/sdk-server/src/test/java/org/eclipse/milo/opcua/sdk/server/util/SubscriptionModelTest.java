@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Maps;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
+import org.eclipse.milo.opcua.sdk.server.api.DataItem;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class SubscriptionModelTest {
+
+    private final Map<NodeId, AtomicInteger> readCounts = Maps.newConcurrentMap();
+
+    private ExecutorService executor;
+    private SamplingScheduler samplingScheduler;
+    private final Session session = mock(Session.class);
+
+    private OpcUaServer server;
+    private AttributeServices attributeServices;
+
+    @BeforeMethod
+    public void setUp() {
+        readCounts.clear();
+
+        executor = Executors.newCachedThreadPool();
+        samplingScheduler = new SamplingScheduler(executor, 10.0);
+
+        server = mock(OpcUaServer.class);
+        when(server.getExecutorService()).thenReturn(executor);
+        when(server.getSamplingScheduler()).thenReturn(samplingScheduler);
+
+        attributeServices = mock(AttributeServices.class);
+
+        doAnswer(invocation -> {
+            ReadContext context = invocation.getArgument(0);
+            List<ReadValueId> readValueIds = invocation.getArgument(3);
+
+            readValueIds.forEach(id -> readCounts.computeIfAbsent(id.getNodeId(), k -> new AtomicInteger())
+                .incrementAndGet());
+
+            context.success(readValueIds.stream()
+                .map(id -> new DataValue(new Variant(id.getNodeId().getIdentifier())))
+                .collect(Collectors.toList()));
+
+            return null;
+        }).when(attributeServices).read(any(), anyDouble(), any(), anyList());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        samplingScheduler.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPolledItemIsSampledEveryTick() {
+        SubscriptionModel model = startup(new SubscriptionModel(server, attributeServices));
+
+        DataItem item = dataItem(new NodeId(2, "polled"), 10.0);
+
+        model.onDataItemsCreated(Collections.singletonList(item));
+
+        verify(item, timeout(5000).atLeast(5)).setValue(any());
+
+        model.shutdown();
+    }
+
+    @Test
+    public void testObservedItemIsSampledAfterChange() throws Exception {
+        UaVariableNode node = variableNode(new NodeId(2, "observed"));
+
+        SubscriptionModel model = startup(new SubscriptionModel(server, attributeServices, nodeManager(node)));
+
+        DataItem item = dataItem(node.getNodeId(), 10.0);
+
+        model.onDataItemsCreated(Collections.singletonList(item));
+
+        // sampled once after being scheduled, then not again until the node changes
+        verify(item, timeout(5000)).setValue(any());
+        Thread.sleep(100);
+        assertEquals(readCount(node.getNodeId()), 1);
+
+        node.setValue(new DataValue(new Variant(42)));
+
+        verify(item, timeout(5000).times(2)).setValue(any());
+        Thread.sleep(100);
+        assertEquals(readCount(node.getNodeId()), 2);
+
+        // a change to an attribute the item isn't monitoring doesn't trigger a sample
+        node.setDisplayName(LocalizedText.english("changed"));
+        Thread.sleep(100);
+        assertEquals(readCount(node.getNodeId()), 2);
+
+        model.shutdown();
+    }
+
+    @Test
+    public void testModifiedItemIsRescheduled() throws Exception {
+        SubscriptionModel model = startup(new SubscriptionModel(server, attributeServices));
+
+        NodeId nodeId = new NodeId(2, "modified");
+        DataItem item = dataItem(nodeId, 10.0);
+
+        model.onDataItemsCreated(Collections.singletonList(item));
+
+        verify(item, timeout(5000).atLeast(5)).setValue(any());
+
+        when(item.isSamplingEnabled()).thenReturn(false);
+        model.onDataItemsModified(Collections.singletonList(item));
+
+        Thread.sleep(100);
+        int disabledCount = readCount(nodeId);
+        Thread.sleep(100);
+        assertEquals(readCount(nodeId), disabledCount);
+
+        when(item.isSamplingEnabled()).thenReturn(true);
+        when(item.getSamplingInterval()).thenReturn(10.0);
+        model.onMonitoringModeChanged(Collections.singletonList(item));
+
+        Thread.sleep(100);
+        assertTrue(readCount(nodeId) > disabledCount);
+
+        when(item.getSamplingInterval()).thenReturn(1000.0);
+        model.onDataItemsModified(Collections.singletonList(item));
+
+        Thread.sleep(100);
+        int slowCount = readCount(nodeId);
+        Thread.sleep(300);
+        assertTrue(readCount(nodeId) - slowCount <= 1);
+
+        model.shutdown();
+    }
+
+    @Test
+    public void testDeletedItemIsNoLongerSampled() throws Exception {
+        UaVariableNode node = variableNode(new NodeId(2, "deleted"));
+
+        SubscriptionModel model = startup(new SubscriptionModel(server, attributeServices, nodeManager(node)));
+
+        DataItem observed = dataItem(node.getNodeId(), 10.0);
+        DataItem polled = dataItem(new NodeId(2, "polled"), 10.0);
+
+        model.onDataItemsCreated(Arrays.asList(observed, polled));
+
+        verify(observed, timeout(5000)).setValue(any());
+        verify(polled, timeout(5000).atLeast(2)).setValue(any());
+
+        model.onDataItemsDeleted(Arrays.asList(observed, polled));
+
+        Thread.sleep(100);
+        int polledCount = readCount(polled.getReadValueId().getNodeId());
+
+        node.setValue(new DataValue(new Variant(42)));
+
+        Thread.sleep(100);
+        assertEquals(readCount(node.getNodeId()), 1);
+        assertEquals(readCount(polled.getReadValueId().getNodeId()), polledCount);
+
+        model.shutdown();
+    }
+
+    private int readCount(NodeId nodeId) {
+        AtomicInteger count = readCounts.get(nodeId);
+
+        return count != null ? count.get() : 0;
+    }
+
+    private static SubscriptionModel startup(SubscriptionModel model) {
+        model.startup();
+
+        return model;
+    }
+
+    private DataItem dataItem(NodeId nodeId, double samplingInterval) {
+        DataItem item = mock(DataItem.class);
+
+        when(item.getReadValueId()).thenReturn(
+            new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE)
+        );
+        when(item.getSamplingInterval()).thenReturn(samplingInterval);
+        when(item.isSamplingEnabled()).thenReturn(true);
+        when(item.getSession()).thenReturn(session);
+
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NodeManager<UaNode> nodeManager(UaNode node) {
+        NodeManager<UaNode> nodeManager = mock(NodeManager.class);
+
+        when(nodeManager.get(node.getNodeId())).thenReturn(node);
+
+        return nodeManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private UaVariableNode variableNode(NodeId nodeId) {
+        UaNodeContext context = mock(UaNodeContext.class);
+        when(context.getServer()).thenReturn(server);
+        when(context.getNodeManager()).thenReturn(mock(NodeManager.class));
+
+        return new UaVariableNode.UaVariableNodeBuilder(context)
+            .setNodeId(nodeId)
+            .setBrowseName(new QualifiedName(2, nodeId.getIdentifier().toString()))
+            .setDisplayName(LocalizedText.english(nodeId.getIdentifier().toString()))
+            .setDataType(Identifiers.Int32)
+            .setAccessLevel(ubyte(1))
+            .setUserAccessLevel(ubyte(1))
+            .build();
+    }
+
+}
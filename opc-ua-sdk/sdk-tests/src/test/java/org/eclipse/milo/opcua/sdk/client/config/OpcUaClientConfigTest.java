@@ -52,6 +52,7 @@ public class OpcUaClientConfigTest {
             .setIdentityProvider(new AnonymousProvider())
             .setSessionLocaleIds(new String[]{"en", "es"})
             .setSubscriptionWatchdogMultiplier(1.25)
+            .setMaxPartitionedRequestsInFlight(uint(8))
             .build();
 
         OpcUaClientConfig copy = OpcUaClientConfig.copy(original).build();
@@ -67,6 +68,7 @@ public class OpcUaClientConfigTest {
         assertEquals(copy.getKeepAliveTimeout(), original.getKeepAliveTimeout());
         assertEquals(copy.getSessionLocaleIds(), original.getSessionLocaleIds());
         assertEquals(copy.getSubscriptionWatchdogMultiplier(), original.getSubscriptionWatchdogMultiplier());
+        assertEquals(copy.getMaxPartitionedRequestsInFlight(), original.getMaxPartitionedRequestsInFlight());
     }
 
     @Test
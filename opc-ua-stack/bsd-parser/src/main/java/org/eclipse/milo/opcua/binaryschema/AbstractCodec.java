@@ -52,8 +52,8 @@ import org.opcfoundation.opcua.binaryschema.SwitchOperand;
 
 public abstract class AbstractCodec<StructureT, MemberT> implements OpcUaBinaryDataTypeCodec<StructureT> {
 
-    private static final ImmutableMap<String, Function<OpcUaBinaryStreamDecoder, Object>> READERS;
-    private static final ImmutableMap<String, BiConsumer<OpcUaBinaryStreamEncoder, Object>> WRITERS;
+    static final ImmutableMap<String, Function<OpcUaBinaryStreamDecoder, Object>> READERS;
+    static final ImmutableMap<String, BiConsumer<OpcUaBinaryStreamEncoder, Object>> WRITERS;
     private static final ImmutableMap<String, Class<?>> TYPE_CLASS_MAP;
 
     static {
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.binaryschema;
+
+import org.eclipse.milo.opcua.binaryschema.parser.BsdParser;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.OpcUaBinaryDataTypeCodec;
+import org.opcfoundation.opcua.binaryschema.EnumeratedType;
+import org.opcfoundation.opcua.binaryschema.StructuredType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BsdParser} that creates a {@link CompiledStructCodec} for each structure, falling back to a
+ * {@link GenericStructCodec} for structures that can't be compiled.
+ * <p>
+ * Both produce and consume {@link Struct}s, so this can be used anywhere {@link GenericBsdParser} is.
+ */
+public class CompiledBsdParser extends BsdParser {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Override
+    protected OpcUaBinaryDataTypeCodec<?> getEnumCodec(EnumeratedType enumeratedType) {
+        return new GenericEnumCodec(enumeratedType);
+    }
+
+    @Override
+    protected OpcUaBinaryDataTypeCodec<?> getStructCodec(StructuredType structuredType) {
+        try {
+            return new CompiledStructCodec(structuredType);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Using GenericStructCodec for {}: {}", structuredType.getName(), e.getMessage());
+
+            return new GenericStructCodec(structuredType);
+        }
+    }
+
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.binaryschema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.OpcUaBinaryDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.util.Namespaces;
+import org.jetbrains.annotations.Nullable;
+import org.opcfoundation.opcua.binaryschema.FieldType;
+import org.opcfoundation.opcua.binaryschema.StructuredType;
+import org.opcfoundation.opcua.binaryschema.SwitchOperand;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ulong;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+
+/**
+ * A {@link Struct} codec that compiles a {@link StructuredType} into an encode/decode plan once, up front, instead of
+ * interpreting it for every value the way {@link GenericStructCodec} does.
+ * <p>
+ * Each field's reader and writer, and the positions of its length and switch fields, are resolved when the codec is
+ * created. Decoding fills an array indexed by field position rather than a map keyed by field name, and produces
+ * array-backed {@link Struct}s that only build their member map if it's asked for.
+ * <p>
+ * Encoded and decoded values are identical to those of {@link GenericStructCodec}.
+ */
+public class CompiledStructCodec implements OpcUaBinaryDataTypeCodec<Struct> {
+
+    /**
+     * Marks a field whose switch field says it's absent.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final String name;
+    private final FieldPlan[] fields;
+
+    /**
+     * The names of the fields that are members of the decoded {@link Struct}, i.e. all but the length fields.
+     */
+    private final String[] memberNames;
+
+    /**
+     * {@code true} if the fields and members are the same, so the decoded values can back the {@link Struct} as-is.
+     */
+    private final boolean membersAreFields;
+
+    private final boolean hasSwitchFields;
+
+    /**
+     * Compile a codec for {@code structuredType}.
+     *
+     * @param structuredType the {@link StructuredType} to compile a codec for.
+     * @throws IllegalArgumentException if {@code structuredType} uses something that can't be compiled, e.g. an
+     *                                  array with IsLengthInBytes=true or a reference to an unknown field.
+     */
+    public CompiledStructCodec(StructuredType structuredType) throws IllegalArgumentException {
+        this.name = structuredType.getName();
+
+        List<FieldType> fieldTypes = structuredType.getField();
+
+        Map<String, Integer> fieldIndices = new HashMap<>();
+        for (int i = 0; i < fieldTypes.size(); i++) {
+            fieldIndices.put(fieldTypes.get(i).getName(), i);
+        }
+
+        boolean[] isLengthField = new boolean[fieldTypes.size()];
+        for (FieldType field : fieldTypes) {
+            if (field.getLengthField() != null) {
+                Integer index = fieldIndices.get(field.getLengthField());
+                if (index == null) {
+                    throw new IllegalArgumentException("unknown LengthField: " + field.getLengthField());
+                }
+                isLengthField[index] = true;
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        fields = new FieldPlan[fieldTypes.size()];
+        boolean switchFields = false;
+
+        for (int i = 0; i < fieldTypes.size(); i++) {
+            FieldType field = fieldTypes.get(i);
+
+            int switchFieldIndex = -1;
+            if (field.getSwitchField() != null) {
+                Integer index = fieldIndices.get(field.getSwitchField());
+                if (index == null) {
+                    throw new IllegalArgumentException("unknown SwitchField: " + field.getSwitchField());
+                }
+                switchFieldIndex = index;
+                switchFields = true;
+            }
+
+            int lengthFieldIndex = field.getLengthField() != null ? fieldIndices.get(field.getLengthField()) : -1;
+
+            fields[i] = new FieldPlan(field, lengthFieldIndex, switchFieldIndex, isLengthField[i]);
+
+            if (!isLengthField[i]) {
+                names.add(field.getName());
+            }
+        }
+
+        memberNames = names.toArray(new String[0]);
+        membersAreFields = memberNames.length == fields.length;
+        hasSwitchFields = switchFields;
+    }
+
+    @Override
+    public Class<Struct> getType() {
+        return Struct.class;
+    }
+
+    @Override
+    public Struct decode(
+        SerializationContext context,
+        OpcUaBinaryStreamDecoder decoder
+    ) throws UaSerializationException {
+
+        Object[] values = new Object[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+            FieldPlan field = fields[i];
+
+            if (field.switchFieldIndex >= 0 && !field.isPresent(values[field.switchFieldIndex])) {
+                values[i] = ABSENT;
+                continue;
+            }
+
+            switch (field.kind) {
+                case SCALAR:
+                    values[i] = field.read(context, decoder);
+                    break;
+
+                case BITS: {
+                    int length = fieldLength(field, values);
+                    int bits = 0;
+                    for (int j = 0; j < length; j++) {
+                        int bit = decoder.readBit();
+                        if (j < Integer.SIZE) {
+                            bits |= bit << j;
+                        }
+                    }
+                    values[i] = bits;
+                    break;
+                }
+
+                case ARRAY: {
+                    int length = fieldLength(field, values);
+                    Object[] array = null;
+                    if (length >= 0) {
+                        array = new Object[length];
+                        for (int j = 0; j < length; j++) {
+                            array[j] = field.read(context, decoder);
+                        }
+                    }
+                    values[i] = array;
+                    break;
+                }
+
+                default:
+                    throw new IllegalStateException("kind: " + field.kind);
+            }
+        }
+
+        if (membersAreFields && !hasSwitchFields) {
+            return new Struct(name, memberNames, values);
+        } else {
+            return createStruct(values);
+        }
+    }
+
+    @Override
+    public void encode(
+        SerializationContext context,
+        OpcUaBinaryStreamEncoder encoder,
+        Struct value
+    ) throws UaSerializationException {
+
+        Object[] values = getFieldValues(value);
+
+        for (int i = 0; i < fields.length; i++) {
+            FieldPlan field = fields[i];
+
+            if (field.switchFieldIndex >= 0 && !field.isPresent(values[field.switchFieldIndex])) {
+                continue;
+            }
+
+            if (field.isLengthField) {
+                // let arrays encode their own length field so the
+                // structure representation isn't required to include it
+                continue;
+            }
+
+            switch (field.kind) {
+                case SCALAR:
+                    field.write(context, encoder, values[i]);
+                    break;
+
+                case BITS: {
+                    int length = fieldLength(field, values);
+                    long bits = ((Number) values[i]).longValue();
+                    for (int j = 0; j < length; j++) {
+                        long shifted = j < Long.SIZE ? bits >> j : bits >> (Long.SIZE - 1);
+                        encoder.writeBit((int) (shifted & 1L));
+                    }
+                    break;
+                }
+
+                case ARRAY: {
+                    Object[] array = (Object[]) GenericStructCodec.toOpcUaArray(values[i]);
+
+                    if (field.lengthFieldIndex >= 0) {
+                        FieldPlan lengthField = fields[field.lengthFieldIndex];
+                        Object length = lengthField.lengthValue(array != null ? array.length : -1);
+
+                        values[field.lengthFieldIndex] = length;
+                        lengthField.write(context, encoder, length);
+                    }
+
+                    if (array != null) {
+                        for (Object element : array) {
+                            field.write(context, encoder, element);
+                        }
+                    }
+                    break;
+                }
+
+                default:
+                    throw new IllegalStateException("kind: " + field.kind);
+            }
+        }
+    }
+
+    private Struct createStruct(Object[] values) {
+        int present = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (!fields[i].isLengthField && values[i] != ABSENT) present++;
+        }
+
+        if (!hasSwitchFields || present == memberNames.length) {
+            Object[] memberValues = new Object[memberNames.length];
+            for (int i = 0, j = 0; i < fields.length; i++) {
+                if (!fields[i].isLengthField) memberValues[j++] = values[i];
+            }
+            return new Struct(name, memberNames, memberValues);
+        } else {
+            String[] names = new String[present];
+            Object[] memberValues = new Object[present];
+            for (int i = 0, j = 0; i < fields.length; i++) {
+                if (!fields[i].isLengthField && values[i] != ABSENT) {
+                    names[j] = fields[i].name;
+                    memberValues[j++] = values[i];
+                }
+            }
+            return new Struct(name, names, memberValues);
+        }
+    }
+
+    /**
+     * Get the value of each field of {@code struct}, indexed by field position.
+     * <p>
+     * Structs this codec decoded with every member present already hold their values in field order; any other
+     * Struct has its members looked up by name.
+     */
+    private Object[] getFieldValues(Struct struct) {
+        Object[] values = new Object[fields.length];
+
+        String[] names = struct.getMemberNamesArray();
+        Object[] memberValues = struct.getMemberValuesArray();
+
+        if (names == memberNames && memberValues != null) {
+            for (int i = 0, j = 0; i < fields.length; i++) {
+                if (!fields[i].isLengthField) values[i] = memberValues[j++];
+            }
+        } else {
+            for (int i = 0; i < fields.length; i++) {
+                if (!fields[i].isLengthField) values[i] = struct.getMemberValue(fields[i].name);
+            }
+        }
+
+        return values;
+    }
+
+    private static int fieldLength(FieldPlan field, Object[] values) {
+        if (field.fixedLength >= 0) {
+            return field.fixedLength;
+        } else if (field.lengthFieldIndex >= 0) {
+            Object length = values[field.lengthFieldIndex];
+
+            return length instanceof Number ? ((Number) length).intValue() : 1;
+        } else {
+            return 1;
+        }
+    }
+
+    private enum Kind {
+        SCALAR,
+        BITS,
+        ARRAY
+    }
+
+    private static final class FieldPlan {
+
+        final String name;
+        final String typeName;
+        final String typeNamespace;
+        final Kind kind;
+
+        /**
+         * The reader and writer for built-in types, or {@code null} if the value is encoded by its DataType's codec.
+         */
+        @Nullable final Function<OpcUaBinaryStreamDecoder, Object> reader;
+        @Nullable final BiConsumer<OpcUaBinaryStreamEncoder, Object> writer;
+
+        final int fixedLength;
+        final int lengthFieldIndex;
+        final int switchFieldIndex;
+        final SwitchOperand switchOperand;
+        final long switchValue;
+        final boolean isLengthField;
+
+        FieldPlan(FieldType field, int lengthFieldIndex, int switchFieldIndex, boolean isLengthField) {
+            this.name = field.getName();
+            this.typeName = field.getTypeName().getLocalPart();
+            this.typeNamespace = field.getTypeName().getNamespaceURI();
+            this.lengthFieldIndex = lengthFieldIndex;
+            this.switchFieldIndex = switchFieldIndex;
+            this.isLengthField = isLengthField;
+
+            boolean typeNamespaceIsUa =
+                Namespaces.OPC_UA.equals(typeNamespace) ||
+                    Namespaces.OPC_UA_BSD.equals(typeNamespace);
+
+            boolean scalar = field.getLengthField() == null && field.getLength() == null;
+
+            if (scalar) {
+                kind = Kind.SCALAR;
+            } else if (field.isIsLengthInBytes()) {
+                throw new IllegalArgumentException("IsLengthInBytes=true not supported");
+            } else if ("Bit".equals(typeName) && typeNamespaceIsUa) {
+                kind = Kind.BITS;
+            } else {
+                kind = Kind.ARRAY;
+            }
+
+            if (typeNamespaceIsUa && AbstractCodec.READERS.containsKey(typeName)) {
+                reader = AbstractCodec.READERS.get(typeName);
+                writer = AbstractCodec.WRITERS.get(typeName);
+            } else {
+                reader = null;
+                writer = null;
+            }
+
+            fixedLength = field.getLength() != null ? field.getLength().intValue() : -1;
+
+            switchValue = field.getSwitchValue() != null ? field.getSwitchValue() : 1L;
+            switchOperand = field.getSwitchOperand() != null ? field.getSwitchOperand() : SwitchOperand.EQUALS;
+        }
+
+        Object read(SerializationContext context, OpcUaBinaryStreamDecoder decoder) {
+            if (reader != null) {
+                return reader.apply(decoder);
+            } else {
+                return context.decode(typeNamespace, typeName, decoder);
+            }
+        }
+
+        void write(SerializationContext context, OpcUaBinaryStreamEncoder encoder, Object value) {
+            if (writer != null) {
+                writer.accept(encoder, value);
+            } else {
+                context.encode(typeNamespace, typeName, value, encoder);
+            }
+        }
+
+        /**
+         * @return {@code true} if this field is present given the value of its switch field.
+         */
+        boolean isPresent(Object switchFieldValue) {
+            long controlValue;
+            if (switchFieldValue instanceof Number) {
+                controlValue = ((Number) switchFieldValue).longValue();
+            } else if (switchFieldValue instanceof Boolean) {
+                controlValue = (Boolean) switchFieldValue ? 1L : 0L;
+            } else {
+                controlValue = 0L;
+            }
+
+            switch (switchOperand) {
+                case EQUALS:
+                    return controlValue == switchValue;
+                case NOT_EQUAL:
+                    return controlValue != switchValue;
+                case GREATER_THAN:
+                    return controlValue > switchValue;
+                case GREATER_THAN_OR_EQUAL:
+                    return controlValue >= switchValue;
+                case LESS_THAN:
+                    return controlValue < switchValue;
+                case LESS_THAN_OR_EQUAL:
+                    return controlValue <= switchValue;
+                default:
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_InternalError,
+                        "unknown SwitchOperand: " + switchOperand);
+            }
+        }
+
+        /**
+         * @return {@code length} as a value of this (length) field's type.
+         */
+        Object lengthValue(int length) {
+            // unsigned length fields can't express a null array; encode it as an empty one
+            switch (typeName) {
+                case "SByte":
+                    return (byte) length;
+                case "Int16":
+                    return (short) length;
+                case "Int64":
+                    return (long) length;
+                case "Byte":
+                    return ubyte(Math.max(length, 0));
+                case "UInt16":
+                    return ushort(Math.max(length, 0));
+                case "UInt32":
+                    return uint(Math.max(length, 0));
+                case "UInt64":
+                    return ulong(Math.max(length, 0));
+                default:
+                    return length;
+            }
+        }
+
+    }
+
+}
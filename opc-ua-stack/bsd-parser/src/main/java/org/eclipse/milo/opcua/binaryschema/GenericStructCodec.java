@@ -57,8 +57,14 @@ public class GenericStructCodec extends AbstractCodec<Struct, Struct.Member> {
 
     @Override
     protected Object memberTypeToOpcUaArray(Struct.Member member, String typeName) {
-        Object value = member.getValue();
+        return toOpcUaArray(member.getValue());
+    }
 
+    /**
+     * Convert a member value that is a {@link List} or a (possibly multi-dimensional or primitive) array into a
+     * flat {@code Object[]}; any other value is returned as-is.
+     */
+    static Object toOpcUaArray(Object value) {
         if (value == null) {
             return null;
         } else if (value instanceof List) {
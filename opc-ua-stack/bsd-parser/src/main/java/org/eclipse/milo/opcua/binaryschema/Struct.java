@@ -24,7 +24,15 @@ import org.jetbrains.annotations.Nullable;
 public class Struct {
 
     private final String name;
-    private final ImmutableMap<String, Member> members;
+
+    /**
+     * The members, keyed by name. Structs created by {@link CompiledStructCodec} start out with only
+     * {@link #memberNames} and {@link #memberValues} and build this the first time it's needed.
+     */
+    private volatile ImmutableMap<String, Member> members;
+
+    private final String[] memberNames;
+    private final Object[] memberValues;
 
     public Struct(@NotNull String name, @NotNull Map<String, Member> members) {
         this(name, ImmutableMap.copyOf(members));
@@ -36,6 +44,20 @@ public class Struct {
 
         this.name = name;
         this.members = members;
+        this.memberNames = null;
+        this.memberValues = null;
+    }
+
+    /**
+     * Create a Struct backed by parallel arrays of member names and values, in member order.
+     * <p>
+     * {@code memberNames} may be shared between every Struct of the same type; neither array is copied.
+     */
+    Struct(@NotNull String name, @NotNull String[] memberNames, @NotNull Object[] memberValues) {
+        this.name = name;
+        this.members = null;
+        this.memberNames = memberNames;
+        this.memberValues = memberValues;
     }
 
     @NotNull
@@ -45,17 +67,62 @@ public class Struct {
 
     @NotNull
     public ImmutableMap<String, Member> getMembers() {
-        return members;
+        ImmutableMap<String, Member> m = members;
+
+        if (m == null) {
+            ImmutableMap.Builder<String, Member> builder = ImmutableMap.builder();
+            for (int i = 0; i < memberNames.length; i++) {
+                builder.put(memberNames[i], new Member(memberNames[i], memberValues[i]));
+            }
+            members = m = builder.build();
+        }
+
+        return m;
     }
 
     @Nullable
     public Member getMember(String name) {
-        return members.get(name);
+        return getMembers().get(name);
     }
 
     @NotNull
     public Optional<Member> getMemberSafe(String name) {
-        return Optional.ofNullable(members.get(name));
+        return Optional.ofNullable(getMember(name));
+    }
+
+    /**
+     * Get the value of the member named {@code name} without creating a {@link Member} for it.
+     *
+     * @param name the name of the member.
+     * @return the value of the member, or {@code null} if the value is null or there is no such member.
+     */
+    @Nullable
+    public Object getMemberValue(String name) {
+        if (memberValues != null) {
+            int index = indexOf(memberNames, name);
+
+            return index >= 0 ? memberValues[index] : null;
+        } else {
+            Member member = members.get(name);
+
+            return member != null ? member.getValue() : null;
+        }
+    }
+
+    /**
+     * @return the shared member names array if this Struct is array-backed, otherwise {@code null}.
+     */
+    @Nullable
+    String[] getMemberNamesArray() {
+        return memberNames;
+    }
+
+    /**
+     * @return the member values array if this Struct is array-backed, otherwise {@code null}.
+     */
+    @Nullable
+    Object[] getMemberValuesArray() {
+        return memberValues;
     }
 
     @Override
@@ -64,22 +131,32 @@ public class Struct {
         if (o == null || getClass() != o.getClass()) return false;
         Struct that = (Struct) o;
         return Objects.equals(name, that.name) &&
-            Objects.equals(members, that.members);
+            Objects.equals(getMembers(), that.getMembers());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, members);
+        return Objects.hash(name, getMembers());
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("name", name)
-            .add("members", members)
+            .add("members", getMembers())
             .toString();
     }
 
+    static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            //noinspection StringEquality
+            if (names[i] == name || names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public static Builder builder(String name) {
         return new Builder(name);
     }
@@ -28,7 +28,7 @@ import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
 import org.eclipse.milo.opcua.stack.core.types.OpcUaBinaryDataTypeDictionary;
 import org.eclipse.milo.opcua.stack.core.types.OpcUaDataTypeManager;
 import org.eclipse.milo.opcua.stack.core.util.Namespaces;
-import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.BeforeClass;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
@@ -105,7 +105,7 @@ public abstract class BsdParserTest {
      */
     protected abstract BsdParser createBsdParser();
 
-    @BeforeSuite
+    @BeforeClass
     public void parseTypeDictionary() throws Exception {
         BsdParser parser = createBsdParser();
 
@@ -135,6 +135,13 @@ public abstract class BsdParserTest {
         return (OpcUaBinaryDataTypeCodec<Object>) codec;
     }
 
+    protected Object roundTrip(OpcUaBinaryDataTypeCodec<Object> codec, Object value) {
+        ByteBuf buffer = Unpooled.buffer();
+        codec.encode(context, new OpcUaBinaryStreamEncoder(context).setBuffer(buffer), value);
+
+        return codec.decode(context, new OpcUaBinaryStreamDecoder(context).setBuffer(buffer));
+    }
+
     protected void assertRoundTrip(String type, Object originalValue, OpcUaBinaryDataTypeCodec<Object> codec) {
         System.out.printf("--- assertRoundTrip Type: %s ---\n", type);
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.binaryschema;
+
+import org.eclipse.milo.opcua.binaryschema.parser.BsdParser;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.OpcUaBinaryDataTypeCodec;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+public class CompiledBsdParserTest extends GenericBsdParserTest {
+
+    @Override
+    protected BsdParser createBsdParser() {
+        return new CompiledBsdParser();
+    }
+
+    @Test
+    public void testCodecsAreCompiled() {
+        assertEquals(getCodec("Foo").getClass(), CompiledStructCodec.class);
+        assertEquals(getCodec("Optionals").getClass(), CompiledStructCodec.class);
+        assertEquals(getCodec("ArrayContainer").getClass(), CompiledStructCodec.class);
+    }
+
+    @Test
+    public void testDecodedStructIsReEncoded() {
+        Struct arrayContainer = Struct.builder("ArrayContainer")
+            .addMember("IntArray", new Integer[]{1, 2, 3})
+            .addMember("BitField", 0b10001111)
+            .addMember("StringArray", new String[]{"hello", "world"})
+            .build();
+
+        OpcUaBinaryDataTypeCodec<Object> codec = getCodec("ArrayContainer");
+
+        // the first round trip yields an array-backed Struct, the second encodes from it directly
+        Struct decoded = (Struct) roundTrip(codec, arrayContainer);
+        assertEquals(decoded, arrayContainer);
+        assertEquals(decoded.getMemberValue("BitField"), 0b10001111);
+
+        assertEquals(roundTrip(codec, decoded), arrayContainer);
+    }
+
+}
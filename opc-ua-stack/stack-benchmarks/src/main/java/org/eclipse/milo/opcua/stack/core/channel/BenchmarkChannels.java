@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.channel;
+
+import java.security.KeyPair;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.eclipse.milo.opcua.stack.client.transport.uasc.ClientSecureChannel;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.types.structured.ChannelSecurityToken;
+import org.eclipse.milo.opcua.stack.core.util.LongSequence;
+import org.eclipse.milo.opcua.stack.core.util.SelfSignedCertificateBuilder;
+import org.eclipse.milo.opcua.stack.core.util.SelfSignedCertificateGenerator;
+
+import static org.eclipse.milo.opcua.stack.core.channel.EncodingLimits.DEFAULT_MAX_CHUNK_SIZE;
+import static org.eclipse.milo.opcua.stack.core.channel.EncodingLimits.DEFAULT_MAX_MESSAGE_SIZE;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.NonceUtil.generateNonce;
+
+/**
+ * Creates connected client and server {@link SecureChannel}s, without a transport, for the chunking benchmarks.
+ */
+final class BenchmarkChannels {
+
+    static {
+        // Required for SecurityPolicy.Aes256_Sha256_RsaPss
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    static final ChannelParameters DEFAULT_PARAMETERS = new ChannelParameters(
+        DEFAULT_MAX_MESSAGE_SIZE,
+        DEFAULT_MAX_CHUNK_SIZE,
+        DEFAULT_MAX_CHUNK_SIZE,
+        0,
+        DEFAULT_MAX_MESSAGE_SIZE,
+        DEFAULT_MAX_CHUNK_SIZE,
+        DEFAULT_MAX_CHUNK_SIZE,
+        0
+    );
+
+    final ClientSecureChannel client;
+    final ServerSecureChannel server;
+
+    private BenchmarkChannels(ClientSecureChannel client, ServerSecureChannel server) {
+        this.client = client;
+        this.server = server;
+    }
+
+    /**
+     * Parse a benchmark parameter of the form {@code <SecurityPolicy>_<MessageSecurityMode>} and create the
+     * channels it describes.
+     *
+     * @param security e.g. {@code None_None} or {@code Basic256Sha256_SignAndEncrypt}.
+     * @return the {@link BenchmarkChannels}.
+     */
+    static BenchmarkChannels create(String security) throws Exception {
+        String[] ss = security.split("_(?=[^_]+$)");
+
+        return create(SecurityPolicy.valueOf(ss[0]), MessageSecurityMode.valueOf(ss[1]));
+    }
+
+    static BenchmarkChannels create(
+        SecurityPolicy securityPolicy,
+        MessageSecurityMode messageSecurity
+    ) throws Exception {
+
+        boolean secure = securityPolicy != SecurityPolicy.None;
+
+        KeyPair clientKeyPair = secure ? SelfSignedCertificateGenerator.generateRsaKeyPair(2048) : null;
+        KeyPair serverKeyPair = secure ? SelfSignedCertificateGenerator.generateRsaKeyPair(2048) : null;
+
+        X509Certificate clientCertificate = secure ? certificate(clientKeyPair, "client") : null;
+        X509Certificate serverCertificate = secure ? certificate(serverKeyPair, "server") : null;
+
+        ByteString clientNonce = generateNonce(securityPolicy);
+        ByteString serverNonce = generateNonce(securityPolicy);
+
+        ClientSecureChannel clientChannel = new ClientSecureChannel(
+            clientKeyPair,
+            clientCertificate,
+            secure ? Collections.singletonList(clientCertificate) : null,
+            serverCertificate,
+            secure ? Collections.singletonList(serverCertificate) : null,
+            securityPolicy,
+            messageSecurity
+        );
+
+        clientChannel.setLocalNonce(clientNonce);
+        clientChannel.setRemoteNonce(serverNonce);
+
+        clientChannel
+            .attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE)
+            .setIfAbsent(new LongSequence(1L, UInteger.MAX_VALUE));
+
+        ServerSecureChannel serverChannel = new ServerSecureChannel();
+        serverChannel.setSecurityPolicy(securityPolicy);
+        serverChannel.setMessageSecurityMode(messageSecurity);
+        serverChannel.setLocalNonce(serverNonce);
+        serverChannel.setRemoteNonce(clientNonce);
+
+        if (secure) {
+            serverChannel.setKeyPair(serverKeyPair);
+            serverChannel.setLocalCertificate(serverCertificate);
+            serverChannel.setLocalCertificateChain(new X509Certificate[]{serverCertificate});
+            serverChannel.setRemoteCertificate(clientCertificate.getEncoded());
+        }
+
+        ChannelSecurityToken clientToken = new ChannelSecurityToken(
+            uint(0), uint(1), DateTime.now(), uint(60000)
+        );
+
+        ChannelSecurityToken serverToken = new ChannelSecurityToken(
+            uint(0), uint(1), DateTime.now(), uint(60000)
+        );
+
+        if (messageSecurity == MessageSecurityMode.None) {
+            clientChannel.setChannelSecurity(new ChannelSecurity(null, clientToken));
+            serverChannel.setChannelSecurity(new ChannelSecurity(null, serverToken));
+        } else {
+            ChannelSecurity.SecurityKeys clientSecrets = ChannelSecurity.generateKeyPair(
+                clientChannel,
+                clientChannel.getLocalNonce(),
+                clientChannel.getRemoteNonce()
+            );
+
+            clientChannel.setChannelSecurity(new ChannelSecurity(clientSecrets, clientToken));
+
+            ChannelSecurity.SecurityKeys serverSecrets = ChannelSecurity.generateKeyPair(
+                serverChannel,
+                serverChannel.getRemoteNonce(),
+                serverChannel.getLocalNonce()
+            );
+
+            serverChannel.setChannelSecurity(new ChannelSecurity(serverSecrets, serverToken));
+        }
+
+        return new BenchmarkChannels(clientChannel, serverChannel);
+    }
+
+    private static X509Certificate certificate(KeyPair keyPair, String name) throws Exception {
+        return new SelfSignedCertificateBuilder(keyPair)
+            .setCommonName("Eclipse Milo Benchmark " + name)
+            .setApplicationUri("urn:eclipse:milo:benchmark:" + name)
+            .build();
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.channel;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import org.eclipse.milo.opcua.stack.client.transport.uasc.ClientSecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.eclipse.milo.opcua.stack.core.util.LongSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures symmetric {@link ChunkEncoder} and {@link ChunkDecoder} throughput under each {@code SecurityPolicy} and
+ * {@code MessageSecurityMode}, for messages that fit in a single chunk and for messages that span many chunks.
+ * <p>
+ * {@code parallelThreshold} 0 encodes chunks one after another; otherwise chunks of messages with at least that many
+ * chunks are signed and encrypted in parallel.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ChunkBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChunkBenchmark {
+
+    @Param({
+        "None_None",
+        "Basic128Rsa15_Sign",
+        "Basic128Rsa15_SignAndEncrypt",
+        "Basic256_Sign",
+        "Basic256_SignAndEncrypt",
+        "Basic256Sha256_Sign",
+        "Basic256Sha256_SignAndEncrypt",
+        "Aes128_Sha256_RsaOaep_Sign",
+        "Aes128_Sha256_RsaOaep_SignAndEncrypt",
+        "Aes256_Sha256_RsaPss_Sign",
+        "Aes256_Sha256_RsaPss_SignAndEncrypt"
+    })
+    public String security;
+
+    @Param({"1024", "65536", "1048576"})
+    public int messageSize;
+
+    @Param({"0", "2"})
+    public int parallelThreshold;
+
+    private ExecutorService executor;
+
+    private BenchmarkChannels channels;
+    private LongSequence requestId;
+
+    private ChunkEncoder encoder;
+    private ChunkDecoder decoder;
+
+    private ByteBuf messageBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        channels = BenchmarkChannels.create(security);
+
+        requestId = channels.client.attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE).get();
+
+        executor = Executors.newCachedThreadPool();
+
+        encoder = new ChunkEncoder(BenchmarkChannels.DEFAULT_PARAMETERS, executor, parallelThreshold);
+        decoder = new ChunkDecoder(BenchmarkChannels.DEFAULT_PARAMETERS, EncodingLimits.DEFAULT);
+
+        byte[] messageBytes = new byte[messageSize];
+        for (int i = 0; i < messageBytes.length; i++) {
+            messageBytes[i] = (byte) i;
+        }
+
+        messageBuffer = BufferUtil.pooledBuffer(messageSize).writeBytes(messageBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        messageBuffer.release();
+
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int encodeSymmetric() throws Exception {
+        List<ByteBuf> chunks = encode();
+
+        int chunkCount = chunks.size();
+
+        chunks.forEach(ReferenceCountUtil::release);
+
+        return chunkCount;
+    }
+
+    @Benchmark
+    public int encodeDecodeSymmetric() throws Exception {
+        List<ByteBuf> chunks = encode();
+
+        ByteBuf message = decoder.decodeSymmetric(channels.server, chunks).getMessage();
+
+        int readableBytes = message.readableBytes();
+
+        message.release();
+
+        return readableBytes;
+    }
+
+    private List<ByteBuf> encode() throws MessageEncodeException {
+        messageBuffer.readerIndex(0);
+
+        return encoder.encodeSymmetric(
+            channels.client,
+            requestId.getAndIncrement(),
+            messageBuffer,
+            MessageType.SecureMessage
+        ).getMessageChunks();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.channel;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import org.eclipse.milo.opcua.stack.client.transport.uasc.ClientSecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
+import org.eclipse.milo.opcua.stack.core.serialization.BenchmarkMessages;
+import org.eclipse.milo.opcua.stack.core.serialization.BenchmarkSerializationContext;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.serialization.UaMessage;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.eclipse.milo.opcua.stack.core.util.LongSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the round trip of a {@link ReadRequest} through a client {@link SerializationQueue}, where it is encoded
+ * and chunked, and a server {@link SerializationQueue}, where it is decoded again, the way the UASC handlers use
+ * them.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar SerializationQueueBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationQueueBenchmark {
+
+    @Param({"None_None", "Basic256Sha256_SignAndEncrypt"})
+    public String security;
+
+    @Param({"10", "1000"})
+    public int nodeCount;
+
+    private ExecutorService executor;
+
+    private BenchmarkChannels channels;
+    private LongSequence requestId;
+
+    private SerializationQueue clientQueue;
+    private SerializationQueue serverQueue;
+
+    private ReadRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        executor = Executors.newFixedThreadPool(2);
+
+        channels = BenchmarkChannels.create(security);
+
+        requestId = channels.client.attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE).get();
+
+        SerializationContext context = new BenchmarkSerializationContext();
+
+        clientQueue = new SerializationQueue(executor, BenchmarkChannels.DEFAULT_PARAMETERS, context);
+        serverQueue = new SerializationQueue(executor, BenchmarkChannels.DEFAULT_PARAMETERS, context);
+
+        request = BenchmarkMessages.readRequest(nodeCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public UaMessage roundTrip() throws Exception {
+        CompletableFuture<UaMessage> future = new CompletableFuture<>();
+
+        clientQueue.encode((binaryEncoder, chunkEncoder) -> {
+            ByteBuf messageBuffer = BufferUtil.pooledBuffer();
+
+            try {
+                binaryEncoder.setBuffer(messageBuffer);
+                binaryEncoder.writeMessage(null, request);
+
+                List<ByteBuf> chunks = chunkEncoder.encodeSymmetric(
+                    channels.client,
+                    requestId.getAndIncrement(),
+                    messageBuffer,
+                    MessageType.SecureMessage
+                ).getMessageChunks();
+
+                serverQueue.decode((binaryDecoder, chunkDecoder) -> {
+                    try {
+                        ByteBuf message = chunkDecoder.decodeSymmetric(channels.server, chunks).getMessage();
+
+                        try {
+                            future.complete(binaryDecoder.setBuffer(message).readMessage(null));
+                        } finally {
+                            message.release();
+                        }
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                messageBuffer.release();
+            }
+        });
+
+        return future.get();
+    }
+
+}
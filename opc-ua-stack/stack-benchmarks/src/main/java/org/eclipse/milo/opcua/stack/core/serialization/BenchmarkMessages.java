@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.util.Random;
+
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.NotificationMessage;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+
+/**
+ * Factories for the values and messages used by the benchmarks.
+ * <p>
+ * All values are generated deterministically, so every run encodes exactly the same bytes.
+ */
+public final class BenchmarkMessages {
+
+    /**
+     * 2022-01-01T00:00:00Z, in 100 nanosecond intervals since 1601-01-01T00:00:00Z.
+     */
+    private static final long BASE_TIME = 132_854_688_000_000_000L;
+
+    private BenchmarkMessages() {}
+
+    /**
+     * @param index selects one of a fixed rotation of scalar types.
+     * @return a scalar {@link Variant} of a Boolean, Int32, Int64, Float, Double, String or DateTime.
+     */
+    public static Variant scalarVariant(int index) {
+        switch (index % 7) {
+            case 0:
+                return new Variant(index % 2 == 0);
+            case 1:
+                return new Variant(index);
+            case 2:
+                return new Variant((long) index << 20);
+            case 3:
+                return new Variant(index / 3.0f);
+            case 4:
+                return new Variant(index / 7.0);
+            case 5:
+                return new Variant("value-" + index);
+            default:
+                return new Variant(new DateTime(BASE_TIME + index));
+        }
+    }
+
+    /**
+     * @param index selects the type of the value, see {@link #scalarVariant(int)}.
+     * @return a {@link DataValue} with a Good status and source and server timestamps.
+     */
+    public static DataValue dataValue(int index) {
+        DateTime time = new DateTime(BASE_TIME + index);
+
+        return new DataValue(scalarVariant(index), StatusCode.GOOD, time, time);
+    }
+
+    public static Double[] doubleArray(int length) {
+        Random random = new Random(0L);
+
+        Double[] array = new Double[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextDouble();
+        }
+        return array;
+    }
+
+    public static double[] primitiveDoubleArray(int length) {
+        Random random = new Random(0L);
+
+        double[] array = new double[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextDouble();
+        }
+        return array;
+    }
+
+    public static Integer[] int32Array(int length) {
+        Random random = new Random(0L);
+
+        Integer[] array = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextInt();
+        }
+        return array;
+    }
+
+    public static String[] stringArray(int length) {
+        String[] array = new String[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = "value-" + i;
+        }
+        return array;
+    }
+
+    /**
+     * @param nodeCount the number of Value attributes to read.
+     * @return a {@link ReadRequest} reading the Value attribute of {@code nodeCount} String NodeIds.
+     */
+    public static ReadRequest readRequest(int nodeCount) {
+        ReadValueId[] nodesToRead = new ReadValueId[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodesToRead[i] = new ReadValueId(
+                new NodeId(2, "Device1/Tag" + i),
+                AttributeId.Value.uid(),
+                null,
+                null
+            );
+        }
+
+        return new ReadRequest(requestHeader(), 0.0, TimestampsToReturn.Both, nodesToRead);
+    }
+
+    /**
+     * @param resultCount the number of results.
+     * @return a {@link ReadResponse} with {@code resultCount} results of mixed types.
+     */
+    public static ReadResponse readResponse(int resultCount) {
+        DataValue[] results = new DataValue[resultCount];
+        for (int i = 0; i < resultCount; i++) {
+            results[i] = dataValue(i);
+        }
+
+        return new ReadResponse(responseHeader(), results, new DiagnosticInfo[0]);
+    }
+
+    /**
+     * @param context           the {@link SerializationContext} used to encode the notification data.
+     * @param notificationCount the number of {@link MonitoredItemNotification}s.
+     * @return a {@link PublishResponse} carrying a single {@link DataChangeNotification} with
+     * {@code notificationCount} notifications of mixed types.
+     */
+    public static PublishResponse publishResponse(SerializationContext context, int notificationCount) {
+        MonitoredItemNotification[] notifications = new MonitoredItemNotification[notificationCount];
+        for (int i = 0; i < notificationCount; i++) {
+            notifications[i] = new MonitoredItemNotification(uint(i), dataValue(i));
+        }
+
+        DataChangeNotification dataChange = new DataChangeNotification(notifications, new DiagnosticInfo[0]);
+
+        NotificationMessage notificationMessage = new NotificationMessage(
+            uint(1),
+            new DateTime(BASE_TIME),
+            new ExtensionObject[]{ExtensionObject.encode(context, dataChange)}
+        );
+
+        return new PublishResponse(
+            responseHeader(),
+            uint(1),
+            new UInteger[]{uint(1)},
+            false,
+            notificationMessage,
+            new StatusCode[0],
+            new DiagnosticInfo[0]
+        );
+    }
+
+    private static RequestHeader requestHeader() {
+        return new RequestHeader(
+            NodeId.NULL_VALUE,
+            new DateTime(BASE_TIME),
+            uint(1),
+            uint(0),
+            null,
+            uint(60000),
+            null
+        );
+    }
+
+    private static ResponseHeader responseHeader() {
+        return new ResponseHeader(
+            new DateTime(BASE_TIME),
+            uint(1),
+            StatusCode.GOOD,
+            null,
+            new String[0],
+            null
+        );
+    }
+
+}
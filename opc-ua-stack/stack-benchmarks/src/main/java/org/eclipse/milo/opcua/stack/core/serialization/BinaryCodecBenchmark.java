@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link OpcUaBinaryStreamEncoder} and {@link OpcUaBinaryStreamDecoder} throughput for:
+ * <ul>
+ *     <li>{@code Variant}: a scalar Double {@link Variant}.</li>
+ *     <li>{@code DataValue}: a {@link DataValue} with an Int32 value, status and both timestamps.</li>
+ *     <li>{@code Int32Array}, {@code DoubleArray}, {@code StringArray}: a {@link Variant} holding a 1000 element
+ *     array.</li>
+ *     <li>{@code PrimitiveDoubleArray}: a {@link Variant} holding a 1000 element {@code double[]}.</li>
+ *     <li>{@code ReadResponse}: a {@link ReadResponse} with 10000 results of mixed types.</li>
+ *     <li>{@code PublishResponse}: a {@link PublishResponse} with 10000 MonitoredItemNotifications of mixed
+ *     types.</li>
+ * </ul>
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar BinaryCodecBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinaryCodecBenchmark {
+
+    @Param({
+        "Variant",
+        "DataValue",
+        "Int32Array",
+        "DoubleArray",
+        "PrimitiveDoubleArray",
+        "StringArray",
+        "ReadResponse",
+        "PublishResponse"
+    })
+    public String payload;
+
+    private OpcUaBinaryStreamEncoder encoder;
+    private OpcUaBinaryStreamDecoder decoder;
+
+    private ByteBuf encodeBuffer;
+    private ByteBuf decodeBuffer;
+
+    private Object value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SerializationContext context = new BenchmarkSerializationContext();
+
+        encoder = new OpcUaBinaryStreamEncoder(context);
+        decoder = new OpcUaBinaryStreamDecoder(context);
+
+        switch (payload) {
+            case "Variant":
+                value = new Variant(Math.PI);
+                break;
+            case "DataValue":
+                value = BenchmarkMessages.dataValue(1);
+                break;
+            case "Int32Array":
+                value = new Variant(BenchmarkMessages.int32Array(1000));
+                break;
+            case "DoubleArray":
+                value = new Variant(BenchmarkMessages.doubleArray(1000));
+                break;
+            case "PrimitiveDoubleArray":
+                value = new Variant(BenchmarkMessages.primitiveDoubleArray(1000));
+                break;
+            case "StringArray":
+                value = new Variant(BenchmarkMessages.stringArray(1000));
+                break;
+            case "ReadResponse":
+                value = BenchmarkMessages.readResponse(10_000);
+                break;
+            case "PublishResponse":
+                value = BenchmarkMessages.publishResponse(context, 10_000);
+                break;
+            default:
+                throw new IllegalArgumentException("payload: " + payload);
+        }
+
+        encodeBuffer = BufferUtil.pooledBuffer();
+
+        decodeBuffer = BufferUtil.pooledBuffer();
+        encode(encoder.setBuffer(decodeBuffer), value);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encodeBuffer.release();
+        decodeBuffer.release();
+    }
+
+    @Benchmark
+    public ByteBuf encode() {
+        encodeBuffer.clear();
+
+        encode(encoder.setBuffer(encodeBuffer), value);
+
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public Object decode() {
+        decodeBuffer.readerIndex(0);
+
+        return decode(decoder.setBuffer(decodeBuffer));
+    }
+
+    private void encode(OpcUaBinaryStreamEncoder encoder, Object value) {
+        if (value instanceof Variant) {
+            encoder.writeVariant((Variant) value);
+        } else if (value instanceof DataValue) {
+            encoder.writeDataValue((DataValue) value);
+        } else {
+            encoder.writeMessage(null, (UaMessage) value);
+        }
+    }
+
+    private Object decode(OpcUaBinaryStreamDecoder decoder) {
+        if (value instanceof Variant) {
+            return decoder.readVariant();
+        } else if (value instanceof DataValue) {
+            return decoder.readDataValue();
+        } else {
+            return decoder.readMessage(null);
+        }
+    }
+
+}
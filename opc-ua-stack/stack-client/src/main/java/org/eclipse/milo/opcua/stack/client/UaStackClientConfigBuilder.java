@@ -37,6 +37,7 @@ public class UaStackClientConfigBuilder {
     private ClientCertificateValidator certificateValidator = new ClientCertificateValidator.InsecureValidator();
 
     private ExecutorService executor;
+    private boolean useVirtualThreads = false;
     private ScheduledExecutorService scheduledExecutor;
     private NioEventLoopGroup eventLoop;
     private HashedWheelTimer wheelTimer;
@@ -77,6 +78,21 @@ public class UaStackClientConfigBuilder {
         return this;
     }
 
+    /**
+     * Run the work done on the executor on virtual threads, if no executor is set with
+     * {@link #setExecutor(ExecutorService)}.
+     * <p>
+     * If this JVM doesn't support virtual threads, e.g. Java 8 through 20, a warning is logged and the shared thread
+     * pool is used instead.
+     *
+     * @param useVirtualThreads {@code true} to default to {@link Stack#sharedVirtualThreadExecutorIfSupported()}.
+     * @return this builder.
+     */
+    public UaStackClientConfigBuilder setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
     public UaStackClientConfigBuilder setScheduledExecutor(ScheduledExecutorService scheduledExecutor) {
         this.scheduledExecutor = scheduledExecutor;
         return this;
@@ -121,7 +137,7 @@ public class UaStackClientConfigBuilder {
         Preconditions.checkNotNull(endpoint, "endpoint must be non-null");
 
         if (executor == null) {
-            executor = Stack.sharedExecutor();
+            executor = useVirtualThreads ? Stack.sharedVirtualThreadExecutorIfSupported() : Stack.sharedExecutor();
         }
         if (scheduledExecutor == null) {
             scheduledExecutor = Stack.sharedScheduledExecutor();
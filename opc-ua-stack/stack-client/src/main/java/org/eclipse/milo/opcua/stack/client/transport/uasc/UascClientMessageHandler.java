@@ -74,12 +74,17 @@ public class UascClientMessageHandler extends ByteToMessageCodec<UaTransportRequ
 
     private List<ByteBuf> chunkBuffers = new ArrayList<>();
 
+    /**
+     * The number of chunks received so far of the SecureMessage currently being received.
+     */
+    private int secureMessageChunkCount = 0;
+
     private final AtomicReference<AsymmetricSecurityHeader> headerRef = new AtomicReference<>();
 
     private final Map<Long, UaTransportRequest> pending = Maps.newConcurrentMap();
     private final LongSequence requestIdSequence = new LongSequence(1L, UInteger.MAX_VALUE);
 
-    private ScheduledFuture renewFuture;
+    private ScheduledFuture<?> renewFuture;
     private Timeout secureChannelTimeout;
     private final int maxChunkCount;
     private final int maxChunkSize;
@@ -157,6 +162,10 @@ public class UascClientMessageHandler extends ByteToMessageCodec<UaTransportRequ
 
         handshakeFuture.completeExceptionally(exception);
 
+        // release the body of a message whose final chunk never arrived,
+        // and the chunks still queued, even if decoding was paused
+        serializationQueue.close();
+
         pending.values().forEach(request ->
             request.getFuture()
                 .completeExceptionally(exception)
@@ -610,67 +619,100 @@ public class UascClientMessageHandler extends ByteToMessageCodec<UaTransportRequ
                 "invalid secure channel id: " + secureChannelId);
         }
 
-        if (accumulateChunk(buffer)) {
-            final List<ByteBuf> buffersToDecode = chunkBuffers;
-            chunkBuffers = new ArrayList<>(maxChunkCount);
+        int chunkSize = buffer.readerIndex(0).readableBytes();
 
-            serializationQueue.decode((binaryDecoder, chunkDecoder) -> {
-                ByteBuf message;
-                long requestId;
+        if (chunkSize > maxChunkSize) {
+            throw new UaException(StatusCodes.Bad_TcpMessageTooLarge,
+                String.format("max chunk size exceeded (%s)", maxChunkSize));
+        }
 
-                try {
-                    ChunkDecoder.DecodedMessage decodedMessage =
-                        chunkDecoder.decodeSymmetric(secureChannel, buffersToDecode);
+        if (maxChunkCount > 0 && ++secureMessageChunkCount > maxChunkCount) {
+            throw new UaException(StatusCodes.Bad_TcpMessageTooLarge,
+                String.format("max chunk count exceeded (%s)", maxChunkCount));
+        }
 
-                    message = decodedMessage.getMessage();
-                    requestId = decodedMessage.getRequestId();
-                } catch (MessageAbortException e) {
-                    logger.warn(
-                        "Received message abort chunk; error={}, reason={}",
-                        e.getStatusCode(), e.getMessage()
-                    );
+        char chunkType = (char) buffer.getByte(3);
 
-                    UaTransportRequest request = pending.remove(e.getRequestId());
+        if (chunkType == 'A' || chunkType == 'F') {
+            secureMessageChunkCount = 0;
+        }
 
-                    if (request != null) {
-                        request.getFuture().completeExceptionally(e);
-                    } else {
-                        logger.warn("No pending request for requestId={}", e.getRequestId());
-                    }
-                    return;
-                } catch (MessageDecodeException e) {
-                    logger.error("Error decoding symmetric message", e);
+        // Each chunk is verified and decrypted as soon as it arrives; only the
+        // decoded body is kept until the final chunk completes the message.
+        final ByteBuf chunkBuffer = buffer.retain();
 
-                    ctx.close();
+        SerializationQueue.Decoder chunkDecodeTask = (binaryDecoder, chunkDecoder) -> {
+            ByteBuf message;
+            long requestId;
+
+            try {
+                ChunkDecoder.DecodedMessage decodedMessage =
+                    chunkDecoder.decodeSymmetricChunk(secureChannel, chunkBuffer);
+
+                if (decodedMessage == null) {
                     return;
                 }
 
+                message = decodedMessage.getMessage();
+                requestId = decodedMessage.getRequestId();
+            } catch (MessageAbortException e) {
+                logger.warn(
+                    "Received message abort chunk; error={}, reason={}",
+                    e.getStatusCode(), e.getMessage()
+                );
 
-                UaTransportRequest request = pending.remove(requestId);
+                UaTransportRequest request = pending.remove(e.getRequestId());
 
-                try {
-                    UaResponseMessage response = (UaResponseMessage) binaryDecoder
-                        .setBuffer(message)
-                        .readMessage(null);
+                if (request != null) {
+                    request.getFuture().completeExceptionally(e);
+                } else {
+                    logger.warn("No pending request for requestId={}", e.getRequestId());
+                }
+                return;
+            } catch (MessageDecodeException e) {
+                logger.error("Error decoding symmetric message", e);
 
-                    if (request != null) {
-                        request.getFuture().complete(response);
-                    } else {
-                        logger.warn(
-                            "No pending request with requestId={} for {}",
-                            requestId, response.getClass().getSimpleName()
-                        );
-                    }
-                } catch (Throwable t) {
-                    logger.error("Error decoding UaResponseMessage", t);
+                ctx.close();
+                return;
+            }
 
-                    if (request != null) {
-                        request.getFuture().completeExceptionally(t);
-                    }
-                } finally {
-                    message.release();
+            UaTransportRequest request = pending.remove(requestId);
+
+            try {
+                UaResponseMessage response = (UaResponseMessage) binaryDecoder
+                    .setBuffer(message)
+                    .readMessage(null);
+
+                if (request != null) {
+                    request.getFuture().complete(response);
+                } else {
+                    logger.warn(
+                        "No pending request with requestId={} for {}",
+                        requestId, response.getClass().getSimpleName()
+                    );
                 }
-            });
+            } catch (Throwable t) {
+                logger.error("Error decoding UaResponseMessage", t);
+
+                if (request != null) {
+                    request.getFuture().completeExceptionally(t);
+                }
+            } finally {
+                message.release();
+            }
+        };
+
+        // Intermediate chunks count towards their own, larger limit, so the
+        // chunks of a few large messages don't use up the limit on messages.
+        boolean queuedForDecode = chunkType == 'C' ?
+            serializationQueue.decodeChunk(chunkDecodeTask) :
+            serializationQueue.decode(chunkDecodeTask);
+
+        if (!queuedForDecode) {
+            chunkBuffer.release();
+
+            // drop the body accumulated for the message this chunk would have completed
+            serializationQueue.discardPartialMessage();
         }
     }
 
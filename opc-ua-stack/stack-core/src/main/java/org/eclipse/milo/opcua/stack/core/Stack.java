@@ -10,7 +10,9 @@
 
 package org.eclipse.milo.opcua.stack.core;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.SynchronousQueue;
@@ -57,8 +59,22 @@ public final class Stack {
     public static final int DEFAULT_HTTP_PORT = 8080;
     public static final int DEFAULT_HTTPS_PORT = 8443;
 
+    /**
+     * If {@code true}, and virtual threads are supported by the JVM, {@link #sharedExecutor()} is the
+     * {@link #sharedVirtualThreadExecutor()}.
+     */
+    private static final boolean VIRTUAL_THREADS =
+        Boolean.getBoolean("milo.stack.virtualThreads");
+
+    /**
+     * Whether {@link #sharedVirtualThreadExecutorIfSupported()} has already warned that virtual threads are not
+     * supported.
+     */
+    private static boolean VIRTUAL_THREADS_UNSUPPORTED_LOGGED = false;
+
     private static NioEventLoopGroup EVENT_LOOP;
     private static ExecutorService EXECUTOR_SERVICE;
+    private static ExecutorService VIRTUAL_THREAD_EXECUTOR_SERVICE;
     private static ScheduledExecutorService SCHEDULED_EXECUTOR_SERVICE;
     private static HashedWheelTimer WHEEL_TIMER;
 
@@ -85,9 +101,18 @@ public final class Stack {
     }
 
     /**
+     * Get the shared {@link ExecutorService}.
+     * <p>
+     * This is a cached thread pool, unless the {@code milo.stack.virtualThreads} system property is {@code true} and
+     * virtual threads are supported, in which case it's the {@link #sharedVirtualThreadExecutor()}.
+     *
      * @return a shared {@link ExecutorService}.
      */
     public static synchronized ExecutorService sharedExecutor() {
+        return VIRTUAL_THREADS ? sharedVirtualThreadExecutorIfSupported() : sharedThreadPool();
+    }
+
+    private static synchronized ExecutorService sharedThreadPool() {
         if (EXECUTOR_SERVICE == null) {
             ThreadFactory threadFactory = new ThreadFactory() {
                 private final AtomicLong threadNumber = new AtomicLong(0L);
@@ -127,6 +152,59 @@ public final class Stack {
         return EXECUTOR_SERVICE;
     }
 
+    /**
+     * Get a shared {@link ExecutorService} that runs each task on a new virtual thread.
+     * <p>
+     * Configure a server or client to use it with {@code setUseVirtualThreads(true)}, or
+     * {@code setExecutor(Stack.sharedVirtualThreadExecutor())}, on the config builder, so that service handlers,
+     * method invocations, sampling, and subscription delivery can block without exhausting a thread pool. Tasks
+     * submitted through an {@link org.eclipse.milo.opcua.stack.core.util.ExecutionQueue} or
+     * {@link org.eclipse.milo.opcua.stack.core.util.TaskQueue} still run serially and in order.
+     *
+     * @return a shared {@link ExecutorService} that runs each task on a new virtual thread.
+     * @throws UnsupportedOperationException if virtual threads are not supported by this JVM.
+     * @see #isVirtualThreadSupported()
+     */
+    public static synchronized ExecutorService sharedVirtualThreadExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR_SERVICE == null) {
+            VIRTUAL_THREAD_EXECUTOR_SERVICE = VirtualThreads.newExecutor("milo-virtual-thread-");
+        }
+
+        return VIRTUAL_THREAD_EXECUTOR_SERVICE;
+    }
+
+    /**
+     * Get the {@link #sharedVirtualThreadExecutor()} if this JVM supports virtual threads.
+     * <p>
+     * Otherwise, e.g. on Java 8 through 20, log a warning the first time and fall back to the shared cached thread
+     * pool.
+     *
+     * @return the {@link #sharedVirtualThreadExecutor()}, or the shared cached thread pool if virtual threads are not
+     * supported.
+     */
+    public static synchronized ExecutorService sharedVirtualThreadExecutorIfSupported() {
+        if (isVirtualThreadSupported()) {
+            return sharedVirtualThreadExecutor();
+        }
+
+        if (!VIRTUAL_THREADS_UNSUPPORTED_LOGGED) {
+            VIRTUAL_THREADS_UNSUPPORTED_LOGGED = true;
+
+            LoggerFactory.getLogger(Stack.class).warn(
+                "Virtual threads were requested but are not supported by this JVM; using the shared thread pool");
+        }
+
+        return sharedThreadPool();
+    }
+
+    /**
+     * @return {@code true} if this JVM supports virtual threads, i.e. {@link #sharedVirtualThreadExecutor()} is
+     * available.
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.SUPPORTED;
+    }
+
     /**
      * @return a shared {@link ScheduledExecutorService}.
      */
@@ -222,6 +300,10 @@ public final class Stack {
             EXECUTOR_SERVICE.shutdown();
         }
 
+        if (VIRTUAL_THREAD_EXECUTOR_SERVICE != null) {
+            VIRTUAL_THREAD_EXECUTOR_SERVICE.shutdown();
+        }
+
         if (SCHEDULED_EXECUTOR_SERVICE != null) {
             try {
                 SCHEDULED_EXECUTOR_SERVICE.awaitTermination(timeout, unit);
@@ -242,12 +324,94 @@ public final class Stack {
             EXECUTOR_SERVICE = null;
         }
 
+        if (VIRTUAL_THREAD_EXECUTOR_SERVICE != null) {
+            try {
+                VIRTUAL_THREAD_EXECUTOR_SERVICE.awaitTermination(timeout, unit);
+            } catch (InterruptedException e) {
+                LoggerFactory.getLogger(Stack.class)
+                    .warn("Interrupted awaiting virtual thread executor service shutdown.", e);
+            }
+            VIRTUAL_THREAD_EXECUTOR_SERVICE = null;
+        }
+
         if (WHEEL_TIMER != null) {
             WHEEL_TIMER.stop().forEach(Timeout::cancel);
             WHEEL_TIMER = null;
         }
     }
 
+    /**
+     * Creates virtual thread executors reflectively, so the stack can still be built for and run on Java 8.
+     */
+    private static final class VirtualThreads {
+
+        private static final Method OF_VIRTUAL;
+        private static final Method BUILDER_NAME;
+        private static final Method BUILDER_UNCAUGHT_EXCEPTION_HANDLER;
+        private static final Method BUILDER_FACTORY;
+        private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+        static final boolean SUPPORTED;
+
+        static {
+            Method ofVirtual = null;
+            Method builderName = null;
+            Method builderUncaughtExceptionHandler = null;
+            Method builderFactory = null;
+            Method newThreadPerTaskExecutor = null;
+
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                builderName = builderClass.getMethod("name", String.class, long.class);
+                builderUncaughtExceptionHandler = builderClass.getMethod(
+                    "uncaughtExceptionHandler",
+                    Thread.UncaughtExceptionHandler.class
+                );
+                builderFactory = builderClass.getMethod("factory");
+                newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+                // preview APIs exist but throw on JVMs without --enable-preview
+                ofVirtual.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                ofVirtual = null;
+            }
+
+            OF_VIRTUAL = ofVirtual;
+            BUILDER_NAME = builderName;
+            BUILDER_UNCAUGHT_EXCEPTION_HANDLER = builderUncaughtExceptionHandler;
+            BUILDER_FACTORY = builderFactory;
+            NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+            SUPPORTED = ofVirtual != null;
+        }
+
+        private VirtualThreads() {}
+
+        static ExecutorService newExecutor(String namePrefix) {
+            if (!SUPPORTED) {
+                throw new UnsupportedOperationException("virtual threads are not supported by this JVM");
+            }
+
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                builder = BUILDER_NAME.invoke(builder, namePrefix, 0L);
+                builder = BUILDER_UNCAUGHT_EXCEPTION_HANDLER.invoke(
+                    builder,
+                    (Thread.UncaughtExceptionHandler) (t, e) ->
+                        LoggerFactory.getLogger(Stack.class)
+                            .error("Uncaught Exception on shared stack virtual thread!", e)
+                );
+                ThreadFactory threadFactory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("virtual threads are not supported by this JVM", e);
+            }
+        }
+
+    }
+
     public static final class ConnectionLimits {
 
         private ConnectionLimits() {}
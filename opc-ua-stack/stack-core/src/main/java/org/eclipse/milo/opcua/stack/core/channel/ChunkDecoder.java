@@ -19,9 +19,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
+import javax.crypto.Mac;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
@@ -33,10 +33,10 @@ import org.eclipse.milo.opcua.stack.core.channel.headers.SecureMessageHeader;
 import org.eclipse.milo.opcua.stack.core.channel.headers.SequenceHeader;
 import org.eclipse.milo.opcua.stack.core.channel.headers.SymmetricSecurityHeader;
 import org.eclipse.milo.opcua.stack.core.channel.messages.ErrorMessage;
-import org.eclipse.milo.opcua.stack.core.security.SecurityAlgorithm;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
 import org.eclipse.milo.opcua.stack.core.util.SignatureUtil;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +49,23 @@ public final class ChunkDecoder {
 
     private volatile long lastSequenceNumber = -1L;
 
+    /**
+     * The body of the symmetric message being decoded by {@link #decodeSymmetricChunk(SecureChannel, ByteBuf)}, or
+     * {@code null} if there is none.
+     */
+    private ByteBuf partialMessage;
+
+    /**
+     * {@code true} if a chunk of the symmetric message being decoded failed and its remaining chunks are to be
+     * discarded.
+     */
+    private boolean discardingMessage = false;
+
+    /**
+     * {@code true} once the channel has closed and chunks are only released, not decoded.
+     */
+    private volatile boolean closed = false;
+
     private final ChannelParameters parameters;
     private final EncodingLimits encodingLimits;
 
@@ -80,6 +97,116 @@ public final class ChunkDecoder {
         return decode(symmetricDecoder, channel, chunkBuffers);
     }
 
+    /**
+     * Verify and decrypt a single chunk of a symmetric message and append its body to the message being decoded.
+     * <p>
+     * Chunks are decoded as they arrive, so only the decoded message body is held until the final chunk, rather than
+     * every chunk. {@code chunkBuffer} is always released.
+     * <p>
+     * If a chunk fails to decode the remaining chunks of its message are discarded.
+     *
+     * @param channel     the {@link SecureChannel} the chunk was received on.
+     * @param chunkBuffer the chunk.
+     * @return the {@link DecodedMessage} if {@code chunkBuffer} was the final chunk, otherwise {@code null}.
+     * @throws MessageAbortException if {@code chunkBuffer} was an abort chunk.
+     * @throws MessageDecodeException if {@code chunkBuffer} could not be decoded.
+     */
+    @Nullable
+    public DecodedMessage decodeSymmetricChunk(
+        SecureChannel channel,
+        ByteBuf chunkBuffer
+    ) throws MessageAbortException, MessageDecodeException {
+
+        char chunkType = (char) chunkBuffer.getByte(3);
+        boolean finalChunk = chunkType == 'F' || chunkType == 'A';
+
+        try {
+            if (closed) {
+                discardPartialMessage(false);
+                return null;
+            }
+
+            if (discardingMessage) {
+                discardingMessage = !finalChunk;
+                return null;
+            }
+
+            validateSymmetricSecurityHeader(channel, chunkBuffer);
+
+            if (partialMessage == null) {
+                partialMessage = BufferUtil.pooledBuffer();
+            }
+
+            long requestId = symmetricDecoder.decodeChunk(channel, chunkBuffer, partialMessage::writeBytes);
+
+            checkMessageSize(partialMessage.readableBytes());
+
+            if (finalChunk) {
+                ByteBuf message = partialMessage;
+                partialMessage = null;
+
+                return new DecodedMessage(message, requestId);
+            } else {
+                return null;
+            }
+        } catch (MessageAbortException e) {
+            discardPartialMessage(false);
+            throw e;
+        } catch (UaException e) {
+            discardPartialMessage(!finalChunk);
+            throw new MessageDecodeException(e);
+        } finally {
+            chunkBuffer.release();
+        }
+    }
+
+    /**
+     * Release the body of the symmetric message being decoded by
+     * {@link #decodeSymmetricChunk(SecureChannel, ByteBuf)}, if any, e.g. because the channel was closed before its
+     * final chunk arrived.
+     */
+    public void discardPartialMessage() {
+        discardPartialMessage(false);
+    }
+
+    /**
+     * Stop decoding symmetric chunks because the channel they arrive on has closed; every chunk passed to
+     * {@link #decodeSymmetricChunk(SecureChannel, ByteBuf)} from now on is released without being decoded.
+     * <p>
+     * Unlike the other methods this may be called from any thread. The body of the message being decoded is released
+     * by the next call to {@link #decodeSymmetricChunk(SecureChannel, ByteBuf)} or {@link #discardPartialMessage()}.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * @return {@code true} if some, but not all, chunks of a symmetric message have been decoded and its body is
+     * being held.
+     */
+    public boolean isMessageInProgress() {
+        return partialMessage != null;
+    }
+
+    private void discardPartialMessage(boolean discardRemainingChunks) {
+        if (partialMessage != null) {
+            partialMessage.release();
+            partialMessage = null;
+        }
+
+        discardingMessage = discardRemainingChunks;
+    }
+
+    private void checkMessageSize(int messageSize) throws UaException {
+        if (parameters.getLocalMaxMessageSize() > 0 && messageSize > parameters.getLocalMaxMessageSize()) {
+            String errorMessage = String.format(
+                "message size exceeds configured limit: %s > %s",
+                messageSize, parameters.getLocalMaxMessageSize());
+
+            throw new UaException(StatusCodes.Bad_TcpMessageTooLarge, errorMessage);
+        }
+    }
+
     private static DecodedMessage decode(
         AbstractDecoder decoder,
         SecureChannel channel,
@@ -113,18 +240,41 @@ public final class ChunkDecoder {
             .orElse(-1L);
 
         for (ByteBuf chunkBuffer : chunkBuffers) {
-            // tokenId starts after messageType + chunkType + messageSize + secureChannelId
-            long tokenId = chunkBuffer.getUnsignedIntLE(3 + 1 + 4 + 4);
-
-            if (tokenId != currentTokenId && tokenId != previousTokenId) {
-                String message = String.format(
-                    "received unknown secure channel token: " +
-                        "tokenId=%s currentTokenId=%s previousTokenId=%s",
-                    tokenId, currentTokenId, previousTokenId
-                );
+            validateSymmetricSecurityHeader(chunkBuffer, currentTokenId, previousTokenId);
+        }
+    }
 
-                throw new UaException(StatusCodes.Bad_SecureChannelTokenUnknown, message);
-            }
+    private static void validateSymmetricSecurityHeader(
+        SecureChannel secureChannel,
+        ByteBuf chunkBuffer
+    ) throws UaException {
+
+        ChannelSecurity channelSecurity = secureChannel.getChannelSecurity();
+        long currentTokenId = channelSecurity.getCurrentToken().getTokenId().longValue();
+        long previousTokenId = channelSecurity.getPreviousToken()
+            .map(t -> t.getTokenId().longValue())
+            .orElse(-1L);
+
+        validateSymmetricSecurityHeader(chunkBuffer, currentTokenId, previousTokenId);
+    }
+
+    private static void validateSymmetricSecurityHeader(
+        ByteBuf chunkBuffer,
+        long currentTokenId,
+        long previousTokenId
+    ) throws UaException {
+
+        // tokenId starts after messageType + chunkType + messageSize + secureChannelId
+        long tokenId = chunkBuffer.getUnsignedIntLE(3 + 1 + 4 + 4);
+
+        if (tokenId != currentTokenId && tokenId != previousTokenId) {
+            String message = String.format(
+                "received unknown secure channel token: " +
+                    "tokenId=%s currentTokenId=%s previousTokenId=%s",
+                tokenId, currentTokenId, previousTokenId
+            );
+
+            throw new UaException(StatusCodes.Bad_SecureChannelTokenUnknown, message);
         }
     }
 
@@ -161,88 +311,99 @@ public final class ChunkDecoder {
             List<ByteBuf> chunkBuffers
         ) throws MessageAbortException, UaException {
 
+            long requestId = -1L;
+
+            for (ByteBuf chunkBuffer : chunkBuffers) {
+                requestId = decodeChunk(channel, chunkBuffer, bodyBuffer -> {
+                    composite.addComponent(bodyBuffer);
+                    composite.writerIndex(composite.writerIndex() + bodyBuffer.readableBytes());
+                });
+            }
+
+            checkMessageSize(composite.readableBytes());
+
+            return new DecodedMessage(composite, requestId);
+        }
+
+        /**
+         * Verify and decrypt {@code chunkBuffer}, check its sequence number, and pass its body, a slice of
+         * {@code chunkBuffer}, to {@code bodyConsumer}.
+         *
+         * @return the request id from the chunk's sequence header.
+         */
+        long decodeChunk(
+            SecureChannel channel,
+            ByteBuf chunkBuffer,
+            Consumer<ByteBuf> bodyConsumer
+        ) throws MessageAbortException, UaException {
+
             int signatureSize = getSignatureSize(channel);
             int cipherTextBlockSize = getCipherTextBlockSize(channel);
 
             boolean encrypted = isEncryptionEnabled(channel);
             boolean signed = isSigningEnabled(channel);
 
-            long requestId = -1L;
-
-            for (ByteBuf chunkBuffer : chunkBuffers) {
-                final char chunkType = (char) chunkBuffer.getByte(3);
+            final char chunkType = (char) chunkBuffer.getByte(3);
 
-                chunkBuffer.skipBytes(SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE);
+            chunkBuffer.skipBytes(SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE);
 
-                readSecurityHeader(channel, chunkBuffer);
+            readSecurityHeader(channel, chunkBuffer);
 
-                if (encrypted) {
-                    decryptChunk(channel, chunkBuffer);
-                }
+            if (encrypted) {
+                decryptChunk(channel, chunkBuffer);
+            }
 
-                int encryptedStart = chunkBuffer.readerIndex();
-                chunkBuffer.readerIndex(0);
+            int encryptedStart = chunkBuffer.readerIndex();
+            chunkBuffer.readerIndex(0);
 
-                if (signed) {
-                    verifyChunk(channel, chunkBuffer);
-                }
+            if (signed) {
+                verifyChunk(channel, chunkBuffer);
+            }
 
-                final int paddingOverhead = encrypted ? (cipherTextBlockSize > 256 ? 2 : 1) : 0;
-                final int paddingSize = encrypted ? getPaddingSize(cipherTextBlockSize, signatureSize, chunkBuffer) : 0;
-                final int bodyEnd = chunkBuffer.readableBytes() - signatureSize - paddingOverhead - paddingSize;
+            final int paddingOverhead = encrypted ? (cipherTextBlockSize > 256 ? 2 : 1) : 0;
+            final int paddingSize = encrypted ? getPaddingSize(cipherTextBlockSize, signatureSize, chunkBuffer) : 0;
+            final int bodyEnd = chunkBuffer.readableBytes() - signatureSize - paddingOverhead - paddingSize;
 
-                chunkBuffer.readerIndex(encryptedStart);
+            chunkBuffer.readerIndex(encryptedStart);
 
-                SequenceHeader sequenceHeader = SequenceHeader.decode(chunkBuffer);
-                long sequenceNumber = sequenceHeader.getSequenceNumber();
-                requestId = sequenceHeader.getRequestId();
+            SequenceHeader sequenceHeader = SequenceHeader.decode(chunkBuffer);
+            long sequenceNumber = sequenceHeader.getSequenceNumber();
+            long requestId = sequenceHeader.getRequestId();
 
-                if (!validateSequenceNumber(lastSequenceNumber, sequenceNumber)) {
-                    throw new UaException(
-                        StatusCodes.Bad_SecurityChecksFailed,
-                        String.format(
-                            "bad sequence number: %s, lastSequenceNumber=%s", sequenceNumber, lastSequenceNumber)
-                    );
-                }
+            if (!validateSequenceNumber(lastSequenceNumber, sequenceNumber)) {
+                throw new UaException(
+                    StatusCodes.Bad_SecurityChecksFailed,
+                    String.format(
+                        "bad sequence number: %s, lastSequenceNumber=%s", sequenceNumber, lastSequenceNumber)
+                );
+            }
 
-                lastSequenceNumber = sequenceNumber;
+            lastSequenceNumber = sequenceNumber;
 
-                ByteBuf bodyBuffer = chunkBuffer.readSlice(bodyEnd - chunkBuffer.readerIndex());
+            ByteBuf bodyBuffer = chunkBuffer.readSlice(bodyEnd - chunkBuffer.readerIndex());
 
-                if (encrypted) {
-                    int expectedPaddingSize = chunkBuffer.readableBytes() - signatureSize - paddingOverhead;
-                    if (paddingSize != expectedPaddingSize) {
-                        throw new UaException(StatusCodes.Bad_SecurityChecksFailed, "bad padding size");
-                    }
-                    byte expectedPaddingByte = (byte) (paddingSize & 0xFF);
-                    for (int i = chunkBuffer.readerIndex(); i < chunkBuffer.readerIndex() + paddingSize + 1; i++) {
-                        if (chunkBuffer.getByte(i) != expectedPaddingByte) {
-                            throw new UaException(StatusCodes.Bad_SecurityChecksFailed, "bad padding sequence");
-                        }
-                    }
+            if (encrypted) {
+                int expectedPaddingSize = chunkBuffer.readableBytes() - signatureSize - paddingOverhead;
+                if (paddingSize != expectedPaddingSize) {
+                    throw new UaException(StatusCodes.Bad_SecurityChecksFailed, "bad padding size");
                 }
-
-                if (chunkType == 'A') {
-                    ErrorMessage errorMessage = ErrorMessage.decode(bodyBuffer);
-
-                    throw new MessageAbortException(errorMessage.getReason(), requestId, errorMessage.getError());
+                byte expectedPaddingByte = (byte) (paddingSize & 0xFF);
+                for (int i = chunkBuffer.readerIndex(); i < chunkBuffer.readerIndex() + paddingSize + 1; i++) {
+                    if (chunkBuffer.getByte(i) != expectedPaddingByte) {
+                        throw new UaException(StatusCodes.Bad_SecurityChecksFailed, "bad padding sequence");
+                    }
                 }
-
-                composite.addComponent(bodyBuffer);
-                composite.writerIndex(composite.writerIndex() + bodyBuffer.readableBytes());
             }
 
-            if (parameters.getLocalMaxMessageSize() > 0 &&
-                composite.readableBytes() > parameters.getLocalMaxMessageSize()) {
+            if (chunkType == 'A') {
+                ErrorMessage errorMessage = ErrorMessage.decode(bodyBuffer);
 
-                String errorMessage = String.format(
-                    "message size exceeds configured limit: %s > %s",
-                    composite.readableBytes(), parameters.getLocalMaxMessageSize());
-
-                throw new UaException(StatusCodes.Bad_TcpMessageTooLarge, errorMessage);
+                throw new MessageAbortException(errorMessage.getReason(), requestId, errorMessage.getError());
             }
 
-            return new DecodedMessage(composite, requestId);
+            bodyConsumer.accept(bodyBuffer);
+
+            return requestId;
         }
 
         private void decryptChunk(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
@@ -352,7 +513,7 @@ public final class ChunkDecoder {
             ((Buffer) chunkNioBuffer).limit(chunkBuffer.writerIndex() - signatureSize);
 
             try {
-                Signature signature = Signature.getInstance(transformation);
+                Signature signature = SignatureUtil.getSignatureInstance(transformation);
 
                 signature.initVerify(channel.getRemoteCertificate().getPublicKey());
                 signature.update(chunkNioBuffer);
@@ -393,8 +554,9 @@ public final class ChunkDecoder {
     private final class SymmetricDecoder extends AbstractDecoder {
 
         private volatile ChannelSecurity.SecurityKeys securityKeys;
+        private volatile ChannelSecurity.SecurityKeys initializedKeys;
         private volatile Cipher cipher = null;
-        private volatile long cipherId = -1;
+        private volatile Mac mac = null;
 
         @Override
         public void readSecurityHeader(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
@@ -433,17 +595,29 @@ public final class ChunkDecoder {
                     }
                 }
 
-                if (cipherId != receivedTokenId && channel.isSymmetricEncryptionEnabled()) {
-                    cipher = initCipher(channel);
-                    cipherId = receivedTokenId;
+                if (securityKeys != initializedKeys) {
+                    // Keys change when the channel is renewed, or when a chunk secured with the
+                    // previous token arrives; re-initialize the Cipher and Mac only then.
+                    if (channel.isSymmetricEncryptionEnabled()) {
+                        cipher = initCipher(channel);
+                    }
+                    if (channel.isSymmetricSigningEnabled()) {
+                        mac = initMac(channel);
+                    }
+                    initializedKeys = securityKeys;
                 }
             }
         }
 
         @Override
-        public Cipher getCipher(SecureChannel channel) {
-            assert cipher != null;
-            return cipher;
+        public Cipher getCipher(SecureChannel channel) throws UaException {
+            Cipher c = cipher;
+
+            if (c == null) {
+                throw new UaException(StatusCodes.Bad_InternalError, "symmetric Cipher not initialized");
+            }
+
+            return c;
         }
 
         @Override
@@ -458,15 +632,20 @@ public final class ChunkDecoder {
 
         @Override
         public void verifyChunk(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
-            SecurityAlgorithm securityAlgorithm = channel.getSecurityPolicy().getSymmetricSignatureAlgorithm();
-            byte[] secretKey = channel.getDecryptionKeys(securityKeys).getSignatureKey();
+            Mac mac = this.mac;
+
+            if (mac == null) {
+                throw new UaException(StatusCodes.Bad_InternalError, "symmetric Mac not initialized");
+            }
+
             int signatureSize = channel.getSymmetricSignatureSize();
 
             ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
             ((Buffer) chunkNioBuffer).position(0);
             ((Buffer) chunkNioBuffer).limit(chunkBuffer.writerIndex() - signatureSize);
 
-            byte[] signature = SignatureUtil.hmac(securityAlgorithm, secretKey, chunkNioBuffer);
+            mac.update(chunkNioBuffer);
+            byte[] signature = mac.doFinal();
 
             byte[] signatureBytes = new byte[signatureSize];
             ((Buffer) chunkNioBuffer).limit(chunkNioBuffer.position() + signatureSize);
@@ -493,22 +672,15 @@ public final class ChunkDecoder {
         }
 
         private Cipher initCipher(SecureChannel channel) throws UaException {
-            try {
-                String transformation = channel.getSecurityPolicy()
-                    .getSymmetricEncryptionAlgorithm().getTransformation();
-
-                ChannelSecurity.SecretKeys decryptionKeys = channel.getDecryptionKeys(securityKeys);
-
-                SecretKeySpec keySpec = new SecretKeySpec(decryptionKeys.getEncryptionKey(), "AES");
-                IvParameterSpec ivSpec = new IvParameterSpec(decryptionKeys.getInitializationVector());
-
-                Cipher cipher = Cipher.getInstance(transformation);
-                cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
+            return SymmetricCryptoFactory.createCipher(
+                channel,
+                channel.getDecryptionKeys(securityKeys),
+                Cipher.DECRYPT_MODE
+            );
+        }
 
-                return cipher;
-            } catch (GeneralSecurityException e) {
-                throw new UaException(StatusCodes.Bad_InternalError, e);
-            }
+        private Mac initMac(SecureChannel channel) throws UaException {
+            return SymmetricCryptoFactory.createMac(channel, channel.getDecryptionKeys(securityKeys));
         }
 
     }
@@ -16,10 +16,17 @@ import java.security.GeneralSecurityException;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
+import javax.crypto.Mac;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCountUtil;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
@@ -29,11 +36,11 @@ import org.eclipse.milo.opcua.stack.core.channel.headers.SecureMessageHeader;
 import org.eclipse.milo.opcua.stack.core.channel.headers.SequenceHeader;
 import org.eclipse.milo.opcua.stack.core.channel.headers.SymmetricSecurityHeader;
 import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
-import org.eclipse.milo.opcua.stack.core.security.SecurityAlgorithm;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
 import org.eclipse.milo.opcua.stack.core.util.LongSequence;
 import org.eclipse.milo.opcua.stack.core.util.SignatureUtil;
+import org.jetbrains.annotations.Nullable;
 
 import static org.eclipse.milo.opcua.stack.core.channel.headers.SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE;
 import static org.eclipse.milo.opcua.stack.core.channel.headers.SequenceHeader.SEQUENCE_HEADER_SIZE;
@@ -49,9 +56,29 @@ public final class ChunkEncoder {
     private final LongSequence sequenceNumber = new LongSequence(1L, UInteger.MAX_VALUE - 1024 + 1);
 
     private final ChannelParameters parameters;
+    private final Executor executor;
+    private final int parallelThreshold;
 
     public ChunkEncoder(ChannelParameters parameters) {
+        this(parameters, null, 0);
+    }
+
+    /**
+     * Create a {@link ChunkEncoder} that signs and encrypts the chunks of large messages in parallel.
+     * <p>
+     * Sequence numbers are still assigned, and chunks returned, in order; only the signing and encryption of each
+     * chunk is spread across {@code executor}. The encoding thread always takes part, so progress does not depend
+     * on {@code executor} having a free thread.
+     *
+     * @param parameters        the {@link ChannelParameters}.
+     * @param executor          the {@link Executor} to sign and encrypt chunks on.
+     * @param parallelThreshold the minimum number of chunks a message must have to be signed and encrypted in
+     *                          parallel, or 0 to disable parallel encoding.
+     */
+    public ChunkEncoder(ChannelParameters parameters, @Nullable Executor executor, int parallelThreshold) {
         this.parameters = parameters;
+        this.executor = executor;
+        this.parallelThreshold = parallelThreshold;
     }
 
     public EncodedMessage encodeAsymmetric(
@@ -75,7 +102,7 @@ public final class ChunkEncoder {
     }
 
     private EncodedMessage encode(
-        AbstractEncoder encoder,
+        AbstractEncoder<?> encoder,
         SecureChannel channel,
         long requestId,
         ByteBuf messageBuffer,
@@ -93,7 +120,7 @@ public final class ChunkEncoder {
         }
     }
 
-    private abstract class AbstractEncoder {
+    private abstract class AbstractEncoder<C> {
 
         EncodedMessage encode(
             List<ByteBuf> chunks,
@@ -181,57 +208,154 @@ public final class ChunkEncoder {
                 if (encrypted) {
                     writePadding(cipherTextBlockSize, paddingSize, chunkBuffer);
                 }
+            }
 
-                if (isSigningEnabled(channel)) {
-                    ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
-
-                    byte[] signature = signChunk(channel, chunkNioBuffer);
+            if (isSigningEnabled(channel) || encrypted) {
+                if (executor != null && parallelThreshold > 0 && chunks.size() >= parallelThreshold) {
+                    secureChunksInParallel(channel, chunks, securityHeaderSize);
+                } else {
+                    C crypto = acquireCrypto(channel);
 
-                    chunkBuffer.writeBytes(signature);
+                    try {
+                        for (ByteBuf chunkBuffer : chunks) {
+                            secureChunk(channel, crypto, chunkBuffer, securityHeaderSize);
+                        }
+                    } finally {
+                        releaseCrypto(crypto);
+                    }
                 }
+            }
 
-                /* Encryption */
-                if (encrypted) {
-                    chunkBuffer.readerIndex(SECURE_MESSAGE_HEADER_SIZE + securityHeaderSize);
+            return new EncodedMessage(chunks, requestId);
+        }
 
-                    assert (chunkBuffer.readableBytes() % plainTextBlockSize == 0);
+        /**
+         * Sign and encrypt {@code chunks} using this thread and as many threads from {@code executor} as there are
+         * processors, each claiming the next chunk not yet claimed.
+         */
+        private void secureChunksInParallel(
+            SecureChannel channel,
+            List<ByteBuf> chunks,
+            int securityHeaderSize
+        ) throws UaException {
+
+            int chunkCount = chunks.size();
 
+            AtomicInteger nextChunk = new AtomicInteger(0);
+            CountDownLatch remaining = new CountDownLatch(chunkCount);
+            AtomicReference<UaException> failure = new AtomicReference<>();
+
+            Runnable worker = () -> {
+                C crypto = null;
+                boolean acquired = false;
+
+                int index;
+                while ((index = nextChunk.getAndIncrement()) < chunkCount) {
                     try {
-                        int blockCount = chunkBuffer.readableBytes() / plainTextBlockSize;
+                        if (failure.get() == null) {
+                            if (!acquired) {
+                                crypto = acquireCrypto(channel);
+                                acquired = true;
+                            }
 
-                        ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(
-                            chunkBuffer.readerIndex(), blockCount * cipherTextBlockSize);
+                            secureChunk(channel, crypto, chunks.get(index), securityHeaderSize);
+                        }
+                    } catch (UaException e) {
+                        failure.compareAndSet(null, e);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, new UaException(StatusCodes.Bad_InternalError, t));
+                    } finally {
+                        remaining.countDown();
+                    }
+                }
 
-                        ByteBuf copyBuffer = chunkBuffer.copy();
-                        ByteBuffer plainTextNioBuffer = copyBuffer.nioBuffer();
+                if (acquired) {
+                    releaseCrypto(crypto);
+                }
+            };
 
-                        Cipher cipher = getCipher(channel);
+            int helperCount = Math.min(chunkCount, Runtime.getRuntime().availableProcessors()) - 1;
 
-                        if (isAsymmetric()) {
-                            for (int blockNumber = 0; blockNumber < blockCount; blockNumber++) {
-                                int position = blockNumber * plainTextBlockSize;
-                                int limit = (blockNumber + 1) * plainTextBlockSize;
-                                ((Buffer) plainTextNioBuffer).position(position);
-                                ((Buffer) plainTextNioBuffer).limit(limit);
+            for (int i = 0; i < helperCount; i++) {
+                try {
+                    executor.execute(worker);
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
 
-                                int bytesWritten = cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
+            worker.run();
 
-                                assert (bytesWritten == cipherTextBlockSize);
-                            }
-                        } else {
-                            cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
-                        }
+            // Chunks claimed by helpers may still be in progress; they must be
+            // finished before the chunks are returned or released.
+            Uninterruptibles.awaitUninterruptibly(remaining);
+
+            UaException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        private void secureChunk(
+            SecureChannel channel,
+            C crypto,
+            ByteBuf chunkBuffer,
+            int securityHeaderSize
+        ) throws UaException {
+
+            if (isSigningEnabled(channel)) {
+                ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
+
+                byte[] signature = signChunk(channel, crypto, chunkNioBuffer);
+
+                chunkBuffer.writeBytes(signature);
+            }
+
+            int chunkSize = chunkBuffer.writerIndex();
+
+            if (isEncryptionEnabled(channel)) {
+                int cipherTextBlockSize = getCipherTextBlockSize(channel);
+                int plainTextBlockSize = getPlainTextBlockSize(channel);
+
+                chunkBuffer.readerIndex(SECURE_MESSAGE_HEADER_SIZE + securityHeaderSize);
 
-                        copyBuffer.release();
-                    } catch (GeneralSecurityException e) {
-                        throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+                assert (chunkBuffer.readableBytes() % plainTextBlockSize == 0);
+
+                try {
+                    int blockCount = chunkBuffer.readableBytes() / plainTextBlockSize;
+
+                    chunkSize = chunkBuffer.readerIndex() + blockCount * cipherTextBlockSize;
+
+                    ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(
+                        chunkBuffer.readerIndex(), blockCount * cipherTextBlockSize);
+
+                    ByteBuf copyBuffer = chunkBuffer.copy();
+                    ByteBuffer plainTextNioBuffer = copyBuffer.nioBuffer();
+
+                    Cipher cipher = getCipher(channel, crypto);
+
+                    if (isAsymmetric()) {
+                        for (int blockNumber = 0; blockNumber < blockCount; blockNumber++) {
+                            int position = blockNumber * plainTextBlockSize;
+                            int limit = (blockNumber + 1) * plainTextBlockSize;
+                            ((Buffer) plainTextNioBuffer).position(position);
+                            ((Buffer) plainTextNioBuffer).limit(limit);
+
+                            int bytesWritten = cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
+
+                            assert (bytesWritten == cipherTextBlockSize);
+                        }
+                    } else {
+                        cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
                     }
-                }
 
-                chunkBuffer.readerIndex(0).writerIndex(chunkSize);
+                    copyBuffer.release();
+                } catch (GeneralSecurityException e) {
+                    throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+                }
             }
 
-            return new EncodedMessage(chunks, requestId);
+            chunkBuffer.readerIndex(0).writerIndex(chunkSize);
         }
 
         private void writePadding(int cipherTextBlockSize, int paddingSize, ByteBuf buffer) {
@@ -249,11 +373,23 @@ public final class ChunkEncoder {
             }
         }
 
-        protected abstract byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) throws UaException;
+        /**
+         * Get the crypto state used to sign and encrypt chunks of the message currently being encoded. Each thread
+         * securing chunks in parallel acquires its own.
+         */
+        protected abstract C acquireCrypto(SecureChannel channel) throws UaException;
+
+        protected abstract void releaseCrypto(C crypto);
+
+        protected abstract byte[] signChunk(
+            SecureChannel channel,
+            C crypto,
+            ByteBuffer chunkNioBuffer
+        ) throws UaException;
 
         protected abstract void encodeSecurityHeader(SecureChannel channel, ByteBuf buffer) throws UaException;
 
-        protected abstract Cipher getCipher(SecureChannel channel) throws UaException;
+        protected abstract Cipher getCipher(SecureChannel channel, C crypto) throws UaException;
 
         protected abstract int getSecurityHeaderSize(SecureChannel channel) throws UaException;
 
@@ -294,10 +430,18 @@ public final class ChunkEncoder {
 
     }
 
-    private final class AsymmetricEncoder extends AbstractEncoder {
+    private final class AsymmetricEncoder extends AbstractEncoder<Void> {
+
+        @Override
+        protected Void acquireCrypto(SecureChannel channel) {
+            return null;
+        }
+
+        @Override
+        protected void releaseCrypto(Void crypto) {}
 
         @Override
-        public byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) throws UaException {
+        public byte[] signChunk(SecureChannel channel, Void crypto, ByteBuffer chunkNioBuffer) throws UaException {
             return SignatureUtil.sign(
                 channel.getSecurityPolicy().getAsymmetricSignatureAlgorithm(),
                 channel.getKeyPair().getPrivate(),
@@ -306,7 +450,7 @@ public final class ChunkEncoder {
         }
 
         @Override
-        public Cipher getCipher(SecureChannel channel) throws UaException {
+        public Cipher getCipher(SecureChannel channel, Void crypto) throws UaException {
             Certificate remoteCertificate = channel.getRemoteCertificate();
 
             assert (remoteCertificate != null);
@@ -376,43 +520,89 @@ public final class ChunkEncoder {
 
     }
 
-    private final class SymmetricEncoder extends AbstractEncoder {
+    private final class SymmetricEncoder extends AbstractEncoder<SymmetricCrypto> {
 
+        /**
+         * Initialized {@link SymmetricCrypto}s not currently in use. Usually holds just one, unless chunks are being
+         * secured in parallel.
+         */
+        private final Queue<SymmetricCrypto> cryptoPool = new ConcurrentLinkedQueue<>();
+
+        private volatile ChannelSecurity channelSecurity;
         private volatile ChannelSecurity.SecurityKeys securityKeys;
-        private volatile Cipher cipher = null;
-        private volatile long cipherId = -1;
 
         @Override
-        public void encodeSecurityHeader(SecureChannel channel, ByteBuf buffer) throws UaException {
-            ChannelSecurity channelSecurity = channel.getChannelSecurity();
+        EncodedMessage encode(
+            List<ByteBuf> chunks,
+            SecureChannel channel,
+            long requestId,
+            ByteBuf messageBuffer,
+            MessageType messageType
+        ) throws UaException {
+
+            // All chunks of a message are secured with the same token, even if
+            // the channel is renewed while the message is being encoded.
+            channelSecurity = channel.getChannelSecurity();
+            securityKeys = channelSecurity != null ? channelSecurity.getCurrentKeys() : null;
+
+            return super.encode(chunks, channel, requestId, messageBuffer, messageType);
+        }
+
+        @Override
+        public void encodeSecurityHeader(SecureChannel channel, ByteBuf buffer) {
             long tokenId = channelSecurity != null ? channelSecurity.getCurrentToken().getTokenId().longValue() : 0L;
 
             SymmetricSecurityHeader.encode(new SymmetricSecurityHeader(tokenId), buffer);
+        }
 
-            securityKeys = channelSecurity != null ? channelSecurity.getCurrentKeys() : null;
+        @Override
+        protected SymmetricCrypto acquireCrypto(SecureChannel channel) throws UaException {
+            SymmetricCrypto crypto;
+            while ((crypto = cryptoPool.poll()) != null) {
+                if (crypto.securityKeys == securityKeys) {
+                    return crypto;
+                }
+                // Otherwise it was initialized with keys from before the channel
+                // was renewed and is dropped.
+            }
 
-            if (cipherId != tokenId && channel.isSymmetricEncryptionEnabled()) {
-                cipher = initCipher(channel);
-                cipherId = tokenId;
+            return new SymmetricCrypto(
+                securityKeys,
+                channel.isSymmetricEncryptionEnabled() ? initCipher(channel) : null,
+                channel.isSymmetricSigningEnabled() ? initMac(channel) : null
+            );
+        }
+
+        @Override
+        protected void releaseCrypto(SymmetricCrypto crypto) {
+            if (crypto.securityKeys == securityKeys) {
+                cryptoPool.offer(crypto);
             }
         }
 
         @Override
-        public byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) throws UaException {
-            SecurityAlgorithm signatureAlgorithm = channel.getSecurityPolicy().getSymmetricSignatureAlgorithm();
-            byte[] signatureKey = channel.getEncryptionKeys(securityKeys).getSignatureKey();
+        public byte[] signChunk(
+            SecureChannel channel,
+            SymmetricCrypto crypto,
+            ByteBuffer chunkNioBuffer
+        ) throws UaException {
 
-            return SignatureUtil.hmac(
-                signatureAlgorithm,
-                signatureKey,
-                chunkNioBuffer
-            );
+            if (crypto.mac == null) {
+                throw new UaException(StatusCodes.Bad_InternalError, "symmetric Mac not initialized");
+            }
+
+            crypto.mac.update(chunkNioBuffer);
+
+            return crypto.mac.doFinal();
         }
 
         @Override
-        public Cipher getCipher(SecureChannel channel) {
-            assert cipher != null;
-            return cipher;
+        public Cipher getCipher(SecureChannel channel, SymmetricCrypto crypto) throws UaException {
+            if (crypto.cipher == null) {
+                throw new UaException(StatusCodes.Bad_InternalError, "symmetric Cipher not initialized");
+            }
+
+            return crypto.cipher;
         }
 
         @Override
@@ -451,23 +641,32 @@ public final class ChunkEncoder {
         }
 
         private Cipher initCipher(SecureChannel channel) throws UaException {
-            try {
-                String transformation = channel.getSecurityPolicy()
-                    .getSymmetricEncryptionAlgorithm().getTransformation();
-                ChannelSecurity.SecretKeys secretKeys = channel.getEncryptionKeys(securityKeys);
+            return SymmetricCryptoFactory.createCipher(
+                channel,
+                channel.getEncryptionKeys(securityKeys),
+                Cipher.ENCRYPT_MODE
+            );
+        }
 
-                SecretKeySpec keySpec = new SecretKeySpec(secretKeys.getEncryptionKey(), "AES");
-                IvParameterSpec ivSpec = new IvParameterSpec(secretKeys.getInitializationVector());
+        private Mac initMac(SecureChannel channel) throws UaException {
+            return SymmetricCryptoFactory.createMac(channel, channel.getEncryptionKeys(securityKeys));
+        }
 
-                Cipher cipher = Cipher.getInstance(transformation);
-                cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
+    }
 
-                assert (cipher.getBlockSize() == channel.getSymmetricBlockSize());
+    /**
+     * A {@link Cipher} and {@link Mac} initialized with one set of {@link ChannelSecurity.SecurityKeys}.
+     */
+    private static final class SymmetricCrypto {
 
-                return cipher;
-            } catch (GeneralSecurityException e) {
-                throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
-            }
+        final ChannelSecurity.SecurityKeys securityKeys;
+        final Cipher cipher;
+        final Mac mac;
+
+        SymmetricCrypto(ChannelSecurity.SecurityKeys securityKeys, @Nullable Cipher cipher, @Nullable Mac mac) {
+            this.securityKeys = securityKeys;
+            this.cipher = cipher;
+            this.mac = mac;
         }
 
     }
@@ -11,17 +11,35 @@
 package org.eclipse.milo.opcua.stack.core.channel;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.milo.opcua.stack.core.serialization.NodeIdInterner;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
 import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
 import org.eclipse.milo.opcua.stack.core.util.TaskQueue;
+import org.jetbrains.annotations.Nullable;
 
 public class SerializationQueue {
 
     private static final int MAX_QUEUE_SIZE =
         Integer.getInteger("milo.stack.serialization.maxQueueSize", 256);
 
+    /**
+     * The maximum number of intermediate chunks queued for decoding at a time, across all messages.
+     */
+    private static final int MAX_QUEUED_CHUNKS =
+        Integer.getInteger("milo.stack.serialization.maxQueuedChunks", 1024);
+
+    /**
+     * Messages encoded into at least this many chunks have their chunks signed and encrypted in parallel. 0, the
+     * default, disables parallel encoding.
+     *
+     * @see ChunkEncoder#ChunkEncoder(ChannelParameters, java.util.concurrent.Executor, int)
+     */
+    private static final int PARALLEL_CHUNK_THRESHOLD =
+        Integer.getInteger("milo.stack.serialization.parallelChunkThreshold", 0);
+
     private final OpcUaBinaryStreamEncoder binaryEncoder;
     private final OpcUaBinaryStreamDecoder binaryDecoder;
 
@@ -31,7 +49,19 @@ public class SerializationQueue {
     private final TaskQueue encodingQueue;
     private final TaskQueue decodingQueue;
 
+    /**
+     * The number of queued {@link #decode(Decoder)} tasks, bounded by {@link #maxQueuedMessages}.
+     */
+    private final AtomicInteger queuedDecodes = new AtomicInteger(0);
+
+    /**
+     * The number of queued {@link #decodeChunk(Decoder)} tasks, bounded by {@link #maxQueuedChunks}.
+     */
+    private final AtomicInteger queuedChunks = new AtomicInteger(0);
+
     private final ChannelParameters parameters;
+    private final int maxQueuedMessages;
+    private final int maxQueuedChunks;
 
     public SerializationQueue(
         ExecutorService executor,
@@ -39,28 +69,143 @@ public class SerializationQueue {
         SerializationContext context
     ) {
 
+        this(executor, parameters, context, null);
+    }
+
+    /**
+     * @param executor       the {@link ExecutorService} encoding and decoding run on.
+     * @param parameters     the {@link ChannelParameters} of the channel.
+     * @param context        the {@link SerializationContext} to encode and decode with.
+     * @param nodeIdInterner the {@link NodeIdInterner} decoded NodeIds are interned with, or {@code null} to not
+     *                       intern them.
+     */
+    public SerializationQueue(
+        ExecutorService executor,
+        ChannelParameters parameters,
+        SerializationContext context,
+        @Nullable NodeIdInterner nodeIdInterner
+    ) {
+
+        this(executor, parameters, context, nodeIdInterner, MAX_QUEUE_SIZE, MAX_QUEUED_CHUNKS);
+    }
+
+    /**
+     * @param executor          the {@link ExecutorService} encoding and decoding run on.
+     * @param parameters        the {@link ChannelParameters} of the channel.
+     * @param context           the {@link SerializationContext} to encode and decode with.
+     * @param nodeIdInterner    the {@link NodeIdInterner} decoded NodeIds are interned with, or {@code null} to not
+     *                          intern them.
+     * @param maxQueuedMessages the maximum number of messages, or final chunks of messages, queued for decoding.
+     * @param maxQueuedChunks   the maximum number of intermediate chunks queued for decoding, across all messages.
+     */
+    public SerializationQueue(
+        ExecutorService executor,
+        ChannelParameters parameters,
+        SerializationContext context,
+        @Nullable NodeIdInterner nodeIdInterner,
+        int maxQueuedMessages,
+        int maxQueuedChunks
+    ) {
+
         this.parameters = parameters;
+        this.maxQueuedMessages = maxQueuedMessages;
+        this.maxQueuedChunks = maxQueuedChunks;
 
-        chunkEncoder = new ChunkEncoder(parameters);
+        chunkEncoder = new ChunkEncoder(parameters, executor, PARALLEL_CHUNK_THRESHOLD);
         chunkDecoder = new ChunkDecoder(parameters, context.getEncodingLimits());
 
         binaryEncoder = new OpcUaBinaryStreamEncoder(context);
-        binaryDecoder = new OpcUaBinaryStreamDecoder(context);
+        binaryDecoder = new OpcUaBinaryStreamDecoder(context).setNodeIdInterner(nodeIdInterner);
 
         encodingQueue = new TaskQueue(executor);
 
-        decodingQueue = TaskQueue.newBuilder()
-            .setExecutor(executor)
-            .setMaxQueueSize(MAX_QUEUE_SIZE)
-            .build();
+        decodingQueue = new TaskQueue(executor);
     }
 
     public boolean encode(Encoder encoder) {
         return encodingQueue.execute(() -> encoder.encode(binaryEncoder, chunkEncoder));
     }
 
+    /**
+     * Queue decoding of a message, or of the final chunk of a message.
+     *
+     * @param decoder the {@link Decoder} to run.
+     * @return {@code true} if queued, or {@code false} if the max queue size has been reached.
+     */
     public boolean decode(Decoder decoder) {
-        return decodingQueue.execute(() -> decoder.decode(binaryDecoder, chunkDecoder));
+        if (queuedDecodes.incrementAndGet() > maxQueuedMessages) {
+            queuedDecodes.decrementAndGet();
+            return false;
+        }
+
+        boolean queued = decodingQueue.execute(() -> {
+            try {
+                decoder.decode(binaryDecoder, chunkDecoder);
+            } finally {
+                queuedDecodes.decrementAndGet();
+            }
+        });
+
+        if (!queued) {
+            queuedDecodes.decrementAndGet();
+        }
+
+        return queued;
+    }
+
+    /**
+     * Queue decoding of an intermediate chunk of a message, in order with all other decoding.
+     * <p>
+     * Intermediate chunks are counted separately from messages, against a larger limit, so a queue full of chunks
+     * of a few large messages isn't mistaken for a queue full of messages.
+     *
+     * @param decoder the {@link Decoder} to run.
+     * @return {@code true} if queued, or {@code false} if the max number of queued chunks has been reached.
+     */
+    public boolean decodeChunk(Decoder decoder) {
+        if (queuedChunks.incrementAndGet() > maxQueuedChunks) {
+            queuedChunks.decrementAndGet();
+            return false;
+        }
+
+        boolean queued = decodingQueue.execute(() -> {
+            try {
+                decoder.decode(binaryDecoder, chunkDecoder);
+            } finally {
+                queuedChunks.decrementAndGet();
+            }
+        });
+
+        if (!queued) {
+            queuedChunks.decrementAndGet();
+        }
+
+        return queued;
+    }
+
+    /**
+     * Queue a task that releases the body of a message whose final chunk will never be decoded, in order with all
+     * other decoding.
+     * <p>
+     * Unlike {@link #decode(Decoder)} this is not subject to the max queue size, so the partial message is always
+     * released.
+     */
+    public void discardPartialMessage() {
+        decodingQueue.execute(chunkDecoder::discardPartialMessage);
+    }
+
+    /**
+     * Release the body of a message whose final chunk never arrived, and the chunks still queued for decoding,
+     * because the channel has closed.
+     * <p>
+     * Chunks still queued are released without being decoded. Decoding is resumed if it was paused, otherwise they
+     * would never be released.
+     */
+    public void close() {
+        chunkDecoder.close();
+
+        decodingQueue.execute(chunkDecoder::discardPartialMessage);
+        decodingQueue.resume();
     }
 
     public void pause() {
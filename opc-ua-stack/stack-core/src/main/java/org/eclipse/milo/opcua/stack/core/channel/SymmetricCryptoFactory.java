@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.channel;
+
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+
+/**
+ * Creates the symmetric {@link Cipher} and {@link Mac} used by {@link ChunkEncoder} and {@link ChunkDecoder}.
+ * <p>
+ * Both map failures the same way: an algorithm the JCA provider doesn't support is a local problem and results in
+ * {@link StatusCodes#Bad_InternalError}; anything else, e.g. a key or IV the algorithm rejects, results in
+ * {@link StatusCodes#Bad_SecurityChecksFailed}.
+ */
+final class SymmetricCryptoFactory {
+
+    private SymmetricCryptoFactory() {}
+
+    /**
+     * @param channel    the {@link SecureChannel} whose SecurityPolicy determines the algorithm.
+     * @param secretKeys the {@link ChannelSecurity.SecretKeys} to initialize the {@link Cipher} with.
+     * @param mode       {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}.
+     * @return an initialized {@link Cipher}.
+     * @throws UaException if the {@link Cipher} could not be created or initialized.
+     */
+    static Cipher createCipher(SecureChannel channel, ChannelSecurity.SecretKeys secretKeys, int mode)
+        throws UaException {
+
+        try {
+            String transformation = channel.getSecurityPolicy()
+                .getSymmetricEncryptionAlgorithm().getTransformation();
+
+            SecretKeySpec keySpec = new SecretKeySpec(secretKeys.getEncryptionKey(), "AES");
+            IvParameterSpec ivSpec = new IvParameterSpec(secretKeys.getInitializationVector());
+
+            Cipher cipher = Cipher.getInstance(transformation);
+            cipher.init(mode, keySpec, ivSpec);
+
+            return cipher;
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new UaException(StatusCodes.Bad_InternalError, e);
+        } catch (GeneralSecurityException e) {
+            throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+        }
+    }
+
+    /**
+     * @param channel    the {@link SecureChannel} whose SecurityPolicy determines the algorithm.
+     * @param secretKeys the {@link ChannelSecurity.SecretKeys} to initialize the {@link Mac} with.
+     * @return an initialized {@link Mac}.
+     * @throws UaException if the {@link Mac} could not be created or initialized.
+     */
+    static Mac createMac(SecureChannel channel, ChannelSecurity.SecretKeys secretKeys) throws UaException {
+        try {
+            String transformation = channel.getSecurityPolicy()
+                .getSymmetricSignatureAlgorithm().getTransformation();
+
+            Mac mac = Mac.getInstance(transformation);
+            mac.init(new SecretKeySpec(secretKeys.getSignatureKey(), transformation));
+
+            return mac;
+        } catch (NoSuchAlgorithmException e) {
+            throw new UaException(StatusCodes.Bad_InternalError, e);
+        } catch (GeneralSecurityException e) {
+            throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.netty.buffer.ByteBuf;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+
+/**
+ * A bounded cache of canonical numeric and string {@link NodeId} instances.
+ * <p>
+ * When set on an {@link OpcUaBinaryStreamDecoder}, NodeIds that were decoded before are returned as the same
+ * instance, with its hash already computed, instead of allocating a new NodeId and identifier each time. String
+ * identifiers are matched against the encoded bytes, so a cache hit doesn't decode the string at all.
+ * <p>
+ * The cache is direct-mapped: each NodeId has exactly one slot and a NodeId that hashes to an occupied slot replaces
+ * the NodeId in it. Lookups are lock-free and safe to share between decoders on different threads.
+ */
+public final class NodeIdInterner {
+
+    /**
+     * String identifiers longer than this many bytes are not cached.
+     */
+    public static final int MAX_STRING_LENGTH = 256;
+
+    private static final int MAX_CAPACITY = 1 << 20;
+
+    private final Entry[] entries;
+    private final int mask;
+
+    /**
+     * @param capacity the maximum number of cached NodeIds, rounded up to a power of 2.
+     */
+    public NodeIdInterner(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+
+        int size = Integer.highestOneBit(Math.min(capacity, MAX_CAPACITY));
+        if (size < capacity && size < MAX_CAPACITY) {
+            size <<= 1;
+        }
+
+        entries = new Entry[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @return the number of slots in this cache.
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Get the canonical instance of {@code nodeId}, caching it if it's not cached already.
+     * <p>
+     * NodeIds with a Guid or opaque identifier are returned as-is.
+     *
+     * @param nodeId the {@link NodeId} to intern.
+     * @return the canonical instance equal to {@code nodeId}.
+     */
+    public NodeId intern(NodeId nodeId) {
+        int namespaceIndex = nodeId.getNamespaceIndex().intValue();
+        Object identifier = nodeId.getIdentifier();
+
+        if (identifier instanceof UInteger) {
+            long value = ((UInteger) identifier).longValue();
+            int slot = slot(numericHash(namespaceIndex, value));
+
+            Entry entry = entries[slot];
+            if (entry != null && entry.matches(namespaceIndex, value)) {
+                return entry.nodeId;
+            }
+
+            nodeId.hashCode();
+            entries[slot] = new Entry(nodeId, namespaceIndex, value, null);
+
+            return nodeId;
+        } else if (identifier instanceof String) {
+            byte[] bytes = ((String) identifier).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_STRING_LENGTH) {
+                return nodeId;
+            }
+
+            int slot = slot(stringHash(namespaceIndex, bytes));
+
+            Entry entry = entries[slot];
+            if (entry != null && entry.matches(namespaceIndex, bytes)) {
+                return entry.nodeId;
+            }
+
+            nodeId.hashCode();
+            entries[slot] = new Entry(nodeId, namespaceIndex, 0L, bytes);
+
+            return nodeId;
+        } else {
+            return nodeId;
+        }
+    }
+
+    /**
+     * Get the canonical NodeId with a numeric identifier.
+     *
+     * @param namespaceIndex the namespace index, 0 to 65535.
+     * @param identifier     the numeric identifier, 0 to 2^32-1.
+     * @return the canonical {@link NodeId}.
+     */
+    NodeId numeric(int namespaceIndex, long identifier) {
+        int slot = slot(numericHash(namespaceIndex, identifier));
+
+        Entry entry = entries[slot];
+        if (entry != null && entry.matches(namespaceIndex, identifier)) {
+            return entry.nodeId;
+        }
+
+        NodeId nodeId = new NodeId(ushort(namespaceIndex), uint(identifier));
+        nodeId.hashCode();
+
+        entries[slot] = new Entry(nodeId, namespaceIndex, identifier, null);
+
+        return nodeId;
+    }
+
+    /**
+     * Get the canonical NodeId with a string identifier encoded as UTF-8 in {@code buffer}. The buffer's indices are
+     * not modified.
+     *
+     * @param namespaceIndex the namespace index, 0 to 65535.
+     * @param buffer         the buffer holding the encoded identifier.
+     * @param index          the index of the first identifier byte in {@code buffer}.
+     * @param length         the length of the encoded identifier in bytes.
+     * @return the canonical {@link NodeId}.
+     */
+    NodeId string(int namespaceIndex, ByteBuf buffer, int index, int length) {
+        if (length > MAX_STRING_LENGTH) {
+            return new NodeId(ushort(namespaceIndex), buffer.toString(index, length, StandardCharsets.UTF_8));
+        }
+
+        int hash = namespaceIndex;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.getByte(index + i);
+        }
+
+        int slot = slot(hash);
+
+        Entry entry = entries[slot];
+        if (entry != null && entry.matches(namespaceIndex, buffer, index, length)) {
+            return entry.nodeId;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.getBytes(index, bytes);
+
+        NodeId nodeId = new NodeId(ushort(namespaceIndex), new String(bytes, StandardCharsets.UTF_8));
+        nodeId.hashCode();
+
+        entries[slot] = new Entry(nodeId, namespaceIndex, 0L, bytes);
+
+        return nodeId;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int numericHash(int namespaceIndex, long identifier) {
+        return (int) (identifier * 0x9E3779B9L) ^ (namespaceIndex * 0x85EBCA6B);
+    }
+
+    private static int stringHash(int namespaceIndex, byte[] bytes) {
+        int hash = namespaceIndex;
+        for (byte b : bytes) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    /**
+     * An immutable cache entry. All fields are final so entries can be published to other threads through the plain
+     * array write in {@link #entries}.
+     */
+    private static final class Entry {
+
+        final NodeId nodeId;
+        final int namespaceIndex;
+        final long numeric;
+        final byte[] bytes;
+
+        Entry(NodeId nodeId, int namespaceIndex, long numeric, byte[] bytes) {
+            this.nodeId = nodeId;
+            this.namespaceIndex = namespaceIndex;
+            this.numeric = numeric;
+            this.bytes = bytes;
+        }
+
+        boolean matches(int namespaceIndex, long identifier) {
+            return bytes == null && this.namespaceIndex == namespaceIndex && numeric == identifier;
+        }
+
+        boolean matches(int namespaceIndex, byte[] identifier) {
+            return bytes != null && this.namespaceIndex == namespaceIndex && Arrays.equals(bytes, identifier);
+        }
+
+        boolean matches(int namespaceIndex, ByteBuf buffer, int index, int length) {
+            if (bytes == null || this.namespaceIndex != namespaceIndex || bytes.length != length) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != buffer.getByte(index + i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+}
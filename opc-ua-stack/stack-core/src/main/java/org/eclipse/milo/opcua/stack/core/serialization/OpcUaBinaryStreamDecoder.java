@@ -13,6 +13,9 @@ package org.eclipse.milo.opcua.stack.core.serialization;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
@@ -57,6 +60,30 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
     private static final Charset CHARSET_UTF8 = StandardCharsets.UTF_8;
     private static final Charset CHARSET_UTF16 = StandardCharsets.UTF_16;
 
+    /**
+     * When {@code true}, Variant arrays of Boolean, SByte, Int16, Int32, Int64, Float and Double are decoded into
+     * arrays of the corresponding primitive, e.g. {@code double[]} instead of {@code Double[]}.
+     * <p>
+     * Off by default because code reading these Variants usually casts the value to the boxed array type.
+     */
+    private static final boolean DECODE_PRIMITIVE_ARRAYS =
+        Boolean.getBoolean("milo.stack.serialization.decodePrimitiveArrays");
+
+    /**
+     * The static {@code from(int)} method of each enum type read by {@link #readEnum(String, Class)}, so it is looked
+     * up once per type instead of once per value.
+     */
+    private static final ClassValue<Method> ENUM_FROM_METHODS = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            try {
+                return type.getDeclaredMethod("from", int.class);
+            } catch (NoSuchMethodException e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+    };
+
     private ByteBuf buffer;
 
     private int currentByte = 0;
@@ -66,6 +93,8 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
 
     private final SerializationContext context;
 
+    private NodeIdInterner nodeIdInterner;
+
     public OpcUaBinaryStreamDecoder(SerializationContext context) {
         this.context = context;
     }
@@ -75,6 +104,17 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         return this;
     }
 
+    /**
+     * Set the {@link NodeIdInterner} used to return canonical instances of decoded numeric and string NodeIds.
+     *
+     * @param nodeIdInterner the {@link NodeIdInterner} to use, or {@code null} to allocate every decoded NodeId.
+     * @return this {@link OpcUaBinaryStreamDecoder}.
+     */
+    public OpcUaBinaryStreamDecoder setNodeIdInterner(@Nullable NodeIdInterner nodeIdInterner) {
+        this.nodeIdInterner = nodeIdInterner;
+        return this;
+    }
+
     public <T> T[] readArray(Supplier<T> read, Class<T> clazz) throws UaSerializationException {
         int length = readInt32();
 
@@ -327,6 +367,10 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
     public NodeId readNodeId() throws UaSerializationException {
         int format = buffer.readByte() & 0x0F;
 
+        if (nodeIdInterner != null && format <= 0x03) {
+            return readInternedNodeId(format, nodeIdInterner);
+        }
+
         if (format == 0x00) {
             /* Two-byte format */
             return new NodeId(UShort.MIN, uint(buffer.readUnsignedByte()));
@@ -350,6 +394,35 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         }
     }
 
+    private NodeId readInternedNodeId(int format, NodeIdInterner interner) throws UaSerializationException {
+        if (format == 0x00) {
+            /* Two-byte format */
+            return interner.numeric(0, buffer.readUnsignedByte());
+        } else if (format == 0x01) {
+            /* Four-byte format */
+            return interner.numeric(buffer.readUnsignedByte(), buffer.readUnsignedShortLE());
+        } else if (format == 0x02) {
+            /* Numeric format */
+            return interner.numeric(buffer.readUnsignedShortLE(), buffer.readUnsignedIntLE());
+        } else {
+            /* String format */
+            int namespaceIndex = buffer.readUnsignedShortLE();
+            int length = readInt32();
+
+            if (length == -1) {
+                return new NodeId(ushort(namespaceIndex), (String) null);
+            } else if (length < 0) {
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, "invalid string length: " + length);
+            }
+
+            checkStringLength(length);
+
+            NodeId nodeId = interner.string(namespaceIndex, buffer, buffer.readerIndex(), length);
+            buffer.skipBytes(length);
+            return nodeId;
+        }
+    }
+
     public QualifiedName readQualifiedName() throws UaSerializationException {
         UShort namespaceIndex = readUInt16();
         String name = readString();
@@ -399,12 +472,18 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
                     } else {
                         checkArrayLength(length);
 
-                        Object flatArray = Array.newInstance(backingClass, length);
+                        Object flatArray = DECODE_PRIMITIVE_ARRAYS ?
+                            readPrimitiveArray(typeId, length) :
+                            readBoxedArray(typeId, length);
+
+                        if (flatArray == null) {
+                            flatArray = Array.newInstance(backingClass, length);
 
-                        for (int i = 0; i < length; i++) {
-                            Object element = decodeBuiltinType(typeId);
+                            for (int i = 0; i < length; i++) {
+                                Object element = decodeBuiltinType(typeId);
 
-                            Array.set(flatArray, i, element);
+                                Array.set(flatArray, i, element);
+                            }
                         }
 
                         int[] dimensions = dimensionsEncoded ? decodeDimensions() : new int[]{length};
@@ -423,6 +502,155 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         }
     }
 
+    /**
+     * Read {@code length} elements of a builtin type backed by a primitive in bulk.
+     *
+     * @param typeId the builtin type id.
+     * @param length the number of elements.
+     * @return a {@code boolean[]}, {@code byte[]}, {@code short[]}, {@code int[]}, {@code long[]}, {@code float[]} or
+     * {@code double[]}, or {@code null} if the builtin type is not backed by a primitive.
+     */
+    @Nullable
+    private Object readPrimitiveArray(int typeId, int length) {
+        switch (typeId) {
+            case 1: {
+                boolean[] values = new boolean[checkReadable(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readBoolean();
+                }
+                return values;
+            }
+            case 2: {
+                byte[] values = new byte[checkReadable(length, 1)];
+                buffer.readBytes(values);
+                return values;
+            }
+            case 4: {
+                short[] values = new short[checkReadable(length, Short.BYTES)];
+                readableNioBuffer(length * Short.BYTES).asShortBuffer().get(values);
+                return values;
+            }
+            case 6: {
+                int[] values = new int[checkReadable(length, Integer.BYTES)];
+                readableNioBuffer(length * Integer.BYTES).asIntBuffer().get(values);
+                return values;
+            }
+            case 8: {
+                long[] values = new long[checkReadable(length, Long.BYTES)];
+                readableNioBuffer(length * Long.BYTES).asLongBuffer().get(values);
+                return values;
+            }
+            case 10: {
+                float[] values = new float[checkReadable(length, Float.BYTES)];
+                readableNioBuffer(length * Float.BYTES).asFloatBuffer().get(values);
+                return values;
+            }
+            case 11: {
+                double[] values = new double[checkReadable(length, Double.BYTES)];
+                readableNioBuffer(length * Double.BYTES).asDoubleBuffer().get(values);
+                return values;
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Read {@code length} elements of a builtin type backed by a boxed primitive, without going through
+     * {@link #decodeBuiltinType(int)} and reflection for each element.
+     *
+     * @param typeId the builtin type id.
+     * @param length the number of elements.
+     * @return a {@code Boolean[]}, {@code Byte[]}, {@code Short[]}, {@code Integer[]}, {@code Long[]},
+     * {@code Float[]} or {@code Double[]}, or {@code null} if the builtin type is not backed by a primitive.
+     */
+    @Nullable
+    private Object readBoxedArray(int typeId, int length) {
+        switch (typeId) {
+            case 1: {
+                Boolean[] values = new Boolean[checkReadable(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readBoolean();
+                }
+                return values;
+            }
+            case 2: {
+                Byte[] values = new Byte[checkReadable(length, 1)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readByte();
+                }
+                return values;
+            }
+            case 4: {
+                Short[] values = new Short[checkReadable(length, Short.BYTES)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readShortLE();
+                }
+                return values;
+            }
+            case 6: {
+                Integer[] values = new Integer[checkReadable(length, Integer.BYTES)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readIntLE();
+                }
+                return values;
+            }
+            case 8: {
+                Long[] values = new Long[checkReadable(length, Long.BYTES)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readLongLE();
+                }
+                return values;
+            }
+            case 10: {
+                Float[] values = new Float[checkReadable(length, Float.BYTES)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readFloatLE();
+                }
+                return values;
+            }
+            case 11: {
+                Double[] values = new Double[checkReadable(length, Double.BYTES)];
+                for (int i = 0; i < length; i++) {
+                    values[i] = buffer.readDoubleLE();
+                }
+                return values;
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Check that {@code length} elements of {@code elementSize} bytes each can be read, before allocating an array
+     * for them.
+     *
+     * @return {@code length}.
+     */
+    private int checkReadable(int length, int elementSize) throws UaSerializationException {
+        if ((long) length * elementSize > buffer.readableBytes()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                String.format(
+                    "array length exceeds readable bytes (length=%s, readable=%s)",
+                    length, buffer.readableBytes())
+            );
+        }
+
+        return length;
+    }
+
+    /**
+     * Advance the reader index by {@code length} bytes and return a little-endian view of them.
+     */
+    private ByteBuffer readableNioBuffer(int length) {
+        int readerIndex = buffer.readerIndex();
+        ByteBuffer nioBuffer = buffer.nioBuffer(readerIndex, length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.readerIndex(readerIndex + length);
+
+        return nioBuffer;
+    }
+
     @Nullable
     private String readLengthPrefixedString(Charset charset) {
         int length = readInt32();
@@ -430,14 +658,7 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         if (length == -1) {
             return null;
         } else {
-            if (length > context.getEncodingLimits().getMaxMessageSize()) {
-                throw new UaSerializationException(
-                    StatusCodes.Bad_EncodingLimitsExceeded,
-                    String.format(
-                        "string length exceeds max message size (length=%s, max=%s)",
-                        length, context.getEncodingLimits().getMaxMessageSize())
-                );
-            }
+            checkStringLength(length);
 
             String str = buffer.toString(buffer.readerIndex(), length, charset);
             buffer.skipBytes(length);
@@ -445,6 +666,17 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         }
     }
 
+    private void checkStringLength(int length) throws UaSerializationException {
+        if (length > context.getEncodingLimits().getMaxMessageSize()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                String.format(
+                    "string length exceeds max message size (length=%s, max=%s)",
+                    length, context.getEncodingLimits().getMaxMessageSize())
+            );
+        }
+    }
+
     private String readNullTerminatedString(Charset charset) {
         int indexOfNull = buffer.forEachByte(ByteProcessor.FIND_NUL);
 
@@ -682,11 +914,13 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
     ) throws UaSerializationException {
 
         try {
-            Method m = enumType.getDeclaredMethod("from", int.class);
+            Method m = ENUM_FROM_METHODS.get(enumType);
             Object o = m.invoke(null, readInt32(field));
             return enumType.cast(o);
-        } catch (ClassCastException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+        } catch (ClassCastException | IllegalAccessException | InvocationTargetException e) {
             throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        } catch (UndeclaredThrowableException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e.getCause());
         }
     }
 
@@ -1200,16 +1434,15 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
                 );
             }
 
+            // the codec is resolved once and the elements, all of the same type, are stored without reflection
             Class<?> clazz = binaryCodec.getType();
-            Object array = Array.newInstance(clazz, length);
+            Object[] array = (Object[]) Array.newInstance(clazz, length);
 
             for (int i = 0; i < length; i++) {
-                Object value = binaryCodec.decode(context, this);
-
-                Array.set(array, i, value);
+                array[i] = binaryCodec.decode(context, this);
             }
 
-            return (Object[]) array;
+            return array;
         }
     }
 
@@ -11,6 +11,8 @@
 package org.eclipse.milo.opcua.stack.core.serialization;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
@@ -43,6 +45,7 @@ import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
 import org.eclipse.milo.opcua.stack.core.util.ArrayUtil;
 import org.eclipse.milo.opcua.stack.core.util.TypeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.LoggerFactory;
 
 public class OpcUaBinaryStreamEncoder implements UaEncoder {
@@ -604,27 +607,16 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
 
                 if (dimensions.length == 1) {
                     buffer.writeByte(typeId | 0x80);
+                    buffer.writeIntLE(Array.getLength(value));
 
-                    int length = Array.getLength(value);
-                    buffer.writeIntLE(length);
-
-                    for (int i = 0; i < length; i++) {
-                        Object o = Array.get(value, i);
-
-                        writeValue(o, typeId, structure, enumeration);
-                    }
+                    writeArrayElements(value, typeId, structure, enumeration);
                 } else {
                     buffer.writeByte(typeId | 0xC0);
 
                     Object flattened = ArrayUtil.flatten(value);
-                    int length = Array.getLength(flattened);
-                    buffer.writeIntLE(length);
+                    buffer.writeIntLE(Array.getLength(flattened));
 
-                    for (int i = 0; i < length; i++) {
-                        Object o = Array.get(flattened, i);
-
-                        writeValue(o, typeId, structure, enumeration);
-                    }
+                    writeArrayElements(flattened, typeId, structure, enumeration);
 
                     writeInt32(dimensions.length);
                     for (int dimension : dimensions) {
@@ -641,6 +633,134 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
 
     // endregion
 
+    /**
+     * Write the elements of a one-dimensional array.
+     * <p>
+     * Arrays of primitives are written in bulk and arrays of their boxed counterparts without reflection; everything
+     * else is written element by element via {@link #writeValue(Object, int, boolean, boolean)}.
+     */
+    private void writeArrayElements(Object array, int typeId, boolean structure, boolean enumeration) {
+        if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            ByteBuffer nioBuffer = writableNioBuffer(values.length * Double.BYTES);
+            if (nioBuffer != null) {
+                nioBuffer.asDoubleBuffer().put(values);
+            } else {
+                for (double v : values) {
+                    buffer.writeDoubleLE(v);
+                }
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            ByteBuffer nioBuffer = writableNioBuffer(values.length * Float.BYTES);
+            if (nioBuffer != null) {
+                nioBuffer.asFloatBuffer().put(values);
+            } else {
+                for (float v : values) {
+                    buffer.writeFloatLE(v);
+                }
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            ByteBuffer nioBuffer = writableNioBuffer(values.length * Long.BYTES);
+            if (nioBuffer != null) {
+                nioBuffer.asLongBuffer().put(values);
+            } else {
+                for (long v : values) {
+                    buffer.writeLongLE(v);
+                }
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            ByteBuffer nioBuffer = writableNioBuffer(values.length * Integer.BYTES);
+            if (nioBuffer != null) {
+                nioBuffer.asIntBuffer().put(values);
+            } else {
+                for (int v : values) {
+                    buffer.writeIntLE(v);
+                }
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            ByteBuffer nioBuffer = writableNioBuffer(values.length * Short.BYTES);
+            if (nioBuffer != null) {
+                nioBuffer.asShortBuffer().put(values);
+            } else {
+                for (short v : values) {
+                    buffer.writeShortLE(v);
+                }
+            }
+        } else if (array instanceof byte[]) {
+            buffer.writeBytes((byte[]) array);
+        } else if (array instanceof boolean[]) {
+            for (boolean v : (boolean[]) array) {
+                buffer.writeBoolean(v);
+            }
+        } else if (array instanceof Double[]) {
+            for (Double v : (Double[]) array) {
+                writeDouble(v);
+            }
+        } else if (array instanceof Float[]) {
+            for (Float v : (Float[]) array) {
+                writeFloat(v);
+            }
+        } else if (array instanceof Long[]) {
+            for (Long v : (Long[]) array) {
+                writeInt64(v);
+            }
+        } else if (array instanceof Integer[]) {
+            for (Integer v : (Integer[]) array) {
+                writeInt32(v);
+            }
+        } else if (array instanceof Short[]) {
+            for (Short v : (Short[]) array) {
+                writeInt16(v);
+            }
+        } else if (array instanceof Byte[]) {
+            for (Byte v : (Byte[]) array) {
+                writeSByte(v);
+            }
+        } else if (array instanceof Boolean[]) {
+            for (Boolean v : (Boolean[]) array) {
+                writeBoolean(v);
+            }
+        } else {
+            int length = Array.getLength(array);
+
+            for (int i = 0; i < length; i++) {
+                Object o = Array.get(array, i);
+
+                writeValue(o, typeId, structure, enumeration);
+            }
+        }
+    }
+
+    /**
+     * Advance the writer index by {@code length} bytes and return a little-endian view of them, if the buffer is
+     * backed by a single direct or heap NIO buffer the view writes through to.
+     * <p>
+     * Other buffers, e.g. composites spanning several components, may return a copy from
+     * {@link ByteBuf#nioBuffer(int, int)}, so they get {@code null} and are written element by element instead.
+     *
+     * @param length the number of bytes to be written.
+     * @return a little-endian {@link ByteBuffer} view of the {@code length} bytes, or {@code null} if none is
+     * available, in which case nothing was written.
+     */
+    @Nullable
+    private ByteBuffer writableNioBuffer(int length) {
+        buffer.ensureWritable(length);
+
+        if (buffer.nioBufferCount() != 1 || !(buffer.isDirect() || buffer.hasArray())) {
+            return null;
+        }
+
+        int writerIndex = buffer.writerIndex();
+        ByteBuffer nioBuffer = buffer.nioBuffer(writerIndex, length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.writerIndex(writerIndex + length);
+
+        return nioBuffer;
+    }
+
     private void writeValue(Object value, int typeId, boolean structure, boolean enumeration) {
         if (structure) {
             UaStructure struct = (UaStructure) value;
@@ -0,0 +1,1363 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.GenericDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.ULong;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.util.ArrayUtil;
+import org.eclipse.milo.opcua.stack.core.util.TypeUtil;
+import org.jetbrains.annotations.Nullable;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+
+/**
+ * A {@link UaDecoder} that reads the reversible OPC UA JSON encoding (Part 6, 5.4) directly from a {@link ByteBuf},
+ * e.g. as written by {@link OpcUaJsonStreamEncoder}.
+ * <p>
+ * No document tree is built. Members are expected in the order the codecs read them, which is the order they are
+ * written in, and are matched in place as the decoder moves forward through each object. Members in any other order
+ * are still found, by scanning the enclosing object again.
+ * <p>
+ * Absent and {@code null} members decode as the default value of their type, e.g. 0 for numbers, Good for
+ * StatusCodes and {@link NodeId#NULL_VALUE} for NodeIds.
+ */
+public class OpcUaJsonStreamDecoder implements UaDecoder {
+
+    /**
+     * The number of 100ns intervals between 1601-01-01 and the Java epoch.
+     */
+    private static final long EPOCH_DELTA = 116444736000000000L;
+
+    private final ArrayList<Scope> scopes = new ArrayList<>();
+
+    private ByteBuf buffer;
+
+    private final SerializationContext context;
+
+    public OpcUaJsonStreamDecoder(SerializationContext context) {
+        this.context = context;
+    }
+
+    public OpcUaJsonStreamDecoder setBuffer(ByteBuf buffer) {
+        this.buffer = buffer;
+        this.scopes.clear();
+        return this;
+    }
+
+    public ByteBuf getBuffer() {
+        return buffer;
+    }
+
+    // region Structure
+
+    /**
+     * An object or array that is currently being read.
+     */
+    private static final class Scope {
+
+        final boolean array;
+
+        /**
+         * The index just after the opening brace or bracket.
+         */
+        final int start;
+
+        /**
+         * The index of the next member or element to be read in sequence.
+         */
+        int next;
+
+        /**
+         * Whether the member currently being read was found after {@link #next}, rather than before it.
+         */
+        boolean sequential;
+
+        /**
+         * Whether any member before {@link #next} was passed over without being read.
+         */
+        boolean skipped;
+
+        Scope(boolean array, int start) {
+            this.array = array;
+            this.start = start;
+            this.next = start;
+        }
+
+    }
+
+    @Nullable
+    private Scope currentScope() {
+        return scopes.isEmpty() ? null : scopes.get(scopes.size() - 1);
+    }
+
+    /**
+     * Position the buffer at the value of {@code field} in the current object, or at the next element of the current
+     * array, and consume it if it is {@code null}.
+     *
+     * @return {@code true} if there is a non-null value to read.
+     */
+    private boolean seek(String field) {
+        Scope scope = currentScope();
+
+        if (scope == null) {
+            skipWhitespace();
+        } else if (scope.array) {
+            buffer.readerIndex(scope.next);
+            skipWhitespace();
+        } else if (!seekMember(scope, field)) {
+            return false;
+        }
+
+        if (peek() == 'n') {
+            expectLiteral("null");
+            endValue();
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean seekMember(Scope scope, String field) {
+        buffer.readerIndex(scope.next);
+        skipWhitespace();
+
+        boolean first = true;
+
+        while (peek() != '}') {
+            if (matchMember(field)) {
+                if (!first) scope.skipped = true;
+                scope.sequential = true;
+                return true;
+            }
+            first = false;
+        }
+
+        if (scope.skipped) {
+            // the member may be one that was passed over on the way to a later one
+            buffer.readerIndex(scope.start);
+            skipWhitespace();
+
+            while (buffer.readerIndex() < scope.next && peek() != '}') {
+                if (matchMember(field)) {
+                    scope.sequential = false;
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Match the name of the member at the current position with {@code field}, or skip the member if {@code field}
+     * is {@code null}.
+     *
+     * @return {@code true}, positioned at the member's value, if it matches; otherwise {@code false}, positioned at the
+     * following member or the end of the object.
+     */
+    private boolean matchMember(@Nullable String field) {
+        int nameIndex = buffer.readerIndex();
+        boolean matches = field != null && matchString(field);
+
+        if (!matches) {
+            buffer.readerIndex(nameIndex);
+            skipString();
+        }
+
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+
+        if (!matches) {
+            skipValue();
+            skipWhitespace();
+            if (peek() == ',') {
+                buffer.skipBytes(1);
+                skipWhitespace();
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Finish reading a value: if it was read in sequence, move the current scope past it and its separator.
+     */
+    private void endValue() {
+        Scope scope = currentScope();
+
+        if (scope != null && (scope.array || scope.sequential)) {
+            skipWhitespace();
+            if (peek() == ',') buffer.skipBytes(1);
+            scope.next = buffer.readerIndex();
+        }
+    }
+
+    private void beginObject() {
+        expect('{');
+        push(new Scope(false, buffer.readerIndex()));
+    }
+
+    private void endObject() {
+        Scope scope = scopes.remove(scopes.size() - 1);
+
+        buffer.readerIndex(scope.next);
+        skipWhitespace();
+
+        // skip any members that weren't read
+        while (peek() != '}') {
+            matchMember(null);
+        }
+
+        buffer.skipBytes(1);
+        endValue();
+    }
+
+    private void push(Scope scope) {
+        if (scopes.size() >= context.getEncodingLimits().getMaxRecursionDepth()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                "max recursion depth exceeded: " + context.getEncodingLimits().getMaxRecursionDepth()
+            );
+        }
+
+        scopes.add(scope);
+    }
+
+    // endregion
+
+    // region Tokens
+
+    private byte peek() {
+        if (!buffer.isReadable()) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, "unexpected end of input");
+        }
+
+        return buffer.getByte(buffer.readerIndex());
+    }
+
+    private void expect(char c) {
+        byte b = peek();
+
+        if (b != c) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                String.format("expected '%s' at %d but was '%s'", c, buffer.readerIndex(), (char) b)
+            );
+        }
+
+        buffer.skipBytes(1);
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
+        }
+    }
+
+    private void skipWhitespace() {
+        int index = buffer.readerIndex();
+        int end = buffer.writerIndex();
+
+        while (index < end) {
+            byte b = buffer.getByte(index);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') break;
+            index++;
+        }
+
+        buffer.readerIndex(index);
+    }
+
+    /**
+     * Skip the value at the current position, including any nested objects and arrays.
+     */
+    private void skipValue() {
+        byte b = peek();
+
+        if (b == '"') {
+            skipString();
+        } else if (b == '{' || b == '[') {
+            buffer.skipBytes(1);
+            int depth = 1;
+
+            while (depth > 0) {
+                b = peek();
+                if (b == '"') {
+                    skipString();
+                } else {
+                    if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                    buffer.skipBytes(1);
+                }
+            }
+        } else {
+            while (buffer.isReadable()) {
+                b = peek();
+                if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') break;
+                buffer.skipBytes(1);
+            }
+        }
+    }
+
+    private void skipString() {
+        expect('"');
+
+        while (true) {
+            byte b = buffer.readByte();
+            if (b == '\\') {
+                buffer.skipBytes(1);
+            } else if (b == '"') {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Compare the string at the current position with {@code value} without decoding it.
+     *
+     * @return {@code true}, positioned after the closing quote, if they are equal.
+     */
+    private boolean matchString(String value) {
+        int index = buffer.readerIndex();
+
+        if (buffer.getByte(index++) != '"') return false;
+
+        int length = value.length();
+        if (buffer.writerIndex() - index < length + 1) return false;
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || c == '"' || c == '\\') {
+                // names that need escaping or multi-byte encoding are compared decoded
+                return value.equals(readJsonString());
+            }
+            if (buffer.getByte(index + i) != c) return false;
+        }
+
+        if (buffer.getByte(index + length) != '"') return false;
+
+        buffer.readerIndex(index + length + 1);
+        return true;
+    }
+
+    private String readJsonString() {
+        expect('"');
+
+        int start = buffer.readerIndex();
+        int index = start;
+
+        while (true) {
+            byte b = buffer.getByte(index);
+
+            if (b == '"') {
+                String s = buffer.toString(start, index - start, StandardCharsets.UTF_8);
+                buffer.readerIndex(index + 1);
+                return s;
+            } else if (b == '\\') {
+                buffer.readerIndex(start);
+                return readEscapedString();
+            }
+
+            index++;
+        }
+    }
+
+    private String readEscapedString() {
+        StringBuilder sb = new StringBuilder();
+
+        int start = buffer.readerIndex();
+
+        while (true) {
+            byte b = buffer.readByte();
+
+            if (b == '"' || b == '\\') {
+                int end = buffer.readerIndex() - 1;
+                if (end > start) {
+                    sb.append(buffer.toString(start, end - start, StandardCharsets.UTF_8));
+                }
+
+                if (b == '"') return sb.toString();
+
+                byte escaped = buffer.readByte();
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        String hex = buffer.toString(buffer.readerIndex(), 4, StandardCharsets.US_ASCII);
+                        buffer.skipBytes(4);
+                        sb.append((char) Integer.parseInt(hex, 16));
+                        break;
+                    default:
+                        sb.append((char) escaped);
+                }
+
+                start = buffer.readerIndex();
+            }
+        }
+    }
+
+    /**
+     * Read a number, or a number written as a string, as text.
+     */
+    private String readNumberText() {
+        if (peek() == '"') {
+            return readJsonString();
+        }
+
+        int start = buffer.readerIndex();
+        skipValue();
+        return buffer.toString(start, buffer.readerIndex() - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read an integer, or an integer written as a string, without allocating.
+     */
+    private long readLongValue() {
+        boolean quoted = peek() == '"';
+        if (quoted) buffer.skipBytes(1);
+
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            buffer.skipBytes(1);
+        }
+
+        long value = 0;
+        int digits = 0;
+
+        while (buffer.isReadable()) {
+            byte b = peek();
+            if (b < '0' || b > '9') break;
+
+            if (digits == 18) {
+                // might overflow; fall back to parsing the text
+                buffer.readerIndex(buffer.readerIndex() - digits - (negative ? 1 : 0) - (quoted ? 1 : 0));
+                return parseLong(readNumberText());
+            }
+
+            value = value * 10 + (b - '0');
+            digits++;
+            buffer.skipBytes(1);
+        }
+
+        if (digits == 0 || (buffer.isReadable() && (peek() == '.' || peek() == 'e' || peek() == 'E'))) {
+            // not a plain integer; go back and parse the text
+            buffer.readerIndex(buffer.readerIndex() - digits - (negative ? 1 : 0) - (quoted ? 1 : 0));
+            return parseLong(readNumberText());
+        }
+
+        if (quoted) expect('"');
+
+        return negative ? -value : value;
+    }
+
+    private static long parseLong(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(text);
+            } catch (NumberFormatException e2) {
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, e2);
+            }
+        }
+    }
+
+    private double readDoubleValue() {
+        String text = readNumberText();
+
+        switch (text) {
+            case "NaN":
+                return Double.NaN;
+            case "Infinity":
+                return Double.POSITIVE_INFINITY;
+            case "-Infinity":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+                }
+        }
+    }
+
+    // endregion
+
+    // region Built-in Types
+
+    @Override
+    public Boolean readBoolean(String field) throws UaSerializationException {
+        if (!seek(field)) return false;
+
+        boolean value;
+        if (peek() == 't') {
+            expectLiteral("true");
+            value = true;
+        } else {
+            expectLiteral("false");
+            value = false;
+        }
+
+        endValue();
+        return value;
+    }
+
+    @Override
+    public Byte readSByte(String field) throws UaSerializationException {
+        return (byte) readLong(field, 0);
+    }
+
+    @Override
+    public Short readInt16(String field) throws UaSerializationException {
+        return (short) readLong(field, 0);
+    }
+
+    @Override
+    public Integer readInt32(String field) throws UaSerializationException {
+        return (int) readLong(field, 0);
+    }
+
+    @Override
+    public Long readInt64(String field) throws UaSerializationException {
+        return readLong(field, 0);
+    }
+
+    @Override
+    public UByte readByte(String field) throws UaSerializationException {
+        return ubyte(readLong(field, 0));
+    }
+
+    @Override
+    public UShort readUInt16(String field) throws UaSerializationException {
+        return ushort((int) readLong(field, 0));
+    }
+
+    @Override
+    public UInteger readUInt32(String field) throws UaSerializationException {
+        return uint(readLong(field, 0));
+    }
+
+    @Override
+    public ULong readUInt64(String field) throws UaSerializationException {
+        if (!seek(field)) return ULong.MIN;
+
+        String text = readNumberText();
+        endValue();
+
+        try {
+            return ULong.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        }
+    }
+
+    private long readLong(String field, long absent) {
+        if (!seek(field)) return absent;
+
+        long value = readLongValue();
+        endValue();
+        return value;
+    }
+
+    @Override
+    public Float readFloat(String field) throws UaSerializationException {
+        if (!seek(field)) return 0f;
+
+        float value = (float) readDoubleValue();
+        endValue();
+        return value;
+    }
+
+    @Override
+    public Double readDouble(String field) throws UaSerializationException {
+        if (!seek(field)) return 0d;
+
+        double value = readDoubleValue();
+        endValue();
+        return value;
+    }
+
+    @Override
+    public String readString(String field) throws UaSerializationException {
+        if (!seek(field)) return null;
+
+        String value = readJsonString();
+        endValue();
+        return value;
+    }
+
+    @Override
+    public DateTime readDateTime(String field) throws UaSerializationException {
+        String value = readString(field);
+        if (value == null) return DateTime.MIN_VALUE;
+
+        try {
+            Instant instant = Instant.parse(value);
+
+            return new DateTime(instant.getEpochSecond() * 10_000_000L + instant.getNano() / 100 + EPOCH_DELTA);
+        } catch (DateTimeParseException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        }
+    }
+
+    @Override
+    public UUID readGuid(String field) throws UaSerializationException {
+        String value = readString(field);
+        if (value == null) return new UUID(0L, 0L);
+
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        }
+    }
+
+    @Override
+    public ByteString readByteString(String field) throws UaSerializationException {
+        String value = readString(field);
+        if (value == null) return ByteString.NULL_VALUE;
+
+        try {
+            return ByteString.of(Base64.getDecoder().decode(value));
+        } catch (IllegalArgumentException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        }
+    }
+
+    @Override
+    public XmlElement readXmlElement(String field) throws UaSerializationException {
+        return new XmlElement(readString(field));
+    }
+
+    @Override
+    public NodeId readNodeId(String field) throws UaSerializationException {
+        if (!seek(field)) return NodeId.NULL_VALUE;
+
+        beginObject();
+        int idType = (int) readLong("IdType", 0);
+        Object identifier = readIdentifier(idType);
+        UShort namespaceIndex = ushort(0);
+        if (seek("Namespace")) {
+            if (peek() == '"') {
+                namespaceIndex = context.getNamespaceTable().getIndex(readJsonString());
+                if (namespaceIndex == null) {
+                    throw new UaSerializationException(StatusCodes.Bad_DecodingError, "namespace not registered");
+                }
+            } else {
+                namespaceIndex = ushort((int) readLongValue());
+            }
+            endValue();
+        }
+        endObject();
+
+        switch (idType) {
+            case 0:
+                return new NodeId(namespaceIndex, (UInteger) identifier);
+            case 1:
+                return new NodeId(namespaceIndex, (String) identifier);
+            case 2:
+                return new NodeId(namespaceIndex, (UUID) identifier);
+            default:
+                return new NodeId(namespaceIndex, (ByteString) identifier);
+        }
+    }
+
+    @Override
+    public ExpandedNodeId readExpandedNodeId(String field) throws UaSerializationException {
+        if (!seek(field)) return ExpandedNodeId.NULL_VALUE;
+
+        beginObject();
+        int idType = (int) readLong("IdType", 0);
+        Object identifier = readIdentifier(idType);
+        UShort namespaceIndex = ushort(0);
+        String namespaceUri = null;
+        if (seek("Namespace")) {
+            if (peek() == '"') {
+                namespaceUri = readJsonString();
+            } else {
+                namespaceIndex = ushort((int) readLongValue());
+            }
+            endValue();
+        }
+        UInteger serverIndex = readUInt32("ServerUri");
+        endObject();
+
+        return new ExpandedNodeId(namespaceIndex, namespaceUri, identifier, serverIndex);
+    }
+
+    private Object readIdentifier(int idType) {
+        switch (idType) {
+            case 0:
+                return readUInt32("Id");
+            case 1:
+                return readString("Id");
+            case 2:
+                return readGuid("Id");
+            case 3:
+                return readByteString("Id");
+            default:
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, "IdType: " + idType);
+        }
+    }
+
+    @Override
+    public StatusCode readStatusCode(String field) throws UaSerializationException {
+        if (!seek(field)) return StatusCode.GOOD;
+
+        long code;
+        if (peek() == '{') {
+            beginObject();
+            code = readLong("Code", 0);
+            endObject();
+        } else {
+            code = readLongValue();
+            endValue();
+        }
+
+        return new StatusCode(code);
+    }
+
+    @Override
+    public QualifiedName readQualifiedName(String field) throws UaSerializationException {
+        if (!seek(field)) return QualifiedName.NULL_VALUE;
+
+        beginObject();
+        String name = readString("Name");
+        UShort namespaceIndex = ushort(0);
+        if (seek("Uri")) {
+            if (peek() == '"') {
+                namespaceIndex = context.getNamespaceTable().getIndex(readJsonString());
+                if (namespaceIndex == null) {
+                    throw new UaSerializationException(StatusCodes.Bad_DecodingError, "namespace not registered");
+                }
+            } else {
+                namespaceIndex = ushort((int) readLongValue());
+            }
+            endValue();
+        }
+        endObject();
+
+        return new QualifiedName(namespaceIndex, name);
+    }
+
+    @Override
+    public LocalizedText readLocalizedText(String field) throws UaSerializationException {
+        if (!seek(field)) return LocalizedText.NULL_VALUE;
+
+        if (peek() == '"') {
+            String text = readJsonString();
+            endValue();
+            return new LocalizedText(null, text);
+        }
+
+        beginObject();
+        String locale = readString("Locale");
+        String text = readString("Text");
+        endObject();
+
+        return new LocalizedText(locale, text);
+    }
+
+    @Override
+    public ExtensionObject readExtensionObject(String field) throws UaSerializationException {
+        if (!seek(field)) return null;
+
+        beginObject();
+        NodeId typeId = readNodeId("TypeId");
+        int encoding = (int) readLong("Encoding", 0);
+
+        ExtensionObject value;
+        switch (encoding) {
+            case 0: {
+                GenericDataTypeCodec<Object> codec = getGenericCodec(typeId);
+
+                if (codec == null) {
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "no codec registered: " + typeId
+                    );
+                }
+
+                Object structure = readStruct("Body", codec);
+
+                if (!(structure instanceof UaStructure)) {
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "not a UaStructure: " + structure
+                    );
+                }
+
+                value = ExtensionObject.encode(context, (UaStructure) structure);
+                break;
+            }
+            case 1:
+                value = new ExtensionObject(readByteString("Body"), typeId);
+                break;
+            case 2:
+                value = new ExtensionObject(readXmlElement("Body"), typeId);
+                break;
+            default:
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, "Encoding: " + encoding);
+        }
+
+        endObject();
+
+        return value;
+    }
+
+    @Override
+    public DataValue readDataValue(String field) throws UaSerializationException {
+        if (!seek(field)) return null;
+
+        beginObject();
+        Variant value = readVariant("Value");
+        StatusCode status = readStatusCode("Status");
+        DateTime sourceTime = readDateTime("SourceTimestamp");
+        UShort sourcePicoseconds = readPicoseconds("SourcePicoseconds");
+        DateTime serverTime = readDateTime("ServerTimestamp");
+        UShort serverPicoseconds = readPicoseconds("ServerPicoseconds");
+        endObject();
+
+        return new DataValue(
+            value,
+            status,
+            sourceTime.isNull() ? null : sourceTime,
+            sourcePicoseconds,
+            serverTime.isNull() ? null : serverTime,
+            serverPicoseconds
+        );
+    }
+
+    @Nullable
+    private UShort readPicoseconds(String field) {
+        int picoseconds = (int) readLong(field, 0);
+
+        return picoseconds != 0 ? ushort(picoseconds) : null;
+    }
+
+    @Override
+    public Variant readVariant(String field) throws UaSerializationException {
+        if (!seek(field)) return Variant.NULL_VALUE;
+
+        beginObject();
+        int typeId = (int) readLong("Type", 0);
+
+        Object value = null;
+        if (typeId != 0) {
+            if (seek("Body") && peek() == '[') {
+                Class<?> backingClass = TypeUtil.getBackingClass(typeId);
+
+                if (backingClass == null) {
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "unknown builtin type: " + typeId
+                    );
+                }
+
+                value = readArrayValue(backingClass, f -> readValue(f, typeId));
+            } else {
+                // an absent Body is the default value of the type, e.g. a Good StatusCode
+                value = readValue("Body", typeId);
+            }
+
+            Integer[] dimensions = readInt32Array("Dimensions");
+
+            if (dimensions != null && dimensions.length > 1 && value != null) {
+                int[] ds = new int[dimensions.length];
+                for (int i = 0; i < ds.length; i++) {
+                    ds[i] = dimensions[i];
+                }
+                value = ArrayUtil.unflatten(value, ds);
+            }
+        }
+        endObject();
+
+        return new Variant(value);
+    }
+
+    /**
+     * Read a single value of the built-in type identified by {@code typeId}.
+     */
+    private Object readValue(String field, int typeId) {
+        switch (typeId) {
+            case 1:
+                return readBoolean(field);
+            case 2:
+                return readSByte(field);
+            case 3:
+                return readByte(field);
+            case 4:
+                return readInt16(field);
+            case 5:
+                return readUInt16(field);
+            case 6:
+                return readInt32(field);
+            case 7:
+                return readUInt32(field);
+            case 8:
+                return readInt64(field);
+            case 9:
+                return readUInt64(field);
+            case 10:
+                return readFloat(field);
+            case 11:
+                return readDouble(field);
+            case 12:
+                return readString(field);
+            case 13:
+                return readDateTime(field);
+            case 14:
+                return readGuid(field);
+            case 15:
+                return readByteString(field);
+            case 16:
+                return readXmlElement(field);
+            case 17:
+                return readNodeId(field);
+            case 18:
+                return readExpandedNodeId(field);
+            case 19:
+                return readStatusCode(field);
+            case 20:
+                return readQualifiedName(field);
+            case 21:
+                return readLocalizedText(field);
+            case 22:
+                return readExtensionObject(field);
+            case 23:
+                return readDataValue(field);
+            case 24:
+                return readVariant(field);
+            case 25:
+                return readDiagnosticInfo(field);
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_DecodingError,
+                    "unknown builtin type: " + typeId
+                );
+        }
+    }
+
+    @Override
+    public DiagnosticInfo readDiagnosticInfo(String field) throws UaSerializationException {
+        if (!seek(field)) return null;
+
+        beginObject();
+        int symbolicId = (int) readLong("SymbolicId", -1);
+        int namespaceUri = (int) readLong("NamespaceUri", -1);
+        int locale = (int) readLong("Locale", -1);
+        int localizedText = (int) readLong("LocalizedText", -1);
+        String additionalInfo = readString("AdditionalInfo");
+        StatusCode innerStatusCode = null;
+        if (seek("InnerStatusCode")) {
+            innerStatusCode = new StatusCode(readLongValue());
+            endValue();
+        }
+        DiagnosticInfo innerDiagnosticInfo = readDiagnosticInfo("InnerDiagnosticInfo");
+        endObject();
+
+        return new DiagnosticInfo(
+            namespaceUri,
+            symbolicId,
+            locale,
+            localizedText,
+            additionalInfo,
+            innerStatusCode,
+            innerDiagnosticInfo
+        );
+    }
+
+    @Override
+    public UaMessage readMessage(String field) throws UaSerializationException {
+        if (!seek(field)) return null;
+
+        beginObject();
+        NodeId encodingId = readNodeId("TypeId");
+
+        GenericDataTypeCodec<?> codec = GenericDataTypeCodec.unwrap(context.getDataTypeManager().getCodec(encodingId));
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + encodingId
+            );
+        }
+
+        Object message = readStruct("Body", codec);
+        endObject();
+
+        if (message instanceof UaMessage) {
+            return (UaMessage) message;
+        } else {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "not a UaMessage: " + message
+            );
+        }
+    }
+
+    @Override
+    public <T extends Enum<?> & UaEnumeration> T readEnum(
+        String field,
+        Class<T> enumType
+    ) throws UaSerializationException {
+
+        if (!seek(field)) return null;
+
+        int value;
+        if (peek() == '"') {
+            // the non-reversible form: "Name_Value"
+            String text = readJsonString();
+            try {
+                value = Integer.parseInt(text.substring(text.lastIndexOf('_') + 1));
+            } catch (NumberFormatException e) {
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+            }
+        } else {
+            value = (int) readLongValue();
+        }
+
+        endValue();
+
+        for (T constant : enumType.getEnumConstants()) {
+            if (constant.getValue() == value) {
+                return constant;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object readStruct(String field, NodeId dataTypeId) throws UaSerializationException {
+        GenericDataTypeCodec<Object> codec = getGenericCodec(dataTypeId);
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + dataTypeId
+            );
+        }
+
+        return readStruct(field, codec);
+    }
+
+    @Override
+    public Object readStruct(String field, ExpandedNodeId dataTypeId) throws UaSerializationException {
+        NodeId localDataTypeId = dataTypeId.toNodeId(context.getNamespaceTable())
+            .orElseThrow(() -> new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + dataTypeId
+            ));
+
+        return readStruct(field, localDataTypeId);
+    }
+
+    @Override
+    public Object readStruct(String field, DataTypeCodec codec) throws UaSerializationException {
+        GenericDataTypeCodec<?> genericCodec = GenericDataTypeCodec.unwrap(codec);
+
+        if (genericCodec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                new IllegalArgumentException("codec: " + codec)
+            );
+        }
+
+        if (!seek(field)) return null;
+
+        beginObject();
+        Object value = genericCodec.decode(context, this);
+        endObject();
+
+        return value;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private GenericDataTypeCodec<Object> getGenericCodec(NodeId dataTypeId) {
+        DataTypeCodec codec = context.getDataTypeManager()
+            .getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId);
+
+        return (GenericDataTypeCodec<Object>) GenericDataTypeCodec.unwrap(codec);
+    }
+
+    // endregion
+
+    // region Arrays
+
+    @Override
+    public Boolean[] readBooleanArray(String field) throws UaSerializationException {
+        return readArray(field, this::readBoolean, Boolean.class);
+    }
+
+    @Override
+    public Byte[] readSByteArray(String field) throws UaSerializationException {
+        return readArray(field, this::readSByte, Byte.class);
+    }
+
+    @Override
+    public Short[] readInt16Array(String field) throws UaSerializationException {
+        return readArray(field, this::readInt16, Short.class);
+    }
+
+    @Override
+    public Integer[] readInt32Array(String field) throws UaSerializationException {
+        return readArray(field, this::readInt32, Integer.class);
+    }
+
+    @Override
+    public Long[] readInt64Array(String field) throws UaSerializationException {
+        return readArray(field, this::readInt64, Long.class);
+    }
+
+    @Override
+    public UByte[] readByteArray(String field) throws UaSerializationException {
+        return readArray(field, this::readByte, UByte.class);
+    }
+
+    @Override
+    public UShort[] readUInt16Array(String field) throws UaSerializationException {
+        return readArray(field, this::readUInt16, UShort.class);
+    }
+
+    @Override
+    public UInteger[] readUInt32Array(String field) throws UaSerializationException {
+        return readArray(field, this::readUInt32, UInteger.class);
+    }
+
+    @Override
+    public ULong[] readUInt64Array(String field) throws UaSerializationException {
+        return readArray(field, this::readUInt64, ULong.class);
+    }
+
+    @Override
+    public Float[] readFloatArray(String field) throws UaSerializationException {
+        return readArray(field, this::readFloat, Float.class);
+    }
+
+    @Override
+    public Double[] readDoubleArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDouble, Double.class);
+    }
+
+    @Override
+    public String[] readStringArray(String field) throws UaSerializationException {
+        return readArray(field, this::readString, String.class);
+    }
+
+    @Override
+    public DateTime[] readDateTimeArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDateTime, DateTime.class);
+    }
+
+    @Override
+    public UUID[] readGuidArray(String field) throws UaSerializationException {
+        return readArray(field, this::readGuid, UUID.class);
+    }
+
+    @Override
+    public ByteString[] readByteStringArray(String field) throws UaSerializationException {
+        return readArray(field, this::readByteString, ByteString.class);
+    }
+
+    @Override
+    public XmlElement[] readXmlElementArray(String field) throws UaSerializationException {
+        return readArray(field, this::readXmlElement, XmlElement.class);
+    }
+
+    @Override
+    public NodeId[] readNodeIdArray(String field) throws UaSerializationException {
+        return readArray(field, this::readNodeId, NodeId.class);
+    }
+
+    @Override
+    public ExpandedNodeId[] readExpandedNodeIdArray(String field) throws UaSerializationException {
+        return readArray(field, this::readExpandedNodeId, ExpandedNodeId.class);
+    }
+
+    @Override
+    public StatusCode[] readStatusCodeArray(String field) throws UaSerializationException {
+        return readArray(field, this::readStatusCode, StatusCode.class);
+    }
+
+    @Override
+    public QualifiedName[] readQualifiedNameArray(String field) throws UaSerializationException {
+        return readArray(field, this::readQualifiedName, QualifiedName.class);
+    }
+
+    @Override
+    public LocalizedText[] readLocalizedTextArray(String field) throws UaSerializationException {
+        return readArray(field, this::readLocalizedText, LocalizedText.class);
+    }
+
+    @Override
+    public ExtensionObject[] readExtensionObjectArray(String field) throws UaSerializationException {
+        return readArray(field, this::readExtensionObject, ExtensionObject.class);
+    }
+
+    @Override
+    public DataValue[] readDataValueArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDataValue, DataValue.class);
+    }
+
+    @Override
+    public Variant[] readVariantArray(String field) throws UaSerializationException {
+        return readArray(field, this::readVariant, Variant.class);
+    }
+
+    @Override
+    public DiagnosticInfo[] readDiagnosticInfoArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDiagnosticInfo, DiagnosticInfo.class);
+    }
+
+    @Override
+    public <T extends Enum<?> & UaEnumeration> Object[] readEnumArray(
+        String field,
+        Class<T> enumType
+    ) throws UaSerializationException {
+
+        return readArray(field, f -> readEnum(f, enumType), enumType);
+    }
+
+    @Override
+    public Object[] readStructArray(String field, NodeId dataTypeId) throws UaSerializationException {
+        GenericDataTypeCodec<Object> codec = getGenericCodec(dataTypeId);
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + dataTypeId
+            );
+        }
+
+        if (!seek(field)) return null;
+
+        return (Object[]) readArrayValue(codec.getType(), f -> readStruct(f, codec));
+    }
+
+    @Override
+    public Object[] readStructArray(String field, ExpandedNodeId dataTypeId) throws UaSerializationException {
+        NodeId localDataTypeId = dataTypeId.toNodeId(context.getNamespaceTable())
+            .orElseThrow(() -> new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + dataTypeId
+            ));
+
+        return readStructArray(field, localDataTypeId);
+    }
+
+    @Override
+    public <T> T[] readArray(
+        String field,
+        Function<String, T> decoder,
+        Class<T> clazz
+    ) throws UaSerializationException {
+
+        if (!seek(field)) return null;
+
+        @SuppressWarnings("unchecked")
+        T[] values = (T[]) readArrayValue(clazz, decoder);
+
+        return values;
+    }
+
+    /**
+     * Read the array at the current position into an array of {@code componentType}, which may be primitive.
+     */
+    private Object readArrayValue(Class<?> componentType, Function<String, ?> decoder) {
+        expect('[');
+        Scope scope = new Scope(true, buffer.readerIndex());
+        push(scope);
+
+        List<Object> values = new ArrayList<>();
+
+        while (true) {
+            buffer.readerIndex(scope.next);
+            skipWhitespace();
+
+            if (peek() == ']') {
+                buffer.skipBytes(1);
+                break;
+            }
+
+            if (values.size() >= context.getEncodingLimits().getMaxMessageSize()) {
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    "array length exceeds max message size"
+                );
+            }
+
+            values.add(decoder.apply(null));
+        }
+
+        scopes.remove(scopes.size() - 1);
+        endValue();
+
+        Object array = Array.newInstance(componentType, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Array.set(array, i, values.get(i));
+        }
+        return array;
+    }
+
+    // endregion
+
+}
@@ -0,0 +1,1177 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.GenericDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.ULong;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
+import org.eclipse.milo.opcua.stack.core.util.ArrayUtil;
+import org.eclipse.milo.opcua.stack.core.util.TypeUtil;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link UaEncoder} that writes the OPC UA JSON encoding (Part 6, 5.4) directly into a {@link ByteBuf}.
+ * <p>
+ * Values are written as they are encountered, without building an intermediate document. In reversible mode the
+ * output can be read back by {@link OpcUaJsonStreamDecoder}; in non-reversible mode it is the simpler form intended for
+ * consumers that don't know the OPC UA type system, e.g. NodeIds carry namespace URIs instead of indices and Variants
+ * are written as their bare value.
+ * <p>
+ * Structures are encoded with their {@link GenericDataTypeCodec}, which includes every generated type. Structures
+ * that only have a binary codec are written as an ExtensionObject with a ByteString body.
+ */
+public class OpcUaJsonStreamEncoder implements UaEncoder {
+
+    /**
+     * The number of 100ns intervals between 1601-01-01 and the Java epoch.
+     */
+    private static final long EPOCH_DELTA = 116444736000000000L;
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final byte[] digits = new byte[20];
+
+    /**
+     * For each open object or array, {@code true} if it is an array.
+     */
+    private boolean[] scopes = new boolean[16];
+    private int depth = 0;
+    private boolean needsComma = false;
+
+    private ByteBuf buffer;
+
+    private final SerializationContext context;
+    private final boolean reversible;
+
+    public OpcUaJsonStreamEncoder(SerializationContext context) {
+        this(context, true);
+    }
+
+    /**
+     * @param context    the {@link SerializationContext}.
+     * @param reversible {@code true} to write the reversible form, {@code false} to write the non-reversible form.
+     */
+    public OpcUaJsonStreamEncoder(SerializationContext context, boolean reversible) {
+        this.context = context;
+        this.reversible = reversible;
+    }
+
+    public OpcUaJsonStreamEncoder setBuffer(ByteBuf buffer) {
+        this.buffer = buffer;
+        this.depth = 0;
+        this.needsComma = false;
+        return this;
+    }
+
+    public ByteBuf getBuffer() {
+        return buffer;
+    }
+
+    public boolean isReversible() {
+        return reversible;
+    }
+
+    // region Structure
+
+    /**
+     * @return {@code true} if values are currently being written as members of an object, where null values are
+     * omitted instead of written as {@code null}.
+     */
+    private boolean inObject() {
+        return depth > 0 && !scopes[depth - 1];
+    }
+
+    /**
+     * Write the separator and, inside an object, the member name that precede a value.
+     */
+    private void beginValue(String field) {
+        if (needsComma) buffer.writeByte(',');
+
+        if (inObject()) {
+            writeJsonString(field);
+            buffer.writeByte(':');
+        }
+
+        needsComma = true;
+    }
+
+    private void writeNull(String field) {
+        if (!inObject()) {
+            beginValue(field);
+            buffer.writeBytes(NULL);
+        }
+    }
+
+    private void beginObject(String field) {
+        beginValue(field);
+        buffer.writeByte('{');
+        push(false);
+    }
+
+    private void endObject() {
+        pop();
+        buffer.writeByte('}');
+    }
+
+    private void beginArray(String field) {
+        beginValue(field);
+        buffer.writeByte('[');
+        push(true);
+    }
+
+    private void endArray() {
+        pop();
+        buffer.writeByte(']');
+    }
+
+    private void push(boolean array) {
+        if (depth >= context.getEncodingLimits().getMaxRecursionDepth()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                "max recursion depth exceeded: " + context.getEncodingLimits().getMaxRecursionDepth()
+            );
+        }
+
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+
+        scopes[depth++] = array;
+        needsComma = false;
+    }
+
+    private void pop() {
+        depth--;
+        needsComma = true;
+    }
+
+    // endregion
+
+    // region Tokens
+
+    private void writeJsonString(String value) {
+        buffer.writeByte('"');
+
+        int start = 0;
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if (c < 0x20 || c == '"' || c == '\\') {
+                if (i > start) ByteBufUtil.writeUtf8(buffer, value, start, i);
+                writeEscaped(c);
+                start = i + 1;
+            }
+        }
+
+        if (start == 0) {
+            ByteBufUtil.writeUtf8(buffer, value);
+        } else if (start < length) {
+            ByteBufUtil.writeUtf8(buffer, value, start, length);
+        }
+
+        buffer.writeByte('"');
+    }
+
+    private void writeEscaped(char c) {
+        buffer.writeByte('\\');
+
+        switch (c) {
+            case '"':
+                buffer.writeByte('"');
+                break;
+            case '\\':
+                buffer.writeByte('\\');
+                break;
+            case '\b':
+                buffer.writeByte('b');
+                break;
+            case '\f':
+                buffer.writeByte('f');
+                break;
+            case '\n':
+                buffer.writeByte('n');
+                break;
+            case '\r':
+                buffer.writeByte('r');
+                break;
+            case '\t':
+                buffer.writeByte('t');
+                break;
+            default:
+                buffer.writeByte('u');
+                buffer.writeByte('0');
+                buffer.writeByte('0');
+                buffer.writeByte(HEX[(c >> 4) & 0xF]);
+                buffer.writeByte(HEX[c & 0xF]);
+        }
+    }
+
+    private void writeAscii(String value) {
+        ByteBufUtil.writeAscii(buffer, value);
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+
+        if (value < 0) {
+            buffer.writeByte('-');
+            value = -value;
+        }
+
+        int i = digits.length;
+        while (value >= 10) {
+            digits[--i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        digits[--i] = (byte) ('0' + value);
+
+        buffer.writeBytes(digits, i, digits.length - i);
+    }
+
+    private void writeDoubleValue(double value) {
+        if (Double.isNaN(value)) {
+            writeAscii("\"NaN\"");
+        } else if (Double.isInfinite(value)) {
+            writeAscii(value > 0 ? "\"Infinity\"" : "\"-Infinity\"");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    private void writeFloatValue(float value) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            writeDoubleValue(value);
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e7f) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Float.toString(value));
+        }
+    }
+
+    // endregion
+
+    // region Built-in Types
+
+    @Override
+    public void writeBoolean(String field, Boolean value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            buffer.writeBytes(value ? TRUE : FALSE);
+        }
+    }
+
+    @Override
+    public void writeSByte(String field, Byte value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeLong(value);
+        }
+    }
+
+    @Override
+    public void writeInt16(String field, Short value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeLong(value);
+        }
+    }
+
+    @Override
+    public void writeInt32(String field, Integer value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeLong(value);
+        }
+    }
+
+    @Override
+    public void writeInt64(String field, Long value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            // 64-bit integers are strings so they survive parsers that use doubles for numbers
+            beginValue(field);
+            buffer.writeByte('"');
+            writeLong(value);
+            buffer.writeByte('"');
+        }
+    }
+
+    @Override
+    public void writeByte(String field, UByte value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeLong(value.longValue());
+        }
+    }
+
+    @Override
+    public void writeUInt16(String field, UShort value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeLong(value.longValue());
+        }
+    }
+
+    @Override
+    public void writeUInt32(String field, UInteger value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeLong(value.longValue());
+        }
+    }
+
+    @Override
+    public void writeUInt64(String field, ULong value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            buffer.writeByte('"');
+            writeAscii(value.toString());
+            buffer.writeByte('"');
+        }
+    }
+
+    @Override
+    public void writeFloat(String field, Float value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeFloatValue(value);
+        }
+    }
+
+    @Override
+    public void writeDouble(String field, Double value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeDoubleValue(value);
+        }
+    }
+
+    @Override
+    public void writeString(String field, String value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            writeJsonString(value);
+        }
+    }
+
+    @Override
+    public void writeDateTime(String field, DateTime value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            long ticks = value.getUtcTime() - EPOCH_DELTA;
+
+            Instant instant = Instant.ofEpochSecond(
+                Math.floorDiv(ticks, 10_000_000L),
+                Math.floorMod(ticks, 10_000_000L) * 100L
+            );
+
+            beginValue(field);
+            buffer.writeByte('"');
+            writeAscii(DateTimeFormatter.ISO_INSTANT.format(instant));
+            buffer.writeByte('"');
+        }
+    }
+
+    @Override
+    public void writeGuid(String field, UUID value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            buffer.writeByte('"');
+            writeAscii(value.toString());
+            buffer.writeByte('"');
+        }
+    }
+
+    @Override
+    public void writeByteString(String field, ByteString value) throws UaSerializationException {
+        if (value == null || value.isNull()) {
+            writeNull(field);
+        } else {
+            beginValue(field);
+            buffer.writeByte('"');
+            buffer.writeBytes(Base64.getEncoder().encode(value.bytesOrEmpty()));
+            buffer.writeByte('"');
+        }
+    }
+
+    @Override
+    public void writeXmlElement(String field, XmlElement value) throws UaSerializationException {
+        if (value == null || value.isNull()) {
+            writeNull(field);
+        } else {
+            writeString(field, value.getFragment());
+        }
+    }
+
+    @Override
+    public void writeNodeId(String field, NodeId value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeIdentifier(value.getType(), value.getIdentifier());
+            writeNamespace(value.getNamespaceIndex(), null);
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeExpandedNodeId(String field, ExpandedNodeId value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeIdentifier(value.getType(), value.getIdentifier());
+            writeNamespace(value.getNamespaceIndex(), value.getNamespaceUri());
+            if (value.getServerIndex().longValue() != 0) {
+                writeUInt32("ServerUri", value.getServerIndex());
+            }
+            endObject();
+        }
+    }
+
+    private void writeIdentifier(IdType idType, Object identifier) {
+        switch (idType) {
+            case Numeric:
+                writeUInt32("Id", (UInteger) identifier);
+                break;
+            case String:
+                writeInt32("IdType", 1);
+                writeString("Id", (String) identifier);
+                break;
+            case Guid:
+                writeInt32("IdType", 2);
+                writeGuid("Id", (UUID) identifier);
+                break;
+            case Opaque:
+                writeInt32("IdType", 3);
+                writeByteString("Id", (ByteString) identifier);
+                break;
+            default:
+                throw new UaSerializationException(StatusCodes.Bad_EncodingError, "IdType: " + idType);
+        }
+    }
+
+    /**
+     * Write the "Namespace" member of a NodeId or ExpandedNodeId, which is omitted for namespace 0 and, when not
+     * reversible, is the namespace URI for any namespace other than 0 and 1.
+     */
+    private void writeNamespace(UShort namespaceIndex, @Nullable String namespaceUri) {
+        if (namespaceUri != null && !namespaceUri.isEmpty()) {
+            writeString("Namespace", namespaceUri);
+        } else if (namespaceIndex.intValue() > 1 && !reversible) {
+            String uri = context.getNamespaceTable().getUri(namespaceIndex);
+
+            if (uri != null) {
+                writeString("Namespace", uri);
+            } else {
+                writeUInt16("Namespace", namespaceIndex);
+            }
+        } else if (namespaceIndex.intValue() != 0) {
+            writeUInt16("Namespace", namespaceIndex);
+        }
+    }
+
+    @Override
+    public void writeStatusCode(String field, StatusCode value) throws UaSerializationException {
+        if (value == null || (value.getValue() == 0 && inObject())) {
+            // Good is the default and omitted when it's a member of an object
+            writeNull(field);
+        } else if (reversible) {
+            beginValue(field);
+            writeLong(value.getValue());
+        } else {
+            beginObject(field);
+            writeUInt32("Code", UInteger.valueOf(value.getValue()));
+            String[] nameAndDescription = StatusCodes.lookup(value.getValue()).orElse(null);
+            if (nameAndDescription != null) {
+                writeString("Symbol", nameAndDescription[0]);
+            }
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeQualifiedName(String field, QualifiedName value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeString("Name", value.getName());
+            writeQualifiedNameUri(value.getNamespaceIndex());
+            endObject();
+        }
+    }
+
+    /**
+     * Write the "Uri" member of a QualifiedName; {@link #writeNamespace(UShort, String)} writes a member named
+     * "Namespace", so QualifiedNames are written with this instead.
+     */
+    private void writeQualifiedNameUri(UShort namespaceIndex) {
+        if (namespaceIndex.intValue() > 1 && !reversible) {
+            String uri = context.getNamespaceTable().getUri(namespaceIndex);
+
+            if (uri != null) {
+                writeString("Uri", uri);
+            } else {
+                writeUInt16("Uri", namespaceIndex);
+            }
+        } else if (namespaceIndex.intValue() != 0) {
+            writeUInt16("Uri", namespaceIndex);
+        }
+    }
+
+    @Override
+    public void writeLocalizedText(String field, LocalizedText value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else if (reversible) {
+            beginObject(field);
+            writeString("Locale", value.getLocale());
+            writeString("Text", value.getText());
+            endObject();
+        } else {
+            writeString(field, value.getText());
+        }
+    }
+
+    @Override
+    public void writeExtensionObject(String field, ExtensionObject value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        if (value.getBodyType() == ExtensionObject.BodyType.ByteString && !value.isNull()) {
+            Object decoded = value.decodeOrNull(context);
+
+            if (decoded instanceof UaStructure) {
+                UaStructure structure = (UaStructure) decoded;
+                NodeId dataTypeId = structure.getTypeId().toNodeId(context.getNamespaceTable()).orElse(null);
+                GenericDataTypeCodec<Object> codec = dataTypeId != null ? getGenericCodec(dataTypeId) : null;
+
+                if (codec != null) {
+                    writeStructure(field, structure, dataTypeId, codec);
+                    return;
+                }
+            }
+        }
+
+        if (reversible) {
+            beginObject(field);
+            writeNodeId("TypeId", value.getEncodingId());
+            if (value.getBodyType() == ExtensionObject.BodyType.ByteString) {
+                writeInt32("Encoding", 1);
+                writeByteString("Body", (ByteString) value.getBody());
+            } else {
+                writeInt32("Encoding", 2);
+                writeXmlElement("Body", (XmlElement) value.getBody());
+            }
+            endObject();
+        } else if (value.getBodyType() == ExtensionObject.BodyType.ByteString) {
+            writeByteString(field, (ByteString) value.getBody());
+        } else {
+            writeXmlElement(field, (XmlElement) value.getBody());
+        }
+    }
+
+    /**
+     * Write a structure as an ExtensionObject with a JSON body or, when not reversible, as just the body.
+     */
+    private void writeStructure(String field, Object structure, NodeId dataTypeId, GenericDataTypeCodec<Object> codec) {
+        if (reversible) {
+            beginObject(field);
+            writeNodeId("TypeId", dataTypeId);
+            beginObject("Body");
+            codec.encode(context, this, structure);
+            endObject();
+            endObject();
+        } else {
+            beginObject(field);
+            codec.encode(context, this, structure);
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeDataValue(String field, DataValue value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            if (value.getValue() != null && value.getValue().isNotNull()) {
+                writeVariant("Value", value.getValue());
+            }
+            writeStatusCode("Status", value.getStatusCode());
+            if (value.getSourceTime() != null && !value.getSourceTime().isNull()) {
+                writeDateTime("SourceTimestamp", value.getSourceTime());
+            }
+            if (value.getSourcePicoseconds() != null && value.getSourcePicoseconds().intValue() != 0) {
+                writeUInt16("SourcePicoseconds", value.getSourcePicoseconds());
+            }
+            if (value.getServerTime() != null && !value.getServerTime().isNull()) {
+                writeDateTime("ServerTimestamp", value.getServerTime());
+            }
+            if (value.getServerPicoseconds() != null && value.getServerPicoseconds().intValue() != 0) {
+                writeUInt16("ServerPicoseconds", value.getServerPicoseconds());
+            }
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeVariant(String field, Variant variant) throws UaSerializationException {
+        Object value = variant != null ? variant.getValue() : null;
+
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        Class<?> valueClass = value.getClass().isArray() ? ArrayUtil.getType(value) : value.getClass();
+
+        int typeId;
+        if (UaStructure.class.isAssignableFrom(valueClass)) {
+            typeId = 22;
+        } else if (UaEnumeration.class.isAssignableFrom(valueClass)) {
+            typeId = 6;
+        } else {
+            typeId = TypeUtil.getBuiltinTypeId(valueClass);
+        }
+
+        if (typeId == -1) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "not a built-in type: " + valueClass
+            );
+        }
+
+        if (reversible) {
+            beginObject(field);
+            writeInt32("Type", typeId);
+            if (value.getClass().isArray()) {
+                int[] dimensions = ArrayUtil.getDimensions(value);
+
+                if (dimensions.length == 1) {
+                    writeFlatArray("Body", value, typeId);
+                } else {
+                    writeFlatArray("Body", ArrayUtil.flatten(value), typeId);
+
+                    beginArray("Dimensions");
+                    for (int dimension : dimensions) {
+                        writeInt32(null, dimension);
+                    }
+                    endArray();
+                }
+            } else {
+                writeValue("Body", value, typeId);
+            }
+            endObject();
+        } else if (value.getClass().isArray()) {
+            writeNestedArray(field, value, typeId);
+        } else {
+            writeValue(field, value, typeId);
+        }
+    }
+
+    private void writeFlatArray(String field, Object array, int typeId) {
+        beginArray(field);
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            writeValue(null, Array.get(array, i), typeId);
+        }
+        endArray();
+    }
+
+    private void writeNestedArray(String field, Object array, int typeId) {
+        beginArray(field);
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            Object element = Array.get(array, i);
+
+            if (element != null && element.getClass().isArray()) {
+                writeNestedArray(null, element, typeId);
+            } else {
+                writeValue(null, element, typeId);
+            }
+        }
+        endArray();
+    }
+
+    /**
+     * Write a single value of the built-in type identified by {@code typeId}.
+     */
+    private void writeValue(String field, Object value, int typeId) {
+        switch (typeId) {
+            case 1:
+                writeBoolean(field, (Boolean) value);
+                break;
+            case 2:
+                writeSByte(field, (Byte) value);
+                break;
+            case 3:
+                writeByte(field, (UByte) value);
+                break;
+            case 4:
+                writeInt16(field, (Short) value);
+                break;
+            case 5:
+                writeUInt16(field, (UShort) value);
+                break;
+            case 6:
+                if (value instanceof UaEnumeration) {
+                    writeEnum(field, (UaEnumeration) value);
+                } else {
+                    writeInt32(field, (Integer) value);
+                }
+                break;
+            case 7:
+                writeUInt32(field, (UInteger) value);
+                break;
+            case 8:
+                writeInt64(field, (Long) value);
+                break;
+            case 9:
+                writeUInt64(field, (ULong) value);
+                break;
+            case 10:
+                writeFloat(field, (Float) value);
+                break;
+            case 11:
+                writeDouble(field, (Double) value);
+                break;
+            case 12:
+                writeString(field, (String) value);
+                break;
+            case 13:
+                writeDateTime(field, (DateTime) value);
+                break;
+            case 14:
+                writeGuid(field, (UUID) value);
+                break;
+            case 15:
+                writeByteString(field, (ByteString) value);
+                break;
+            case 16:
+                writeXmlElement(field, (XmlElement) value);
+                break;
+            case 17:
+                writeNodeId(field, (NodeId) value);
+                break;
+            case 18:
+                writeExpandedNodeId(field, (ExpandedNodeId) value);
+                break;
+            case 19:
+                writeStatusCode(field, (StatusCode) value);
+                break;
+            case 20:
+                writeQualifiedName(field, (QualifiedName) value);
+                break;
+            case 21:
+                writeLocalizedText(field, (LocalizedText) value);
+                break;
+            case 22:
+                if (value instanceof UaStructure) {
+                    writeUaStructure(field, (UaStructure) value);
+                } else {
+                    writeExtensionObject(field, (ExtensionObject) value);
+                }
+                break;
+            case 23:
+                writeDataValue(field, (DataValue) value);
+                break;
+            case 24:
+                writeVariant(field, (Variant) value);
+                break;
+            case 25:
+                writeDiagnosticInfo(field, (DiagnosticInfo) value);
+                break;
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingError,
+                    "unknown builtin type: " + typeId
+                );
+        }
+    }
+
+    private void writeUaStructure(String field, UaStructure structure) {
+        NodeId dataTypeId = structure.getTypeId().toNodeId(context.getNamespaceTable()).orElse(null);
+        GenericDataTypeCodec<Object> codec = dataTypeId != null ? getGenericCodec(dataTypeId) : null;
+
+        if (codec != null) {
+            writeStructure(field, structure, dataTypeId, codec);
+        } else {
+            writeExtensionObject(field, ExtensionObject.encode(context, structure));
+        }
+    }
+
+    @Override
+    public void writeDiagnosticInfo(String field, DiagnosticInfo value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            if (value.getSymbolicId() != -1) writeInt32("SymbolicId", value.getSymbolicId());
+            if (value.getNamespaceUri() != -1) writeInt32("NamespaceUri", value.getNamespaceUri());
+            if (value.getLocale() != -1) writeInt32("Locale", value.getLocale());
+            if (value.getLocalizedText() != -1) writeInt32("LocalizedText", value.getLocalizedText());
+            writeString("AdditionalInfo", value.getAdditionalInfo());
+            writeStatusCode("InnerStatusCode", value.getInnerStatusCode());
+            writeDiagnosticInfo("InnerDiagnosticInfo", value.getInnerDiagnosticInfo());
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeMessage(String field, UaMessage message) throws UaSerializationException {
+        ExpandedNodeId xBinaryEncodingId = message.getBinaryEncodingId();
+
+        NodeId encodingId = xBinaryEncodingId.toNodeId(context.getNamespaceTable())
+            .orElseThrow(
+                () ->
+                    new UaSerializationException(
+                        StatusCodes.Bad_EncodingError,
+                        "namespace not registered: " + xBinaryEncodingId.getNamespaceUri())
+            );
+
+        @SuppressWarnings("unchecked")
+        GenericDataTypeCodec<Object> codec = (GenericDataTypeCodec<Object>)
+            GenericDataTypeCodec.unwrap(context.getDataTypeManager().getCodec(encodingId));
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + encodingId
+            );
+        }
+
+        beginObject(field);
+        writeNodeId("TypeId", encodingId);
+        beginObject("Body");
+        codec.encode(context, this, message);
+        endObject();
+        endObject();
+    }
+
+    @Override
+    public void writeEnum(String field, UaEnumeration value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else if (reversible) {
+            writeInt32(field, value.getValue());
+        } else {
+            String name = value instanceof Enum ? ((Enum<?>) value).name() : null;
+
+            if (name != null) {
+                writeString(field, name + "_" + value.getValue());
+            } else {
+                writeInt32(field, value.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void writeStruct(String field, Object value, NodeId dataTypeId) throws UaSerializationException {
+        GenericDataTypeCodec<Object> codec = getGenericCodec(dataTypeId);
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + dataTypeId
+            );
+        }
+
+        writeStruct(field, value, codec);
+    }
+
+    @Override
+    public void writeStruct(String field, Object value, ExpandedNodeId dataTypeId) throws UaSerializationException {
+        NodeId localDateTypeId = dataTypeId.toNodeId(context.getNamespaceTable())
+            .orElseThrow(() -> new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + dataTypeId
+            ));
+
+        writeStruct(field, value, localDateTypeId);
+    }
+
+    @Override
+    public void writeStruct(String field, Object value, DataTypeCodec codec) throws UaSerializationException {
+        @SuppressWarnings("unchecked")
+        GenericDataTypeCodec<Object> genericCodec = (GenericDataTypeCodec<Object>) GenericDataTypeCodec.unwrap(codec);
+
+        if (genericCodec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                new IllegalArgumentException("codec: " + codec)
+            );
+        }
+
+        if (value == null) {
+            writeNull(field);
+        } else {
+            try {
+                beginObject(field);
+                genericCodec.encode(context, this, value);
+                endObject();
+            } catch (ClassCastException e) {
+                throw new UaSerializationException(StatusCodes.Bad_EncodingError, e);
+            }
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private GenericDataTypeCodec<Object> getGenericCodec(NodeId dataTypeId) {
+        DataTypeCodec codec = context.getDataTypeManager()
+            .getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId);
+
+        return (GenericDataTypeCodec<Object>) GenericDataTypeCodec.unwrap(codec);
+    }
+
+    // endregion
+
+    // region Arrays
+
+    @Override
+    public void writeBooleanArray(String field, Boolean[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeBoolean);
+    }
+
+    @Override
+    public void writeSByteArray(String field, Byte[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeSByte);
+    }
+
+    @Override
+    public void writeInt16Array(String field, Short[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeInt16);
+    }
+
+    @Override
+    public void writeInt32Array(String field, Integer[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeInt32);
+    }
+
+    @Override
+    public void writeInt64Array(String field, Long[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeInt64);
+    }
+
+    @Override
+    public void writeByteArray(String field, UByte[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeByte);
+    }
+
+    @Override
+    public void writeUInt16Array(String field, UShort[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeUInt16);
+    }
+
+    @Override
+    public void writeUInt32Array(String field, UInteger[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeUInt32);
+    }
+
+    @Override
+    public void writeUInt64Array(String field, ULong[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeUInt64);
+    }
+
+    @Override
+    public void writeFloatArray(String field, Float[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeFloat);
+    }
+
+    @Override
+    public void writeDoubleArray(String field, Double[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDouble);
+    }
+
+    @Override
+    public void writeStringArray(String field, String[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeString);
+    }
+
+    @Override
+    public void writeDateTimeArray(String field, DateTime[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDateTime);
+    }
+
+    @Override
+    public void writeGuidArray(String field, UUID[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeGuid);
+    }
+
+    @Override
+    public void writeByteStringArray(String field, ByteString[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeByteString);
+    }
+
+    @Override
+    public void writeXmlElementArray(String field, XmlElement[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeXmlElement);
+    }
+
+    @Override
+    public void writeNodeIdArray(String field, NodeId[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeNodeId);
+    }
+
+    @Override
+    public void writeExpandedNodeIdArray(String field, ExpandedNodeId[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeExpandedNodeId);
+    }
+
+    @Override
+    public void writeStatusCodeArray(String field, StatusCode[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeStatusCode);
+    }
+
+    @Override
+    public void writeQualifiedNameArray(String field, QualifiedName[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeQualifiedName);
+    }
+
+    @Override
+    public void writeLocalizedTextArray(String field, LocalizedText[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeLocalizedText);
+    }
+
+    @Override
+    public void writeExtensionObjectArray(String field, ExtensionObject[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeExtensionObject);
+    }
+
+    @Override
+    public void writeDataValueArray(String field, DataValue[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDataValue);
+    }
+
+    @Override
+    public void writeVariantArray(String field, Variant[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeVariant);
+    }
+
+    @Override
+    public void writeDiagnosticInfoArray(String field, DiagnosticInfo[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDiagnosticInfo);
+    }
+
+    @Override
+    public void writeEnumArray(String field, UaEnumeration[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeEnum);
+    }
+
+    @Override
+    public void writeStructArray(String field, Object[] value, NodeId dataTypeId) throws UaSerializationException {
+        writeArray(field, value, (f, v) -> writeStruct(f, v, dataTypeId));
+    }
+
+    @Override
+    public void writeStructArray(
+        String field,
+        Object[] value,
+        ExpandedNodeId dataTypeId
+    ) throws UaSerializationException {
+
+        NodeId localDateTypeId = dataTypeId.toNodeId(context.getNamespaceTable())
+            .orElseThrow(() -> new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + dataTypeId
+            ));
+
+        writeStructArray(field, value, localDateTypeId);
+    }
+
+    @Override
+    public <T> void writeArray(
+        String field, T[] values, BiConsumer<String, T> encoder) throws UaSerializationException {
+
+        if (values == null) {
+            writeNull(field);
+        } else {
+            beginArray(field);
+            for (T value : values) {
+                encoder.accept(field, value);
+            }
+            endArray();
+        }
+    }
+
+    // endregion
+
+}
@@ -18,6 +18,7 @@ import org.eclipse.milo.opcua.stack.core.serialization.OpcUaXmlStreamEncoder;
 import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
 import org.eclipse.milo.opcua.stack.core.serialization.UaDecoder;
 import org.eclipse.milo.opcua.stack.core.serialization.UaEncoder;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GenericDataTypeCodec<T> implements DataTypeCodec<T, UaDecoder, UaEncoder> {
 
@@ -29,6 +30,26 @@ public abstract class GenericDataTypeCodec<T> implements DataTypeCodec<T, UaDeco
         return new GenericXmlDataTypeCodec<>(this);
     }
 
+    /**
+     * Get the {@link GenericDataTypeCodec} behind {@code codec}, which is either a {@link GenericDataTypeCodec} itself
+     * or was created from one by {@link #asBinaryCodec()} or {@link #asXmlCodec()}.
+     *
+     * @param codec the {@link DataTypeCodec} to unwrap.
+     * @return the {@link GenericDataTypeCodec} behind {@code codec}, or {@code null} if there isn't one.
+     */
+    @Nullable
+    public static GenericDataTypeCodec<?> unwrap(@Nullable DataTypeCodec<?, ?, ?> codec) {
+        if (codec instanceof GenericDataTypeCodec) {
+            return (GenericDataTypeCodec<?>) codec;
+        } else if (codec instanceof GenericBinaryDataTypeCodec) {
+            return ((GenericBinaryDataTypeCodec<?>) codec).codec;
+        } else if (codec instanceof GenericXmlDataTypeCodec) {
+            return ((GenericXmlDataTypeCodec<?>) codec).codec;
+        } else {
+            return null;
+        }
+    }
+
     private static class GenericBinaryDataTypeCodec<T> implements OpcUaBinaryDataTypeCodec<T> {
 
         private final GenericDataTypeCodec<T> codec;
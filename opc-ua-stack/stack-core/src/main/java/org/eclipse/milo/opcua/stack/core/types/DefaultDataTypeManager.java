@@ -10,6 +10,9 @@
 
 package org.eclipse.milo.opcua.stack.core.types;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.HashBasedTable;
@@ -20,6 +23,7 @@ import org.eclipse.milo.opcua.stack.core.NamespaceTable;
 import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.jetbrains.annotations.Nullable;
 
 public class DefaultDataTypeManager implements DataTypeManager {
@@ -29,14 +33,26 @@ public class DefaultDataTypeManager implements DataTypeManager {
     private final Table<QualifiedName, NodeId, DataTypeCodec> codecsByDataTypeId =
         Tables.synchronizedTable(HashBasedTable.create());
 
+    /*
+     * The codecs of namespace 0, which include every service request and response, are also kept in tables indexed
+     * by numeric id so that decoding a message doesn't hash a NodeId or take the codecsByDataTypeId lock.
+     */
+    private final Namespace0Codecs ns0CodecsByEncodingId = new Namespace0Codecs();
+    private final Namespace0Codecs ns0BinaryCodecsByDataTypeId = new Namespace0Codecs();
+
     @Override
     public void registerCodec(NodeId encodingId, DataTypeCodec codec) {
         codecsByEncodingId.put(encodingId, codec);
+        ns0CodecsByEncodingId.put(encodingId, codec);
     }
 
     @Override
     public void registerCodec(QualifiedName encodingName, NodeId dataTypeId, DataTypeCodec codec) {
         codecsByDataTypeId.put(encodingName, dataTypeId, codec);
+
+        if (OpcUaDefaultBinaryEncoding.ENCODING_NAME.equals(encodingName)) {
+            ns0BinaryCodecsByDataTypeId.put(dataTypeId, codec);
+        }
     }
 
     @Override
@@ -44,22 +60,35 @@ public class DefaultDataTypeManager implements DataTypeManager {
         dictionaries.put(dataTypeDictionary.getNamespaceUri(), dataTypeDictionary);
 
         this.codecsByEncodingId.putAll(dataTypeDictionary.getCodecsByEncodingId());
+        this.ns0CodecsByEncodingId.putAll(dataTypeDictionary.getCodecsByEncodingId());
 
         dataTypeDictionary.getCodecsByDataTypeId().forEach(
             (dataTypeId, codec) ->
                 codecsByDataTypeId.put(dataTypeDictionary.getEncodingName(), dataTypeId, codec)
         );
+
+        if (OpcUaDefaultBinaryEncoding.ENCODING_NAME.equals(dataTypeDictionary.getEncodingName())) {
+            this.ns0BinaryCodecsByDataTypeId.putAll(dataTypeDictionary.getCodecsByDataTypeId());
+        }
     }
 
     @Nullable
     @Override
     public DataTypeCodec getCodec(NodeId encodingId) {
-        return codecsByEncodingId.get(encodingId);
+        DataTypeCodec codec = ns0CodecsByEncodingId.get(encodingId);
+
+        return codec != null ? codec : codecsByEncodingId.get(encodingId);
     }
 
     @Nullable
     @Override
     public DataTypeCodec getCodec(QualifiedName encodingName, NodeId dataTypeId) {
+        if (OpcUaDefaultBinaryEncoding.ENCODING_NAME.equals(encodingName)) {
+            DataTypeCodec codec = ns0BinaryCodecsByDataTypeId.get(dataTypeId);
+
+            if (codec != null) return codec;
+        }
+
         return codecsByDataTypeId.get(encodingName, dataTypeId);
     }
 
@@ -91,4 +120,65 @@ public class DefaultDataTypeManager implements DataTypeManager {
         return dataTypeManager;
     }
 
+    /**
+     * Codecs for namespace 0 NodeIds with a numeric identifier, in an array indexed by the identifier.
+     * <p>
+     * Lookups don't lock; registrations, which are rare and mostly happen during initialization, replace the array.
+     */
+    private static final class Namespace0Codecs {
+
+        /**
+         * Larger identifiers are left to the maps; namespace 0 doesn't use any.
+         */
+        private static final int MAX_IDENTIFIER = 65535;
+
+        private volatile DataTypeCodec[] codecs = new DataTypeCodec[0];
+
+        void put(NodeId nodeId, DataTypeCodec codec) {
+            putAll(Collections.singletonMap(nodeId, codec));
+        }
+
+        synchronized void putAll(Map<NodeId, ? extends DataTypeCodec> codecsByNodeId) {
+            int length = codecs.length;
+
+            for (NodeId nodeId : codecsByNodeId.keySet()) {
+                length = Math.max(length, identifier(nodeId) + 1);
+            }
+
+            DataTypeCodec[] codecs = Arrays.copyOf(this.codecs, length);
+
+            codecsByNodeId.forEach((nodeId, codec) -> {
+                int identifier = identifier(nodeId);
+                if (identifier >= 0) {
+                    codecs[identifier] = codec;
+                }
+            });
+
+            this.codecs = codecs;
+        }
+
+        @Nullable
+        DataTypeCodec get(NodeId nodeId) {
+            int identifier = identifier(nodeId);
+
+            DataTypeCodec[] codecs = this.codecs;
+
+            return identifier >= 0 && identifier < codecs.length ? codecs[identifier] : null;
+        }
+
+        /**
+         * @return the identifier of {@code nodeId}, or -1 if it isn't a numeric namespace 0 NodeId this table can hold.
+         */
+        private static int identifier(NodeId nodeId) {
+            if (nodeId.getNamespaceIndex().intValue() == 0 && nodeId.getIdentifier() instanceof UInteger) {
+                long identifier = ((UInteger) nodeId.getIdentifier()).longValue();
+
+                return identifier <= MAX_IDENTIFIER ? (int) identifier : -1;
+            } else {
+                return -1;
+            }
+        }
+
+    }
+
 }
@@ -25,6 +25,7 @@ import org.eclipse.milo.opcua.stack.core.UaRuntimeException;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
+import org.eclipse.milo.opcua.stack.core.util.Namespaces;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -393,6 +394,9 @@ public final class ExpandedNodeId {
                 NodeId nodeId = new NodeId(namespaceIndex, identifier);
 
                 return Optional.of(nodeId);
+            } else if (Namespaces.OPC_UA.equals(namespaceUri)) {
+                // always namespace 0; skip the synchronized NamespaceTable lookup
+                return Optional.of(new NodeId(ushort(0), identifier));
             } else {
                 UShort namespaceIndex = namespaceTable.getIndex(namespaceUri);
 
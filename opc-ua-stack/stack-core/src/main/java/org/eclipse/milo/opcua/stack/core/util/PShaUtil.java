@@ -42,7 +42,7 @@ public class PShaUtil {
 
     private static byte[] createKey(String transformation, byte[] secret, byte[] seed, int offset, int length) {
         try {
-            Mac mac = Mac.getInstance(transformation);
+            Mac mac = SignatureUtil.getMacInstance(transformation);
 
             byte[] tempBytes = hash(transformation, secret, seed, mac, offset + length);
             byte[] key = new byte[length];
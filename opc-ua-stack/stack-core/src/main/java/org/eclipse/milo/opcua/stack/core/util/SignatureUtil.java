@@ -29,6 +29,10 @@ import org.eclipse.milo.opcua.stack.core.security.SecurityAlgorithm;
 
 public class SignatureUtil {
 
+    private static final ThreadLocal<Map<String, Mac>> MAC_INSTANCES = new ThreadLocal<>();
+
+    private static final ThreadLocal<Map<String, Signature>> SIGNATURE_INSTANCES = new ThreadLocal<>();
+
     /**
      * Sign the contents of the provided buffers using the provided {@link SecurityAlgorithm}.
      * Note that only the bytes between position and limit of each buffer are considered.
@@ -46,7 +50,7 @@ public class SignatureUtil {
         String transformation = securityAlgorithm.getTransformation();
 
         try {
-            Signature signature = Signature.getInstance(transformation);
+            Signature signature = getSignatureInstance(transformation);
             signature.initSign(privateKey);
 
             for (ByteBuffer buffer : buffers) {
@@ -76,7 +80,7 @@ public class SignatureUtil {
         byte[] signatureBytes) throws UaException {
 
         try {
-            Signature signature = Signature.getInstance(algorithm.getTransformation());
+            Signature signature = getSignatureInstance(algorithm.getTransformation());
             signature.initVerify(certificate);
 
             signature.update(dataBytes);
@@ -124,9 +128,17 @@ public class SignatureUtil {
         }
     }
 
-    private static final ThreadLocal<Map<String, Mac>> MAC_INSTANCES = new ThreadLocal<>();
-
-    private static Mac getMacInstance(String transformation) throws NoSuchAlgorithmException {
+    /**
+     * Get this thread's cached {@link Mac} instance for {@code transformation}.
+     * <p>
+     * The instance is shared by every caller on this thread, so it must be initialized before each use and not be
+     * held across calls that might use it too.
+     *
+     * @param transformation the transformation for {@link Mac#getInstance(String)}.
+     * @return this thread's {@link Mac} instance for {@code transformation}.
+     * @throws NoSuchAlgorithmException if no provider supports {@code transformation}.
+     */
+    public static Mac getMacInstance(String transformation) throws NoSuchAlgorithmException {
         Map<String, Mac> macs = MAC_INSTANCES.get();
         if (macs == null) {
             macs = new HashMap<>();
@@ -141,4 +153,29 @@ public class SignatureUtil {
         return mac;
     }
 
+    /**
+     * Get this thread's cached {@link Signature} instance for {@code transformation}.
+     * <p>
+     * The instance is shared by every caller on this thread, so it must be initialized before each use and not be
+     * held across calls that might use it too.
+     *
+     * @param transformation the transformation for {@link Signature#getInstance(String)}.
+     * @return this thread's {@link Signature} instance for {@code transformation}.
+     * @throws NoSuchAlgorithmException if no provider supports {@code transformation}.
+     */
+    public static Signature getSignatureInstance(String transformation) throws NoSuchAlgorithmException {
+        Map<String, Signature> signatures = SIGNATURE_INSTANCES.get();
+        if (signatures == null) {
+            signatures = new HashMap<>();
+            SIGNATURE_INSTANCES.set(signatures);
+        }
+
+        Signature signature = signatures.get(transformation);
+        if (signature == null) {
+            signature = Signature.getInstance(transformation);
+            signatures.put(transformation, signature);
+        }
+        return signature;
+    }
+
 }
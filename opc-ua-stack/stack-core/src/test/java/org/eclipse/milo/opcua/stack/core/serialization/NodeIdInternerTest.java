@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.util.UUID;
+
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class NodeIdInternerTest {
+
+    private final SerializationContext context = new TestSerializationContext();
+
+    @DataProvider
+    public Object[][] getNodeIds() {
+        return new Object[][]{
+            {new NodeId(0, 85)},
+            {new NodeId(1, 1000)},
+            {new NodeId(2, Integer.MAX_VALUE)},
+            {new NodeId(2, "foo")},
+            {new NodeId(2, "")},
+            {new NodeId(3, "é中")},
+            {new NodeId(2, Strings.repeat("x", NodeIdInterner.MAX_STRING_LENGTH + 1))},
+            {new NodeId(4, UUID.randomUUID())},
+            {new NodeId(5, ByteString.of(new byte[]{1, 2, 3}))}
+        };
+    }
+
+    @Test(dataProvider = "getNodeIds")
+    public void testDecodeInterned(NodeId nodeId) {
+        NodeIdInterner interner = new NodeIdInterner(1024);
+
+        NodeId decoded1 = roundTrip(nodeId, interner);
+        NodeId decoded2 = roundTrip(nodeId, interner);
+
+        assertEquals(decoded1, nodeId);
+        assertEquals(decoded2, nodeId);
+        assertEquals(decoded1.hashCode(), nodeId.hashCode());
+
+        Object identifier = nodeId.getIdentifier();
+        boolean cacheable = identifier instanceof Number ||
+            (identifier instanceof String &&
+                ((String) identifier).length() <= NodeIdInterner.MAX_STRING_LENGTH);
+
+        if (cacheable) {
+            assertSame(decoded2, decoded1);
+        } else {
+            assertNotSame(decoded2, decoded1);
+        }
+    }
+
+    @Test
+    public void testCollisionReplacesEntry() {
+        NodeIdInterner interner = new NodeIdInterner(1);
+
+        NodeId a = interner.intern(new NodeId(2, "a"));
+        NodeId b = interner.intern(new NodeId(2, "b"));
+
+        assertSame(interner.intern(new NodeId(2, "b")), b);
+        assertNotSame(interner.intern(new NodeId(2, "a")), a);
+    }
+
+    @Test
+    public void testNamespaceIndexDistinguishesEntries() {
+        NodeIdInterner interner = new NodeIdInterner(1024);
+
+        NodeId ns1 = interner.intern(new NodeId(1, "foo"));
+        NodeId ns2 = interner.intern(new NodeId(2, "foo"));
+
+        assertEquals(roundTrip(ns1, interner), ns1);
+        assertEquals(roundTrip(ns2, interner), ns2);
+    }
+
+    @Test
+    public void testCapacityRoundsUp() {
+        assertEquals(new NodeIdInterner(1).capacity(), 1);
+        assertEquals(new NodeIdInterner(1000).capacity(), 1024);
+        assertEquals(new NodeIdInterner(1024).capacity(), 1024);
+    }
+
+    private NodeId roundTrip(NodeId nodeId, NodeIdInterner interner) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            new OpcUaBinaryStreamEncoder(context).setBuffer(buffer).writeNodeId(nodeId);
+
+            return new OpcUaBinaryStreamDecoder(context)
+                .setBuffer(buffer)
+                .setNodeIdInterner(interner)
+                .readNodeId();
+        } finally {
+            buffer.release();
+        }
+    }
+
+}
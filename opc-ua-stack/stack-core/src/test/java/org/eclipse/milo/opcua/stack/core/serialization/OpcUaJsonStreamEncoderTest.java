@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.ULong;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.Argument;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.testng.Assert.assertEquals;
+
+public class OpcUaJsonStreamEncoderTest {
+
+    private final SerializationContext context = new TestSerializationContext();
+
+    @DataProvider
+    public Object[][] getVariants() {
+        return new Object[][]{
+            {new Variant(null)},
+            {new Variant(true)},
+            {new Variant((byte) -1)},
+            {new Variant(UByte.valueOf(255))},
+            {new Variant((short) -32768)},
+            {new Variant(Integer.MIN_VALUE)},
+            {new Variant(uint(4294967295L))},
+            {new Variant(Long.MIN_VALUE)},
+            {new Variant(ULong.MAX)},
+            {new Variant(3.14f)},
+            {new Variant(Double.NaN)},
+            {new Variant(Double.NEGATIVE_INFINITY)},
+            {new Variant(1.0e-300)},
+            {new Variant("quote\" backslash\\ newline\n tab\t \u0001 é中")},
+            {new Variant(new DateTime(132_456_789_012_345_678L))},
+            {new Variant(DateTime.MIN_VALUE)},
+            {new Variant(UUID.randomUUID())},
+            {new Variant(ByteString.of(new byte[]{0, 1, 2, (byte) 0xFF}))},
+            {new Variant(XmlElement.of("<a>b</a>"))},
+            {new Variant(new NodeId(0, 85))},
+            {new Variant(new NodeId(2, "string"))},
+            {new Variant(new NodeId(3, UUID.randomUUID()))},
+            {new Variant(new NodeId(4, ByteString.of(new byte[]{1, 2, 3})))},
+            {new Variant(new ExpandedNodeId(ushort(0), "urn:test", "id", uint(2)))},
+            {new Variant(new StatusCode(StatusCodes.Bad_NodeIdUnknown))},
+            {new Variant(StatusCode.GOOD)},
+            {new Variant(new QualifiedName(1, "name"))},
+            {new Variant(LocalizedText.english("text"))},
+            {new Variant(new DataValue(new Variant(42), StatusCode.GOOD, DateTime.now()))},
+            {new Variant(new Integer[]{1, 2, 3})},
+            {new Variant(new String[]{"a", null, "c"})},
+            {new Variant(new StatusCode[]{StatusCode.GOOD, StatusCode.BAD})},
+            {new Variant(new Integer[][]{{1, 2, 3}, {4, 5, 6}})},
+            {new Variant(new Variant[]{new Variant(1), new Variant("two")})},
+        };
+    }
+
+    @Test(dataProvider = "getVariants")
+    public void testVariantRoundTrip(Variant variant) {
+        Variant decoded = roundTrip(
+            encoder -> encoder.writeVariant(null, variant),
+            decoder -> decoder.readVariant(null)
+        );
+
+        assertEquals(decoded, variant);
+    }
+
+    @Test
+    public void testDataValueRoundTrip() {
+        DataValue dataValue = new DataValue(
+            new Variant(new Double[]{1.0, 2.5, -3.0}),
+            new StatusCode(StatusCodes.Uncertain_InitialValue),
+            DateTime.now(),
+            ushort(10),
+            DateTime.now(),
+            ushort(20)
+        );
+
+        DataValue decoded = roundTrip(
+            encoder -> encoder.writeDataValue(null, dataValue),
+            decoder -> decoder.readDataValue(null)
+        );
+
+        assertEquals(decoded, dataValue);
+    }
+
+    @Test
+    public void testStructureRoundTrip() {
+        ReadValueId readValueId = new ReadValueId(
+            new NodeId(2, "foo"),
+            AttributeId.Value.uid(),
+            "1:2",
+            new QualifiedName(0, "Default Binary")
+        );
+
+        Object decoded = roundTrip(
+            encoder -> encoder.writeStruct(null, readValueId, ReadValueId.TYPE_ID),
+            decoder -> decoder.readStruct(null, ReadValueId.TYPE_ID)
+        );
+
+        assertEquals(decoded, readValueId);
+    }
+
+    @Test
+    public void testMessageRoundTrip() {
+        ReadRequest request = new ReadRequest(
+            new RequestHeader(NodeId.NULL_VALUE, DateTime.now(), uint(1), uint(0), null, uint(5000), null),
+            0.0,
+            TimestampsToReturn.Both,
+            new ReadValueId[]{
+                new ReadValueId(Identifiers.Server, AttributeId.BrowseName.uid(), null, QualifiedName.NULL_VALUE),
+                new ReadValueId(Identifiers.ObjectsFolder, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE)
+            }
+        );
+
+        UaMessage decoded = roundTrip(
+            encoder -> encoder.writeMessage(null, request),
+            decoder -> decoder.readMessage(null)
+        );
+
+        assertEquals(decoded, request);
+    }
+
+    @Test
+    public void testStructureInVariantRoundTrip() {
+        Argument argument = new Argument(
+            "name",
+            Identifiers.Int32,
+            -1,
+            null,
+            LocalizedText.english("description")
+        );
+
+        Variant decoded = roundTrip(
+            encoder -> encoder.writeVariant(null, new Variant(argument)),
+            decoder -> decoder.readVariant(null)
+        );
+
+        ExtensionObject xo = (ExtensionObject) decoded.getValue();
+
+        assertEquals(xo, ExtensionObject.encode(context, argument));
+        assertEquals(xo.decode(context), argument);
+    }
+
+    @Test
+    public void testMembersOutOfOrder() {
+        String json = "{\"Locale\":\"en\",\"Text\":\"text\",\"Unknown\":[1,{\"a\":2}]}";
+
+        LocalizedText text = decode(json, decoder -> decoder.readLocalizedText(null));
+        assertEquals(text, LocalizedText.english("text"));
+
+        json = "{\"Unknown\":[1,{\"a\":2}], \"Text\" : \"text\", \"Locale\" : \"en\"}";
+
+        text = decode(json, decoder -> decoder.readLocalizedText(null));
+        assertEquals(text, LocalizedText.english("text"));
+    }
+
+    @Test
+    public void testReversibleEncoding() {
+        assertEquals(
+            encode(true, encoder -> encoder.writeNodeId(null, new NodeId(2, "foo"))),
+            "{\"IdType\":1,\"Id\":\"foo\",\"Namespace\":2}"
+        );
+
+        assertEquals(
+            encode(true, encoder -> encoder.writeVariant(null, new Variant(new Long[]{1L, -2L}))),
+            "{\"Type\":8,\"Body\":[\"1\",\"-2\"]}"
+        );
+
+        assertEquals(
+            encode(true, encoder -> encoder.writeDataValue(null, new DataValue(new Variant(1.5), StatusCode.GOOD, null))),
+            "{\"Value\":{\"Type\":11,\"Body\":1.5}}"
+        );
+    }
+
+    @Test
+    public void testNonReversibleEncoding() {
+        // namespace 1 is the server's own and keeps its index; any other is written as its URI
+        context.getNamespaceTable().addUri("urn:eclipse:milo:server");
+        UShort namespaceIndex = context.getNamespaceTable().addUri("urn:eclipse:milo:test");
+
+        assertEquals(
+            encode(false, encoder -> encoder.writeNodeId(null, new NodeId(1, 42))),
+            "{\"Id\":42,\"Namespace\":1}"
+        );
+
+        assertEquals(
+            encode(false, encoder -> encoder.writeNodeId(null, new NodeId(namespaceIndex, "foo"))),
+            "{\"IdType\":1,\"Id\":\"foo\",\"Namespace\":\"urn:eclipse:milo:test\"}"
+        );
+
+        assertEquals(
+            encode(false, encoder -> encoder.writeVariant(null, new Variant(LocalizedText.english("text")))),
+            "\"text\""
+        );
+
+        assertEquals(
+            encode(false, encoder -> encoder.writeVariant(null, new Variant(new Integer[][]{{1, 2}, {3, 4}}))),
+            "[[1,2],[3,4]]"
+        );
+
+        assertEquals(
+            encode(false, encoder -> encoder.writeStatusCode(null, new StatusCode(StatusCodes.Bad_NodeIdUnknown))),
+            "{\"Code\":2150891520,\"Symbol\":\"Bad_NodeIdUnknown\"}"
+        );
+
+        assertEquals(
+            encode(false, encoder -> encoder.writeEnum(null, TimestampsToReturn.Both)),
+            "\"Both_2\""
+        );
+    }
+
+    private String encode(boolean reversible, Consumer<OpcUaJsonStreamEncoder> write) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            write.accept(new OpcUaJsonStreamEncoder(context, reversible).setBuffer(buffer));
+
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private <T> T decode(String json, Function<OpcUaJsonStreamDecoder, T> read) {
+        ByteBuf buffer = Unpooled.copiedBuffer(json, StandardCharsets.UTF_8);
+        try {
+            return read.apply(new OpcUaJsonStreamDecoder(context).setBuffer(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private <T> T roundTrip(Consumer<OpcUaJsonStreamEncoder> write, Function<OpcUaJsonStreamDecoder, T> read) {
+        return decode(encode(true, write), read);
+    }
+
+}
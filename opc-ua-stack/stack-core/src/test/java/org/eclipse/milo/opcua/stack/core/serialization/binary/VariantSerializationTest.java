@@ -11,8 +11,11 @@
 package org.eclipse.milo.opcua.stack.core.serialization.binary;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import org.eclipse.milo.opcua.stack.core.BuiltinDataType;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
 import org.eclipse.milo.opcua.stack.core.serialization.TestSerializationContext;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -27,6 +30,7 @@ import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
 
 public class VariantSerializationTest extends BinarySerializationFixture {
 
@@ -85,7 +89,25 @@ public class VariantSerializationTest extends BinarySerializationFixture {
                 new Variant(new Long[]{0L, 1L, 2L, 3L})},
 
             {new Variant(new long[][]{{0L, 1L}, {2L, 3L}}),
-                new Variant(new Long[][]{{0L, 1L}, {2L, 3L}})}
+                new Variant(new Long[][]{{0L, 1L}, {2L, 3L}})},
+
+            {new Variant(new double[]{0.0, -1.5, Double.NaN, Double.MAX_VALUE}),
+                new Variant(new Double[]{0.0, -1.5, Double.NaN, Double.MAX_VALUE})},
+
+            {new Variant(new double[][]{{0.0, 1.0}, {2.0, 3.0}}),
+                new Variant(new Double[][]{{0.0, 1.0}, {2.0, 3.0}})},
+
+            {new Variant(new float[]{0.0f, -1.5f, Float.MIN_VALUE}),
+                new Variant(new Float[]{0.0f, -1.5f, Float.MIN_VALUE})},
+
+            {new Variant(new short[]{0, -1, Short.MAX_VALUE}),
+                new Variant(new Short[]{0, -1, Short.MAX_VALUE})},
+
+            {new Variant(new byte[]{0, -1, Byte.MAX_VALUE}),
+                new Variant(new Byte[]{0, -1, Byte.MAX_VALUE})},
+
+            {new Variant(new boolean[]{true, false, true}),
+                new Variant(new Boolean[]{true, false, true})}
         };
     }
 
@@ -98,6 +120,76 @@ public class VariantSerializationTest extends BinarySerializationFixture {
         assertEquals(decoded, expected);
     }
 
+    @Test
+    public void testPrimitiveArrayEncodesLikeBoxedArray() {
+        double[] primitive = new double[10_000];
+        Double[] boxed = new Double[primitive.length];
+        for (int i = 0; i < primitive.length; i++) {
+            primitive[i] = boxed[i] = i / 3.0;
+        }
+
+        writer.writeVariant(new Variant(primitive));
+        byte[] primitiveBytes = ByteBufUtil.getBytes(buffer);
+
+        buffer.clear();
+        writer.writeVariant(new Variant(boxed));
+        byte[] boxedBytes = ByteBufUtil.getBytes(buffer);
+
+        assertEquals(primitiveBytes, boxedBytes);
+        assertEquals(reader.readVariant(), new Variant(boxed));
+    }
+
+    @DataProvider(name = "CompositeBufferProvider")
+    public Object[][] getCompositeBuffers() {
+        CompositeByteBuf twoHeapComponents = Unpooled.compositeBuffer();
+        twoHeapComponents.addComponent(true, Unpooled.buffer(4));
+        twoHeapComponents.addComponent(true, Unpooled.buffer(4));
+
+        CompositeByteBuf heapAndDirectComponents = Unpooled.compositeBuffer();
+        heapAndDirectComponents.addComponent(true, Unpooled.buffer(4));
+        heapAndDirectComponents.addComponent(true, Unpooled.directBuffer(4));
+
+        CompositeByteBuf singleHeapComponent = Unpooled.compositeBuffer();
+        singleHeapComponent.addComponent(true, Unpooled.buffer(64));
+
+        CompositeByteBuf singleDirectComponent = Unpooled.compositeBuffer();
+        singleDirectComponent.addComponent(true, Unpooled.directBuffer(64));
+
+        return new Object[][]{
+            {twoHeapComponents},
+            {heapAndDirectComponents},
+            {singleHeapComponent},
+            {singleDirectComponent}
+        };
+    }
+
+    @Test(dataProvider = "CompositeBufferProvider")
+    public void testPrimitiveArrayCompositeBuffer(CompositeByteBuf composite) {
+        composite.writerIndex(0);
+
+        try {
+            writer.writeVariant(new Variant(new Integer[]{1, 2, 3, 4}));
+            byte[] expected = ByteBufUtil.getBytes(buffer);
+
+            writer.setBuffer(composite).writeVariant(new Variant(new int[]{1, 2, 3, 4}));
+
+            assertEquals(ByteBufUtil.getBytes(composite), expected);
+
+            reader.setBuffer(composite);
+            assertEquals(reader.readVariant(), new Variant(new Integer[]{1, 2, 3, 4}));
+        } finally {
+            composite.release();
+        }
+    }
+
+    @Test
+    public void testTruncatedPrimitiveArray() {
+        writer.writeVariant(new Variant(new double[]{1.0, 2.0, 3.0}));
+        buffer.writerIndex(buffer.writerIndex() - 1);
+
+        expectThrows(UaSerializationException.class, () -> reader.readVariant());
+    }
+
     @Test(description = "Test that a Variant containing a null array encoded with a negative array size to indicate a null value decodes properly.")
     public void testNullArrayEncodedWithNegativeArraySize() {
         ByteBuf buffer = Unpooled.buffer();
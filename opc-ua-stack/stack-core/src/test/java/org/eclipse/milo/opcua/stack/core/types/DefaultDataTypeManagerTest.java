@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.types;
+
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class DefaultDataTypeManagerTest {
+
+    private final NamespaceTable namespaceTable = new NamespaceTable();
+
+    @Test
+    public void testNamespace0CodecsMatchDictionary() throws Exception {
+        DataTypeManager dataTypeManager = DefaultDataTypeManager.createAndInitialize(namespaceTable);
+
+        DataTypeDictionary<?> dictionary = dataTypeManager.getDataTypeDictionary("http://opcfoundation.org/UA/");
+        assertNotNull(dictionary);
+
+        NodeId encodingId = ReadRequest.BINARY_ENCODING_ID.toNodeIdOrThrow(namespaceTable);
+        NodeId dataTypeId = ReadValueId.TYPE_ID.toNodeIdOrThrow(namespaceTable);
+
+        assertSame(dataTypeManager.getCodec(encodingId), dictionary.getCodecByEncodingId(encodingId));
+        assertSame(
+            dataTypeManager.getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId),
+            dictionary.getCodecByDataTypeId(dataTypeId)
+        );
+        assertNotNull(dataTypeManager.getCodec(OpcUaDefaultXmlEncoding.ENCODING_NAME, dataTypeId));
+    }
+
+    @Test
+    public void testRegisterCodecReplacesNamespace0Codec() throws Exception {
+        DataTypeManager dataTypeManager = DefaultDataTypeManager.createAndInitialize(namespaceTable);
+
+        NodeId encodingId = ReadRequest.BINARY_ENCODING_ID.toNodeIdOrThrow(namespaceTable);
+        NodeId dataTypeId = ReadRequest.TYPE_ID.toNodeIdOrThrow(namespaceTable);
+
+        DataTypeCodec codec = new ReadRequest.Codec().asBinaryCodec();
+        dataTypeManager.registerCodec(encodingId, codec);
+        dataTypeManager.registerCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId, codec);
+
+        assertSame(dataTypeManager.getCodec(encodingId), codec);
+        assertSame(dataTypeManager.getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId), codec);
+    }
+
+    @Test
+    public void testCodecsOutsideNamespace0() {
+        DataTypeManager dataTypeManager = new DefaultDataTypeManager();
+
+        NodeId encodingId = new NodeId(2, 631);
+        DataTypeCodec codec = new ReadRequest.Codec().asBinaryCodec();
+        dataTypeManager.registerCodec(encodingId, codec);
+
+        assertSame(dataTypeManager.getCodec(encodingId), codec);
+        assertNull(dataTypeManager.getCodec(new NodeId(0, 631)));
+        assertNull(dataTypeManager.getCodec(new NodeId(0, "631")));
+    }
+
+}
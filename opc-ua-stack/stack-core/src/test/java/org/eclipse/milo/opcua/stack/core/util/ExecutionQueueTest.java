@@ -16,10 +16,13 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.milo.opcua.stack.core.Stack;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.expectThrows;
 
 public class ExecutionQueueTest {
 
@@ -65,4 +68,33 @@ public class ExecutionQueueTest {
         assertEquals(count.get(), 100000);
     }
 
+    @Test
+    public void testSubmitIsLinearOnVirtualThreads() throws InterruptedException {
+        if (!Stack.isVirtualThreadSupported()) {
+            expectThrows(UnsupportedOperationException.class, Stack::sharedVirtualThreadExecutor);
+
+            throw new SkipException("virtual threads not supported");
+        }
+
+        ExecutionQueue queue = new ExecutionQueue(Stack.sharedVirtualThreadExecutor(), 1);
+
+        final CountDownLatch latch = new CountDownLatch(100000);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicInteger n = new AtomicInteger(0);
+
+        for (int i = 0; i < 100000; i++) {
+            final int ii = i;
+
+            queue.submit(() -> {
+                if (ii != n.getAndIncrement()) {
+                    failed.set(true);
+                }
+                latch.countDown();
+            });
+        }
+
+        latch.await();
+        assertFalse(failed.get());
+    }
+
 }
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ActivateSessionRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.AddNodesRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.AddReferencesRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CallRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CancelRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CloseSessionRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CreateMonitoredItemsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CreateSessionRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CreateSubscriptionRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.DeleteMonitoredItemsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.DeleteNodesRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.DeleteReferencesRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.DeleteSubscriptionsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.FindServersOnNetworkRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.FindServersRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.GetEndpointsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryUpdateRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ModifyMonitoredItemsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ModifySubscriptionRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryFirstRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryNextRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.RegisterNodesRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.RegisterServer2Request;
+import org.eclipse.milo.opcua.stack.core.types.structured.RegisterServerRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.RepublishRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.SetMonitoringModeRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.SetPublishingModeRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.SetTriggeringRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.TransferSubscriptionsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.TranslateBrowsePathsToNodeIdsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.UnregisterNodesRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.WriteRequest;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Schedules {@link ServiceRequest}s onto an {@link Executor} so that no single Session can monopolize it.
+ * <p>
+ * Requests from the Session service set, and Publish and Republish requests, are executed immediately. All other
+ * requests are queued per Session, or per secure channel for requests whose authentication token doesn't belong to a
+ * Session on that channel, and dispatched as long as fewer than {@code maxConcurrentRequests} are executing and the
+ * request's service set is below its concurrency cap, if it has one.
+ * <p>
+ * Queues are served by start-time fair queuing, weighted by the number of operations in each request: a Session
+ * reading 1000 nodes per request gets 1/1000th as many turns as one reading a single node per request, so both get
+ * the same share of the server's work while they're competing for it.
+ * <p>
+ * A request is failed with {@link StatusCodes#Bad_ResourceUnavailable} instead of being queued when its Session already
+ * has {@code maxQueuedRequestsPerSession} requests waiting.
+ */
+class ServiceRequestScheduler {
+
+    private static final Map<Class<?>, ServiceSet> SERVICE_SETS = ImmutableMap.<Class<?>, ServiceSet>builder()
+        .put(ReadRequest.class, ServiceSet.Attribute)
+        .put(WriteRequest.class, ServiceSet.Attribute)
+        .put(HistoryReadRequest.class, ServiceSet.AttributeHistory)
+        .put(HistoryUpdateRequest.class, ServiceSet.AttributeHistory)
+        .put(GetEndpointsRequest.class, ServiceSet.Discovery)
+        .put(FindServersRequest.class, ServiceSet.Discovery)
+        .put(FindServersOnNetworkRequest.class, ServiceSet.Discovery)
+        .put(RegisterServerRequest.class, ServiceSet.Discovery)
+        .put(RegisterServer2Request.class, ServiceSet.Discovery)
+        .put(CallRequest.class, ServiceSet.Method)
+        .put(CreateMonitoredItemsRequest.class, ServiceSet.MonitoredItem)
+        .put(ModifyMonitoredItemsRequest.class, ServiceSet.MonitoredItem)
+        .put(DeleteMonitoredItemsRequest.class, ServiceSet.MonitoredItem)
+        .put(SetMonitoringModeRequest.class, ServiceSet.MonitoredItem)
+        .put(SetTriggeringRequest.class, ServiceSet.MonitoredItem)
+        .put(AddNodesRequest.class, ServiceSet.NodeManagement)
+        .put(DeleteNodesRequest.class, ServiceSet.NodeManagement)
+        .put(AddReferencesRequest.class, ServiceSet.NodeManagement)
+        .put(DeleteReferencesRequest.class, ServiceSet.NodeManagement)
+        .put(QueryFirstRequest.class, ServiceSet.Query)
+        .put(QueryNextRequest.class, ServiceSet.Query)
+        .put(CreateSessionRequest.class, ServiceSet.Session)
+        .put(ActivateSessionRequest.class, ServiceSet.Session)
+        .put(CloseSessionRequest.class, ServiceSet.Session)
+        .put(CancelRequest.class, ServiceSet.Session)
+        .put(CreateSubscriptionRequest.class, ServiceSet.Subscription)
+        .put(ModifySubscriptionRequest.class, ServiceSet.Subscription)
+        .put(DeleteSubscriptionsRequest.class, ServiceSet.Subscription)
+        .put(TransferSubscriptionsRequest.class, ServiceSet.Subscription)
+        .put(SetPublishingModeRequest.class, ServiceSet.Subscription)
+        .put(PublishRequest.class, ServiceSet.Subscription)
+        .put(RepublishRequest.class, ServiceSet.Subscription)
+        .put(BrowseRequest.class, ServiceSet.View)
+        .put(BrowseNextRequest.class, ServiceSet.View)
+        .put(TranslateBrowsePathsToNodeIdsRequest.class, ServiceSet.View)
+        .put(RegisterNodesRequest.class, ServiceSet.View)
+        .put(UnregisterNodesRequest.class, ServiceSet.View)
+        .build();
+
+    /**
+     * The operations in each kind of request, which determine its cost; other requests cost 1.
+     */
+    private static final Map<Class<?>, Function<UaRequestMessage, Object[]>> OPERATIONS =
+        ImmutableMap.<Class<?>, Function<UaRequestMessage, Object[]>>builder()
+            .put(ReadRequest.class, r -> ((ReadRequest) r).getNodesToRead())
+            .put(WriteRequest.class, r -> ((WriteRequest) r).getNodesToWrite())
+            .put(HistoryReadRequest.class, r -> ((HistoryReadRequest) r).getNodesToRead())
+            .put(HistoryUpdateRequest.class, r -> ((HistoryUpdateRequest) r).getHistoryUpdateDetails())
+            .put(CallRequest.class, r -> ((CallRequest) r).getMethodsToCall())
+            .put(CreateMonitoredItemsRequest.class, r -> ((CreateMonitoredItemsRequest) r).getItemsToCreate())
+            .put(ModifyMonitoredItemsRequest.class, r -> ((ModifyMonitoredItemsRequest) r).getItemsToModify())
+            .put(DeleteMonitoredItemsRequest.class, r -> ((DeleteMonitoredItemsRequest) r).getMonitoredItemIds())
+            .put(SetMonitoringModeRequest.class, r -> ((SetMonitoringModeRequest) r).getMonitoredItemIds())
+            .put(AddNodesRequest.class, r -> ((AddNodesRequest) r).getNodesToAdd())
+            .put(DeleteNodesRequest.class, r -> ((DeleteNodesRequest) r).getNodesToDelete())
+            .put(AddReferencesRequest.class, r -> ((AddReferencesRequest) r).getReferencesToAdd())
+            .put(DeleteReferencesRequest.class, r -> ((DeleteReferencesRequest) r).getReferencesToDelete())
+            .put(BrowseRequest.class, r -> ((BrowseRequest) r).getNodesToBrowse())
+            .put(BrowseNextRequest.class, r -> ((BrowseNextRequest) r).getContinuationPoints())
+            .put(TranslateBrowsePathsToNodeIdsRequest.class,
+                r -> ((TranslateBrowsePathsToNodeIdsRequest) r).getBrowsePaths())
+            .put(RegisterNodesRequest.class, r -> ((RegisterNodesRequest) r).getNodesToRegister())
+            .put(UnregisterNodesRequest.class, r -> ((UnregisterNodesRequest) r).getNodesToUnregister())
+            .build();
+
+    /**
+     * The {@link SessionQueue}s with requests waiting, or whose last request hasn't been paid for in virtual time yet,
+     * in the order they were created.
+     */
+    private final Map<Object, SessionQueue> queues = new LinkedHashMap<>();
+
+    /**
+     * The start tag of the most recently dispatched task; a newly busy queue starts here rather than being credited
+     * for the time it was idle.
+     */
+    private long virtualTime = 0L;
+
+    /**
+     * Breaks ties between tasks with the same start tag in the order they were submitted.
+     */
+    private long sequence = 0L;
+
+    private final int[] executingByServiceSet = new int[ServiceSet.values().length];
+    private int executing = 0;
+
+    private final Executor executor;
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequestsPerSession;
+    private final int[] maxConcurrentRequestsByServiceSet;
+    private final Predicate<ServiceRequest> sessionTokenValidator;
+
+    /**
+     * @param executor                          the {@link Executor} requests are executed on.
+     * @param maxConcurrentRequests             the maximum number of queued requests executing at once.
+     * @param maxQueuedRequestsPerSession       the maximum number of requests waiting per Session.
+     * @param maxConcurrentRequestsByServiceSet the maximum number of requests executing at once for each
+     *                                          {@link ServiceSet}; service sets not in the map, or mapped to 0 or
+     *                                          less, are only limited by {@code maxConcurrentRequests}.
+     * @param sessionTokenValidator             tests whether a request's authentication token belongs to a Session
+     *                                          on the secure channel it was received on; requests that fail are
+     *                                          queued by secure channel instead, so made-up tokens can't each get
+     *                                          a queue of their own.
+     */
+    ServiceRequestScheduler(
+        Executor executor,
+        int maxConcurrentRequests,
+        int maxQueuedRequestsPerSession,
+        Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet,
+        Predicate<ServiceRequest> sessionTokenValidator
+    ) {
+
+        this.executor = executor;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedRequestsPerSession = maxQueuedRequestsPerSession;
+        this.sessionTokenValidator = sessionTokenValidator;
+
+        this.maxConcurrentRequestsByServiceSet = new int[ServiceSet.values().length];
+        Arrays.fill(this.maxConcurrentRequestsByServiceSet, Integer.MAX_VALUE);
+        maxConcurrentRequestsByServiceSet.forEach((serviceSet, max) -> {
+            if (max > 0) {
+                this.maxConcurrentRequestsByServiceSet[serviceSet.ordinal()] = max;
+            }
+        });
+    }
+
+    /**
+     * Schedule {@code handler} to be run for {@code serviceRequest}.
+     *
+     * @param serviceRequest the {@link ServiceRequest} being handled.
+     * @param handler        handles {@code serviceRequest} when run.
+     */
+    void submit(ServiceRequest serviceRequest, Runnable handler) {
+        UaRequestMessage request = serviceRequest.getRequest();
+
+        @Nullable ServiceSet serviceSet = SERVICE_SETS.get(request.getClass());
+
+        if (serviceSet == ServiceSet.Session ||
+            request instanceof PublishRequest ||
+            request instanceof RepublishRequest) {
+
+            executor.execute(handler);
+            return;
+        }
+
+        Object key = getQueueKey(serviceRequest);
+        int cost = getCost(request);
+
+        boolean rejected = false;
+        List<Task> dispatched;
+
+        synchronized (this) {
+            SessionQueue queue = queues.get(key);
+            int queued = queue != null ? queue.tasks.size() : 0;
+
+            if (queued >= maxQueuedRequestsPerSession) {
+                rejected = true;
+            } else {
+                if (queue == null) {
+                    queue = new SessionQueue();
+                    queues.put(key, queue);
+                }
+
+                long startTag = Math.max(virtualTime, queue.finishTag);
+                queue.finishTag = startTag + cost;
+
+                queue.tasks.add(new Task(serviceRequest, handler, serviceSet, startTag, sequence++));
+            }
+
+            dispatched = dispatch();
+        }
+
+        if (rejected) {
+            serviceRequest.setServiceFault(StatusCodes.Bad_ResourceUnavailable);
+        }
+
+        execute(dispatched);
+    }
+
+    /**
+     * @return the number of requests waiting to be executed.
+     */
+    synchronized int getQueuedRequestCount() {
+        int count = 0;
+        for (SessionQueue queue : queues.values()) {
+            count += queue.tasks.size();
+        }
+        return count;
+    }
+
+    /**
+     * Take the next tasks to run, as long as there are tasks waiting and limits allow.
+     * <p>
+     * Must be called while holding this scheduler's lock.
+     *
+     * @return the tasks to execute, after releasing the lock.
+     */
+    private List<Task> dispatch() {
+        List<Task> dispatched = Collections.emptyList();
+
+        while (executing < maxConcurrentRequests) {
+            SessionQueue selected = null;
+
+            // the Session whose next task has the smallest start tag
+            // and isn't held back by its service set cap goes next
+            Iterator<SessionQueue> iterator = queues.values().iterator();
+
+            while (iterator.hasNext()) {
+                SessionQueue queue = iterator.next();
+                Task next = queue.tasks.peek();
+
+                if (next == null) {
+                    // an idle queue is kept until virtual time catches up with
+                    // it so its next request can't skip the cost of its last
+                    if (queue.finishTag <= virtualTime) {
+                        iterator.remove();
+                    }
+                    continue;
+                }
+
+                if (next.serviceSet != null &&
+                    executingByServiceSet[next.serviceSet.ordinal()] >=
+                        maxConcurrentRequestsByServiceSet[next.serviceSet.ordinal()]) {
+
+                    continue;
+                }
+
+                if (selected == null || next.isBefore(selected.tasks.peek())) {
+                    selected = queue;
+                }
+            }
+
+            if (selected == null) break;
+
+            Task task = selected.tasks.poll();
+            virtualTime = Math.max(virtualTime, task.startTag);
+
+            executing++;
+            if (task.serviceSet != null) {
+                executingByServiceSet[task.serviceSet.ordinal()]++;
+            }
+
+            if (dispatched.isEmpty()) {
+                dispatched = new ArrayList<>();
+            }
+            dispatched.add(task);
+        }
+
+        return dispatched;
+    }
+
+    private void execute(List<Task> tasks) {
+        for (Task task : tasks) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.handler.run();
+                    } finally {
+                        onTaskDone(task);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                task.serviceRequest.setServiceFault(StatusCodes.Bad_ResourceUnavailable);
+
+                onTaskDone(task);
+            }
+        }
+    }
+
+    private void onTaskDone(Task task) {
+        List<Task> dispatched;
+
+        synchronized (this) {
+            executing--;
+            if (task.serviceSet != null) {
+                executingByServiceSet[task.serviceSet.ordinal()]--;
+            }
+
+            dispatched = dispatch();
+        }
+
+        execute(dispatched);
+    }
+
+    /**
+     * Requests are queued by the authentication token of their Session, or by secure channel if they don't have one
+     * or it doesn't belong to a Session on that channel.
+     */
+    private Object getQueueKey(ServiceRequest serviceRequest) {
+        NodeId authToken = serviceRequest.getRequest().getRequestHeader().getAuthenticationToken();
+
+        if (authToken != null && authToken.isNotNull() && sessionTokenValidator.test(serviceRequest)) {
+            return authToken;
+        } else {
+            return serviceRequest.getSecureChannelId();
+        }
+    }
+
+    /**
+     * @return the number of operations in {@code request}, or 1 if it isn't made up of operations or has none.
+     */
+    static int getCost(UaRequestMessage request) {
+        Function<UaRequestMessage, Object[]> operations = OPERATIONS.get(request.getClass());
+
+        if (operations != null) {
+            Object[] array = operations.apply(request);
+
+            if (array != null && array.length > 1) {
+                return array.length;
+            }
+        }
+
+        return 1;
+    }
+
+    private static final class SessionQueue {
+
+        final ArrayDeque<Task> tasks = new ArrayDeque<>();
+
+        /**
+         * The finish tag of the last task added, where the next task added starts unless the queue fell behind.
+         */
+        long finishTag = 0L;
+
+    }
+
+    private static final class Task {
+
+        final ServiceRequest serviceRequest;
+        final Runnable handler;
+        final ServiceSet serviceSet;
+        final long startTag;
+        final long sequence;
+
+        Task(
+            ServiceRequest serviceRequest,
+            Runnable handler,
+            @Nullable ServiceSet serviceSet,
+            long startTag,
+            long sequence
+        ) {
+
+            this.serviceRequest = serviceRequest;
+            this.handler = handler;
+            this.serviceSet = serviceSet;
+            this.startTag = startTag;
+            this.sequence = sequence;
+        }
+
+        boolean isBefore(Task other) {
+            return startTag < other.startTag || (startTag == other.startTag && sequence < other.sequence);
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.server;
+
+/**
+ * The OPC UA service sets, used to cap the number of requests executing at once per service set.
+ *
+ * @see UaStackServerConfig#getMaxConcurrentRequestsByServiceSet()
+ */
+public enum ServiceSet {
+    Attribute,
+    AttributeHistory,
+    Discovery,
+    Method,
+    MonitoredItem,
+    NodeManagement,
+    Query,
+    Session,
+    Subscription,
+    View
+}
@@ -34,12 +34,14 @@ import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.channel.EncodingLimits;
 import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.serialization.NodeIdInterner;
 import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
 import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
 import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
 import org.eclipse.milo.opcua.stack.core.types.DefaultDataTypeManager;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.ApplicationType;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
 import org.eclipse.milo.opcua.stack.core.types.structured.ActivateSessionRequest;
@@ -113,6 +115,14 @@ import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.a;
 
 public class UaStackServer {
 
+    /**
+     * The number of NodeIds cached by the {@link NodeIdInterner} shared by every channel of this server, so NodeIds
+     * requests keep referring to, e.g. the same tags read over and over, are decoded without allocation. 0, the
+     * default, disables interning.
+     */
+    private static final int NODE_ID_CACHE_SIZE =
+        Integer.getInteger("milo.stack.server.nodeIdCacheSize", 0);
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final ServiceHandlerTable serviceHandlerTable = new ServiceHandlerTable();
@@ -134,8 +144,12 @@ public class UaStackServer {
 
     private final Set<EndpointConfiguration> boundEndpoints = Sets.newConcurrentHashSet();
 
+    private final Set<SessionServiceSet> sessionServiceSets = Sets.newConcurrentHashSet();
+
     private final ServerChannelManager channelManager;
     private final SerializationContext serializationContext;
+    private final NodeIdInterner nodeIdInterner;
+    private final ServiceRequestScheduler scheduler;
 
     private final UaStackServerConfig config;
 
@@ -161,6 +175,20 @@ public class UaStackServer {
             }
         };
 
+        nodeIdInterner = NODE_ID_CACHE_SIZE > 0 ? new NodeIdInterner(NODE_ID_CACHE_SIZE) : null;
+
+        if (config.getMaxConcurrentRequests() > 0) {
+            scheduler = new ServiceRequestScheduler(
+                config.getExecutor(),
+                config.getMaxConcurrentRequests(),
+                config.getMaxQueuedRequestsPerSession(),
+                config.getMaxConcurrentRequestsByServiceSet(),
+                this::isSessionToken
+            );
+        } else {
+            scheduler = null;
+        }
+
         config.getEndpoints().forEach(endpoint -> {
             String path = EndpointUtil.getPath(endpoint.getEndpointUrl());
 
@@ -251,6 +279,14 @@ public class UaStackServer {
         return serializationContext;
     }
 
+    /**
+     * @return the {@link NodeIdInterner} NodeIds decoded from requests are interned with, or {@code null} if interning
+     * is disabled.
+     */
+    public @Nullable NodeIdInterner getNodeIdInterner() {
+        return nodeIdInterner;
+    }
+
     public void registerConnectedChannel(Channel channel) {
         channels.add(channel);
     }
@@ -273,7 +309,27 @@ public class UaStackServer {
     }
 
     public void onServiceRequest(String path, ServiceRequest serviceRequest) {
-        config.getExecutor().execute(() -> handleServiceRequest(path, serviceRequest));
+        if (scheduler != null) {
+            scheduler.submit(serviceRequest, () -> handleServiceRequest(path, serviceRequest));
+        } else {
+            config.getExecutor().execute(() -> handleServiceRequest(path, serviceRequest));
+        }
+    }
+
+    /**
+     * @return {@code true} if a {@link SessionServiceSet} recognizes the authentication token of
+     * {@code serviceRequest} as belonging to a Session on the secure channel it was received on.
+     */
+    private boolean isSessionToken(ServiceRequest serviceRequest) {
+        NodeId authToken = serviceRequest.getRequest().getRequestHeader().getAuthenticationToken();
+
+        for (SessionServiceSet serviceSet : sessionServiceSets) {
+            if (serviceSet.isSessionToken(authToken, serviceRequest.getSecureChannelId())) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     private void handleServiceRequest(String path, ServiceRequest serviceRequest) {
@@ -503,6 +559,8 @@ public class UaStackServer {
     }
 
     public void addServiceSet(String path, SessionServiceSet serviceSet) {
+        sessionServiceSets.add(serviceSet);
+
         addServiceHandler(path, CreateSessionRequest.TYPE_ID, serviceSet::onCreateSession);
         addServiceHandler(path, ActivateSessionRequest.TYPE_ID, serviceSet::onActivateSession);
         addServiceHandler(path, CloseSessionRequest.TYPE_ID, serviceSet::onCloseSession);
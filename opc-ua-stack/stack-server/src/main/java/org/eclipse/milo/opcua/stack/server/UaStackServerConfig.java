@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.stack.server;
 
 import java.security.KeyPair;
 import java.security.cert.X509Certificate;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -116,6 +117,37 @@ public interface UaStackServerConfig {
      */
     ExecutorService getExecutor();
 
+    /**
+     * Get the maximum number of requests, other than Session service set and Publish requests, executing at once.
+     * <p>
+     * Further requests wait in per-Session queues and are dispatched fairly across Sessions. 0 disables this and
+     * executes every request as soon as it's received.
+     *
+     * @return the maximum number of requests executing at once, or 0 if not limited.
+     */
+    int getMaxConcurrentRequests();
+
+    /**
+     * Get the maximum number of requests waiting per Session when {@link #getMaxConcurrentRequests()} is set.
+     * <p>
+     * Requests beyond this fail with Bad_ResourceUnavailable.
+     *
+     * @return the maximum number of requests waiting per Session.
+     */
+    int getMaxQueuedRequestsPerSession();
+
+    /**
+     * Get the maximum number of requests executing at once for each {@link ServiceSet}, when
+     * {@link #getMaxConcurrentRequests()} is set.
+     * <p>
+     * Service sets without an entry, or with an entry of 0 or less, are only limited by
+     * {@link #getMaxConcurrentRequests()}. Session service set,
+     * Publish, and Republish requests are never queued, so caps on them have no effect.
+     *
+     * @return the maximum number of requests executing at once for each {@link ServiceSet}.
+     */
+    Map<ServiceSet, Integer> getMaxConcurrentRequestsByServiceSet();
+
     /**
      * @return a new {@link UaStackServerConfigBuilder}.
      */
@@ -148,6 +180,9 @@ public interface UaStackServerConfig {
         builder.setHttpsKeyPair(config.getHttpsKeyPair().orElse(null));
         builder.setHttpsCertificateChain(config.getHttpsCertificateChain().orElse(null));
         builder.setExecutor(config.getExecutor());
+        builder.setMaxConcurrentRequests(config.getMaxConcurrentRequests());
+        builder.setMaxQueuedRequestsPerSession(config.getMaxQueuedRequestsPerSession());
+        builder.setMaxConcurrentRequestsByServiceSet(config.getMaxConcurrentRequestsByServiceSet());
 
         return builder;
     }
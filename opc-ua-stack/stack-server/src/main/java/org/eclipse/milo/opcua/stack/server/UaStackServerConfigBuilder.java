@@ -12,11 +12,14 @@ package org.eclipse.milo.opcua.stack.server;
 
 import java.security.KeyPair;
 import java.security.cert.X509Certificate;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
+import com.google.common.collect.Maps;
 import org.eclipse.milo.opcua.stack.core.Stack;
 import org.eclipse.milo.opcua.stack.core.channel.EncodingLimits;
 import org.eclipse.milo.opcua.stack.core.security.CertificateManager;
@@ -52,6 +55,15 @@ public class UaStackServerConfigBuilder {
     private X509Certificate[] httpsCertificate;
 
     private ExecutorService executor;
+    private boolean useVirtualThreads = false;
+
+    private int maxConcurrentRequests =
+        Integer.getInteger("milo.stack.server.maxConcurrentRequests", 0);
+
+    private int maxQueuedRequestsPerSession =
+        Integer.getInteger("milo.stack.server.maxQueuedRequestsPerSession", 1000);
+
+    private Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet = maxConcurrentRequestsByServiceSetProperties();
 
     public UaStackServerConfigBuilder setEndpoints(Set<EndpointConfiguration> endpointConfigurations) {
         this.endpoints = endpointConfigurations;
@@ -124,9 +136,57 @@ public class UaStackServerConfigBuilder {
         return this;
     }
 
+    /**
+     * Run the work done on the executor on virtual threads, if no executor is set with
+     * {@link #setExecutor(ExecutorService)}.
+     * <p>
+     * If this JVM doesn't support virtual threads, e.g. Java 8 through 20, a warning is logged and the shared thread
+     * pool is used instead.
+     *
+     * @param useVirtualThreads {@code true} to default to {@link Stack#sharedVirtualThreadExecutorIfSupported()}.
+     * @return this builder.
+     */
+    public UaStackServerConfigBuilder setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
+    /**
+     * Defaults to the {@code milo.stack.server.maxConcurrentRequests} system property, or 0 if it isn't set.
+     *
+     * @see UaStackServerConfig#getMaxConcurrentRequests()
+     */
+    public UaStackServerConfigBuilder setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    /**
+     * Defaults to the {@code milo.stack.server.maxQueuedRequestsPerSession} system property, or 1000 if it isn't set.
+     *
+     * @see UaStackServerConfig#getMaxQueuedRequestsPerSession()
+     */
+    public UaStackServerConfigBuilder setMaxQueuedRequestsPerSession(int maxQueuedRequestsPerSession) {
+        this.maxQueuedRequestsPerSession = maxQueuedRequestsPerSession;
+        return this;
+    }
+
+    /**
+     * Defaults to the {@code milo.stack.server.maxConcurrentRequests.<ServiceSet>} system properties, e.g.
+     * {@code -Dmilo.stack.server.maxConcurrentRequests.AttributeHistory=2}.
+     *
+     * @see UaStackServerConfig#getMaxConcurrentRequestsByServiceSet()
+     */
+    public UaStackServerConfigBuilder setMaxConcurrentRequestsByServiceSet(
+        Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet) {
+
+        this.maxConcurrentRequestsByServiceSet = maxConcurrentRequestsByServiceSet;
+        return this;
+    }
+
     public UaStackServerConfig build() {
         if (executor == null) {
-            executor = Stack.sharedExecutor();
+            executor = useVirtualThreads ? Stack.sharedVirtualThreadExecutorIfSupported() : Stack.sharedExecutor();
         }
 
         return new UaStackServerConfigImpl(
@@ -142,10 +202,27 @@ public class UaStackServerConfigBuilder {
             certificateValidator,
             httpsKeyPair,
             httpsCertificate,
-            executor
+            executor,
+            maxConcurrentRequests,
+            maxQueuedRequestsPerSession,
+            Maps.immutableEnumMap(maxConcurrentRequestsByServiceSet)
         );
     }
 
+    private static Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSetProperties() {
+        Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet = new EnumMap<>(ServiceSet.class);
+
+        for (ServiceSet serviceSet : ServiceSet.values()) {
+            Integer max = Integer.getInteger("milo.stack.server.maxConcurrentRequests." + serviceSet.name());
+
+            if (max != null && max > 0) {
+                maxConcurrentRequestsByServiceSet.put(serviceSet, max);
+            }
+        }
+
+        return maxConcurrentRequestsByServiceSet;
+    }
+
 
     private static class UaStackServerConfigImpl implements UaStackServerConfig {
 
@@ -169,6 +246,10 @@ public class UaStackServerConfigBuilder {
 
         private final ExecutorService executor;
 
+        private final int maxConcurrentRequests;
+        private final int maxQueuedRequestsPerSession;
+        private final Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet;
+
         UaStackServerConfigImpl(
             Set<EndpointConfiguration> endpointConfigurations,
             LocalizedText applicationName,
@@ -182,7 +263,10 @@ public class UaStackServerConfigBuilder {
             ServerCertificateValidator certificateValidator,
             @Nullable KeyPair httpsKeyPair,
             @Nullable X509Certificate[] httpsCertificate,
-            ExecutorService executor
+            ExecutorService executor,
+            int maxConcurrentRequests,
+            int maxQueuedRequestsPerSession,
+            Map<ServiceSet, Integer> maxConcurrentRequestsByServiceSet
         ) {
 
             this.endpointConfigurations = endpointConfigurations;
@@ -198,6 +282,9 @@ public class UaStackServerConfigBuilder {
             this.httpsKeyPair = httpsKeyPair;
             this.httpsCertificate = httpsCertificate;
             this.executor = executor;
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            this.maxQueuedRequestsPerSession = maxQueuedRequestsPerSession;
+            this.maxConcurrentRequestsByServiceSet = maxConcurrentRequestsByServiceSet;
         }
 
         @Override
@@ -265,6 +352,21 @@ public class UaStackServerConfigBuilder {
             return executor;
         }
 
+        @Override
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        @Override
+        public int getMaxQueuedRequestsPerSession() {
+            return maxQueuedRequestsPerSession;
+        }
+
+        @Override
+        public Map<ServiceSet, Integer> getMaxConcurrentRequestsByServiceSet() {
+            return maxConcurrentRequestsByServiceSet;
+        }
+
     }
 
 }
@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.stack.server.services;
 
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 
 public interface SessionServiceSet {
 
@@ -33,4 +34,18 @@ public interface SessionServiceSet {
         serviceRequest.setServiceFault(StatusCodes.Bad_ServiceUnsupported);
     }
 
+    /**
+     * Check whether {@code authenticationToken} belongs to a Session created on the secure channel identified by
+     * {@code secureChannelId}.
+     * <p>
+     * Called for every request when the server limits concurrent requests, so must be cheap and must not block.
+     *
+     * @param authenticationToken the authentication token from a request header.
+     * @param secureChannelId     the id of the secure channel the request was received on.
+     * @return {@code true} if {@code authenticationToken} belongs to a Session on that secure channel.
+     */
+    default boolean isSessionToken(NodeId authenticationToken, long secureChannelId) {
+        return false;
+    }
+
 }
@@ -138,6 +138,7 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
 
         OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(stackServer.getSerializationContext());
         decoder.setBuffer(httpRequest.content());
+        decoder.setNodeIdInterner(stackServer.getNodeIdInterner());
 
         try {
             UaRequestMessage request = (UaRequestMessage) decoder.readMessage(null);
@@ -183,7 +183,8 @@ public class UascServerHelloHandler extends ByteToMessageDecoder implements Head
         SerializationQueue serializationQueue = new SerializationQueue(
             stackServer.getConfig().getExecutor(),
             parameters,
-            stackServer.getSerializationContext()
+            stackServer.getSerializationContext(),
+            stackServer.getNodeIdInterner()
         );
 
         ctx.pipeline().addLast(new UascServerAsymmetricHandler(stackServer, transportProfile, serializationQueue));
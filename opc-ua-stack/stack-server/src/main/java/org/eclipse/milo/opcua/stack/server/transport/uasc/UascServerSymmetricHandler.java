@@ -11,14 +11,12 @@
 package org.eclipse.milo.opcua.stack.server.transport.uasc;
 
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
-import io.netty.util.ReferenceCountUtil;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.UaSerializationException;
@@ -53,7 +51,10 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private List<ByteBuf> chunkBuffers;
+    /**
+     * The number of chunks received so far of the message currently being received.
+     */
+    private int chunkCount = 0;
 
     private final int maxChunkCount;
     private final int maxChunkSize;
@@ -73,8 +74,15 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
 
         maxChunkCount = serializationQueue.getParameters().getLocalMaxChunkCount();
         maxChunkSize = serializationQueue.getParameters().getLocalReceiveBufferSize();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        // release the body of a message whose final chunk never arrived,
+        // and the chunks still queued, even if decoding was paused
+        serializationQueue.close();
 
-        chunkBuffers = new ArrayList<>(maxChunkCount);
+        super.channelInactive(ctx);
     }
 
     @Override
@@ -101,126 +109,130 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
 
         char chunkType = (char) buffer.readByte();
 
-        if (chunkType == 'A') {
-            chunkBuffers.forEach(ByteBuf::release);
-            chunkBuffers.clear();
-        } else {
-            buffer.skipBytes(4); // Skip messageSize
+        buffer.skipBytes(4); // Skip messageSize
 
-            long secureChannelId = buffer.readUnsignedIntLE();
-            if (secureChannelId != secureChannel.getChannelId()) {
-                throw new UaException(StatusCodes.Bad_SecureChannelIdInvalid,
-                    "invalid secure channel id: " + secureChannelId);
-            }
+        long secureChannelId = buffer.readUnsignedIntLE();
+        if (secureChannelId != secureChannel.getChannelId()) {
+            throw new UaException(StatusCodes.Bad_SecureChannelIdInvalid,
+                "invalid secure channel id: " + secureChannelId);
+        }
 
-            int chunkSize = buffer.readerIndex(0).readableBytes();
-            if (chunkSize > maxChunkSize) {
-                throw new UaException(StatusCodes.Bad_TcpMessageTooLarge,
-                    String.format("max chunk size exceeded (%s)", maxChunkSize));
-            }
+        int chunkSize = buffer.readerIndex(0).readableBytes();
+        if (chunkSize > maxChunkSize) {
+            throw new UaException(StatusCodes.Bad_TcpMessageTooLarge,
+                String.format("max chunk size exceeded (%s)", maxChunkSize));
+        }
+
+        if (maxChunkCount > 0 && ++chunkCount > maxChunkCount) {
+            throw new UaException(StatusCodes.Bad_TcpMessageTooLarge,
+                String.format("max chunk count exceeded (%s)", maxChunkCount));
+        }
+
+        if (chunkType == 'F' || chunkType == 'A') {
+            chunkCount = 0;
+        }
+
+        // Each chunk is verified and decrypted as soon as it arrives; only the
+        // decoded body is kept until the final chunk completes the message.
+        final ByteBuf chunkBuffer = buffer.retain();
+
+        SerializationQueue.Decoder chunkDecodeTask = (binaryDecoder, chunkDecoder) -> {
+            ByteBuf message;
+            long requestId;
+
+            try {
+                ChunkDecoder.DecodedMessage decodedMessage =
+                    chunkDecoder.decodeSymmetricChunk(secureChannel, chunkBuffer);
+
+                if (decodedMessage == null) {
+                    return;
+                }
 
-            chunkBuffers.add(buffer.retain());
+                message = decodedMessage.getMessage();
+                requestId = decodedMessage.getRequestId();
+            } catch (MessageAbortException e) {
+                logger.warn(
+                    "Received message abort chunk; error={}, reason={}",
+                    e.getStatusCode(), e.getMessage()
+                );
+                return;
+            } catch (MessageDecodeException e) {
+                logger.error("Error decoding symmetric message", e);
 
-            if (maxChunkCount > 0 && chunkBuffers.size() > maxChunkCount) {
-                throw new UaException(StatusCodes.Bad_TcpMessageTooLarge,
-                    String.format("max chunk count exceeded (%s)", maxChunkCount));
+                ctx.close();
+                return;
             }
 
-            if (chunkType == 'F') {
-                final List<ByteBuf> buffersToDecode = chunkBuffers;
-                chunkBuffers = new ArrayList<>();
-
-                boolean queuedForDecode = serializationQueue.decode((binaryDecoder, chunkDecoder) -> {
-                    ByteBuf message;
-                    long requestId;
-
-                    try {
-                        ChunkDecoder.DecodedMessage decodedMessage =
-                            chunkDecoder.decodeSymmetric(secureChannel, buffersToDecode);
-
-                        message = decodedMessage.getMessage();
-                        requestId = decodedMessage.getRequestId();
-                    } catch (MessageAbortException e) {
-                        logger.warn(
-                            "Received message abort chunk; error={}, reason={}",
-                            e.getStatusCode(), e.getMessage()
-                        );
-                        return;
-                    } catch (MessageDecodeException e) {
-                        logger.error("Error decoding symmetric message", e);
-
-                        ctx.close();
-                        return;
-                    }
+            try {
+                UaRequestMessage request = (UaRequestMessage) binaryDecoder
+                    .setBuffer(message)
+                    .readMessage(null);
+
+                String endpointUrl = ctx.channel()
+                    .attr(UascServerHelloHandler.ENDPOINT_URL_KEY)
+                    .get();
+
+                EndpointDescription endpoint = ctx.channel()
+                    .attr(UascServerAsymmetricHandler.ENDPOINT_KEY)
+                    .get();
+
+                String path = EndpointUtil.getPath(endpointUrl);
+
+                InetSocketAddress remoteSocketAddress =
+                    (InetSocketAddress) ctx.channel().remoteAddress();
+
+                ServiceRequest serviceRequest = new ServiceRequest(
+                    stackServer,
+                    request,
+                    endpoint,
+                    secureChannel.getChannelId(),
+                    remoteSocketAddress.getAddress(),
+                    secureChannel.getRemoteCertificateChainBytes()
+                );
+
+                serviceRequest.getFuture().whenComplete((response, fault) -> {
+                    if (response != null) {
+                        sendServiceResponse(ctx, requestId, request, response);
+                    } else {
+                        UInteger requestHandle = request.getRequestHeader().getRequestHandle();
 
-                    try {
-                        UaRequestMessage request = (UaRequestMessage) binaryDecoder
-                            .setBuffer(message)
-                            .readMessage(null);
-
-                        String endpointUrl = ctx.channel()
-                            .attr(UascServerHelloHandler.ENDPOINT_URL_KEY)
-                            .get();
-
-                        EndpointDescription endpoint = ctx.channel()
-                            .attr(UascServerAsymmetricHandler.ENDPOINT_KEY)
-                            .get();
-
-                        String path = EndpointUtil.getPath(endpointUrl);
-
-                        InetSocketAddress remoteSocketAddress =
-                            (InetSocketAddress) ctx.channel().remoteAddress();
-
-                        ServiceRequest serviceRequest = new ServiceRequest(
-                            stackServer,
-                            request,
-                            endpoint,
-                            secureChannel.getChannelId(),
-                            remoteSocketAddress.getAddress(),
-                            secureChannel.getRemoteCertificateChainBytes()
-                        );
-
-                        serviceRequest.getFuture().whenComplete((response, fault) -> {
-                            if (response != null) {
-                                sendServiceResponse(ctx, requestId, request, response);
-                            } else {
-                                UInteger requestHandle = request.getRequestHeader().getRequestHandle();
-
-                                sendServiceFault(ctx, requestId, requestHandle, fault);
-                            }
-                        });
-
-                        stackServer.onServiceRequest(path, serviceRequest);
-                    } catch (UaSerializationException e) {
-                        logger.error("Error decoding UaRequestMessage", e);
-
-                        sendServiceFault(ctx, requestId, uint(0), e);
-                    } catch (Throwable t) {
-                        logger.error("Unexpected error servicing UaRequestMessage", t);
-
-                        long statusCode = UaException.extractStatusCode(t)
-                            .map(StatusCode::getValue)
-                            .orElse(StatusCodes.Bad_UnexpectedError);
-
-                        sendServiceFault(ctx, requestId, uint(0), new UaException(statusCode, t));
-                    } finally {
-                        message.release();
-                        buffersToDecode.clear();
+                        sendServiceFault(ctx, requestId, requestHandle, fault);
                     }
                 });
 
-                if (!queuedForDecode) {
-                    try {
-                        serializationQueue.pause();
-                        ctx.channel().config().setAutoRead(false);
-                        ExceptionHandler.sendErrorMessage(ctx, new UaException(StatusCodes.Bad_TcpServerTooBusy));
-                    } catch (Exception e) {
-                        throw new UaException(e);
-                    } finally {
-                        buffersToDecode.forEach(ReferenceCountUtil::safeRelease);
-                        buffersToDecode.clear();
-                    }
-                }
+                stackServer.onServiceRequest(path, serviceRequest);
+            } catch (UaSerializationException e) {
+                logger.error("Error decoding UaRequestMessage", e);
+
+                sendServiceFault(ctx, requestId, uint(0), e);
+            } catch (Throwable t) {
+                logger.error("Unexpected error servicing UaRequestMessage", t);
+
+                long statusCode = UaException.extractStatusCode(t)
+                    .map(StatusCode::getValue)
+                    .orElse(StatusCodes.Bad_UnexpectedError);
+
+                sendServiceFault(ctx, requestId, uint(0), new UaException(statusCode, t));
+            } finally {
+                message.release();
+            }
+        };
+
+        // Intermediate chunks count towards their own, larger limit, so the
+        // chunks of a few large messages don't use up the limit on messages.
+        boolean queuedForDecode = chunkType == 'C' ?
+            serializationQueue.decodeChunk(chunkDecodeTask) :
+            serializationQueue.decode(chunkDecodeTask);
+
+        if (!queuedForDecode) {
+            try {
+                serializationQueue.pause();
+                ctx.channel().config().setAutoRead(false);
+                ExceptionHandler.sendErrorMessage(ctx, new UaException(StatusCodes.Bad_TcpServerTooBusy));
+            } catch (Exception e) {
+                throw new UaException(e);
+            } finally {
+                chunkBuffer.release();
             }
         }
     }
@@ -13,22 +13,29 @@ package org.eclipse.milo.opcua.stack;
 import java.security.Security;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCountUtil;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.eclipse.milo.opcua.stack.client.transport.uasc.ClientSecureChannel;
 import org.eclipse.milo.opcua.stack.core.channel.ChannelParameters;
+import org.eclipse.milo.opcua.stack.core.channel.ChannelSecurity;
 import org.eclipse.milo.opcua.stack.core.channel.ChunkDecoder;
 import org.eclipse.milo.opcua.stack.core.channel.ChunkEncoder;
 import org.eclipse.milo.opcua.stack.core.channel.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.channel.MessageDecodeException;
 import org.eclipse.milo.opcua.stack.core.channel.MessageEncodeException;
 import org.eclipse.milo.opcua.stack.core.channel.SecureChannel;
 import org.eclipse.milo.opcua.stack.core.channel.ServerSecureChannel;
 import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
 import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.types.structured.ChannelSecurityToken;
 import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
 import org.eclipse.milo.opcua.stack.core.util.LongSequence;
 import org.slf4j.Logger;
@@ -38,7 +45,13 @@ import org.testng.annotations.Test;
 
 import static org.eclipse.milo.opcua.stack.core.channel.EncodingLimits.DEFAULT_MAX_CHUNK_SIZE;
 import static org.eclipse.milo.opcua.stack.core.channel.EncodingLimits.DEFAULT_MAX_MESSAGE_SIZE;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.NonceUtil.generateNonce;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
 import static org.testng.Assert.fail;
 
 public class ChunkSerializationTest extends SecureChannelFixture {
@@ -423,4 +436,251 @@ public class ChunkSerializationTest extends SecureChannelFixture {
         }
     }
 
+    @Test(dataProvider = "getSymmetricSecurityParameters")
+    public void testSymmetricMessageAcrossRenewal(SecurityPolicy securityPolicy,
+                                                  MessageSecurityMode messageSecurity) throws Exception {
+
+        logger.info(
+            "Symmetric chunk serialization across renewal, " +
+                "securityPolicy={}, messageSecurityMode={}",
+            securityPolicy, messageSecurity);
+
+        ChunkEncoder encoder = new ChunkEncoder(defaultParameters);
+        ChunkDecoder decoder = new ChunkDecoder(defaultParameters, EncodingLimits.DEFAULT);
+
+        int messageSize = defaultParameters.getRemoteReceiveBufferSize() * 2;
+
+        SecureChannel[] channels = generateChannels(securityPolicy, messageSecurity);
+        ClientSecureChannel clientChannel = (ClientSecureChannel) channels[0];
+        ServerSecureChannel serverChannel = (ServerSecureChannel) channels[1];
+
+        clientChannel
+            .attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE)
+            .setIfAbsent(new LongSequence(1L, UInteger.MAX_VALUE));
+
+        // token 1
+        assertSymmetricRoundTrip(encoder, decoder, clientChannel, serverChannel, messageSize);
+
+        ByteString clientNonce = generateNonce(securityPolicy);
+        ByteString serverNonce = generateNonce(securityPolicy);
+
+        clientChannel.setLocalNonce(clientNonce);
+        clientChannel.setRemoteNonce(serverNonce);
+        serverChannel.setLocalNonce(serverNonce);
+        serverChannel.setRemoteNonce(clientNonce);
+
+        // The server renews first; the client keeps sending with the previous token until it
+        // receives the OpenSecureChannel response.
+        serverChannel.setChannelSecurity(renew(
+            serverChannel.getChannelSecurity(),
+            messageSecurity == MessageSecurityMode.None ? null : ChannelSecurity.generateKeyPair(
+                serverChannel,
+                serverChannel.getRemoteNonce(),
+                serverChannel.getLocalNonce()
+            )
+        ));
+
+        assertSymmetricRoundTrip(encoder, decoder, clientChannel, serverChannel, messageSize);
+
+        clientChannel.setChannelSecurity(renew(
+            clientChannel.getChannelSecurity(),
+            messageSecurity == MessageSecurityMode.None ? null : ChannelSecurity.generateKeyPair(
+                clientChannel,
+                clientChannel.getLocalNonce(),
+                clientChannel.getRemoteNonce()
+            )
+        ));
+
+        // token 2
+        assertSymmetricRoundTrip(encoder, decoder, clientChannel, serverChannel, messageSize);
+    }
+
+    @Test(dataProvider = "getSymmetricSecurityParameters")
+    public void testSymmetricMessageParallel(SecurityPolicy securityPolicy,
+                                             MessageSecurityMode messageSecurity) throws Exception {
+
+        logger.info(
+            "Parallel symmetric chunk serialization, " +
+                "securityPolicy={}, messageSecurityMode={}",
+            securityPolicy, messageSecurity);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            ChunkEncoder encoder = new ChunkEncoder(defaultParameters, executor, 2);
+            ChunkDecoder decoder = new ChunkDecoder(defaultParameters, EncodingLimits.DEFAULT);
+
+            SecureChannel[] channels = generateChannels(securityPolicy, messageSecurity);
+            ClientSecureChannel clientChannel = (ClientSecureChannel) channels[0];
+            ServerSecureChannel serverChannel = (ServerSecureChannel) channels[1];
+
+            clientChannel
+                .attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE)
+                .setIfAbsent(new LongSequence(1L, UInteger.MAX_VALUE));
+
+            int[] messageSizes = new int[]{
+                128,
+                defaultParameters.getRemoteReceiveBufferSize() * 3,
+                defaultParameters.getRemoteMaxMessageSize()
+            };
+
+            for (int messageSize : messageSizes) {
+                // twice, so the second message reuses the crypto released by the first
+                assertSymmetricRoundTrip(encoder, decoder, clientChannel, serverChannel, messageSize);
+                assertSymmetricRoundTrip(encoder, decoder, clientChannel, serverChannel, messageSize);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(dataProvider = "getSymmetricSecurityParameters")
+    public void testSymmetricMessageChunkByChunk(SecurityPolicy securityPolicy,
+                                                 MessageSecurityMode messageSecurity) throws Exception {
+
+        logger.info(
+            "Symmetric chunk serialization, chunk by chunk, " +
+                "securityPolicy={}, messageSecurityMode={}",
+            securityPolicy, messageSecurity);
+
+        ChunkEncoder encoder = new ChunkEncoder(defaultParameters);
+        ChunkDecoder decoder = new ChunkDecoder(defaultParameters, EncodingLimits.DEFAULT);
+
+        SecureChannel[] channels = generateChannels(securityPolicy, messageSecurity);
+        ClientSecureChannel clientChannel = (ClientSecureChannel) channels[0];
+        ServerSecureChannel serverChannel = (ServerSecureChannel) channels[1];
+
+        clientChannel
+            .attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE)
+            .setIfAbsent(new LongSequence(1L, UInteger.MAX_VALUE));
+
+        LongSequence requestId = clientChannel.attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE).get();
+
+        for (int messageSize : new int[]{128, defaultParameters.getRemoteReceiveBufferSize() * 3}) {
+            byte[] messageBytes = new byte[messageSize];
+            for (int i = 0; i < messageBytes.length; i++) {
+                messageBytes[i] = (byte) i;
+            }
+
+            ByteBuf messageBuffer = BufferUtil.pooledBuffer().writeBytes(messageBytes);
+
+            List<ByteBuf> chunkBuffers = encoder.encodeSymmetric(
+                clientChannel,
+                requestId.getAndIncrement(),
+                messageBuffer,
+                MessageType.SecureMessage
+            ).getMessageChunks();
+
+            ChunkDecoder.DecodedMessage decodedMessage = null;
+
+            for (int i = 0; i < chunkBuffers.size(); i++) {
+                ByteBuf chunkBuffer = chunkBuffers.get(i);
+
+                decodedMessage = decoder.decodeSymmetricChunk(serverChannel, chunkBuffer);
+
+                assertEquals(chunkBuffer.refCnt(), 0);
+                assertEquals(decodedMessage == null, i < chunkBuffers.size() - 1);
+            }
+
+            assertNotNull(decodedMessage);
+
+            ByteBuf message = decodedMessage.getMessage();
+
+            messageBuffer.readerIndex(0);
+            assertEquals(message, messageBuffer);
+
+            ReferenceCountUtil.release(messageBuffer);
+            ReferenceCountUtil.release(message);
+        }
+    }
+
+    @Test
+    public void testSymmetricMessageChunkByChunkDiscardsAfterFailure() throws Exception {
+        ChunkEncoder encoder = new ChunkEncoder(defaultParameters);
+        ChunkDecoder decoder = new ChunkDecoder(defaultParameters, EncodingLimits.DEFAULT);
+
+        SecureChannel[] channels = generateChannels(SecurityPolicy.Basic256Sha256, MessageSecurityMode.Sign);
+        ClientSecureChannel clientChannel = (ClientSecureChannel) channels[0];
+        ServerSecureChannel serverChannel = (ServerSecureChannel) channels[1];
+
+        ByteBuf messageBuffer = BufferUtil.pooledBuffer()
+            .writeBytes(new byte[defaultParameters.getRemoteReceiveBufferSize() * 3]);
+
+        List<ByteBuf> chunkBuffers = encoder.encodeSymmetric(
+            clientChannel,
+            1L,
+            messageBuffer,
+            MessageType.SecureMessage
+        ).getMessageChunks();
+
+        messageBuffer.release();
+
+        assertTrue(chunkBuffers.size() > 2);
+
+        // corrupt the body of the second chunk so its signature does not verify
+        ByteBuf corruptChunk = chunkBuffers.get(1);
+        corruptChunk.setByte(corruptChunk.writerIndex() / 2, ~corruptChunk.getByte(corruptChunk.writerIndex() / 2));
+
+        assertNull(decoder.decodeSymmetricChunk(serverChannel, chunkBuffers.get(0)));
+
+        expectThrows(
+            MessageDecodeException.class,
+            () -> decoder.decodeSymmetricChunk(serverChannel, corruptChunk)
+        );
+
+        for (int i = 2; i < chunkBuffers.size(); i++) {
+            assertNull(decoder.decodeSymmetricChunk(serverChannel, chunkBuffers.get(i)));
+        }
+
+        for (ByteBuf chunkBuffer : chunkBuffers) {
+            assertEquals(chunkBuffer.refCnt(), 0);
+        }
+    }
+
+    private static ChannelSecurity renew(ChannelSecurity channelSecurity, ChannelSecurity.SecurityKeys keys) {
+        ChannelSecurityToken previousToken = channelSecurity.getCurrentToken();
+
+        ChannelSecurityToken token = new ChannelSecurityToken(
+            previousToken.getChannelId(),
+            uint(previousToken.getTokenId().longValue() + 1),
+            DateTime.now(),
+            previousToken.getRevisedLifetime()
+        );
+
+        return new ChannelSecurity(keys, token, channelSecurity.getCurrentKeys(), previousToken);
+    }
+
+    private void assertSymmetricRoundTrip(
+        ChunkEncoder encoder,
+        ChunkDecoder decoder,
+        ClientSecureChannel clientChannel,
+        ServerSecureChannel serverChannel,
+        int messageSize
+    ) throws Exception {
+
+        LongSequence requestId = clientChannel.attr(ClientSecureChannel.KEY_REQUEST_ID_SEQUENCE).get();
+
+        byte[] messageBytes = new byte[messageSize];
+        for (int i = 0; i < messageBytes.length; i++) {
+            messageBytes[i] = (byte) i;
+        }
+
+        ByteBuf messageBuffer = BufferUtil.pooledBuffer().writeBytes(messageBytes);
+
+        List<ByteBuf> chunkBuffers = encoder.encodeSymmetric(
+            clientChannel,
+            requestId.getAndIncrement(),
+            messageBuffer,
+            MessageType.SecureMessage
+        ).getMessageChunks();
+
+        ByteBuf message = decoder.decodeSymmetric(serverChannel, chunkBuffers).getMessage();
+
+        messageBuffer.readerIndex(0);
+        assertEquals(message, messageBuffer);
+
+        ReferenceCountUtil.release(messageBuffer);
+        ReferenceCountUtil.release(message);
+    }
+
 }
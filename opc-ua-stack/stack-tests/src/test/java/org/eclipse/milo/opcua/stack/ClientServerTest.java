@@ -103,6 +103,7 @@ public class ClientServerTest extends SecurityFixture {
             {new Variant(DateTime.now())},
             {new Variant(UUID.randomUUID())},
             {new Variant(ByteString.of(new byte[]{1, 2, 3, 4}))},
+            {new Variant(ByteString.of(new byte[256 * 1024]))},
             {new Variant(new XmlElement("<tag>hello</tag>"))},
             {new Variant(new NodeId(0, 42))},
             {new Variant(new ExpandedNodeId(ushort(1), "uri", uint(42), uint(1)))},
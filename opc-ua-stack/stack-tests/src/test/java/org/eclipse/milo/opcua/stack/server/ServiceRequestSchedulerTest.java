@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.server;
+
+import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ServiceRequestSchedulerTest {
+
+    private final UaStackServer server = new UaStackServer(UaStackServerConfig.builder().build());
+
+    private final NodeId sessionA = new NodeId(1, "A");
+    private final NodeId sessionB = new NodeId(1, "B");
+
+    @Test
+    public void testTurnsAlternateAcrossSessions() {
+        ManualExecutor executor = new ManualExecutor();
+        ServiceRequestScheduler scheduler = scheduler(executor, 1, 10);
+
+        List<String> handled = new ArrayList<>();
+
+        for (int i = 1; i <= 3; i++) {
+            String name = "A" + i;
+            scheduler.submit(read(sessionA), () -> handled.add(name));
+        }
+        for (int i = 1; i <= 3; i++) {
+            String name = "B" + i;
+            scheduler.submit(read(sessionB), () -> handled.add(name));
+        }
+
+        assertEquals(executor.tasks.size(), 1);
+        assertEquals(scheduler.getQueuedRequestCount(), 5);
+
+        executor.runAll();
+
+        assertEquals(handled, Arrays.asList("A1", "B1", "A2", "B2", "A3", "B3"));
+        assertEquals(scheduler.getQueuedRequestCount(), 0);
+    }
+
+    @Test
+    public void testTurnsAreWeightedByOperations() {
+        ManualExecutor executor = new ManualExecutor();
+        ServiceRequestScheduler scheduler = scheduler(executor, 1, 10);
+
+        List<String> handled = new ArrayList<>();
+
+        for (int i = 1; i <= 2; i++) {
+            String name = "A" + i;
+            scheduler.submit(read(sessionA, 4), () -> handled.add(name));
+        }
+        for (int i = 1; i <= 8; i++) {
+            String name = "B" + i;
+            scheduler.submit(read(sessionB, 1), () -> handled.add(name));
+        }
+
+        executor.runAll();
+
+        // each of A's reads costs as much as 4 of B's
+        assertEquals(
+            handled,
+            Arrays.asList("A1", "B1", "B2", "B3", "B4", "A2", "B5", "B6", "B7", "B8")
+        );
+    }
+
+    @Test
+    public void testIdleSessionStillPaysForLastRequest() {
+        ManualExecutor executor = new ManualExecutor();
+        ServiceRequestScheduler scheduler = scheduler(executor, 1, 10);
+
+        List<String> handled = new ArrayList<>();
+
+        scheduler.submit(read(sessionA, 4), () -> handled.add("A1"));
+        for (int i = 1; i <= 4; i++) {
+            String name = "B" + i;
+            scheduler.submit(read(sessionB, 1), () -> handled.add(name));
+        }
+
+        // A1 is dispatched, leaving A's queue empty, before A sends its next request
+        scheduler.submit(read(sessionA, 1), () -> handled.add("A2"));
+
+        executor.runAll();
+
+        assertEquals(handled, Arrays.asList("A1", "B1", "B2", "B3", "B4", "A2"));
+    }
+
+    @Test
+    public void testUnknownTokensShareSecureChannelQueue() {
+        ManualExecutor executor = new ManualExecutor();
+        ServiceRequestScheduler scheduler = new ServiceRequestScheduler(
+            executor,
+            1,
+            2,
+            Collections.emptyMap(),
+            r -> sessionA.equals(r.getRequest().getRequestHeader().getAuthenticationToken())
+        );
+
+        scheduler.submit(read(sessionA), () -> {});
+
+        // every made-up token lands in the same secure channel queue, which fills up
+        scheduler.submit(read(new NodeId(1, "X1")), () -> {});
+        scheduler.submit(read(new NodeId(1, "X2")), () -> {});
+
+        ServiceRequest rejected = read(new NodeId(1, "X3"));
+        scheduler.submit(rejected, () -> {});
+
+        ExecutionException e = expectThrows(ExecutionException.class, () -> rejected.getFuture().get());
+        assertEquals(((UaException) e.getCause()).getStatusCode().getValue(), StatusCodes.Bad_ResourceUnavailable);
+
+        // the known Session still has its own queue
+        ServiceRequest accepted = read(sessionA);
+        scheduler.submit(accepted, () -> {});
+        assertEquals(scheduler.getQueuedRequestCount(), 3);
+        assertFalse(accepted.getFuture().isDone());
+    }
+
+    @Test
+    public void testCost() {
+        assertEquals(ServiceRequestScheduler.getCost(read(sessionA).getRequest()), 1);
+        assertEquals(ServiceRequestScheduler.getCost(read(sessionA, 0).getRequest()), 1);
+        assertEquals(ServiceRequestScheduler.getCost(read(sessionA, 7).getRequest()), 7);
+        assertEquals(ServiceRequestScheduler.getCost(historyRead(sessionA).getRequest()), 1);
+    }
+
+    @Test
+    public void testPublishIsNotQueued() {
+        ManualExecutor executor = new ManualExecutor();
+        ServiceRequestScheduler scheduler = scheduler(executor, 1, 10);
+
+        scheduler.submit(read(sessionA), () -> {});
+        scheduler.submit(read(sessionA), () -> {});
+        scheduler.submit(request(new PublishRequest(header(sessionB), null)), () -> {});
+
+        assertEquals(executor.tasks.size(), 2);
+        assertEquals(scheduler.getQueuedRequestCount(), 1);
+    }
+
+    @Test
+    public void testQueueFullIsRejected() {
+        ManualExecutor executor = new ManualExecutor();
+        ServiceRequestScheduler scheduler = scheduler(executor, 1, 2);
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(read(sessionA), () -> {});
+        }
+
+        ServiceRequest rejected = read(sessionA);
+        scheduler.submit(rejected, () -> {});
+
+        ExecutionException e = expectThrows(ExecutionException.class, () -> rejected.getFuture().get());
+        assertTrue(e.getCause() instanceof UaException);
+        assertEquals(((UaException) e.getCause()).getStatusCode().getValue(), StatusCodes.Bad_ResourceUnavailable);
+
+        // another Session still gets queued
+        ServiceRequest accepted = read(sessionB);
+        scheduler.submit(accepted, () -> {});
+        assertEquals(scheduler.getQueuedRequestCount(), 3);
+        assertFalse(accepted.getFuture().isDone());
+    }
+
+    @Test
+    public void testServiceSetCap() {
+        ManualExecutor executor = new ManualExecutor();
+
+        Map<ServiceSet, Integer> caps = ImmutableMap.of(ServiceSet.AttributeHistory, 1);
+
+        ServiceRequestScheduler scheduler = new ServiceRequestScheduler(executor, 4, 10, caps, r -> true);
+
+        List<String> handled = new ArrayList<>();
+
+        scheduler.submit(historyRead(sessionA), () -> handled.add("HistoryRead1"));
+        scheduler.submit(historyRead(sessionA), () -> handled.add("HistoryRead2"));
+        scheduler.submit(read(sessionB), () -> handled.add("Read"));
+
+        // the second HistoryRead waits for the first even though there's room for 4
+        assertEquals(executor.tasks.size(), 2);
+        assertEquals(scheduler.getQueuedRequestCount(), 1);
+
+        executor.runAll();
+
+        assertEquals(handled, Arrays.asList("HistoryRead1", "Read", "HistoryRead2"));
+    }
+
+    /**
+     * A scheduler that treats every authentication token as belonging to a Session.
+     */
+    private static ServiceRequestScheduler scheduler(Executor executor, int maxConcurrent, int maxQueued) {
+        return new ServiceRequestScheduler(executor, maxConcurrent, maxQueued, Collections.emptyMap(), r -> true);
+    }
+
+    private ServiceRequest read(NodeId authToken) {
+        return request(new ReadRequest(header(authToken), 0.0, TimestampsToReturn.Neither, null));
+    }
+
+    private ServiceRequest read(NodeId authToken, int operations) {
+        ReadValueId[] nodesToRead = new ReadValueId[operations];
+        Arrays.fill(nodesToRead, new ReadValueId(NodeId.NULL_VALUE, uint(13), null, QualifiedName.NULL_VALUE));
+
+        return request(new ReadRequest(header(authToken), 0.0, TimestampsToReturn.Neither, nodesToRead));
+    }
+
+    private ServiceRequest historyRead(NodeId authToken) {
+        return request(new HistoryReadRequest(
+            header(authToken),
+            null,
+            TimestampsToReturn.Neither,
+            false,
+            null
+        ));
+    }
+
+    private ServiceRequest request(UaRequestMessage request) {
+        return new ServiceRequest(
+            server,
+            request,
+            new EndpointDescription(null, null, null, null, null, null, null, null),
+            0L,
+            InetAddress.getLoopbackAddress(),
+            null
+        );
+    }
+
+    private static RequestHeader header(NodeId authToken) {
+        return new RequestHeader(authToken, DateTime.now(), uint(0), uint(0), null, uint(0), null);
+    }
+
+    private static class ManualExecutor implements Executor {
+
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.server.transport.uasc;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.eclipse.milo.opcua.stack.SecureChannelFixture;
+import org.eclipse.milo.opcua.stack.TestSerializationContext;
+import org.eclipse.milo.opcua.stack.core.channel.ChannelParameters;
+import org.eclipse.milo.opcua.stack.core.channel.ChunkEncoder;
+import org.eclipse.milo.opcua.stack.core.channel.SecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.SerializationQueue;
+import org.eclipse.milo.opcua.stack.core.channel.ServerSecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class UascServerSymmetricHandlerTest extends SecureChannelFixture {
+
+    private final ChannelParameters parameters = new ChannelParameters(
+        32 * 8196,
+        8196,
+        8196,
+        64,
+        32 * 8196,
+        8196,
+        8196,
+        64
+    );
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void createExecutor() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterMethod
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPartialMessageReleasedWhenClosedWhileTooBusy() throws Exception {
+        SecureChannel[] channels = generateChannels(SecurityPolicy.None, MessageSecurityMode.None);
+
+        ByteBuf messageBuffer = BufferUtil.pooledBuffer().writeBytes(new byte[parameters.getLocalReceiveBufferSize() * 4]);
+
+        List<ByteBuf> chunkBuffers = new ChunkEncoder(parameters).encodeSymmetric(
+            channels[0],
+            1L,
+            messageBuffer,
+            MessageType.SecureMessage
+        ).getMessageChunks();
+
+        messageBuffer.release();
+
+        assertTrue(chunkBuffers.size() > 4);
+
+        // room for two queued intermediate chunks
+        SerializationQueue serializationQueue = new SerializationQueue(
+            executor,
+            parameters,
+            new TestSerializationContext(),
+            null,
+            16,
+            2
+        );
+
+        EmbeddedChannel channel = new EmbeddedChannel(
+            new UascServerSymmetricHandler(null, serializationQueue, (ServerSecureChannel) channels[1])
+        );
+
+        // the first chunk is decoded, leaving the body of a partial message
+        channel.writeInbound(chunkBuffers.get(0));
+        assertTrue(runOnDecodingQueue(serializationQueue));
+
+        // hold up decoding so the next chunks stay queued
+        CountDownLatch blocked = new CountDownLatch(1);
+        serializationQueue.decode((binaryDecoder, chunkDecoder) -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        channel.writeInbound(chunkBuffers.get(1));
+        channel.writeInbound(chunkBuffers.get(2));
+
+        // no room for this one; decoding is paused and Bad_TcpServerTooBusy sent
+        channel.writeInbound(chunkBuffers.get(3));
+        assertFalse(channel.config().isAutoRead());
+
+        ByteBuf errorMessage = channel.readOutbound();
+        assertEquals(MessageType.fromMediumInt(errorMessage.getMediumLE(0)), MessageType.Error);
+        errorMessage.release();
+
+        channel.close();
+        blocked.countDown();
+
+        assertFalse(runOnDecodingQueue(serializationQueue));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(chunkBuffers.get(i).refCnt(), 0, "chunk " + i);
+        }
+
+        chunkBuffers.subList(4, chunkBuffers.size()).forEach(ByteBuf::release);
+    }
+
+    /**
+     * Wait for everything queued for decoding so far to run.
+     *
+     * @return whether a partial message was being held afterwards.
+     */
+    private static boolean runOnDecodingQueue(SerializationQueue serializationQueue) throws Exception {
+        AtomicBoolean messageInProgress = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+
+        serializationQueue.decode((binaryDecoder, chunkDecoder) -> {
+            messageInProgress.set(chunkDecoder.isMessageInProgress());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        return messageInProgress.get();
+    }
+
+}